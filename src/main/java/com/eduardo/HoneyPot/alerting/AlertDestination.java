@@ -0,0 +1,21 @@
+package com.eduardo.HoneyPot.alerting;
+
+import com.eduardo.HoneyPot.model.Notification;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destino externo de alertas. {@link #send} recebe um lote e deve lançar exceção se a entrega falhar,
+ * para que o dispatcher faça nova tentativa; é chamado sempre pela mesma thread do destino.
+ */
+public interface AlertDestination extends AutoCloseable {
+
+    String getName();
+
+    void send(List<Notification> batch) throws IOException;
+
+    @Override
+    default void close() {
+    }
+}
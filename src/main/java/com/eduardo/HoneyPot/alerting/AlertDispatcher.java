@@ -0,0 +1,220 @@
+package com.eduardo.HoneyPot.alerting;
+
+import com.eduardo.HoneyPot.model.Notification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encaminha notificações para destinos externos. Cada destino tem fila limitada e thread própria:
+ * {@link #dispatch} apenas enfileira (nunca bloqueia quem gerou o alerta) e a thread agrupa até
+ * {@code batchSize} itens ou {@code linger}, tentando novamente com backoff exponencial. Com a fila
+ * cheia aplica-se a política de descarte, então um destino lento ou fora do ar perde alertas em vez
+ * de acumular memória ou atrasar a honeypot.
+ * <p>
+ * Métricas por destino: {@code honeypot.alerts.delivery} (latência entre o enfileiramento e a entrega),
+ * {@code honeypot.alerts.sent}, {@code honeypot.alerts.retries}, {@code honeypot.alerts.dropped}
+ * (tag {@code reason}: queue-full ou retries-exhausted) e {@code honeypot.alerts.queue.size}.
+ */
+@Slf4j
+public class AlertDispatcher implements AutoCloseable {
+
+    public enum DropPolicy {
+        DROP_OLDEST, DROP_NEWEST
+    }
+
+    public record Settings(int queueCapacity, int batchSize, Duration linger, int maxAttempts,
+                           Duration initialBackoff, Duration maxBackoff, DropPolicy dropPolicy) {
+    }
+
+    private final Settings settings;
+    private final List<Worker> workers = new ArrayList<>();
+
+    public AlertDispatcher(List<AlertDestination> destinations, Settings settings, MeterRegistry meterRegistry) {
+        if (settings.queueCapacity() <= 0 || settings.batchSize() <= 0 || settings.maxAttempts() <= 0) {
+            throw new IllegalArgumentException("Capacidade, tamanho de lote e tentativas devem ser positivos");
+        }
+        this.settings = settings;
+        for (AlertDestination destination : destinations) {
+            workers.add(new Worker(destination, meterRegistry));
+        }
+    }
+
+    public void start() {
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    /**
+     * Enfileira a notificação em todos os destinos sem bloquear
+     */
+    public void dispatch(Notification notification) {
+        for (Worker worker : workers) {
+            worker.offer(notification);
+        }
+    }
+
+    public int getDestinationCount() {
+        return workers.size();
+    }
+
+    public int getQueueSize(String destination) {
+        return workers.stream()
+            .filter(worker -> worker.destination.getName().equals(destination))
+            .mapToInt(worker -> worker.queue.size())
+            .sum();
+    }
+
+    /**
+     * Para as threads; o que ainda estiver na fila recebe uma única tentativa de entrega
+     */
+    @Override
+    public void close() {
+        for (Worker worker : workers) {
+            worker.running = false;
+            worker.thread.interrupt();
+        }
+        for (Worker worker : workers) {
+            try {
+                worker.thread.join(settings.linger().toMillis() + 5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker.destination.close();
+        }
+    }
+
+    private record Pending(Notification notification, long enqueuedAt) {
+    }
+
+    private final class Worker implements Runnable {
+
+        private final AlertDestination destination;
+        private final BlockingQueue<Pending> queue;
+        private final Thread thread;
+        private final Timer delivery;
+        private final Counter sent;
+        private final Counter retries;
+        private final Counter droppedQueueFull;
+        private final Counter droppedRetriesExhausted;
+        private volatile boolean running = true;
+
+        Worker(AlertDestination destination, MeterRegistry meterRegistry) {
+            this.destination = destination;
+            this.queue = new ArrayBlockingQueue<>(settings.queueCapacity());
+            this.thread = new Thread(this, "alert-dispatcher-" + destination.getName());
+            this.thread.setDaemon(true);
+
+            String name = destination.getName();
+            this.delivery = Timer.builder("honeypot.alerts.delivery")
+                .description("Latência entre a criação do alerta e a entrega no destino")
+                .tag("destination", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+            this.sent = Counter.builder("honeypot.alerts.sent").tag("destination", name).register(meterRegistry);
+            this.retries = Counter.builder("honeypot.alerts.retries").tag("destination", name).register(meterRegistry);
+            this.droppedQueueFull = Counter.builder("honeypot.alerts.dropped")
+                .tag("destination", name).tag("reason", "queue-full").register(meterRegistry);
+            this.droppedRetriesExhausted = Counter.builder("honeypot.alerts.dropped")
+                .tag("destination", name).tag("reason", "retries-exhausted").register(meterRegistry);
+            Gauge.builder("honeypot.alerts.queue.size", queue, BlockingQueue::size)
+                .tag("destination", name)
+                .register(meterRegistry);
+        }
+
+        void offer(Notification notification) {
+            Pending pending = new Pending(notification, System.nanoTime());
+            while (!queue.offer(pending)) {
+                if (settings.dropPolicy() == DropPolicy.DROP_NEWEST) {
+                    droppedQueueFull.increment();
+                    return;
+                }
+                if (queue.poll() != null) {
+                    droppedQueueFull.increment();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            List<Pending> batch = new ArrayList<>(settings.batchSize());
+            while (running) {
+                try {
+                    Pending first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    long deadline = System.nanoTime() + settings.linger().toNanos();
+                    while (batch.size() < settings.batchSize()) {
+                        long remaining = deadline - System.nanoTime();
+                        Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                    deliver(batch, settings.maxAttempts());
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        break;
+                    }
+                }
+                batch.clear();
+            }
+
+            // Encerramento: o que sobrou (inclusive um lote interrompido) tem uma única tentativa
+            queue.drainTo(batch);
+            for (int start = 0; start < batch.size(); start += settings.batchSize()) {
+                deliver(batch.subList(start, Math.min(batch.size(), start + settings.batchSize())), 1);
+            }
+        }
+
+        private void deliver(List<Pending> batch, int maxAttempts) {
+            List<Notification> notifications = batch.stream().map(Pending::notification).toList();
+            long backoff = settings.initialBackoff().toMillis();
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    destination.send(notifications);
+                    long now = System.nanoTime();
+                    for (Pending pending : batch) {
+                        delivery.record(now - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+                    }
+                    sent.increment(batch.size());
+                    return;
+                } catch (Exception e) {
+                    if (attempt >= maxAttempts || !running) {
+                        droppedRetriesExhausted.increment(batch.size());
+                        log.warn("Destino de alertas {} falhou após {} tentativa(s); {} alerta(s) descartado(s): {}",
+                            destination.getName(), attempt, batch.size(), e.getMessage());
+                        return;
+                    }
+                    retries.increment();
+                    log.debug("Falha ao enviar {} alerta(s) para {} (tentativa {}): {}",
+                        batch.size(), destination.getName(), attempt, e.getMessage());
+                }
+                try {
+                    // Backoff exponencial com jitter para não sincronizar novas tentativas
+                    Thread.sleep(backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1));
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        droppedRetriesExhausted.increment(batch.size());
+                        return;
+                    }
+                }
+                backoff = Math.min(backoff * 2, settings.maxBackoff().toMillis());
+            }
+        }
+    }
+}
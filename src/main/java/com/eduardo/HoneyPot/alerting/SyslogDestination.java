@@ -0,0 +1,152 @@
+package com.eduardo.HoneyPot.alerting;
+
+import com.eduardo.HoneyPot.model.Notification;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Syslog no formato RFC 5424 (facility local0). Em UDP cada alerta é um datagrama; em TCP a conexão
+ * é mantida entre lotes e as mensagens usam octet counting (RFC 6587), sendo reaberta após uma falha.
+ */
+public class SyslogDestination implements AlertDestination {
+
+    public enum Transport {
+        UDP, TCP
+    }
+
+    private static final int FACILITY_LOCAL0 = 16;
+    private static final String APP_NAME = "honeypot";
+    private static final int CONNECT_TIMEOUT_MS = 5000;
+
+    private final String name;
+    private final InetSocketAddress address;
+    private final Transport transport;
+    private final String hostname;
+
+    private DatagramSocket datagramSocket;
+    private Socket socket;
+
+    public SyslogDestination(String name, InetSocketAddress address, Transport transport) {
+        this.name = name;
+        this.address = address;
+        this.transport = transport;
+        this.hostname = localHostname();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void send(List<Notification> batch) throws IOException {
+        try {
+            if (transport == Transport.UDP) {
+                if (datagramSocket == null) {
+                    datagramSocket = new DatagramSocket();
+                }
+                for (Notification notification : batch) {
+                    byte[] message = format(notification).getBytes(StandardCharsets.UTF_8);
+                    datagramSocket.send(new DatagramPacket(message, message.length, address));
+                }
+            } else {
+                if (socket == null) {
+                    socket = new Socket();
+                    socket.connect(address, CONNECT_TIMEOUT_MS);
+                }
+                OutputStream out = socket.getOutputStream();
+                for (Notification notification : batch) {
+                    byte[] message = format(notification).getBytes(StandardCharsets.UTF_8);
+                    out.write((message.length + " ").getBytes(StandardCharsets.US_ASCII));
+                    out.write(message);
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Mensagem RFC 5424: {@code <PRI>1 TIMESTAMP HOST APP - MSGID [SD] MSG}
+     */
+    public String format(Notification notification) {
+        LocalDateTime timestamp = notification.getTimestamp() != null ? notification.getTimestamp() : LocalDateTime.now();
+        return "<" + (FACILITY_LOCAL0 * 8 + severity(notification.getType())) + ">1 "
+            + timestamp.truncatedTo(ChronoUnit.MILLIS).atZone(ZoneId.systemDefault()).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME) + " "
+            + hostname + " " + APP_NAME + " - "
+            + (notification.getCategory() != null ? notification.getCategory() : "-") + " "
+            + "[honeypot@32473"
+            + param("type", notification.getType())
+            + param("priority", String.valueOf(notification.getPriority()))
+            + param("sourceIp", notification.getSourceIp())
+            + param("protocol", notification.getProtocol())
+            + param("username", notification.getUsername())
+            + "] "
+            + notification.getTitle() + ": " + notification.getMessage();
+    }
+
+    @Override
+    public void close() {
+        if (datagramSocket != null) {
+            datagramSocket.close();
+            datagramSocket = null;
+        }
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // conexão já perdida
+            }
+            socket = null;
+        }
+    }
+
+    // Severidade syslog a partir do tipo da notificação
+    private static int severity(String type) {
+        if (type == null) {
+            return 6;
+        }
+        switch (type.toUpperCase()) {
+            case "ALERT":
+                return 1;
+            case "ERROR":
+                return 3;
+            case "WARNING":
+                return 4;
+            case "SUCCESS":
+                return 5;
+            default:
+                return 6;
+        }
+    }
+
+    private static String param(String key, String value) {
+        if (value == null) {
+            return "";
+        }
+        String escaped = value.replace("\\", "\\\\").replace("\"", "\\\"").replace("]", "\\]");
+        return " " + key + "=\"" + escaped + "\"";
+    }
+
+    private static String localHostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "-";
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.eduardo.HoneyPot.alerting;
+
+import com.eduardo.HoneyPot.model.Notification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Webhook HTTP: cada lote vira um POST JSON {@code {"source": "honeypot", "count": n, "alerts": [...]}}.
+ * Respostas fora da faixa 2xx contam como falha.
+ */
+public class WebhookDestination implements AlertDestination {
+
+    private final String name;
+    private final URI url;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+
+    public WebhookDestination(String name, URI url, Duration timeout, ObjectMapper objectMapper) {
+        this.name = name;
+        this.url = url;
+        this.timeout = timeout;
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void send(List<Notification> batch) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(Map.of(
+            "source", "honeypot",
+            "count", batch.size(),
+            "alerts", batch
+        ));
+        HttpRequest request = HttpRequest.newBuilder(url)
+            .timeout(timeout)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+            .build();
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 != 2) {
+                throw new IOException("Webhook " + url + " respondeu HTTP " + response.statusCode());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Envio ao webhook interrompido", e);
+        }
+    }
+}
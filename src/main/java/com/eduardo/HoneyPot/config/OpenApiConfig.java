@@ -66,6 +66,9 @@ public class OpenApiConfig {
                 new Tag()
                     .name("Estatísticas")
                     .description("Endpoints para métricas e análises de segurança"),
+                new Tag()
+                    .name("Campanhas")
+                    .description("Endpoints para campanhas de ataque agrupadas pelos comandos executados"),
                 new Tag()
                     .name("Monitoramento")
                     .description("Endpoints para health checks e monitoramento do sistema")
@@ -1,6 +1,14 @@
 package com.eduardo.HoneyPot.controller;
 
+import com.eduardo.HoneyPot.enrichment.IpInfo;
 import com.eduardo.HoneyPot.model.AttackLog;
+import com.eduardo.HoneyPot.model.RollupResolution;
+import com.eduardo.HoneyPot.service.CampaignService;
+import com.eduardo.HoneyPot.service.CardinalityService;
+import com.eduardo.HoneyPot.service.DictionaryService;
+import com.eduardo.HoneyPot.service.HeavyHitterService;
+import com.eduardo.HoneyPot.service.IpEnrichmentService;
+import com.eduardo.HoneyPot.service.LivePushService;
 import com.eduardo.HoneyPot.service.StatisticsService;
 import com.eduardo.HoneyPot.service.LogService;
 import com.eduardo.HoneyPot.service.ManagementService;
@@ -15,8 +23,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -41,6 +52,18 @@ public class HoneyPotController {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private DictionaryService dictionaryService;
+    
+    @Autowired
+    private IpEnrichmentService ipEnrichmentService;
+    
+    @Autowired
+    private CampaignService campaignService;
+    
+    @Autowired
+    private LivePushService livePushService;
+    
     // Controle da honeypot
     @Operation(
         summary = "Iniciar Honeypot",
@@ -248,6 +271,23 @@ public class HoneyPotController {
         }
     }
     
+    @Operation(
+        summary = "Eventos em Tempo Real (SSE)",
+        description = "Canal Server-Sent Events com novas capturas (capture), comandos (command), notificações " +
+                      "(notification), deltas de estatísticas (stats), limpeza de logs (cleared) e pedidos de " +
+                      "recarga (resync). Usado pelo dashboard no lugar de consultas periódicas.",
+        tags = {"Monitoramento"}
+    )
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream() {
+        try {
+            return ResponseEntity.ok(livePushService.subscribe());
+        } catch (IllegalStateException e) {
+            log.warn("Conexão de tempo real recusada: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
     @Operation(
         summary = "Health Check",
         description = "Retorna informações de saúde do sistema, incluindo métricas de memória e Java",
@@ -540,9 +580,11 @@ public class HoneyPotController {
     @GetMapping("/stats/top-ips")
     public ResponseEntity<Map<String, Object>> getTopIps(
             @Parameter(description = "Número máximo de IPs a retornar", example = "10")
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Janela de tempo em horas (opcional, padrão: todo o histórico)", example = "24")
+            @RequestParam(required = false) Integer hours) {
         try {
-            Map<String, Object> topIps = statisticsService.getTopAttackingIps(limit);
+            Map<String, Object> topIps = statisticsService.getTopAttackingIps(limit, hours);
             return ResponseEntity.ok(topIps);
         } catch (Exception e) {
             log.error("Erro ao buscar top IPs: {}", e.getMessage(), e);
@@ -646,15 +688,224 @@ public class HoneyPotController {
     }
     
     @Operation(
-        summary = "Estatísticas por Hora",
-        description = "Retorna número de ataques agrupados por hora nas últimas 24 horas",
+        summary = "Estatísticas por Protocolo",
+        description = "Retorna contagem e percentual de cada protocolo presente nos logs, com divisão opcional " +
+                      "por porta e por sessões bem-sucedidas",
+        tags = {"Estatísticas"}
+    )
+    @GetMapping("/stats/protocols")
+    public ResponseEntity<Map<String, Object>> getProtocolStats(
+            @Parameter(description = "Incluir divisão por porta", example = "false")
+            @RequestParam(defaultValue = "false") boolean byPort,
+            @Parameter(description = "Incluir divisão por sucesso/falha", example = "false")
+            @RequestParam(defaultValue = "false") boolean bySuccessful) {
+        try {
+            return ResponseEntity.ok(statisticsService.getStatsByProtocol(byPort, bySuccessful));
+        } catch (Exception e) {
+            log.error("Erro ao buscar estatísticas por protocolo: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(Map.of(
+                "error", "Erro ao buscar estatísticas por protocolo: " + e.getMessage(),
+                "timestamp", LocalDateTime.now()
+            ));
+        }
+    }
+    
+    // Campanhas
+    @Operation(
+        summary = "Listar Campanhas",
+        description = "Retorna os grupos de sessões com sequências de comandos quase idênticas (MinHash/LSH), " +
+                      "com número de sessões, IPs participantes e o script representativo",
+        tags = {"Campanhas"}
+    )
+    @GetMapping("/campaigns")
+    public ResponseEntity<Map<String, Object>> getCampaigns(
+            @Parameter(description = "Número mínimo de sessões na campanha", example = "2")
+            @RequestParam(defaultValue = "1") int minSessions,
+            @Parameter(description = "Número máximo de campanhas", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(campaignService.listCampaigns(minSessions, limit));
+        } catch (Exception e) {
+            log.error("Erro ao listar campanhas: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(Map.of(
+                "error", "Erro ao listar campanhas: " + e.getMessage(),
+                "timestamp", LocalDateTime.now()
+            ));
+        }
+    }
+    
+    @Operation(
+        summary = "Detalhes da Campanha",
+        description = "Retorna a campanha com os IPs participantes e as sessões mais recentes atribuídas a ela",
+        tags = {"Campanhas"}
+    )
+    @GetMapping("/campaigns/{id}")
+    public ResponseEntity<Map<String, Object>> getCampaign(
+            @Parameter(description = "ID da campanha") @PathVariable String id,
+            @Parameter(description = "Número de sessões recentes", example = "20")
+            @RequestParam(defaultValue = "20") int sessions) {
+        try {
+            Map<String, Object> campaign = campaignService.getCampaign(id, sessions);
+            return campaign != null ? ResponseEntity.ok(campaign) : ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Erro ao buscar campanha {}: {}", id, e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(Map.of(
+                "error", "Erro ao buscar campanha: " + e.getMessage(),
+                "timestamp", LocalDateTime.now()
+            ));
+        }
+    }
+    
+    @Operation(
+        summary = "Ataques por País",
+        description = "Distribuição dos ataques por país de origem, resolvida pela base local de intervalos de IP",
+        tags = {"Estatísticas"}
+    )
+    @GetMapping("/stats/geo/countries")
+    public ResponseEntity<Map<String, Object>> getCountryBreakdown(
+            @Parameter(description = "Número máximo de países", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        return geoBreakdown(StatisticsService.GeoGrouping.COUNTRY, limit);
+    }
+    
+    @Operation(
+        summary = "Ataques por ASN",
+        description = "Distribuição dos ataques por sistema autônomo (ASN) e organização de origem",
+        tags = {"Estatísticas"}
+    )
+    @GetMapping("/stats/geo/asns")
+    public ResponseEntity<Map<String, Object>> getAsnBreakdown(
+            @Parameter(description = "Número máximo de ASNs", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        return geoBreakdown(StatisticsService.GeoGrouping.ASN, limit);
+    }
+    
+    @Operation(
+        summary = "Consultar IP",
+        description = "Retorna país, ASN e organização de um IP na base local de intervalos",
+        tags = {"Estatísticas"}
+    )
+    @GetMapping("/stats/geo/ip/{ip}")
+    public ResponseEntity<Map<String, Object>> lookupIp(
+            @Parameter(description = "Endereço IPv4 ou IPv6", example = "8.8.8.8")
+            @PathVariable String ip) {
+        IpInfo info = ipEnrichmentService.lookup(ip);
+        if (info == null) {
+            return ResponseEntity.ok(Map.of(
+                "ip", ip,
+                "found", false,
+                "enrichmentEnabled", ipEnrichmentService.isEnabled(),
+                "timestamp", LocalDateTime.now()
+            ));
+        }
+        return ResponseEntity.ok(Map.of(
+            "ip", ip,
+            "found", true,
+            "country", info.country(),
+            "asn", info.asn(),
+            "organization", info.organization(),
+            "timestamp", LocalDateTime.now()
+        ));
+    }
+    
+    private ResponseEntity<Map<String, Object>> geoBreakdown(StatisticsService.GeoGrouping grouping, int limit) {
+        try {
+            return ResponseEntity.ok(statisticsService.getGeoBreakdown(grouping, limit));
+        } catch (Exception e) {
+            log.error("Erro ao buscar distribuição geográfica: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(Map.of(
+                "error", "Erro ao buscar distribuição geográfica: " + e.getMessage(),
+                "timestamp", LocalDateTime.now()
+            ));
+        }
+    }
+    
+    @Operation(
+        summary = "Dicionário de Valores",
+        description = "Retorna o tamanho dos dicionários de usuários, senhas, banners e IPs e a economia estimada " +
+                      "de memória e de armazenamento obtida com a codificação",
+        tags = {"Estatísticas"}
+    )
+    @GetMapping("/stats/dictionary")
+    public ResponseEntity<Map<String, Object>> getDictionaryStats() {
+        try {
+            return ResponseEntity.ok(dictionaryService.getStats());
+        } catch (Exception e) {
+            log.error("Erro ao buscar estatísticas do dicionário: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(Map.of(
+                "error", "Erro ao buscar estatísticas do dicionário: " + e.getMessage(),
+                "timestamp", LocalDateTime.now()
+            ));
+        }
+    }
+    
+    @Operation(
+        summary = "Itens Mais Frequentes",
+        description = "Retorna os usuários, senhas, credenciais, comandos ou IPs mais frequentes, estimados por " +
+                      "sketches Space-Saving com memória limitada. Cada item traz a contagem estimada e o erro máximo",
+        tags = {"Estatísticas"}
+    )
+    @GetMapping("/stats/heavy-hitters/{dimension}")
+    public ResponseEntity<Map<String, Object>> getHeavyHitters(
+            @Parameter(description = "Dimensão (USERNAME, PASSWORD, CREDENTIAL, COMMAND, IP)", example = "PASSWORD")
+            @PathVariable String dimension,
+            @Parameter(description = "Número máximo de itens a retornar", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        HeavyHitterService.Dimension parsedDimension;
+        try {
+            parsedDimension = HeavyHitterService.Dimension.valueOf(dimension.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "Dimensão inválida: " + dimension + " (use USERNAME, PASSWORD, CREDENTIAL, COMMAND ou IP)",
+                "timestamp", LocalDateTime.now()
+            ));
+        }
+        if (limit < 0) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "Limite deve ser maior ou igual a 0: " + limit,
+                "timestamp", LocalDateTime.now()
+            ));
+        }
+        try {
+            return ResponseEntity.ok(statisticsService.getHeavyHitters(parsedDimension, limit));
+        } catch (Exception e) {
+            log.error("Erro ao buscar itens frequentes: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(Map.of(
+                "error", "Erro ao buscar itens frequentes: " + e.getMessage(),
+                "timestamp", LocalDateTime.now()
+            ));
+        }
+    }
+    
+    @Operation(
+        summary = "Timeline de Ataques",
+        description = "Retorna número de ataques agrupados por bucket de tempo (padrão: por hora nas últimas 24 horas). " +
+                      "Aceita período e resolução arbitrários (MINUTE, HOUR, DAY), lidos dos rollups pré-agregados",
         tags = {"Estatísticas"}
     )
     @GetMapping("/stats/timeline")
-    public ResponseEntity<Map<String, Object>> getTimelineStats() {
+    public ResponseEntity<Map<String, Object>> getTimelineStats(
+            @Parameter(description = "Início do período (ISO-8601)", example = "2025-08-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @Parameter(description = "Fim do período (ISO-8601, padrão: agora)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @Parameter(description = "Resolução dos buckets (MINUTE, HOUR, DAY)", example = "HOUR")
+            @RequestParam(required = false) String resolution,
+            @Parameter(description = "Filtrar por protocolo") @RequestParam(required = false) String protocol,
+            @Parameter(description = "Filtrar por IP (requer honeypot.rollups.track-ips)") @RequestParam(required = false) String ip) {
         try {
-            Map<String, Object> timeline = statisticsService.getTimelineStats();
+            Map<String, Object> timeline;
+            if (start == null && end == null && resolution == null && protocol == null && ip == null) {
+                timeline = statisticsService.getTimelineStats();
+            } else {
+                timeline = statisticsService.getTimelineStats(start, end, RollupResolution.from(resolution), protocol, ip);
+            }
             return ResponseEntity.ok(timeline);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", e.getMessage(),
+                "timestamp", LocalDateTime.now()
+            ));
         } catch (Exception e) {
             log.error("Erro ao buscar estatísticas de timeline: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().body(Map.of(
@@ -666,14 +917,24 @@ public class HoneyPotController {
 
     @Operation(
         summary = "Contagem de IPs Únicos",
-        description = "Retorna a contagem real de IPs únicos que atacaram o sistema",
+        description = "Retorna a contagem de IPs únicos que atacaram o sistema, com estimativas HyperLogLog " +
+                      "(erro padrão ~1,6%) para a última hora, dia, mês e todo o histórico",
         tags = {"Estatísticas"}
     )
     @GetMapping("/stats/unique-ips")
-    public ResponseEntity<Map<String, Object>> getUniqueIpsCount() {
+    public ResponseEntity<Map<String, Object>> getUniqueIpsCount(
+            @Parameter(description = "Janela da estimativa (HOUR, DAY, MONTH, ALL)", example = "DAY")
+            @RequestParam(required = false) String window) {
         try {
-            Map<String, Object> uniqueIps = statisticsService.getUniqueIpsCount();
+            Map<String, Object> uniqueIps = window != null
+                ? statisticsService.getUniqueIpsCount(CardinalityService.Window.valueOf(window.toUpperCase()))
+                : statisticsService.getUniqueIpsCount();
             return ResponseEntity.ok(uniqueIps);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "Janela inválida: " + window + " (use HOUR, DAY, MONTH ou ALL)",
+                "timestamp", LocalDateTime.now()
+            ));
         } catch (Exception e) {
             log.error("Erro ao buscar contagem de IPs únicos: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().body(Map.of(
@@ -702,21 +963,25 @@ public class HoneyPotController {
     
     @Operation(
         summary = "Listar Notificações",
-        description = "Lista todas as notificações do sistema com paginação",
+        description = "Lista as notificações do sistema com filtros, ordenação e paginação resolvidos no banco. " +
+                      "Para páginas profundas, envie o nextCursor da resposta anterior em cursor (paginação por keyset; " +
+                      "page é ignorado e o total não é calculado).",
         tags = {"Notificações"}
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Notificações listadas com sucesso"),
+        @ApiResponse(responseCode = "400", description = "Página, tamanho ou cursor inválido"),
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     @GetMapping("/notifications")
     public ResponseEntity<Map<String, Object>> getNotifications(
             @Parameter(description = "Página atual (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "20") int size,
-            @Parameter(description = "Campo para ordenação") @RequestParam(required = false) String sortBy,
+            @Parameter(description = "Campo para ordenação (timestamp, type, category, priority, read)") @RequestParam(required = false) String sortBy,
             @Parameter(description = "Direção da ordenação (asc/desc)") @RequestParam(required = false) String sortDir,
             @Parameter(description = "Filtrar por tipo") @RequestParam(required = false) String type,
-            @Parameter(description = "Filtrar por categoria") @RequestParam(required = false) String category) {
+            @Parameter(description = "Filtrar por categoria") @RequestParam(required = false) String category,
+            @Parameter(description = "Cursor (nextCursor) da página anterior") @RequestParam(required = false) String cursor) {
         try {
             Map<String, Object> notifications;
             
@@ -724,14 +989,18 @@ public class HoneyPotController {
             String sortField = (sortBy != null && !sortBy.isEmpty()) ? sortBy : "timestamp";
             String sortDirection = (sortDir != null && !sortDir.isEmpty()) ? sortDir : "desc";
             
-            // Se há filtros, usar método filtrado
-            if ((type != null && !type.isEmpty()) || (category != null && !category.isEmpty())) {
-                notifications = notificationService.getFilteredNotifications(page, size, type, category, sortField, sortDirection);
+            if (cursor != null && !cursor.isEmpty()) {
+                notifications = notificationService.getNotificationsAfter(cursor, size, type, category, sortField, sortDirection);
             } else {
-                notifications = notificationService.getAllNotifications(page, size, sortField, sortDirection);
+                notifications = notificationService.getFilteredNotifications(page, size, type, category, sortField, sortDirection);
             }
             
             return ResponseEntity.ok(notifications);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", e.getMessage(),
+                "timestamp", LocalDateTime.now()
+            ));
         } catch (Exception e) {
             log.error("Erro ao buscar notificações: {}", e.getMessage());
             return ResponseEntity.internalServerError()
@@ -810,11 +1079,14 @@ public class HoneyPotController {
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     @PutMapping("/notifications/{id}/read")
-    public ResponseEntity<Map<String, String>> markNotificationAsRead(
+    public ResponseEntity<Map<String, Object>> markNotificationAsRead(
             @Parameter(description = "ID da notificação") @PathVariable String id) {
         try {
-            notificationService.markAsRead(id);
-            return ResponseEntity.ok(Map.of("message", "Notificação marcada como lida"));
+            long modifiedCount = notificationService.markAsRead(id);
+            return ResponseEntity.ok(Map.of(
+                "message", "Notificação marcada como lida",
+                "modifiedCount", modifiedCount
+            ));
         } catch (Exception e) {
             log.error("Erro ao marcar notificação como lida {}: {}", id, e.getMessage());
             return ResponseEntity.internalServerError()
@@ -824,18 +1096,26 @@ public class HoneyPotController {
     
     @Operation(
         summary = "Marcar Todas como Lidas",
-        description = "Marca todas as notificações como lidas",
+        description = "Marca as notificações não lidas como lidas em uma única atualização no banco, " +
+                      "opcionalmente restrita por categoria, tipo e data limite. Retorna a quantidade alterada.",
         tags = {"Notificações"}
     )
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Todas as notificações foram marcadas como lidas"),
+        @ApiResponse(responseCode = "200", description = "Notificações marcadas como lidas"),
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     @PutMapping("/notifications/read-all")
-    public ResponseEntity<Map<String, String>> markAllNotificationsAsRead() {
+    public ResponseEntity<Map<String, Object>> markAllNotificationsAsRead(
+            @Parameter(description = "Apenas desta categoria") @RequestParam(required = false) String category,
+            @Parameter(description = "Apenas deste tipo") @RequestParam(required = false) String type,
+            @Parameter(description = "Apenas anteriores a esta data/hora (ISO)", example = "2024-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before) {
         try {
-            notificationService.markAllAsRead();
-            return ResponseEntity.ok(Map.of("message", "Todas as notificações foram marcadas como lidas"));
+            long modifiedCount = notificationService.markAllAsRead(category, type, before);
+            return ResponseEntity.ok(Map.of(
+                "message", "Notificações marcadas como lidas",
+                "modifiedCount", modifiedCount
+            ));
         } catch (Exception e) {
             log.error("Erro ao marcar todas as notificações como lidas: {}", e.getMessage());
             return ResponseEntity.internalServerError()
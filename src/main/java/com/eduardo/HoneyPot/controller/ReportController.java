@@ -1,15 +1,28 @@
 package com.eduardo.HoneyPot.controller;
 
-import com.eduardo.HoneyPot.service.ReportService;
+import com.eduardo.HoneyPot.report.ReportJob;
+import com.eduardo.HoneyPot.report.ReportPeriod;
+import com.eduardo.HoneyPot.report.ReportType;
+import com.eduardo.HoneyPot.service.ReportCacheService;
+import com.eduardo.HoneyPot.service.ReportJobService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.file.Files;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -17,159 +30,226 @@ import java.time.format.DateTimeFormatter;
 public class ReportController {
     
     @Autowired
-    private ReportService reportService;
+    private ReportCacheService reportCacheService;
+    
+    @Autowired
+    private ReportJobService reportJobService;
     
     /**
      * Gera relatório de ataques em PDF
      */
     @GetMapping("/attacks/pdf")
-    public ResponseEntity<byte[]> generateAttackReportPDF() {
-        try {
-            log.info("Gerando relatório de ataques em PDF...");
-            byte[] pdfContent = reportService.generateAttackReportPDF();
-            
-            String filename = "relatorio_ataques_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".pdf";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("attachment", filename);
-            
-            log.info("Relatório PDF gerado com sucesso: {} bytes", pdfContent.length);
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdfContent);
-                
-        } catch (Exception e) {
-            log.error("Erro ao gerar relatório PDF: {}", e.getMessage());
-            return ResponseEntity.internalServerError().build();
-        }
+    public ResponseEntity<?> generateAttackReportPDF(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String range) {
+        return streamReport(ReportType.ATTACKS_PDF, from, to, range);
     }
     
     /**
      * Gera relatório de ataques em Excel
      */
     @GetMapping("/attacks/excel")
-    public ResponseEntity<byte[]> generateAttackReportExcel() {
-        try {
-            log.info("Gerando relatório de ataques em Excel...");
-            byte[] excelContent = reportService.generateAttackReportExcel();
-            
-            String filename = "relatorio_ataques_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-            headers.setContentDispositionFormData("attachment", filename);
-            
-            log.info("Relatório Excel gerado com sucesso: {} bytes", excelContent.length);
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(excelContent);
-                
-        } catch (Exception e) {
-            log.error("Erro ao gerar relatório Excel: {}", e.getMessage());
-            return ResponseEntity.internalServerError().build();
-        }
+    public ResponseEntity<?> generateAttackReportExcel(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String range) {
+        return streamReport(ReportType.ATTACKS_EXCEL, from, to, range);
     }
     
     /**
      * Gera relatório de estatísticas em Excel
      */
     @GetMapping("/statistics/excel")
-    public ResponseEntity<byte[]> generateStatisticsReportExcel() {
-        try {
-            log.info("Gerando relatório de estatísticas em Excel...");
-            byte[] excelContent = reportService.generateStatisticsReportExcel();
-            
-            String filename = "relatorio_estatisticas_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-            headers.setContentDispositionFormData("attachment", filename);
-            
-            log.info("Relatório de estatísticas Excel gerado com sucesso: {} bytes", excelContent.length);
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(excelContent);
-                
-        } catch (Exception e) {
-            log.error("Erro ao gerar relatório de estatísticas: {}", e.getMessage());
-            return ResponseEntity.internalServerError().build();
-        }
+    public ResponseEntity<?> generateStatisticsReportExcel(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String range) {
+        return streamReport(ReportType.STATISTICS_EXCEL, from, to, range);
     }
     
     /**
      * Gera relatório de notificações em Excel
      */
     @GetMapping("/notifications/excel")
-    public ResponseEntity<byte[]> generateNotificationsReportExcel() {
-        try {
-            log.info("Gerando relatório de notificações em Excel...");
-            byte[] excelContent = reportService.generateNotificationsReportExcel();
-            
-            String filename = "relatorio_notificacoes_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-            headers.setContentDispositionFormData("attachment", filename);
-            
-            log.info("Relatório de notificações Excel gerado com sucesso: {} bytes", excelContent.length);
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(excelContent);
-                
-        } catch (Exception e) {
-            log.error("Erro ao gerar relatório de notificações: {}", e.getMessage());
-            return ResponseEntity.internalServerError().build();
-        }
+    public ResponseEntity<?> generateNotificationsReportExcel(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String range) {
+        return streamReport(ReportType.NOTIFICATIONS_EXCEL, from, to, range);
     }
     
     /**
      * Gera relatório consolidado em Excel (todas as informações)
      */
     @GetMapping("/consolidated/excel")
-    public ResponseEntity<byte[]> generateConsolidatedReportExcel() {
+    public ResponseEntity<?> generateConsolidatedReportExcel(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String range) {
+        return streamReport(ReportType.CONSOLIDATED_EXCEL, from, to, range);
+    }
+    
+    /**
+     * Relatório de dias completos montado a partir dos parciais diários: {@code range} (DAY, WEEK,
+     * MONTH; padrão DAY = ontem) ou {@code from}/{@code to} em datas inclusivas
+     */
+    @GetMapping("/period/excel")
+    public ResponseEntity<?> generatePeriodReportExcel(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String range) {
         try {
-            log.info("Gerando relatório consolidado em Excel...");
-            byte[] excelContent = reportService.generateConsolidatedReportExcel();
-            
-            String filename = "relatorio_consolidado_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx";
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-            headers.setContentDispositionFormData("attachment", filename);
-            
-            log.info("Relatório consolidado Excel gerado com sucesso: {} bytes", excelContent.length);
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(excelContent);
-                
-        } catch (Exception e) {
-            log.error("Erro ao gerar relatório consolidado: {}", e.getMessage());
-            return ResponseEntity.internalServerError().build();
+            ReportPeriod period = from != null
+                ? ReportPeriod.ofDays(from, to != null ? to : from)
+                : ReportPeriod.previous(range != null ? range : "DAY", LocalDate.now());
+            return streamReport(ReportType.PERIOD_EXCEL, period);
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage(), "timestamp", LocalDateTime.now()));
         }
     }
     
     /**
-     * Gera todos os relatórios disponíveis
+     * Ocupação e acertos do cache de relatórios
      */
-    @GetMapping("/all")
-    public ResponseEntity<String> generateAllReports() {
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getReportCacheStats() {
+        return ResponseEntity.ok(reportCacheService.getStats());
+    }
+    
+    /**
+     * Enfileira todos os relatórios disponíveis como jobs assíncronos
+     */
+    @RequestMapping(value = "/all", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<Map<String, Object>> generateAllReports() {
         try {
-            log.info("Gerando todos os relatórios disponíveis...");
-            
-            // Gerar todos os relatórios
-            reportService.generateAttackReportPDF();
-            reportService.generateAttackReportExcel();
-            reportService.generateStatisticsReportExcel();
-            reportService.generateNotificationsReportExcel();
-            reportService.generateConsolidatedReportExcel();
-            
-            log.info("Todos os relatórios foram gerados com sucesso");
-            return ResponseEntity.ok("Todos os relatórios foram gerados com sucesso");
-            
+            log.info("Enfileirando todos os relatórios disponíveis...");
+            List<Map<String, Object>> jobs = new ArrayList<>();
+            for (ReportType type : ReportType.values()) {
+                jobs.add(reportJobService.submit(type, ReportPeriod.ALL).toMap());
+            }
+            return ResponseEntity.accepted().body(Map.of("jobs", jobs, "timestamp", LocalDateTime.now()));
+            
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", e.getMessage(), "timestamp", LocalDateTime.now()));
         } catch (Exception e) {
-            log.error("Erro ao gerar todos os relatórios: {}", e.getMessage());
-            return ResponseEntity.internalServerError().body("Erro ao gerar relatórios: " + e.getMessage());
+            log.error("Erro ao enfileirar relatórios: {}", e.getMessage());
+            return ResponseEntity.internalServerError()
+                .body(Map.of("error", "Erro ao enfileirar relatórios: " + e.getMessage(), "timestamp", LocalDateTime.now()));
+        }
+    }
+    
+    /**
+     * Cria um job de geração assíncrona; pedidos idênticos em andamento recebem o mesmo job
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<Map<String, Object>> submitReportJob(
+            @RequestParam String type,
+            @RequestParam String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String range) {
+        try {
+            ReportJob job = reportJobService.submit(ReportType.of(type, format), resolvePeriod(from, to, range));
+            return ResponseEntity.accepted().body(job.toMap());
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage(), "timestamp", LocalDateTime.now()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", e.getMessage(), "timestamp", LocalDateTime.now()));
+        }
+    }
+    
+    /**
+     * Lista os jobs de relatório ainda não expirados
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<List<Map<String, Object>>> getReportJobs() {
+        return ResponseEntity.ok(reportJobService.getJobs().stream().map(ReportJob::toMap).toList());
+    }
+    
+    /**
+     * Estado e progresso (etapa, registros lidos e bytes gravados) de um job
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<Map<String, Object>> getReportJob(@PathVariable String id) {
+        ReportJob job = reportJobService.getJob(id);
+        return job != null ? ResponseEntity.ok(job.toMap()) : ResponseEntity.notFound().build();
+    }
+    
+    /**
+     * Download do arquivo de um job concluído
+     */
+    @GetMapping("/jobs/{id}/download")
+    public ResponseEntity<?> downloadReportJob(@PathVariable String id) {
+        ReportJob job = reportJobService.getJob(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (job.getStatus() != ReportJob.Status.COMPLETED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "Relatório ainda não disponível", "status", job.getStatus(), "timestamp", LocalDateTime.now()));
+        }
+        
+        if (!Files.exists(job.getFile())) {
+            // Arquivo apagado por fora do cache (o job mantém sua reserva até expirar)
+            return ResponseEntity.status(HttpStatus.GONE)
+                .body(Map.of("error", "Arquivo do relatório expirado, gere novamente", "timestamp", LocalDateTime.now()));
+        }
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(job.getType().getContentType()));
+        headers.setContentDispositionFormData("attachment", job.getFilename());
+        return ResponseEntity.ok()
+            .headers(headers)
+            .body(new FileSystemResource(job.getFile()));
+    }
+    
+    /**
+     * Relatório escrito no corpo da resposta a partir do cache, ou gerado em streaming quando não
+     * há versão para os dados atuais
+     */
+    private ResponseEntity<?> streamReport(ReportType type, LocalDateTime from, LocalDateTime to, String range) {
+        try {
+            return streamReport(type, resolvePeriod(from, to, range));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", e.getMessage(), "timestamp", LocalDateTime.now()));
+        }
+    }
+    
+    private ResponseEntity<StreamingResponseBody> streamReport(ReportType type, ReportPeriod period) {
+        log.info("Gerando relatório {}/{} ({})...", type.getType(), type.getFormat(), period.describe());
+        String filename = type.getFilePrefix() + "_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + "." + type.getExtension();
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(type.getContentType()));
+        headers.setContentDispositionFormData("attachment", filename);
+        
+        StreamingResponseBody body = outputStream -> {
+            try {
+                reportCacheService.write(type, period, outputStream);
+            } catch (Exception e) {
+                // O status já foi enviado; a conexão é encerrada com o arquivo incompleto
+                log.error("Erro ao gerar relatório {}: {}", type, e.getMessage());
+                throw e;
+            }
+        };
+        return ResponseEntity.ok()
+            .headers(headers)
+            .body(body);
+    }
+    
+    // range (DAY, WEEK, MONTH) tem precedência sobre from/to; sem nenhum, todo o histórico
+    private static ReportPeriod resolvePeriod(LocalDateTime from, LocalDateTime to, String range) {
+        if (range != null && !range.isBlank()) {
+            return ReportPeriod.previous(range, LocalDate.now());
         }
+        return new ReportPeriod(from, to);
     }
 }
@@ -0,0 +1,115 @@
+package com.eduardo.HoneyPot.detection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Autômato de Aho–Corasick sobre ASCII: todos os padrões literais são procurados em uma única
+ * passada pelo texto. As transições de falha são resolvidas na construção (tabela completa, ou seja,
+ * um DFA), então cada caractere custa um acesso a array independentemente do número de padrões.
+ * Imutável e thread-safe após a construção.
+ */
+public final class AhoCorasick {
+
+    private static final int ALPHABET = 128;
+
+    private final int[][] transitions;
+    private final int[][] outputs;
+    private final int[] lengths;
+
+    /**
+     * Recebe a posição [start, end) de cada ocorrência de um padrão
+     */
+    @FunctionalInterface
+    public interface MatchListener {
+        void onMatch(int pattern, int start, int end);
+    }
+
+    public AhoCorasick(List<String> patterns) {
+        lengths = new int[patterns.size()];
+        List<int[]> gotoTable = new ArrayList<>();
+        List<List<Integer>> out = new ArrayList<>();
+        gotoTable.add(newState());
+        out.add(new ArrayList<>());
+
+        // Trie dos padrões
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("Padrão vazio");
+            }
+            lengths[p] = pattern.length();
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c >= ALPHABET) {
+                    throw new IllegalArgumentException("Padrão com caractere não ASCII: " + pattern);
+                }
+                int next = gotoTable.get(state)[c];
+                if (next < 0) {
+                    next = gotoTable.size();
+                    gotoTable.get(state)[c] = next;
+                    gotoTable.add(newState());
+                    out.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            out.get(state).add(p);
+        }
+
+        // Links de falha em largura; estados mais rasos ficam completos antes dos mais profundos
+        int[] fail = new int[gotoTable.size()];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        int[] root = gotoTable.get(0);
+        for (int c = 0; c < ALPHABET; c++) {
+            if (root[c] < 0) {
+                root[c] = 0;
+            } else {
+                queue.add(root[c]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] row = gotoTable.get(state);
+            int[] failRow = gotoTable.get(fail[state]);
+            out.get(state).addAll(out.get(fail[state]));
+            for (int c = 0; c < ALPHABET; c++) {
+                if (row[c] < 0) {
+                    row[c] = failRow[c];
+                } else {
+                    fail[row[c]] = failRow[c];
+                    queue.add(row[c]);
+                }
+            }
+        }
+
+        transitions = gotoTable.toArray(new int[0][]);
+        outputs = new int[out.size()][];
+        for (int state = 0; state < outputs.length; state++) {
+            outputs[state] = out.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    public void search(CharSequence text, MatchListener listener) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            state = c < ALPHABET ? transitions[state][c] : 0;
+            for (int pattern : outputs[state]) {
+                listener.onMatch(pattern, i + 1 - lengths[pattern], i + 1);
+            }
+        }
+    }
+
+    public int getStateCount() {
+        return transitions.length;
+    }
+
+    private static int[] newState() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
@@ -0,0 +1,20 @@
+package com.eduardo.HoneyPot.detection;
+
+import java.util.List;
+
+/**
+ * Regra de detecção aplicada aos comandos do shell fake. Cada regra agrupa um ou mais padrões e gera
+ * uma notificação do tipo {@code severity} (INFO, WARNING, ERROR, ALERT) quando algum deles casa.
+ * <ul>
+ *   <li>KEYWORD: palavra inteira em qualquer ponto do comando</li>
+ *   <li>PREFIX: início de um comando (após ;, |, &amp;&amp;, sudo, caminho do binário etc.) seguido de fim de token</li>
+ *   <li>PATH: token exatamente igual ao caminho; terminando em "/", qualquer caminho abaixo dele</li>
+ *   <li>REGEX: expressão regular (sem diferenciar maiúsculas) sobre o comando original</li>
+ * </ul>
+ */
+public record DetectionRule(String id, Type type, List<String> patterns, String severity, String title, String message) {
+
+    public enum Type {
+        KEYWORD, PREFIX, PATH, REGEX
+    }
+}
@@ -0,0 +1,212 @@
+package com.eduardo.HoneyPot.detection;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Conjunto de regras compilado: os padrões literais (KEYWORD, PREFIX, PATH) de todas as regras formam
+ * um único autômato de Aho–Corasick, avaliado em uma passada qualquer que seja o número de padrões.
+ * Cada expressão das regras REGEX é compilada e avaliada separadamente: assim regras cujos trechos se
+ * sobrepõem casam todas, e grupos numerados e referências (\1) valem como escritos no arquivo. Uma
+ * regra já casada não avalia suas outras expressões. Imutável; recarregar significa compilar outro.
+ */
+public final class RuleSet {
+
+    // Comandos que executam o próximo token como comando
+    private static final Set<String> WRAPPERS = Set.of("sudo", "nohup", "busybox", "exec", "env", "nice", "time", "command");
+
+    private final List<DetectionRule> rules;
+    private final AhoCorasick literals;
+    private final int[] literalRule;
+    private final Pattern[] regexes;
+    private final int[] regexRule;
+
+    private RuleSet(List<DetectionRule> rules, AhoCorasick literals, int[] literalRule,
+                    Pattern[] regexes, int[] regexRule) {
+        this.rules = rules;
+        this.literals = literals;
+        this.literalRule = literalRule;
+        this.regexes = regexes;
+        this.regexRule = regexRule;
+    }
+
+    /**
+     * Compila as regras; lança IllegalArgumentException indicando a regra inválida
+     */
+    public static RuleSet compile(List<DetectionRule> rules) {
+        List<String> literalPatterns = new ArrayList<>();
+        List<Integer> literalOwners = new ArrayList<>();
+        List<Pattern> regexes = new ArrayList<>();
+        List<Integer> regexOwners = new ArrayList<>();
+
+        for (int r = 0; r < rules.size(); r++) {
+            DetectionRule rule = rules.get(r);
+            if (rule.type() == null || rule.patterns() == null || rule.patterns().isEmpty()) {
+                throw new IllegalArgumentException("Regra " + rule.id() + " sem tipo ou padrões");
+            }
+            if (rule.type() == DetectionRule.Type.REGEX) {
+                for (String pattern : rule.patterns()) {
+                    try {
+                        regexes.add(Pattern.compile(pattern, Pattern.CASE_INSENSITIVE));
+                    } catch (PatternSyntaxException e) {
+                        throw new IllegalArgumentException("Regra " + rule.id() + " com expressão inválida: " + e.getDescription());
+                    }
+                    regexOwners.add(r);
+                }
+            } else {
+                for (String pattern : rule.patterns()) {
+                    String literal = normalize(pattern).trim();
+                    if (literal.isEmpty()) {
+                        throw new IllegalArgumentException("Regra " + rule.id() + " com padrão vazio");
+                    }
+                    literalPatterns.add(literal);
+                    literalOwners.add(r);
+                }
+            }
+        }
+
+        try {
+            return new RuleSet(List.copyOf(rules), new AhoCorasick(literalPatterns),
+                literalOwners.stream().mapToInt(Integer::intValue).toArray(),
+                regexes.toArray(Pattern[]::new), regexOwners.stream().mapToInt(Integer::intValue).toArray());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Padrão literal inválido: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Regras que casam com o comando, na ordem em que foram declaradas
+     */
+    public List<DetectionRule> match(String command) {
+        if (command == null || command.isEmpty() || rules.isEmpty()) {
+            return List.of();
+        }
+        String text = normalize(command);
+        boolean[] commandStarts = commandStarts(text);
+        BitSet matched = new BitSet(rules.size());
+
+        literals.search(text, (pattern, start, end) -> {
+            int rule = literalRule[pattern];
+            if (!matched.get(rule) && accepts(rules.get(rule).type(), text, commandStarts, start, end)) {
+                matched.set(rule);
+            }
+        });
+
+        for (int p = 0; p < regexes.length; p++) {
+            if (!matched.get(regexRule[p]) && regexes[p].matcher(command).find()) {
+                matched.set(regexRule[p]);
+            }
+        }
+
+        List<DetectionRule> result = new ArrayList<>(matched.cardinality());
+        for (int r = matched.nextSetBit(0); r >= 0; r = matched.nextSetBit(r + 1)) {
+            result.add(rules.get(r));
+        }
+        return result;
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    public List<DetectionRule> getRules() {
+        return rules;
+    }
+
+    // Minúsculas e espaços consecutivos reduzidos a um, para que "chmod  +x" case com "chmod +x"
+    private static String normalize(String value) {
+        StringBuilder normalized = new StringBuilder(value.length());
+        boolean space = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+            if (space && !normalized.isEmpty()) {
+                normalized.append(' ');
+            }
+            space = false;
+            normalized.append(Character.toLowerCase(c));
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Posições onde começa o nome de um comando: início da linha, após separadores de shell e
+     * wrappers (sudo, busybox...), e logo após a última "/" de um binário chamado por caminho
+     */
+    private static boolean[] commandStarts(String text) {
+        boolean[] starts = new boolean[text.length()];
+        boolean expectCommand = true;
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (c == ' ') {
+                i++;
+                continue;
+            }
+            if (isSeparator(c) || (c == '$' && i + 1 < text.length() && text.charAt(i + 1) == '(')) {
+                expectCommand = true;
+                i++;
+                continue;
+            }
+            int tokenStart = i;
+            while (i < text.length() && text.charAt(i) != ' ' && !isSeparator(text.charAt(i))) {
+                i++;
+            }
+            if (expectCommand) {
+                String token = text.substring(tokenStart, i);
+                if (token.indexOf('=') > 0 && Character.isLetter(token.charAt(0))) {
+                    continue; // VAR=valor antes do comando
+                }
+                starts[tokenStart] = true;
+                int slash = token.lastIndexOf('/');
+                if (slash >= 0 && slash + 1 < token.length()) {
+                    starts[tokenStart + slash + 1] = true;
+                    token = token.substring(slash + 1);
+                }
+                expectCommand = WRAPPERS.contains(token);
+            }
+        }
+        return starts;
+    }
+
+    private static boolean accepts(DetectionRule.Type type, String text, boolean[] commandStarts, int start, int end) {
+        switch (type) {
+            case PREFIX:
+                return commandStarts[start] && isTokenEnd(text, end);
+            case KEYWORD:
+                return (start == 0 || !isWordChar(text.charAt(start - 1)))
+                    && (end == text.length() || !isWordChar(text.charAt(end)));
+            case PATH:
+                boolean tokenStart = start == 0 || isPathDelimiter(text.charAt(start - 1));
+                boolean directory = text.charAt(end - 1) == '/';
+                return tokenStart && (directory || isTokenEnd(text, end) || isPathDelimiter(text.charAt(end)));
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ';' || c == '|' || c == '&' || c == '(' || c == ')' || c == '`';
+    }
+
+    private static boolean isTokenEnd(String text, int end) {
+        return end == text.length() || text.charAt(end) == ' ' || isSeparator(text.charAt(end))
+            || text.charAt(end) == '<' || text.charAt(end) == '>';
+    }
+
+    private static boolean isPathDelimiter(char c) {
+        return c == ' ' || isSeparator(c) || c == '<' || c == '>' || c == '=' || c == ':' || c == '"' || c == '\'';
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+}
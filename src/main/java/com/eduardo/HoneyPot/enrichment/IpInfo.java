@@ -0,0 +1,7 @@
+package com.eduardo.HoneyPot.enrichment;
+
+/**
+ * Dados de um intervalo de IPs: país (ISO 3166 alfa-2), número do sistema autônomo e organização
+ */
+public record IpInfo(String country, int asn, String organization) {
+}
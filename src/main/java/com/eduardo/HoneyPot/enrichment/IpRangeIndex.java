@@ -0,0 +1,283 @@
+package com.eduardo.HoneyPot.enrichment;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice binário de intervalos de IP mapeado em memória. IPv4 e IPv6 são normalizados para 128 bits
+ * (IPv4 como ::ffff:a.b.c.d) e os intervalos ficam ordenados pelo início, em registros de tamanho fixo,
+ * então a consulta é uma busca binária direto no arquivo mapeado, sem objetos por intervalo no heap.
+ * <p>
+ * Layout: cabeçalho (magic, versão, intervalos, organizações), registros
+ * {@code [inícioHi, inícioLo, fimHi, fimLo, asn, país(2 bytes), organização]} e a tabela de organizações
+ * (offsets seguidos de strings UTF-8 prefixadas pelo tamanho).
+ */
+public final class IpRangeIndex implements Closeable {
+
+    private static final int MAGIC = 0x49505249; // "IPRI"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 8 * 4 + 4 + 2 + 4;
+    private static final long IPV4_MAPPED_PREFIX = 0x0000FFFF00000000L;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int rangeCount;
+    private final int organizationTableOffset;
+    private final String[] organizationCache;
+
+    private IpRangeIndex(FileChannel channel, MappedByteBuffer buffer, int rangeCount, int organizationCount) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.rangeCount = rangeCount;
+        this.organizationTableOffset = HEADER_SIZE + rangeCount * RECORD_SIZE;
+        this.organizationCache = new String[organizationCount];
+    }
+
+    /**
+     * Mapeia um índice já construído
+     */
+    public static IpRangeIndex open(Path indexFile) throws IOException {
+        FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Arquivo de índice de IPs inválido: " + indexFile);
+            }
+            return new IpRangeIndex(channel, buffer, buffer.getInt(8), buffer.getInt(12));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Constrói o índice a partir de um arquivo texto (TSV ou CSV) no formato do iptoasn.com:
+     * {@code inicio, fim, asn, pais, organizacao}. Linhas inválidas e intervalos sem ASN são ignorados.
+     */
+    public static int build(Path source, Path target) throws IOException {
+        List<long[]> ranges = new ArrayList<>();
+        List<String> countries = new ArrayList<>();
+        Map<String, Integer> organizationIds = new HashMap<>();
+        List<String> organizations = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split(line.indexOf('\t') >= 0 ? "\t" : ",", 5);
+                if (columns.length < 4) {
+                    continue;
+                }
+                long[] start = toKey(columns[0].trim());
+                long[] end = toKey(columns[1].trim());
+                int asn = parseAsn(columns[2]);
+                if (start == null || end == null || asn <= 0) {
+                    continue;
+                }
+                String organization = columns.length > 4 ? unquote(columns[4]) : "";
+                int organizationId = organizationIds.computeIfAbsent(organization, key -> {
+                    organizations.add(key);
+                    return organizations.size() - 1;
+                });
+                ranges.add(new long[]{start[0], start[1], end[0], end[1], asn, organizationId, countries.size()});
+                countries.add(unquote(columns[3]));
+            }
+        }
+
+        ranges.sort(Comparator.<long[]>comparingLong(range -> range[0] ^ Long.MIN_VALUE)
+            .thenComparingLong(range -> range[1] ^ Long.MIN_VALUE));
+
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), "ip-ranges", ".tmp");
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(ranges.size());
+            out.writeInt(organizations.size());
+            for (long[] range : ranges) {
+                out.writeLong(range[0]);
+                out.writeLong(range[1]);
+                out.writeLong(range[2]);
+                out.writeLong(range[3]);
+                out.writeInt((int) range[4]);
+                String country = countries.get((int) range[6]);
+                out.writeByte(country.length() > 0 ? country.charAt(0) : ' ');
+                out.writeByte(country.length() > 1 ? country.charAt(1) : ' ');
+                out.writeInt((int) range[5]);
+            }
+            int offset = organizations.size() * 4;
+            List<byte[]> encoded = new ArrayList<>(organizations.size());
+            for (String organization : organizations) {
+                byte[] bytes = organization.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                out.writeInt(offset);
+                offset += 2 + bytes.length;
+            }
+            for (byte[] bytes : encoded) {
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return ranges.size();
+    }
+
+    /**
+     * Dados do intervalo que contém o IP, ou null se o IP não estiver em nenhum intervalo
+     */
+    public IpInfo lookup(String ip) {
+        long[] key = toKey(ip);
+        return key != null ? lookup(key[0], key[1]) : null;
+    }
+
+    public IpInfo lookup(long hi, long lo) {
+        // Último intervalo com início <= chave
+        int low = 0;
+        int high = rangeCount - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int position = HEADER_SIZE + mid * RECORD_SIZE;
+            if (compare(buffer.getLong(position), buffer.getLong(position + 8), hi, lo) <= 0) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (found < 0) {
+            return null;
+        }
+        int position = HEADER_SIZE + found * RECORD_SIZE;
+        if (compare(hi, lo, buffer.getLong(position + 16), buffer.getLong(position + 24)) > 0) {
+            return null;
+        }
+        int asn = buffer.getInt(position + 32);
+        String country = new String(new char[]{(char) buffer.get(position + 36), (char) buffer.get(position + 37)}).trim();
+        return new IpInfo(country, asn, organization(buffer.getInt(position + 38)));
+    }
+
+    public int size() {
+        return rangeCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Converte um IP literal em chave de 128 bits {alto, baixo}; null se não for um IP válido.
+     * IPv4 é analisado sem alocação intermediária; IPv6 usa InetAddress (apenas literais, sem DNS).
+     */
+    static long[] toKey(String ip) {
+        if (ip == null || ip.isEmpty()) {
+            return null;
+        }
+        if (ip.indexOf(':') < 0) {
+            long ipv4 = parseIpv4(ip);
+            return ipv4 >= 0 ? new long[]{0L, IPV4_MAPPED_PREFIX | ipv4} : null;
+        }
+        try {
+            byte[] bytes = InetAddress.getByName(ip).getAddress();
+            if (bytes.length == 4) {
+                return new long[]{0L, IPV4_MAPPED_PREFIX | (toLong(bytes, 0, 4))};
+            }
+            return new long[]{toLong(bytes, 0, 8), toLong(bytes, 8, 8)};
+        } catch (UnknownHostException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long parseIpv4(String ip) {
+        long result = 0;
+        int octet = -1;
+        int dots = 0;
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0 ? 0 : octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && octet >= 0 && dots < 3) {
+                result = (result << 8) | octet;
+                octet = -1;
+                dots++;
+            } else {
+                return -1;
+            }
+        }
+        return dots == 3 && octet >= 0 ? (result << 8) | octet : -1;
+    }
+
+    private static long toLong(byte[] bytes, int offset, int length) {
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static int compare(long hiA, long loA, long hiB, long loB) {
+        int result = Long.compareUnsigned(hiA, hiB);
+        return result != 0 ? result : Long.compareUnsigned(loA, loB);
+    }
+
+    private String organization(int id) {
+        if (id < 0 || id >= organizationCache.length) {
+            return "";
+        }
+        String cached = organizationCache[id];
+        if (cached == null) {
+            int position = organizationTableOffset + buffer.getInt(organizationTableOffset + id * 4);
+            int length = buffer.getShort(position) & 0xFFFF;
+            byte[] bytes = new byte[length];
+            buffer.get(position + 2, bytes);
+            cached = new String(bytes, StandardCharsets.UTF_8);
+            organizationCache[id] = cached;
+        }
+        return cached;
+    }
+
+    private static int parseAsn(String value) {
+        String trimmed = unquote(value);
+        if (trimmed.regionMatches(true, 0, "AS", 0, 2)) {
+            trimmed = trimmed.substring(2);
+        }
+        try {
+            return Integer.parseInt(trimmed);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String unquote(String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            return trimmed.substring(1, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+}
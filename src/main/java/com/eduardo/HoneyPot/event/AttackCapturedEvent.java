@@ -0,0 +1,31 @@
+package com.eduardo.HoneyPot.event;
+
+import com.eduardo.HoneyPot.model.AttackLog;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Evento publicado pelo HoneyPotService a cada etapa de uma sessão capturada.
+ * Os listeners são síncronos e rodam na thread da conexão, então devem ser baratos.
+ */
+@Getter
+@AllArgsConstructor
+public class AttackCapturedEvent {
+    
+    public enum Type {
+        SESSION_STARTED,      // Documento persistido pela primeira vez
+        CREDENTIALS_CAPTURED, // Par usuário/senha definido
+        COMMAND_EXECUTED,     // Comando executado no shell fake
+        SESSION_ENDED         // Conexão encerrada
+    }
+    
+    private final AttackLog attackLog;
+    
+    private final Type type;
+    
+    private final String command; // Apenas para COMMAND_EXECUTED
+    
+    public AttackCapturedEvent(AttackLog attackLog, Type type) {
+        this(attackLog, type, null);
+    }
+}
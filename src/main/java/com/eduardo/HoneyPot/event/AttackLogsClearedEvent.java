@@ -0,0 +1,14 @@
+package com.eduardo.HoneyPot.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Evento publicado quando todos os logs de ataque são removidos
+ */
+@Getter
+@AllArgsConstructor
+public class AttackLogsClearedEvent {
+    
+    private final long deletedCount;
+}
@@ -0,0 +1,15 @@
+package com.eduardo.HoneyPot.event;
+
+import com.eduardo.HoneyPot.model.Notification;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Evento publicado pelo NotificationService após gravar uma nova notificação
+ */
+@Getter
+@AllArgsConstructor
+public class NotificationCreatedEvent {
+    
+    private final Notification notification;
+}
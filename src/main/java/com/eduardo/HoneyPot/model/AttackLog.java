@@ -42,6 +42,15 @@ public class AttackLog {
     
     private boolean successful;
     
+    // Enriquecimento offline do IP de origem (null quando desconhecido)
+    private String country;
+    
+    private Integer asn;
+    
+    private String organization;
+    
+    private String campaignId; // Campanha (cluster de comandos) atribuída ao fim da sessão
+    
     public AttackLog(String sourceIp, int port, String protocol) {
         this.timestamp = LocalDateTime.now();
         this.sourceIp = sourceIp;
@@ -0,0 +1,37 @@
+package com.eduardo.HoneyPot.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contadores pré-agregados de ataques por bucket de tempo (minuto, hora ou dia).
+ * As chaves de IP são codificadas ('.' vira '_') pois o MongoDB não aceita pontos em nomes de campo.
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "attack_rollups")
+public class AttackRollup {
+    
+    @Id
+    private String id; // RESOLUCAO:inicioDoBucket
+    
+    private String resolution;
+    
+    private LocalDateTime bucketStart;
+    
+    private long total;
+    
+    private Map<String, Long> protocols = new HashMap<>();
+    
+    private Map<String, Long> ips = new HashMap<>();
+    
+    private LocalDateTime expireAt; // Apenas buckets por minuto expiram
+    
+    private byte[] ipSketch; // HyperLogLog de IPs únicos (buckets por hora/dia e documento ALL)
+}
@@ -0,0 +1,60 @@
+package com.eduardo.HoneyPot.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Campanha: grupo de sessões com sequências de comandos quase idênticas, encontrado por MinHash/LSH.
+ * A assinatura é a da primeira sessão do grupo e serve de representante nas comparações.
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "campaigns")
+public class Campaign {
+    
+    @Id
+    private String id;
+    
+    private long[] signature;
+    
+    private List<String> representativeCommands = new ArrayList<>();
+    
+    private long sessions;
+    
+    private Set<String> memberIps = new LinkedHashSet<>(); // Limitado a honeypot.campaigns.max-member-ips
+    
+    private byte[] ipSketch; // HyperLogLog com todos os IPs da campanha
+    
+    private Map<String, Long> protocols = new HashMap<>();
+    
+    private LocalDateTime firstSeen;
+    
+    private LocalDateTime lastSeen;
+    
+    /**
+     * Cópia independente para gravação fora do lock de atualização
+     */
+    public Campaign copy() {
+        Campaign copy = new Campaign();
+        copy.setId(id);
+        copy.setSignature(signature);
+        copy.setRepresentativeCommands(new ArrayList<>(representativeCommands));
+        copy.setSessions(sessions);
+        copy.setMemberIps(new LinkedHashSet<>(memberIps));
+        copy.setIpSketch(ipSketch);
+        copy.setProtocols(new HashMap<>(protocols));
+        copy.setFirstSeen(firstSeen);
+        copy.setLastSeen(lastSeen);
+        return copy;
+    }
+}
@@ -0,0 +1,56 @@
+package com.eduardo.HoneyPot.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Agregados de um dia completo usados pelos relatórios por período (semanal, mensal), que somam
+ * os parciais em vez de reler attack_logs. IPs e comandos ficam em listas porque contêm pontos,
+ * que o MongoDB não aceita em nomes de campo, e são limitados aos mais frequentes do dia (os
+ * omitidos são contados em {@code omittedIps} e {@code omittedCommands}).
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "report_daily_partials")
+public class DailyReportPartial {
+    
+    @Id
+    private String id; // yyyy-MM-dd
+    
+    private LocalDateTime dayStart;
+    
+    private long total;
+    
+    private List<KeyCount> protocols = new ArrayList<>();
+    
+    private List<IpAttackSummary> ips = new ArrayList<>();
+    
+    private List<CommandSummary> commands = new ArrayList<>();
+    
+    private long uniqueIps;
+    
+    private long omittedIps;
+    
+    private long omittedCommands;
+    
+    private LocalDateTime generatedAt;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CommandSummary {
+        
+        private String command;
+        
+        private long executions;
+        
+        private List<String> ips = new ArrayList<>();
+    }
+}
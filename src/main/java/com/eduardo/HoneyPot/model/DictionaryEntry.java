@@ -0,0 +1,26 @@
+package com.eduardo.HoneyPot.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Código persistido de um valor do dicionário, necessário para decodificar documentos gravados codificados
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "dictionary_entries")
+public class DictionaryEntry {
+    
+    @Id
+    private String id; // CAMPO:codigo
+    
+    private String field;
+    
+    private int code;
+    
+    private String value;
+}
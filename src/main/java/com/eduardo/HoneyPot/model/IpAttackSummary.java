@@ -0,0 +1,24 @@
+package com.eduardo.HoneyPot.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resultado agregado por IP: total de tentativas e último ataque registrado
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IpAttackSummary {
+    
+    @Id
+    private String ip;
+    
+    private long count;
+    
+    private LocalDateTime lastAttack;
+}
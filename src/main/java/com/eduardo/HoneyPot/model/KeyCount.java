@@ -0,0 +1,20 @@
+package com.eduardo.HoneyPot.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+/**
+ * Resultado genérico de um $group: chave agrupada e quantidade de documentos
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeyCount {
+    
+    @Id
+    private String key;
+    
+    private long count;
+}
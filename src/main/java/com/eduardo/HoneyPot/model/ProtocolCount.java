@@ -0,0 +1,21 @@
+package com.eduardo.HoneyPot.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contagem de logs por combinação de protocolo, porta e sucesso,
+ * resultado do $group usado nas estatísticas por protocolo
+ */
+@Data
+@NoArgsConstructor
+public class ProtocolCount {
+    
+    private String protocol;
+    
+    private int port;
+    
+    private boolean successful;
+    
+    private long count;
+}
@@ -0,0 +1,70 @@
+package com.eduardo.HoneyPot.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Resoluções suportadas pelos rollups de ataques
+ */
+public enum RollupResolution {
+    
+    MINUTE(ChronoUnit.MINUTES, "minute", "HH:mm"),
+    HOUR(ChronoUnit.HOURS, "hour", "HH:00"),
+    DAY(ChronoUnit.DAYS, "day", "dd/MM");
+    
+    private final ChronoUnit unit;
+    private final String mongoUnit;
+    private final DateTimeFormatter labelFormatter;
+    
+    RollupResolution(ChronoUnit unit, String mongoUnit, String labelPattern) {
+        this.unit = unit;
+        this.mongoUnit = mongoUnit;
+        this.labelFormatter = DateTimeFormatter.ofPattern(labelPattern);
+    }
+    
+    /**
+     * Início do bucket que contém o instante informado
+     */
+    public LocalDateTime truncate(LocalDateTime dateTime) {
+        return dateTime.truncatedTo(unit);
+    }
+    
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+    
+    public Duration getDuration() {
+        return unit.getDuration();
+    }
+    
+    /**
+     * Unidade equivalente para $dateTrunc no MongoDB
+     */
+    public String getMongoUnit() {
+        return mongoUnit;
+    }
+    
+    public String label(LocalDateTime bucketStart) {
+        return bucketStart.format(labelFormatter);
+    }
+    
+    /**
+     * Chave do documento de rollup (ex: HOUR:2025-08-22T07:00)
+     */
+    public String bucketId(LocalDateTime bucketStart) {
+        return name() + ":" + bucketStart;
+    }
+    
+    public static RollupResolution from(String value) {
+        if (value == null || value.isEmpty()) {
+            return HOUR;
+        }
+        try {
+            return valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Resolução inválida: " + value + " (use MINUTE, HOUR ou DAY)");
+        }
+    }
+}
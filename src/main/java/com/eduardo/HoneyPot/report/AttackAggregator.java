@@ -0,0 +1,13 @@
+package com.eduardo.HoneyPot.report;
+
+import com.eduardo.HoneyPot.model.AttackLog;
+
+/**
+ * Consumidor de uma passada do {@link ReportEngine}: recebe cada log uma única vez, na ordem do
+ * cursor, e acumula apenas o estado de que sua aba precisa
+ */
+@FunctionalInterface
+public interface AttackAggregator {
+
+    void accept(AttackLog attack);
+}
@@ -0,0 +1,41 @@
+package com.eduardo.HoneyPot.report;
+
+import org.apache.poi.ss.usermodel.Sheet;
+
+/**
+ * Estimativa de largura das colunas pelo maior texto escrito em cada uma, substituindo
+ * {@code autoSizeColumn} (que mede com fontes todas as células ainda em memória e não enxerga as
+ * linhas já descarregadas por planilhas SXSSF). Custo O(1) por célula e um int por coluna.
+ */
+public class ColumnWidths {
+
+    private static final int MIN_CHARS = 6;
+    private static final int MAX_CHARS = 60;
+    private static final int PADDING_CHARS = 2;
+
+    private final int[] maxChars;
+
+    public ColumnWidths(int columns) {
+        this.maxChars = new int[columns];
+    }
+
+    public void track(int column, String value) {
+        if (value != null && value.length() > maxChars[column]) {
+            maxChars[column] = value.length();
+        }
+    }
+
+    public void track(int column, long value) {
+        track(column, Long.toString(value));
+    }
+
+    /**
+     * Aplica as larguras estimadas (em 1/256 de caractere, limitadas a {@value #MAX_CHARS} caracteres)
+     */
+    public void apply(Sheet sheet) {
+        for (int column = 0; column < maxChars.length; column++) {
+            int chars = Math.min(Math.max(maxChars[column], MIN_CHARS) + PADDING_CHARS, MAX_CHARS);
+            sheet.setColumnWidth(column, chars * 256);
+        }
+    }
+}
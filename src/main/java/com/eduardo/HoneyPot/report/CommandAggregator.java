@@ -0,0 +1,74 @@
+package com.eduardo.HoneyPot.report;
+
+import com.eduardo.HoneyPot.model.AttackLog;
+import com.eduardo.HoneyPot.model.CommandExecution;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Execuções e IPs distintos por comando
+ */
+public class CommandAggregator implements AttackAggregator {
+
+    public static final class CommandStats {
+
+        private long executions;
+        private final Set<String> ips = new HashSet<>();
+
+        public long getExecutions() {
+            return executions;
+        }
+
+        public int getUniqueIps() {
+            return ips.size();
+        }
+
+        public Set<String> getIps() {
+            return Collections.unmodifiableSet(ips);
+        }
+    }
+
+    private final Map<String, CommandStats> stats = new LinkedHashMap<>();
+
+    @Override
+    public void accept(AttackLog attack) {
+        if (attack.getCommands() == null) {
+            return;
+        }
+        for (CommandExecution command : attack.getCommands()) {
+            CommandStats entry = stats.computeIfAbsent(command.getCommand(), k -> new CommandStats());
+            entry.executions++;
+            entry.ips.add(attack.getSourceIp());
+        }
+    }
+
+    /**
+     * Incorpora execuções já agregadas (parcial diária); os IPs são unidos, não somados
+     */
+    public void merge(String command, long executions, Collection<String> sourceIps) {
+        CommandStats entry = stats.computeIfAbsent(command, k -> new CommandStats());
+        entry.executions += executions;
+        entry.ips.addAll(sourceIps);
+    }
+
+    public Map<String, CommandStats> getStats() {
+        return stats;
+    }
+
+    /**
+     * Soma das execuções dos comandos que satisfazem o filtro (proporcional aos comandos distintos,
+     * não aos logs)
+     */
+    public long countExecutions(Predicate<String> filter) {
+        return stats.entrySet().stream()
+            .filter(entry -> entry.getKey() != null && filter.test(entry.getKey()))
+            .mapToLong(entry -> entry.getValue().executions)
+            .sum();
+    }
+}
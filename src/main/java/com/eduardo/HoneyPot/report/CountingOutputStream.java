@@ -0,0 +1,31 @@
+package com.eduardo.HoneyPot.report;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * Repassa ao consumidor a quantidade de bytes de cada escrita (progresso da geração)
+ */
+public class CountingOutputStream extends FilterOutputStream {
+
+    private final LongConsumer onBytesWritten;
+
+    public CountingOutputStream(OutputStream out, LongConsumer onBytesWritten) {
+        super(out);
+        this.onBytesWritten = onBytesWritten;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        onBytesWritten.accept(1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        onBytesWritten.accept(len);
+    }
+}
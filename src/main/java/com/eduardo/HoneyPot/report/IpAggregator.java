@@ -0,0 +1,61 @@
+package com.eduardo.HoneyPot.report;
+
+import com.eduardo.HoneyPot.model.AttackLog;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tentativas e última tentativa por IP de origem, calculadas na mesma passada (sem reler a lista
+ * para cada IP)
+ */
+public class IpAggregator implements AttackAggregator {
+
+    public static final class IpStats {
+
+        private long attempts;
+        private LocalDateTime lastAttempt;
+
+        public long getAttempts() {
+            return attempts;
+        }
+
+        public LocalDateTime getLastAttempt() {
+            return lastAttempt;
+        }
+    }
+
+    private final Map<String, IpStats> stats = new LinkedHashMap<>();
+
+    @Override
+    public void accept(AttackLog attack) {
+        merge(attack.getSourceIp(), 1, attack.getTimestamp());
+    }
+
+    /**
+     * Incorpora tentativas já agregadas (parcial diária)
+     */
+    public void merge(String sourceIp, long attempts, LocalDateTime lastAttempt) {
+        IpStats ip = stats.computeIfAbsent(sourceIp, k -> new IpStats());
+        ip.attempts += attempts;
+        if (lastAttempt != null && (ip.lastAttempt == null || lastAttempt.isAfter(ip.lastAttempt))) {
+            ip.lastAttempt = lastAttempt;
+        }
+    }
+
+    public Map<String, IpStats> getStats() {
+        return stats;
+    }
+
+    public long getUniqueIps() {
+        return stats.size();
+    }
+
+    /**
+     * IPs com mais de uma tentativa de conexão
+     */
+    public long getRepeatedIps() {
+        return stats.values().stream().filter(ip -> ip.attempts > 1).count();
+    }
+}
@@ -0,0 +1,41 @@
+package com.eduardo.HoneyPot.report;
+
+import com.eduardo.HoneyPot.model.AttackLog;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Total de ataques e contagem por protocolo (na ordem em que cada protocolo aparece)
+ */
+public class ProtocolAggregator implements AttackAggregator {
+
+    private final Map<String, Long> counts = new LinkedHashMap<>();
+    private long total;
+
+    @Override
+    public void accept(AttackLog attack) {
+        total++;
+        counts.merge(attack.getProtocol(), 1L, Long::sum);
+    }
+
+    /**
+     * Incorpora uma contagem já agregada (parcial diária)
+     */
+    public void add(String protocol, long count) {
+        total += count;
+        counts.merge(protocol, count, Long::sum);
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getCount(String protocol) {
+        return counts.getOrDefault(protocol, 0L);
+    }
+
+    public Map<String, Long> getCounts() {
+        return counts;
+    }
+}
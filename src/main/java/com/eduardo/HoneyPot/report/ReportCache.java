@@ -0,0 +1,239 @@
+package com.eduardo.HoneyPot.report;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache em disco de relatórios prontos, endereçado pelo hash do conteúdo de entrada (tipo,
+ * parâmetros e versão dos dados). O índice fica em memória em ordem de acesso (LRU) e é limitado em
+ * número de entradas e bytes; ao exceder, as entradas menos usadas saem do índice. Um relatório maior
+ * que o limite permanece sozinho até a próxima inclusão.
+ * <p>
+ * Quem lê um arquivo recebe um {@link Lease}: enquanto houver leituras abertas, uma entrada removida
+ * do índice mantém o arquivo em disco, que só é apagado quando o último leitor o libera. O cache só
+ * cria e apaga arquivos com o prefixo {@value #FILE_PREFIX}, então o diretório pode ser compartilhado.
+ */
+@Slf4j
+public class ReportCache {
+
+    static final String FILE_PREFIX = "honeypot-report-";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String REPORT_SUFFIX = ".report";
+
+    /**
+     * Leitura de um arquivo do cache; o arquivo não é apagado antes do {@link #close()}
+     */
+    public final class Lease implements Closeable {
+
+        private final Entry entry;
+        private boolean released;
+
+        private Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        public Path file() {
+            return entry.file;
+        }
+
+        public long size() {
+            return entry.size;
+        }
+
+        @Override
+        public void close() {
+            synchronized (ReportCache.this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+                entry.readers--;
+                if (entry.removed && entry.readers == 0) {
+                    delete(entry.file);
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        final Path file;
+        final long size;
+        int readers;
+        boolean removed;
+
+        Entry(Path file, long size) {
+            this.file = file;
+            this.size = size;
+        }
+    }
+
+    private final Path directory;
+    private final long maxBytes;
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private long sequence;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ReportCache(Path directory, long maxBytes, int maxEntries) {
+        if (maxBytes <= 0 || maxEntries <= 0) {
+            throw new IllegalArgumentException("Limites do cache devem ser positivos");
+        }
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Chave SHA-256 das partes informadas, na ordem recebida
+     */
+    public static String key(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Arquivo temporário no diretório do cache (mesmo sistema de arquivos, para mover sem cópia)
+     */
+    public Path createTempFile() throws IOException {
+        return Files.createTempFile(directory, FILE_PREFIX, TEMP_SUFFIX);
+    }
+
+    /**
+     * Apaga arquivos deixados por execuções anteriores (o índice não sobrevive ao reinício). Apenas
+     * arquivos comuns com o prefixo e as extensões do cache são removidos; o resto do diretório é
+     * preservado.
+     */
+    public synchronized int removeOrphans() throws IOException {
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                boolean owned = name.endsWith(TEMP_SUFFIX) || name.endsWith(REPORT_SUFFIX);
+                if (owned && Files.isRegularFile(file) && !isIndexed(file) && Files.deleteIfExists(file)) {
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Leitura da entrada, ou null se a chave não estiver no cache
+     */
+    public synchronized Lease get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || !Files.exists(entry.file)) {
+            if (entry != null) {
+                remove(key);
+            }
+            misses++;
+            return null;
+        }
+        hits++;
+        return lease(entry);
+    }
+
+    /**
+     * Move o arquivo gerado para o cache, aplica os limites e devolve a leitura da nova entrada
+     */
+    public synchronized Lease put(String key, Path file) throws IOException {
+        // Nome único por inclusão: a entrada substituída pode ainda estar sendo lida
+        Path target = directory.resolve(FILE_PREFIX + key + "-" + (sequence++) + REPORT_SUFFIX);
+        Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        remove(key);
+        Entry entry = new Entry(target, Files.size(target));
+        entries.put(key, entry);
+        totalBytes += entry.size;
+        evict(key);
+        return lease(entry);
+    }
+
+    public synchronized void clear() {
+        entries.values().forEach(this::discard);
+        entries.clear();
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("bytes", totalBytes);
+        stats.put("maxEntries", maxEntries);
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", evictions);
+        stats.put("openReaders", entries.values().stream().mapToInt(entry -> entry.readers).sum());
+        return stats;
+    }
+
+    // Remove as menos usadas até caber nos limites, preservando a que acabou de entrar
+    private void evict(String keep) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalBytes > maxBytes) && iterator.hasNext()) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            iterator.remove();
+            discard(eldest.getValue());
+            evictions++;
+        }
+    }
+
+    private Lease lease(Entry entry) {
+        entry.readers++;
+        return new Lease(entry);
+    }
+
+    private boolean isIndexed(Path file) {
+        return entries.values().stream().anyMatch(entry -> entry.file.equals(file));
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            discard(entry);
+        }
+    }
+
+    // Sai do índice na hora; o arquivo espera o último leitor
+    private void discard(Entry entry) {
+        totalBytes -= entry.size;
+        entry.removed = true;
+        if (entry.readers == 0) {
+            delete(entry.file);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Erro ao remover relatório em cache {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.eduardo.HoneyPot.report;
+
+import com.eduardo.HoneyPot.model.AttackLog;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Percorre os logs de ataque uma única vez entregando cada documento a todos os agregadores
+ * registrados. As abas dos relatórios são montadas a partir do estado dos agregadores, então o custo
+ * total é uma leitura da coleção e O(1) amortizado por log em cada agregador.
+ */
+public final class ReportEngine {
+
+    private ReportEngine() {
+    }
+
+    /**
+     * Consome o stream (sem fechá-lo) e retorna o número de logs lidos
+     */
+    public static long scan(Stream<AttackLog> attacks, List<? extends AttackAggregator> aggregators) {
+        AttackAggregator[] targets = aggregators.toArray(new AttackAggregator[0]);
+        long count = 0;
+        Iterator<AttackLog> iterator = attacks.iterator();
+        while (iterator.hasNext()) {
+            AttackLog attack = iterator.next();
+            for (AttackAggregator aggregator : targets) {
+                aggregator.accept(attack);
+            }
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,161 @@
+package com.eduardo.HoneyPot.report;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Geração assíncrona de um relatório. O estado é alterado apenas pela thread do pool que executa o
+ * job e lido pelas requisições de acompanhamento, por isso os campos são voláteis. O progresso é a
+ * etapa atual, os registros lidos e os bytes gravados no arquivo.
+ */
+public class ReportJob implements ReportProgress {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+
+    private final String id;
+    private final ReportType type;
+    private final ReportPeriod period;
+    private final String dedupKey;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong rowsProcessed = new AtomicLong();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile String stage;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile ReportCache.Lease lease;
+    private volatile String filename;
+    private volatile String error;
+
+    public ReportJob(String id, ReportType type, ReportPeriod period, String dedupKey) {
+        this.id = id;
+        this.type = type;
+        this.period = period;
+        this.dedupKey = dedupKey;
+    }
+
+    public void markRunning() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    /**
+     * Conclui o job mantendo o arquivo reservado no cache até {@link #release()}
+     */
+    public void markCompleted(ReportCache.Lease lease, String filename) {
+        this.stage = null;
+        this.lease = lease;
+        this.filename = filename;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.COMPLETED;
+    }
+
+    public void markFailed(String error) {
+        this.error = error;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+
+    /**
+     * Libera o arquivo no cache (job expirado); o download deixa de estar disponível
+     */
+    public void release() {
+        ReportCache.Lease current = lease;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    @Override
+    public void stage(String stage) {
+        this.stage = stage;
+    }
+
+    @Override
+    public void rowsProcessed(long rows) {
+        rowsProcessed.addAndGet(rows);
+    }
+
+    /**
+     * Progresso observável durante a escrita do arquivo
+     */
+    public void addBytesWritten(long bytes) {
+        bytesWritten.addAndGet(bytes);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ReportType getType() {
+        return type;
+    }
+
+    public ReportPeriod getPeriod() {
+        return period;
+    }
+
+    public String getDedupKey() {
+        return dedupKey;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public Path getFile() {
+        ReportCache.Lease current = lease;
+        return current != null ? current.file() : null;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed.get();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", id);
+        map.put("type", type.getType());
+        map.put("format", type.getFormat());
+        map.put("from", period.from());
+        map.put("to", period.to());
+        map.put("status", status);
+        map.put("createdAt", createdAt);
+        map.put("startedAt", startedAt);
+        map.put("finishedAt", finishedAt);
+        map.put("stage", stage);
+        map.put("rowsProcessed", rowsProcessed.get());
+        map.put("bytesWritten", bytesWritten.get());
+        map.put("filename", filename);
+        map.put("error", error);
+        map.put("statusUrl", "/api/reports/jobs/" + id);
+        map.put("downloadUrl", status == Status.COMPLETED ? "/api/reports/jobs/" + id + "/download" : null);
+        return map;
+    }
+}
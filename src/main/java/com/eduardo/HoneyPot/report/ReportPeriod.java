@@ -0,0 +1,124 @@
+package com.eduardo.HoneyPot.report;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Intervalo [from, to) dos dados de um relatório; limites nulos significam sem restrição
+ */
+public record ReportPeriod(LocalDateTime from, LocalDateTime to) {
+
+    public static final ReportPeriod ALL = new ReportPeriod(null, null);
+
+    private static final DateTimeFormatter DISPLAY = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    public ReportPeriod {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("O início do período deve ser anterior ao fim");
+        }
+    }
+
+    /**
+     * Dias completos de {@code first} a {@code last}, inclusive
+     */
+    public static ReportPeriod ofDays(LocalDate first, LocalDate last) {
+        return new ReportPeriod(first.atStartOfDay(), last.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Período fechado anterior a {@code today}: DAY (ontem), WEEK (semana de segunda a domingo) ou
+     * MONTH (mês civil)
+     */
+    public static ReportPeriod previous(String range, LocalDate today) {
+        switch (range.trim().toUpperCase(Locale.ROOT)) {
+            case "DAY":
+                return ofDays(today.minusDays(1), today.minusDays(1));
+            case "WEEK":
+                LocalDate monday = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(1);
+                return ofDays(monday, monday.plusDays(6));
+            case "MONTH":
+                LocalDate firstDay = today.withDayOfMonth(1).minusMonths(1);
+                return ofDays(firstDay, firstDay.with(TemporalAdjusters.lastDayOfMonth()));
+            default:
+                throw new IllegalArgumentException("Intervalo inválido: " + range + " (use DAY, WEEK ou MONTH)");
+        }
+    }
+
+    /**
+     * Dias completos cobertos pelo período, como lidos pelos relatórios por dia: sem limites, o dia
+     * anterior a {@code today}; o fim é limitado a {@code today}, que ainda recebe capturas
+     */
+    public ReportPeriod toWholeDays(LocalDate today) {
+        LocalDate first = from != null ? from.toLocalDate() : today.minusDays(1);
+        LocalDate last = to != null ? to.minusNanos(1).toLocalDate() : first;
+        if (from == null && to != null) {
+            first = last;
+        }
+        if (last.isAfter(today) && !first.isAfter(today)) {
+            last = today;
+        }
+        return ofDays(first, last);
+    }
+
+    /**
+     * Se o instante está dentro de [from, to)
+     */
+    public boolean includes(LocalDateTime instant) {
+        return (from == null || !instant.isBefore(from)) && (to == null || instant.isBefore(to));
+    }
+
+    public boolean isBounded() {
+        return from != null || to != null;
+    }
+
+    /**
+     * Filtro de {@code timestamp} (usa o índice do campo); vazio quando o período não tem limites
+     */
+    public Criteria criteria() {
+        if (!isBounded()) {
+            return new Criteria();
+        }
+        Criteria criteria = Criteria.where("timestamp");
+        if (from != null) {
+            criteria = criteria.gte(from);
+        }
+        if (to != null) {
+            criteria = criteria.lt(to);
+        }
+        return criteria;
+    }
+
+    public Query query() {
+        return isBounded() ? new Query(criteria()) : new Query();
+    }
+
+    /**
+     * Parâmetros que identificam o período na chave do cache e na deduplicação de jobs
+     */
+    public Map<String, String> toParams() {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (from != null) {
+            params.put("from", from.toString());
+        }
+        if (to != null) {
+            params.put("to", to.toString());
+        }
+        return params;
+    }
+
+    public String describe() {
+        if (!isBounded()) {
+            return "Todo o histórico";
+        }
+        return (from != null ? from.format(DISPLAY) : "início") + " até " + (to != null ? to.format(DISPLAY) : "agora");
+    }
+}
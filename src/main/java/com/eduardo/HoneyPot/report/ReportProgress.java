@@ -0,0 +1,25 @@
+package com.eduardo.HoneyPot.report;
+
+/**
+ * Progresso observável da geração de um relatório: a etapa atual e quantos registros já foram lidos.
+ * Chamado pela thread que gera o relatório; {@link #NONE} descarta tudo (downloads síncronos).
+ */
+public interface ReportProgress {
+
+    ReportProgress NONE = new ReportProgress() {
+        @Override
+        public void stage(String stage) {
+        }
+
+        @Override
+        public void rowsProcessed(long rows) {
+        }
+    };
+
+    void stage(String stage);
+
+    /**
+     * Soma registros lidos à contagem da etapa atual
+     */
+    void rowsProcessed(long rows);
+}
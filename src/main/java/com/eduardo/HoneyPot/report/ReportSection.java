@@ -0,0 +1,95 @@
+package com.eduardo.HoneyPot.report;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Conteúdo de uma aba já calculado (textos e números por linha), sem referência à planilha: as seções
+ * são montadas a partir dos agregadores e gravadas depois, na ordem do relatório.
+ */
+public final class ReportSection {
+
+    /**
+     * Máximo de caracteres de uma célula do Excel
+     */
+    public static final int EXCEL_MAX_CELL_LENGTH = 32_767;
+
+    private final List<List<Object>> rows;
+
+    private ReportSection(List<List<Object>> rows) {
+        this.rows = Collections.unmodifiableList(rows);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<List<Object>> getRows() {
+        return rows;
+    }
+
+    /**
+     * Grava as linhas a partir da primeira linha da aba; números viram células numéricas e textos são
+     * limitados ao máximo do Excel (32.767 caracteres)
+     */
+    public void writeTo(Sheet sheet) {
+        for (int rowNum = 0; rowNum < rows.size(); rowNum++) {
+            List<Object> values = rows.get(rowNum);
+            if (values.isEmpty()) {
+                continue;
+            }
+            Row row = sheet.createRow(rowNum);
+            for (int column = 0; column < values.size(); column++) {
+                Object value = values.get(column);
+                if (value instanceof Number number) {
+                    row.createCell(column).setCellValue(number.doubleValue());
+                } else if (value != null) {
+                    row.createCell(column).setCellValue(excelText(value.toString()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Texto da célula limitado ao máximo do Excel; nulo vira vazio
+     */
+    public static String excelText(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.length() > EXCEL_MAX_CELL_LENGTH ? value.substring(0, EXCEL_MAX_CELL_LENGTH) : value;
+    }
+
+    public static final class Builder {
+
+        private final List<List<Object>> rows = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Linha com os valores informados; células nulas ficam vazias
+         */
+        public Builder row(Object... values) {
+            rows.add(Arrays.asList(values.clone()));
+            return this;
+        }
+
+        /**
+         * Linha em branco (separador)
+         */
+        public Builder blank() {
+            rows.add(List.of());
+            return this;
+        }
+
+        public ReportSection build() {
+            return new ReportSection(new ArrayList<>(rows));
+        }
+    }
+}
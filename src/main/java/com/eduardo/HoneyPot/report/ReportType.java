@@ -0,0 +1,77 @@
+package com.eduardo.HoneyPot.report;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Relatórios disponíveis, identificados como na URL ({@code /api/reports/{tipo}/{formato}})
+ */
+public enum ReportType {
+
+    ATTACKS_PDF("attacks", "pdf", "relatorio_ataques", DataSource.ATTACKS),
+    ATTACKS_EXCEL("attacks", "excel", "relatorio_ataques", DataSource.ATTACKS),
+    STATISTICS_EXCEL("statistics", "excel", "relatorio_estatisticas", DataSource.ATTACKS),
+    NOTIFICATIONS_EXCEL("notifications", "excel", "relatorio_notificacoes", DataSource.NOTIFICATIONS),
+    CONSOLIDATED_EXCEL("consolidated", "excel", "relatorio_consolidado", DataSource.ATTACKS, DataSource.NOTIFICATIONS),
+    PERIOD_EXCEL("period", "excel", "relatorio_periodo", DataSource.ATTACKS);
+
+    /**
+     * Coleções das quais o relatório depende (definem o que invalida o cache)
+     */
+    public enum DataSource {
+        ATTACKS, NOTIFICATIONS
+    }
+
+    private static final String EXCEL_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private final String type;
+    private final String format;
+    private final String filePrefix;
+    private final Set<DataSource> dataSources;
+
+    ReportType(String type, String format, String filePrefix, DataSource dataSource, DataSource... more) {
+        this.type = type;
+        this.format = format;
+        this.filePrefix = filePrefix;
+        this.dataSources = EnumSet.of(dataSource, more);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public String getFilePrefix() {
+        return filePrefix;
+    }
+
+    /**
+     * Origens do relatório, na ordem da enum
+     */
+    public Set<DataSource> getDataSources() {
+        return dataSources;
+    }
+
+    public String getExtension() {
+        return "pdf".equals(format) ? "pdf" : "xlsx";
+    }
+
+    public String getContentType() {
+        return "pdf".equals(format) ? "application/pdf" : EXCEL_CONTENT_TYPE;
+    }
+
+    public static ReportType of(String type, String format) {
+        String normalizedType = type == null ? "" : type.trim().toLowerCase(Locale.ROOT);
+        String normalizedFormat = format == null ? "" : format.trim().toLowerCase(Locale.ROOT);
+        for (ReportType reportType : values()) {
+            if (reportType.type.equals(normalizedType) && reportType.format.equals(normalizedFormat)) {
+                return reportType;
+            }
+        }
+        throw new IllegalArgumentException("Relatório desconhecido: " + type + "/" + format);
+    }
+}
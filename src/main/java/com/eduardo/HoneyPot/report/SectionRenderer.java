@@ -0,0 +1,99 @@
+package com.eduardo.HoneyPot.report;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Monta as abas independentes de um relatório em paralelo (fork-join) a partir de agregados que não
+ * mudam mais, devolvendo as seções na ordem pedida para serem gravadas sequencialmente (o workbook do
+ * POI não é thread-safe). A lista é dividida ao meio até restar uma seção por tarefa.
+ * <p>
+ * O pool é compartilhado por todos os relatórios e limitado a {@code parallelism} threads, que só
+ * existem enquanto há seções para montar: threads ociosas por {@code keepAliveSeconds} são encerradas.
+ */
+public class SectionRenderer implements AutoCloseable {
+
+    private final ForkJoinPool pool;
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    /**
+     * @param parallelism número máximo de threads; {@code 0} usa um por processador disponível
+     * @param keepAliveSeconds tempo ocioso até uma thread ser encerrada
+     */
+    public SectionRenderer(int parallelism, long keepAliveSeconds) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("Paralelismo não pode ser negativo");
+        }
+        if (keepAliveSeconds <= 0) {
+            throw new IllegalArgumentException("Tempo ocioso deve ser positivo");
+        }
+        int threads = parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+        this.pool = new ForkJoinPool(threads, this::newThread, null, false,
+            0, threads, 1, null, keepAliveSeconds, TimeUnit.SECONDS);
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Threads vivas no momento (zero com o pool ocioso)
+     */
+    public int getPoolSize() {
+        return pool.getPoolSize();
+    }
+
+    /**
+     * Executa todas as seções e retorna os resultados na mesma ordem. Uma falha em qualquer seção é
+     * propagada para quem chamou.
+     */
+    public List<ReportSection> render(List<Supplier<ReportSection>> sections) {
+        ReportSection[] results = new ReportSection[sections.size()];
+        if (!sections.isEmpty()) {
+            pool.invoke(new RenderTask(sections, results, 0, sections.size()));
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("report-render-" + threadCount.incrementAndGet());
+        return thread;
+    }
+
+    private static final class RenderTask extends RecursiveAction {
+
+        private final List<Supplier<ReportSection>> sections;
+        private final ReportSection[] results;
+        private final int from;
+        private final int to;
+
+        private RenderTask(List<Supplier<ReportSection>> sections, ReportSection[] results, int from, int to) {
+            this.sections = sections;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                results[from] = sections.get(from).get();
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RenderTask(sections, results, from, middle), new RenderTask(sections, results, middle, to));
+        }
+    }
+}
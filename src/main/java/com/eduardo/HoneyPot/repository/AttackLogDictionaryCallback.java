@@ -0,0 +1,54 @@
+package com.eduardo.HoneyPot.repository;
+
+import com.eduardo.HoneyPot.model.AttackLog;
+import com.eduardo.HoneyPot.service.DictionaryService;
+import com.eduardo.HoneyPot.sketch.StringDictionary;
+import org.bson.Document;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertCallback;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aplica o dicionário aos logs de ataque: na leitura, usuário, senha, banner e IP passam a
+ * referenciar a instância compartilhada do valor; na gravação, com a codificação de documentos
+ * ativa, o banner é substituído pelo código inteiro (campo bannerCode).
+ */
+@Component
+public class AttackLogDictionaryCallback implements BeforeSaveCallback<AttackLog>, AfterConvertCallback<AttackLog> {
+
+    static final String BANNER_CODE_FIELD = "bannerCode";
+
+    private final DictionaryService dictionaryService;
+
+    // Lazy: o DictionaryService depende do MongoTemplate, que por sua vez carrega os callbacks
+    public AttackLogDictionaryCallback(@Lazy DictionaryService dictionaryService) {
+        this.dictionaryService = dictionaryService;
+    }
+
+    @Override
+    public AttackLog onBeforeSave(AttackLog entity, Document document, String collection) {
+        if (!dictionaryService.isEncodeDocuments() || entity.getBanner() == null) {
+            return entity;
+        }
+        int code = dictionaryService.encodeBanner(entity.getBanner());
+        if (code != StringDictionary.NO_CODE) {
+            document.remove("banner");
+            document.put(BANNER_CODE_FIELD, code);
+            dictionaryService.recordDocumentSaving("banner", BANNER_CODE_FIELD, entity.getBanner());
+        }
+        return entity;
+    }
+
+    @Override
+    public AttackLog onAfterConvert(AttackLog entity, Document document, String collection) {
+        if (entity.getBanner() == null && document.get(BANNER_CODE_FIELD) instanceof Integer code) {
+            entity.setBanner(dictionaryService.decodeBanner(code));
+        }
+        entity.setUsername(dictionaryService.canonical(DictionaryService.Field.USERNAME, entity.getUsername()));
+        entity.setPassword(dictionaryService.canonical(DictionaryService.Field.PASSWORD, entity.getPassword()));
+        entity.setBanner(dictionaryService.canonical(DictionaryService.Field.BANNER, entity.getBanner()));
+        entity.setSourceIp(dictionaryService.canonical(DictionaryService.Field.IP, entity.getSourceIp()));
+        return entity;
+    }
+}
@@ -1,12 +1,18 @@
 package com.eduardo.HoneyPot.repository;
 
 import com.eduardo.HoneyPot.model.AttackLog;
+import com.eduardo.HoneyPot.model.IpAttackSummary;
+import com.eduardo.HoneyPot.model.KeyCount;
+import com.eduardo.HoneyPot.model.ProtocolCount;
+import org.springframework.data.mongodb.repository.Aggregation;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AttackLogRepository extends MongoRepository<AttackLog, String> {
@@ -35,4 +41,79 @@ public interface AttackLogRepository extends MongoRepository<AttackLog, String>
     
     // Buscar logs por intervalo de tempo
     List<AttackLog> findByTimestampBetweenOrderByTimestampAsc(LocalDateTime startTime, LocalDateTime endTime);
+    
+    // Top IPs agregados no servidor: contagem e último ataque por IP em uma única passada
+    @Aggregation(pipeline = {
+        "{ $group: { _id: '$sourceIp', count: { $sum: 1 }, lastAttack: { $max: '$timestamp' } } }",
+        "{ $sort: { count: -1, _id: 1 } }",
+        "{ $limit: ?0 }"
+    })
+    List<IpAttackSummary> aggregateTopSourceIps(int limit);
+    
+    // Top IPs restritos a uma janela de tempo
+    @Aggregation(pipeline = {
+        "{ $match: { timestamp: { $gte: ?0 } } }",
+        "{ $group: { _id: '$sourceIp', count: { $sum: 1 }, lastAttack: { $max: '$timestamp' } } }",
+        "{ $sort: { count: -1, _id: 1 } }",
+        "{ $limit: ?1 }"
+    })
+    List<IpAttackSummary> aggregateTopSourceIpsSince(LocalDateTime since, int limit);
+    
+    // Contagens agrupadas usadas para reconstruir as estatísticas em memória
+    @Aggregation(pipeline = "{ $group: { _id: '$protocol', count: { $sum: 1 } } }")
+    List<KeyCount> countGroupedByProtocol();
+    
+    @Meta(allowDiskUse = true)
+    @Aggregation(pipeline = "{ $group: { _id: '$sourceIp', count: { $sum: 1 } } }")
+    List<KeyCount> countGroupedBySourceIp();
+    
+    // Contagem por protocolo, porta e sucesso em um único $group; totais e percentuais são derivados no serviço
+    @Aggregation(pipeline = {
+        "{ $group: { _id: { protocol: '$protocol', port: '$port', successful: '$successful' }, count: { $sum: 1 } } }",
+        "{ $project: { _id: 0, protocol: '$_id.protocol', port: '$_id.port', successful: '$_id.successful', count: 1 } }"
+    })
+    List<ProtocolCount> countGroupedByProtocolPortAndSuccess();
+    
+    // Contagens por chave lidas via cursor, usadas para reconstruir os sketches de itens frequentes
+    @Meta(allowDiskUse = true)
+    @Aggregation(pipeline = {
+        "{ $match: { username: { $ne: null } } }",
+        "{ $group: { _id: '$username', count: { $sum: 1 } } }"
+    })
+    Stream<KeyCount> streamCountsByUsername();
+    
+    @Meta(allowDiskUse = true)
+    @Aggregation(pipeline = {
+        "{ $match: { password: { $ne: null } } }",
+        "{ $group: { _id: '$password', count: { $sum: 1 } } }"
+    })
+    Stream<KeyCount> streamCountsByPassword();
+    
+    @Meta(allowDiskUse = true)
+    @Aggregation(pipeline = {
+        "{ $match: { username: { $ne: null }, password: { $ne: null } } }",
+        "{ $group: { _id: { $concat: ['$username', ':', '$password'] }, count: { $sum: 1 } } }"
+    })
+    Stream<KeyCount> streamCountsByCredential();
+    
+    @Meta(allowDiskUse = true)
+    @Aggregation(pipeline = {
+        "{ $unwind: '$commands' }",
+        "{ $group: { _id: '$commands.command', count: { $sum: 1 } } }"
+    })
+    Stream<KeyCount> streamCountsByCommand();
+    
+    @Meta(allowDiskUse = true)
+    @Aggregation(pipeline = "{ $group: { _id: '$sourceIp', count: { $sum: 1 } } }")
+    Stream<KeyCount> streamCountsBySourceIp();
+    
+    // Top credenciais agregadas no servidor (chave usuario:senha)
+    @Meta(allowDiskUse = true)
+    @Aggregation(pipeline = {
+        "{ $match: { username: { $ne: null }, password: { $ne: null } } }",
+        "{ $group: { _id: { $concat: ['$username', ':', '$password'] }, count: { $sum: 1 } } }",
+        "{ $sort: { count: -1, _id: 1 } }",
+        "{ $limit: ?0 }"
+    })
+    List<KeyCount> aggregateTopCredentials(int limit);
 }
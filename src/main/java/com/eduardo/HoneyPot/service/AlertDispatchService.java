@@ -0,0 +1,118 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.alerting.AlertDestination;
+import com.eduardo.HoneyPot.alerting.AlertDispatcher;
+import com.eduardo.HoneyPot.alerting.SyslogDestination;
+import com.eduardo.HoneyPot.alerting.WebhookDestination;
+import com.eduardo.HoneyPot.event.NotificationCreatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encaminhamento das notificações para o SOC via webhooks HTTP ({@code honeypot.alerts.webhooks},
+ * URLs separadas por vírgula) e syslog ({@code honeypot.alerts.syslog.address}, host:porta).
+ * Sem destinos configurados o serviço fica inativo.
+ */
+@Slf4j
+@Service
+public class AlertDispatchService {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${honeypot.alerts.webhooks:}")
+    private List<String> webhooks;
+
+    @Value("${honeypot.alerts.syslog.address:}")
+    private String syslogAddress;
+
+    @Value("${honeypot.alerts.syslog.transport:UDP}")
+    private SyslogDestination.Transport syslogTransport;
+
+    @Value("${honeypot.alerts.min-priority:1}")
+    private int minPriority;
+
+    @Value("${honeypot.alerts.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${honeypot.alerts.batch-size:50}")
+    private int batchSize;
+
+    @Value("${honeypot.alerts.linger-ms:1000}")
+    private long lingerMs;
+
+    @Value("${honeypot.alerts.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${honeypot.alerts.initial-backoff-ms:500}")
+    private long initialBackoffMs;
+
+    @Value("${honeypot.alerts.max-backoff-ms:30000}")
+    private long maxBackoffMs;
+
+    @Value("${honeypot.alerts.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Value("${honeypot.alerts.drop-policy:DROP_OLDEST}")
+    private AlertDispatcher.DropPolicy dropPolicy;
+
+    private AlertDispatcher dispatcher;
+
+    @PostConstruct
+    public void initialize() {
+        List<AlertDestination> destinations = new ArrayList<>();
+        int index = 1;
+        for (String webhook : webhooks) {
+            if (!webhook.isBlank()) {
+                destinations.add(new WebhookDestination("webhook-" + index++, URI.create(webhook.trim()),
+                    Duration.ofMillis(timeoutMs), objectMapper));
+            }
+        }
+        if (!syslogAddress.isBlank()) {
+            int separator = syslogAddress.lastIndexOf(':');
+            String host = separator > 0 ? syslogAddress.substring(0, separator) : syslogAddress;
+            int port = separator > 0 ? Integer.parseInt(syslogAddress.substring(separator + 1)) : 514;
+            destinations.add(new SyslogDestination("syslog", new InetSocketAddress(host, port), syslogTransport));
+        }
+        if (destinations.isEmpty()) {
+            log.info("Nenhum destino externo de alertas configurado");
+            return;
+        }
+
+        dispatcher = new AlertDispatcher(destinations, new AlertDispatcher.Settings(
+            queueCapacity, batchSize, Duration.ofMillis(lingerMs), maxAttempts,
+            Duration.ofMillis(initialBackoffMs), Duration.ofMillis(maxBackoffMs), dropPolicy), meterRegistry);
+        dispatcher.start();
+        log.info("Encaminhamento de alertas ativo para {} destino(s)", destinations.size());
+    }
+
+    @EventListener
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        if (dispatcher != null && event.getNotification().getPriority() >= minPriority) {
+            dispatcher.dispatch(event.getNotification());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.event.AttackCapturedEvent;
+import com.eduardo.HoneyPot.event.AttackLogsClearedEvent;
+import com.eduardo.HoneyPot.model.AttackLog;
+import com.eduardo.HoneyPot.model.Campaign;
+import com.eduardo.HoneyPot.model.CommandExecution;
+import com.eduardo.HoneyPot.sketch.HyperLogLog;
+import com.eduardo.HoneyPot.sketch.LshIndex;
+import com.eduardo.HoneyPot.sketch.MinHash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Agrupamento de sessões em campanhas pelas sequências de comandos. Ao fim de cada sessão os
+ * comandos são normalizados, divididos em shingles e resumidos em uma assinatura MinHash; o índice
+ * LSH devolve só as campanhas que colidem em algum bucket, e a sessão entra na mais parecida acima de
+ * {@code honeypot.campaigns.similarity-threshold} ou abre uma nova. Nenhuma comparação par a par
+ * com o histórico é feita. Campanhas e atribuições são gravadas em lote a cada flush.
+ */
+@Slf4j
+@Service
+public class CampaignService {
+
+    // 32 bandas x 4 linhas: sessões com 60% de similaridade viram candidatas com ~99% de chance
+    private static final int BANDS = 32;
+    private static final int ROWS = 4;
+    private static final int SHINGLE_SIZE = 2;
+    private static final int MAX_REPRESENTATIVE_COMMANDS = 50;
+    private static final int BACKFILL_FLUSH_EVERY = 5000;
+
+    private static final Pattern IPV4 = Pattern.compile("\\b\\d{1,3}(\\.\\d{1,3}){3}\\b");
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${honeypot.campaigns.similarity-threshold:0.6}")
+    private double similarityThreshold;
+
+    @Value("${honeypot.campaigns.max-member-ips:200}")
+    private int maxMemberIps;
+
+    private final MinHash minHash = new MinHash(BANDS * ROWS);
+    private final LshIndex lshIndex = new LshIndex(BANDS, ROWS);
+
+    // Estado protegido pelo lock da instância
+    private final Map<String, Campaign> campaigns = new HashMap<>();
+    private final Map<String, HyperLogLog> ipSketches = new HashMap<>();
+    private final Set<String> dirty = new HashSet<>();
+    private final Map<String, String> pendingAssignments = new HashMap<>(); // id do log -> campanha
+
+    private volatile boolean ready = false;
+
+    @EventListener
+    public void onAttackCaptured(AttackCapturedEvent event) {
+        if (event.getType() == AttackCapturedEvent.Type.SESSION_ENDED && ready) {
+            assign(event.getAttackLog());
+        }
+    }
+
+    @EventListener
+    public void onAttackLogsCleared(AttackLogsClearedEvent event) {
+        synchronized (this) {
+            campaigns.clear();
+            ipSketches.clear();
+            dirty.clear();
+            pendingAssignments.clear();
+            lshIndex.clear();
+        }
+        try {
+            mongoTemplate.remove(new Query(), Campaign.class);
+        } catch (Exception e) {
+            log.error("Erro ao limpar campanhas: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Carrega as campanhas e reconstrói o índice LSH; sem campanhas gravadas, agrupa o histórico
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void initialize() {
+        try {
+            mongoTemplate.indexOps(AttackLog.class)
+                .createIndex(new Index().on("campaignId", Sort.Direction.ASC).sparse());
+
+            List<Campaign> stored = mongoTemplate.findAll(Campaign.class);
+            synchronized (this) {
+                for (Campaign campaign : stored) {
+                    register(campaign);
+                    ipSketches.put(campaign.getId(), campaign.getIpSketch() != null
+                        ? HyperLogLog.fromBytes(campaign.getIpSketch()) : new HyperLogLog());
+                }
+            }
+            if (stored.isEmpty()) {
+                backfillFromAttackLogs();
+            }
+            ready = true;
+            log.info("Campanhas carregadas: {} (limiar de similaridade {})", stored.size(), similarityThreshold);
+        } catch (Exception e) {
+            log.error("Erro ao inicializar campanhas: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Atribui a sessão à campanha mais parecida entre os candidatos do LSH, ou cria uma nova
+     */
+    public synchronized Campaign assign(AttackLog attackLog) {
+        List<String> tokens = normalize(attackLog.getCommands());
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        long[] signature = minHash.signature(MinHash.shingles(tokens, SHINGLE_SIZE));
+
+        Campaign best = null;
+        double bestSimilarity = similarityThreshold;
+        for (String candidateId : lshIndex.candidates(signature)) {
+            Campaign candidate = campaigns.get(candidateId);
+            double similarity = MinHash.similarity(signature, candidate.getSignature());
+            if (similarity >= bestSimilarity) {
+                best = candidate;
+                bestSimilarity = similarity;
+            }
+        }
+
+        if (best == null) {
+            best = new Campaign();
+            best.setId(UUID.randomUUID().toString());
+            best.setSignature(signature);
+            best.setRepresentativeCommands(attackLog.getCommands().stream()
+                .map(CommandExecution::getCommand)
+                .limit(MAX_REPRESENTATIVE_COMMANDS)
+                .toList());
+            best.setFirstSeen(attackLog.getTimestamp());
+            register(best);
+            ipSketches.put(best.getId(), new HyperLogLog());
+        }
+
+        best.setSessions(best.getSessions() + 1);
+        LocalDateTime seen = attackLog.getTimestamp();
+        if (seen != null && (best.getLastSeen() == null || seen.isAfter(best.getLastSeen()))) {
+            best.setLastSeen(seen);
+        }
+        if (seen != null && (best.getFirstSeen() == null || seen.isBefore(best.getFirstSeen()))) {
+            best.setFirstSeen(seen);
+        }
+        if (attackLog.getSourceIp() != null) {
+            if (best.getMemberIps().size() < maxMemberIps) {
+                best.getMemberIps().add(attackLog.getSourceIp());
+            }
+            ipSketches.get(best.getId()).add(attackLog.getSourceIp());
+        }
+        if (attackLog.getProtocol() != null) {
+            best.getProtocols().merge(attackLog.getProtocol(), 1L, Long::sum);
+        }
+
+        dirty.add(best.getId());
+        if (attackLog.getId() != null) {
+            pendingAssignments.put(attackLog.getId(), best.getId());
+        }
+        return best;
+    }
+
+    /**
+     * Grava as campanhas alteradas e o campaignId das sessões atribuídas desde o último flush
+     */
+    @Scheduled(fixedDelayString = "${honeypot.campaigns.flush-interval-ms:10000}")
+    public void flush() {
+        List<Campaign> changed = new ArrayList<>();
+        Map<String, String> assignments;
+        synchronized (this) {
+            if (dirty.isEmpty() && pendingAssignments.isEmpty()) {
+                return;
+            }
+            for (String id : dirty) {
+                Campaign copy = campaigns.get(id).copy();
+                copy.setIpSketch(ipSketches.get(id).toBytes());
+                changed.add(copy);
+            }
+            dirty.clear();
+            assignments = new HashMap<>(pendingAssignments);
+            pendingAssignments.clear();
+        }
+
+        try {
+            changed.forEach(mongoTemplate::save);
+            if (!assignments.isEmpty()) {
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AttackLog.class);
+                assignments.forEach((logId, campaignId) -> bulk.updateOne(
+                    new Query(Criteria.where("_id").is(logId)), new Update().set("campaignId", campaignId)));
+                bulk.execute();
+            }
+            log.debug("Campanhas gravadas: {} alteradas, {} sessões atribuídas", changed.size(), assignments.size());
+        } catch (Exception e) {
+            log.error("Erro ao gravar campanhas: {}", e.getMessage(), e);
+            synchronized (this) {
+                changed.forEach(campaign -> dirty.add(campaign.getId()));
+                assignments.forEach(pendingAssignments::putIfAbsent);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Campanhas ordenadas por número de sessões
+     */
+    public Map<String, Object> listCampaigns(int minSessions, int limit) {
+        List<Map<String, Object>> items;
+        int total;
+        synchronized (this) {
+            total = campaigns.size();
+            items = campaigns.values().stream()
+                .filter(campaign -> campaign.getSessions() >= minSessions)
+                .sorted(Comparator.comparingLong(Campaign::getSessions).reversed())
+                .limit(limit)
+                .map(this::summary)
+                .toList();
+        }
+        return Map.of(
+            "campaigns", items,
+            "total", total,
+            "minSessions", minSessions,
+            "limit", limit,
+            "ready", ready,
+            "timestamp", LocalDateTime.now()
+        );
+    }
+
+    /**
+     * Detalhe da campanha com as sessões mais recentes atribuídas a ela
+     */
+    public Map<String, Object> getCampaign(String id, int recentSessions) {
+        Map<String, Object> result;
+        synchronized (this) {
+            Campaign campaign = campaigns.get(id);
+            if (campaign == null) {
+                return null;
+            }
+            result = summary(campaign);
+            result.put("memberIps", new ArrayList<>(campaign.getMemberIps()));
+        }
+        Query query = new Query(Criteria.where("campaignId").is(id))
+            .with(Sort.by(Sort.Direction.DESC, "timestamp"))
+            .limit(recentSessions);
+        result.put("recentSessions", mongoTemplate.find(query, AttackLog.class));
+        result.put("timestamp", LocalDateTime.now());
+        return result;
+    }
+
+    // Métodos auxiliares
+    private void register(Campaign campaign) {
+        campaigns.put(campaign.getId(), campaign);
+        lshIndex.add(campaign.getId(), campaign.getSignature());
+    }
+
+    private Map<String, Object> summary(Campaign campaign) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("id", campaign.getId());
+        summary.put("sessions", campaign.getSessions());
+        summary.put("uniqueIps", ipSketches.get(campaign.getId()).estimate());
+        summary.put("sampleIps", campaign.getMemberIps().stream().limit(10).toList());
+        summary.put("representativeScript", campaign.getRepresentativeCommands());
+        summary.put("protocols", new HashMap<>(campaign.getProtocols()));
+        summary.put("firstSeen", campaign.getFirstSeen());
+        summary.put("lastSeen", campaign.getLastSeen());
+        return summary;
+    }
+
+    /**
+     * Normaliza os comandos para que variações irrelevantes (IPs, portas, nomes aleatórios com números)
+     * não separem sessões da mesma campanha
+     */
+    static List<String> normalize(List<CommandExecution> commands) {
+        if (commands == null) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>(commands.size());
+        for (CommandExecution execution : commands) {
+            if (execution.getCommand() == null || execution.getCommand().isBlank()) {
+                continue;
+            }
+            String token = WHITESPACE.matcher(execution.getCommand().trim()).replaceAll(" ");
+            token = IPV4.matcher(token).replaceAll("<ip>");
+            token = DIGITS.matcher(token).replaceAll("0");
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    /**
+     * Agrupa as sessões já gravadas, em ordem cronológica, lendo via cursor apenas os campos usados
+     */
+    private void backfillFromAttackLogs() {
+        Query query = new Query(Criteria.where("commands.0").exists(true))
+            .with(Sort.by(Sort.Direction.ASC, "timestamp"));
+        query.fields().include("sourceIp", "protocol", "timestamp", "commands");
+
+        int processed = 0;
+        try (Stream<AttackLog> logs = mongoTemplate.stream(query, AttackLog.class)) {
+            Iterator<AttackLog> iterator = logs.iterator();
+            while (iterator.hasNext()) {
+                assign(iterator.next());
+                if (++processed % BACKFILL_FLUSH_EVERY == 0) {
+                    flush();
+                }
+            }
+        }
+        flush();
+        synchronized (this) {
+            log.info("Backfill de campanhas: {} sessões agrupadas em {} campanhas", processed, campaigns.size());
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.event.AttackCapturedEvent;
+import com.eduardo.HoneyPot.event.AttackLogsClearedEvent;
+import com.eduardo.HoneyPot.model.AttackLog;
+import com.eduardo.HoneyPot.model.AttackRollup;
+import com.eduardo.HoneyPot.model.RollupResolution;
+import com.eduardo.HoneyPot.sketch.HyperLogLog;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cardinalidade de IPs atacantes via sketches HyperLogLog por bucket (hora e dia),
+ * gravados no campo ipSketch dos documentos de attack_rollups, mais um sketch
+ * acumulado de todo o histórico (documento ALL). Consultas unem os sketches da janela,
+ * sem tocar em attack_logs. Erro padrão relativo: ~1,6% (precisão 12).
+ */
+@Slf4j
+@Service
+public class CardinalityService {
+
+    public static final String ALL_TIME_ID = "ALL";
+
+    private static final RollupResolution[] SKETCH_RESOLUTIONS = {RollupResolution.HOUR, RollupResolution.DAY};
+    private static final int CLOSED_BUCKET_CACHE_SIZE = 256;
+
+    public enum Window {
+        HOUR, DAY, MONTH, ALL
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Buckets ativos (recebendo capturas); cada sketch é sincronizado individualmente
+    private final Map<String, ActiveSketch> active = new ConcurrentHashMap<>();
+    private volatile ActiveSketch allTime = new ActiveSketch(null, null);
+
+    // Sketches de buckets fechados já lidos do banco (imutáveis)
+    private final Map<String, HyperLogLog> closedCache = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, HyperLogLog> eldest) {
+                return size() > CLOSED_BUCKET_CACHE_SIZE;
+            }
+        });
+
+    @EventListener
+    public void onAttackCaptured(AttackCapturedEvent event) {
+        if (event.getType() != AttackCapturedEvent.Type.SESSION_STARTED) {
+            return;
+        }
+        AttackLog attackLog = event.getAttackLog();
+        if (attackLog.getSourceIp() == null) {
+            return;
+        }
+        long hash = HyperLogLog.hash64(attackLog.getSourceIp());
+        LocalDateTime timestamp = attackLog.getTimestamp() != null ? attackLog.getTimestamp() : LocalDateTime.now();
+
+        for (RollupResolution resolution : SKETCH_RESOLUTIONS) {
+            LocalDateTime bucketStart = resolution.truncate(timestamp);
+            active.computeIfAbsent(resolution.bucketId(bucketStart), id -> new ActiveSketch(resolution, bucketStart))
+                .add(hash);
+        }
+        allTime.add(hash);
+    }
+
+    @EventListener
+    public void onAttackLogsCleared(AttackLogsClearedEvent event) {
+        active.clear();
+        closedCache.clear();
+        allTime = new ActiveSketch(null, null);
+    }
+
+    /**
+     * Carrega o sketch acumulado e faz o backfill a partir de attack_logs na primeira execução
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void initialize() {
+        try {
+            AttackRollup stored = mongoTemplate.findById(ALL_TIME_ID, AttackRollup.class);
+            if (stored != null && stored.getIpSketch() != null) {
+                allTime = new ActiveSketch(null, null);
+                allTime.mergeStored(stored.getIpSketch());
+            } else if (mongoTemplate.estimatedCount(AttackLog.class) > 0) {
+                backfillFromAttackLogs();
+            }
+        } catch (Exception e) {
+            log.error("Erro ao inicializar sketches de cardinalidade: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Grava os sketches alterados e descarta da memória os buckets que já fecharam
+     */
+    @Scheduled(fixedDelayString = "${honeypot.rollups.flush-interval-ms:5000}")
+    public void flush() {
+        List<ActiveSketch> written = new ArrayList<>();
+        try {
+            BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AttackRollup.class);
+
+            for (Map.Entry<String, ActiveSketch> entry : active.entrySet()) {
+                ActiveSketch sketch = entry.getValue();
+                if (sketch.isDirty()) {
+                    if (!sketch.isLoaded()) {
+                        // Primeiro flush do bucket neste processo: incorpora o que já estava gravado
+                        AttackRollup stored = mongoTemplate.findById(entry.getKey(), AttackRollup.class);
+                        if (stored != null && stored.getIpSketch() != null) {
+                            sketch.mergeStored(stored.getIpSketch());
+                        }
+                        sketch.markLoaded();
+                    }
+                    operations.upsert(byId(entry.getKey()), new Update()
+                        .setOnInsert("resolution", sketch.resolution.name())
+                        .setOnInsert("bucketStart", sketch.bucketStart)
+                        .set("ipSketch", sketch.snapshotAndClean()));
+                    written.add(sketch);
+                }
+            }
+
+            if (allTime.isDirty()) {
+                if (!allTime.isLoaded()) {
+                    AttackRollup stored = mongoTemplate.findById(ALL_TIME_ID, AttackRollup.class);
+                    if (stored != null && stored.getIpSketch() != null) {
+                        allTime.mergeStored(stored.getIpSketch());
+                    }
+                    allTime.markLoaded();
+                }
+                operations.upsert(byId(ALL_TIME_ID), new Update()
+                    .setOnInsert("resolution", ALL_TIME_ID)
+                    .set("ipSketch", allTime.snapshotAndClean()));
+                written.add(allTime);
+            }
+
+            if (!written.isEmpty()) {
+                operations.execute();
+                log.debug("{} sketches de cardinalidade gravados", written.size());
+            }
+        } catch (Exception e) {
+            // Mantém os sketches como pendentes para a próxima tentativa
+            written.forEach(ActiveSketch::markDirty);
+            log.warn("Erro ao gravar sketches de cardinalidade: {}", e.getMessage());
+        }
+
+        // Buckets anteriores ao corrente (com folga de um bucket) já gravados não recebem mais capturas
+        LocalDateTime now = LocalDateTime.now();
+        active.entrySet().removeIf(entry -> {
+            ActiveSketch sketch = entry.getValue();
+            return !sketch.isDirty()
+                && sketch.bucketStart.isBefore(sketch.resolution.truncate(now).minus(sketch.resolution.getDuration()));
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Estimativa de IPs únicos na janela. As janelas são arredondadas para buckets inteiros:
+     * HOUR usa as 2 últimas horas-bucket, DAY as últimas 25 horas-bucket e MONTH os últimos 31 dias-bucket.
+     */
+    public long estimateUniqueIps(Window window) {
+        if (window == Window.ALL) {
+            return allTime.estimate();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        RollupResolution resolution = window == Window.MONTH ? RollupResolution.DAY : RollupResolution.HOUR;
+        int buckets = window == Window.HOUR ? 2 : window == Window.DAY ? 25 : 31;
+
+        HyperLogLog merged = new HyperLogLog();
+        List<String> missing = new ArrayList<>();
+        LocalDateTime bucket = resolution.truncate(now);
+        for (int i = 0; i < buckets; i++) {
+            String id = resolution.bucketId(bucket);
+            ActiveSketch activeSketch = active.get(id);
+            HyperLogLog cached = closedCache.get(id);
+            if (activeSketch != null && activeSketch.isLoaded()) {
+                activeSketch.mergeInto(merged);
+            } else if (cached != null && activeSketch == null) {
+                merged.merge(cached);
+            } else {
+                if (activeSketch != null) {
+                    activeSketch.mergeInto(merged);
+                }
+                missing.add(id);
+            }
+            bucket = bucket.minus(resolution.getDuration());
+        }
+
+        if (!missing.isEmpty()) {
+            for (AttackRollup rollup : mongoTemplate.find(new Query(Criteria.where("_id").in(missing)), AttackRollup.class)) {
+                if (rollup.getIpSketch() != null) {
+                    HyperLogLog stored = HyperLogLog.fromBytes(rollup.getIpSketch());
+                    merged.merge(stored);
+                    if (!active.containsKey(rollup.getId())) {
+                        closedCache.put(rollup.getId(), stored);
+                    }
+                }
+            }
+        }
+        return merged.estimate();
+    }
+
+    public Map<String, Long> estimateAllWindows() {
+        Map<String, Long> estimates = new LinkedHashMap<>();
+        estimates.put("lastHour", estimateUniqueIps(Window.HOUR));
+        estimates.put("lastDay", estimateUniqueIps(Window.DAY));
+        estimates.put("lastMonth", estimateUniqueIps(Window.MONTH));
+        estimates.put("allTime", estimateUniqueIps(Window.ALL));
+        return estimates;
+    }
+
+    public double getRelativeStandardError() {
+        return 1.04 / Math.sqrt(1 << HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    // Métodos auxiliares
+    private static Query byId(String id) {
+        return new Query(Criteria.where("_id").is(id));
+    }
+
+    /**
+     * Reconstrói os sketches por hora, dia e total a partir dos pares (hora, IP) distintos
+     */
+    private void backfillFromAttackLogs() {
+        String timezone = ZoneId.systemDefault().getId();
+        List<Document> pipeline = List.of(new Document("$group", new Document("_id",
+            new Document("bucket", new Document("$dateTrunc",
+                    new Document("date", "$timestamp").append("unit", "hour").append("timezone", timezone)))
+                .append("ip", "$sourceIp"))));
+
+        Map<String, ActiveSketch> rebuilt = new HashMap<>();
+        ActiveSketch rebuiltAllTime = new ActiveSketch(null, null);
+        for (Document row : mongoTemplate.getCollection(mongoTemplate.getCollectionName(AttackLog.class))
+                .aggregate(pipeline).allowDiskUse(true)) {
+            Document id = row.get("_id", Document.class);
+            String ip = id.getString("ip");
+            if (ip == null) {
+                continue;
+            }
+            long hash = HyperLogLog.hash64(ip);
+            LocalDateTime hour = LocalDateTime.ofInstant(id.getDate("bucket").toInstant(), ZoneId.systemDefault());
+            for (RollupResolution resolution : SKETCH_RESOLUTIONS) {
+                LocalDateTime bucketStart = resolution.truncate(hour);
+                rebuilt.computeIfAbsent(resolution.bucketId(bucketStart), key -> new ActiveSketch(resolution, bucketStart))
+                    .add(hash);
+            }
+            rebuiltAllTime.add(hash);
+        }
+
+        rebuilt.values().forEach(ActiveSketch::markLoaded);
+        rebuiltAllTime.markLoaded();
+        active.putAll(rebuilt);
+        allTime = rebuiltAllTime;
+        flush();
+        log.info("Backfill de sketches de cardinalidade: {} buckets, ~{} IPs únicos", rebuilt.size(), allTime.estimate());
+    }
+
+    /**
+     * Sketch de um bucket em memória com controle de alterações pendentes
+     */
+    private static class ActiveSketch {
+        final RollupResolution resolution;
+        final LocalDateTime bucketStart;
+        private final HyperLogLog sketch = new HyperLogLog();
+        private boolean dirty;
+        private volatile boolean loaded;
+
+        ActiveSketch(RollupResolution resolution, LocalDateTime bucketStart) {
+            this.resolution = resolution;
+            this.bucketStart = bucketStart;
+        }
+
+        synchronized void add(long hash) {
+            sketch.addHash(hash);
+            dirty = true;
+        }
+
+        synchronized void mergeStored(byte[] bytes) {
+            sketch.merge(HyperLogLog.fromBytes(bytes));
+            loaded = true;
+        }
+
+        synchronized void mergeInto(HyperLogLog target) {
+            target.merge(sketch);
+        }
+
+        synchronized byte[] snapshotAndClean() {
+            dirty = false;
+            return sketch.toBytes();
+        }
+
+        synchronized void markDirty() {
+            dirty = true;
+        }
+
+        synchronized boolean isDirty() {
+            return dirty;
+        }
+
+        synchronized long estimate() {
+            return sketch.estimate();
+        }
+
+        boolean isLoaded() {
+            return loaded;
+        }
+
+        void markLoaded() {
+            loaded = true;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.event.AttackLogsClearedEvent;
+import com.eduardo.HoneyPot.model.AttackLog;
+import com.eduardo.HoneyPot.model.DailyReportPartial;
+import com.eduardo.HoneyPot.model.IpAttackSummary;
+import com.eduardo.HoneyPot.model.KeyCount;
+import com.eduardo.HoneyPot.report.CommandAggregator;
+import com.eduardo.HoneyPot.report.IpAggregator;
+import com.eduardo.HoneyPot.report.ProtocolAggregator;
+import com.eduardo.HoneyPot.report.ReportEngine;
+import com.eduardo.HoneyPot.report.ReportPeriod;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Parciais diários dos relatórios ({@code report_daily_partials}). Um job agendado
+ * ({@code honeypot.reports.daily.cron}, padrão 00:10) grava os agregados de cada dia encerrado, e
+ * relatórios de vários dias somam os parciais: apenas o dia corrente (e algum dia passado ainda sem
+ * parcial, calculado e gravado na hora) é lido de attack_logs.
+ * <p>
+ * Sessões que atravessam a meia-noite e terminam depois do job não entram no parcial do dia em que
+ * começaram; o atraso do agendamento padrão reduz esse caso.
+ * <p>
+ * Para manter cada parcial bem abaixo do limite de 16 MB de um documento BSON, só os IPs e comandos
+ * mais frequentes do dia são gravados ({@code honeypot.reports.daily.max-ips},
+ * {@code max-commands}, {@code max-ips-per-command}); o total e os protocolos continuam exatos e a
+ * quantidade omitida fica registrada no parcial.
+ */
+@Slf4j
+@Service
+public class DailyReportService {
+
+    private static final int CURSOR_BATCH_SIZE = 1000;
+    private static final int MAX_COMMAND_LENGTH = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${honeypot.reports.daily.backfill-days:90}")
+    private int backfillDays;
+
+    @Value("${honeypot.reports.daily.max-ips:10000}")
+    private int maxIps;
+
+    @Value("${honeypot.reports.daily.max-commands:2000}")
+    private int maxCommands;
+
+    @Value("${honeypot.reports.daily.max-ips-per-command:50}")
+    private int maxIpsPerCommand;
+
+    // Incrementado a cada limpeza: um backfill em andamento não grava parciais de dados apagados
+    private final AtomicLong clears = new AtomicLong();
+
+    /**
+     * Agregados de um período montados a partir dos parciais
+     */
+    public record PeriodAggregates(ProtocolAggregator protocols, IpAggregator ips, CommandAggregator commands,
+                                   Map<LocalDate, Long> attacksPerDay, int partialDays, int scannedDays,
+                                   int truncatedDays) {
+    }
+
+    /**
+     * Backfill em segundo plano: a inicialização não espera a leitura de até {@code backfill-days} dias
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void initialize() {
+        Thread backfill = new Thread(() -> {
+            try {
+                computePendingPartials();
+            } catch (Exception e) {
+                log.error("Erro ao gerar parciais diários de relatório: {}", e.getMessage(), e);
+            }
+        }, "daily-report-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+
+    /**
+     * Grava os parciais dos dias encerrados que ainda não têm um (até {@code backfill-days} para trás)
+     */
+    @Scheduled(cron = "${honeypot.reports.daily.cron:0 10 0 * * *}")
+    public synchronized void computePendingPartials() {
+        long clearsAtStart = clears.get();
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate first = yesterday.minusDays(backfillDays - 1L);
+
+        Query oldestQuery = new Query().with(Sort.by(Sort.Direction.ASC, "timestamp")).limit(1);
+        oldestQuery.fields().include("timestamp");
+        AttackLog oldest = mongoTemplate.findOne(oldestQuery, AttackLog.class);
+        if (oldest == null || oldest.getTimestamp() == null) {
+            return;
+        }
+        if (oldest.getTimestamp().toLocalDate().isAfter(first)) {
+            first = oldest.getTimestamp().toLocalDate();
+        }
+
+        Map<String, DailyReportPartial> existing = loadPartials(first, yesterday);
+        int computed = 0;
+        for (LocalDate day = first; !day.isAfter(yesterday); day = day.plusDays(1)) {
+            if (clears.get() != clearsAtStart) {
+                log.info("Logs limpos durante o backfill de parciais diários, interrompendo");
+                return;
+            }
+            if (!existing.containsKey(day.toString())) {
+                computeAndStore(day);
+                computed++;
+            }
+        }
+        if (computed > 0) {
+            log.info("{} parciais diários de relatório gerados", computed);
+        }
+    }
+
+    /**
+     * Soma os parciais dos dias {@code first} a {@code last}. Dias passados sem parcial são calculados
+     * e gravados; o dia corrente é sempre lido de attack_logs (ainda recebe capturas).
+     */
+    public PeriodAggregates aggregate(LocalDate first, LocalDate last) {
+        LocalDate today = LocalDate.now();
+        if (last.isAfter(today)) {
+            last = today;
+        }
+
+        ProtocolAggregator protocols = new ProtocolAggregator();
+        IpAggregator ips = new IpAggregator();
+        CommandAggregator commands = new CommandAggregator();
+        Map<LocalDate, Long> attacksPerDay = new LinkedHashMap<>();
+        int partialDays = 0;
+        int scannedDays = 0;
+        int truncatedDays = 0;
+
+        Map<String, DailyReportPartial> partials = loadPartials(first, last);
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            DailyReportPartial partial = partials.get(day.toString());
+            if (partial != null) {
+                partialDays++;
+            } else {
+                partial = day.isBefore(today) ? computeAndStore(day) : computePartial(day);
+                scannedDays++;
+            }
+            if (partial.getOmittedIps() > 0 || partial.getOmittedCommands() > 0) {
+                truncatedDays++;
+            }
+            merge(partial, protocols, ips, commands);
+            attacksPerDay.put(day, partial.getTotal());
+        }
+        return new PeriodAggregates(protocols, ips, commands, attacksPerDay, partialDays, scannedDays, truncatedDays);
+    }
+
+    @EventListener
+    public void onAttackLogsCleared(AttackLogsClearedEvent event) {
+        clears.incrementAndGet();
+        mongoTemplate.remove(new Query(), DailyReportPartial.class);
+        log.info("Parciais diários de relatório removidos após limpeza dos logs");
+    }
+
+    private DailyReportPartial computeAndStore(LocalDate day) {
+        DailyReportPartial partial = computePartial(day);
+        mongoTemplate.save(partial);
+        return partial;
+    }
+
+    // Uma leitura do dia (índice de timestamp) alimentando os mesmos agregadores dos relatórios
+    private DailyReportPartial computePartial(LocalDate day) {
+        ProtocolAggregator protocols = new ProtocolAggregator();
+        IpAggregator ips = new IpAggregator();
+        CommandAggregator commands = new CommandAggregator();
+
+        Query query = ReportPeriod.ofDays(day, day).query().cursorBatchSize(CURSOR_BATCH_SIZE);
+        try (Stream<AttackLog> attacks = mongoTemplate.stream(query, AttackLog.class)) {
+            ReportEngine.scan(attacks, List.of(protocols, ips, commands));
+        }
+
+        DailyReportPartial partial = new DailyReportPartial();
+        partial.setId(day.toString());
+        partial.setDayStart(day.atStartOfDay());
+        partial.setTotal(protocols.getTotal());
+        protocols.getCounts().forEach((protocol, count) -> partial.getProtocols().add(new KeyCount(protocol, count)));
+
+        // Apenas os mais frequentes, para o documento caber com folga no limite do BSON
+        ips.getStats().entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<String, IpAggregator.IpStats> entry) -> entry.getValue().getAttempts()).reversed())
+            .limit(maxIps)
+            .forEach(entry -> partial.getIps().add(
+                new IpAttackSummary(entry.getKey(), entry.getValue().getAttempts(), entry.getValue().getLastAttempt())));
+        partial.setUniqueIps(ips.getUniqueIps());
+        partial.setOmittedIps(Math.max(0, ips.getUniqueIps() - maxIps));
+
+        commands.getStats().entrySet().stream()
+            .sorted(Comparator.comparingLong((Map.Entry<String, CommandAggregator.CommandStats> entry) -> entry.getValue().getExecutions()).reversed())
+            .limit(maxCommands)
+            .forEach(entry -> partial.getCommands().add(new DailyReportPartial.CommandSummary(
+                truncate(entry.getKey()), entry.getValue().getExecutions(),
+                entry.getValue().getIps().stream().limit(maxIpsPerCommand).collect(Collectors.toCollection(ArrayList::new)))));
+        partial.setOmittedCommands(Math.max(0, commands.getStats().size() - maxCommands));
+        partial.setGeneratedAt(LocalDateTime.now());
+        return partial;
+    }
+
+    private static String truncate(String command) {
+        return command != null && command.length() > MAX_COMMAND_LENGTH ? command.substring(0, MAX_COMMAND_LENGTH) : command;
+    }
+
+    private static void merge(DailyReportPartial partial, ProtocolAggregator protocols, IpAggregator ips,
+                              CommandAggregator commands) {
+        partial.getProtocols().forEach(protocol -> protocols.add(protocol.getKey(), protocol.getCount()));
+        partial.getIps().forEach(ip -> ips.merge(ip.getIp(), ip.getCount(), ip.getLastAttack()));
+        partial.getCommands().forEach(command ->
+            commands.merge(command.getCommand(), command.getExecutions(), command.getIps()));
+    }
+
+    // Ids yyyy-MM-dd ordenam como datas, então o intervalo usa o índice de _id
+    private Map<String, DailyReportPartial> loadPartials(LocalDate first, LocalDate last) {
+        Query query = new Query(Criteria.where("_id").gte(first.toString()).lte(last.toString()));
+        return mongoTemplate.find(query, DailyReportPartial.class).stream()
+            .collect(Collectors.toMap(DailyReportPartial::getId, Function.identity()));
+    }
+}
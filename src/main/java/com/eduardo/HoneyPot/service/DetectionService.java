@@ -0,0 +1,86 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.detection.DetectionRule;
+import com.eduardo.HoneyPot.detection.RuleSet;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Regras de detecção dos comandos do shell fake. As regras vêm de {@code honeypot.detection.rules-file}
+ * (JSON) ou, se o arquivo não existir, do {@code detection-rules.json} embutido. O arquivo é verificado
+ * periodicamente e, quando muda, é recompilado e trocado atomicamente, sem reiniciar os listeners;
+ * um arquivo inválido é ignorado e as regras anteriores continuam valendo.
+ */
+@Slf4j
+@Service
+public class DetectionService {
+
+    private static final String DEFAULT_RULES = "detection-rules.json";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${honeypot.detection.rules-file:config/detection-rules.json}")
+    private String rulesFile;
+
+    private volatile RuleSet ruleSet = RuleSet.compile(List.of());
+    private volatile String loadedSource;
+
+    @PostConstruct
+    public void initialize() {
+        reloadIfChanged();
+    }
+
+    /**
+     * Regras que casam com o comando (uma passada pelo autômato e uma por expressão REGEX)
+     */
+    public List<DetectionRule> match(String command) {
+        return ruleSet.match(command);
+    }
+
+    public List<DetectionRule> getRules() {
+        return ruleSet.getRules();
+    }
+
+    @Scheduled(fixedDelayString = "${honeypot.detection.reload-interval-ms:5000}")
+    public void reloadIfChanged() {
+        Path path = Paths.get(rulesFile);
+        String source;
+        try {
+            source = Files.exists(path) ? path + "@" + Files.getLastModifiedTime(path).toMillis() : "classpath:" + DEFAULT_RULES;
+        } catch (IOException e) {
+            log.warn("Erro ao verificar arquivo de regras {}: {}", path, e.getMessage());
+            return;
+        }
+        if (source.equals(loadedSource)) {
+            return;
+        }
+        // Registrado antes de compilar: um arquivo inválido só é relido quando mudar de novo
+        loadedSource = source;
+
+        try (InputStream in = Files.exists(path) ? Files.newInputStream(path) : new ClassPathResource(DEFAULT_RULES).getInputStream()) {
+            List<DetectionRule> rules = objectMapper.readValue(in, new TypeReference<List<DetectionRule>>() { });
+            long start = System.nanoTime();
+            ruleSet = RuleSet.compile(rules);
+            log.info("Regras de detecção carregadas de {}: {} regras compiladas em {} µs",
+                source, rules.size(), (System.nanoTime() - start) / 1_000);
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Regras de detecção inválidas em {}; mantendo as {} regras anteriores: {}",
+                source, ruleSet.size(), e.getMessage());
+        }
+    }
+}
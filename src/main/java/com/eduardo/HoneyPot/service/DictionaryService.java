@@ -0,0 +1,192 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.model.DictionaryEntry;
+import com.eduardo.HoneyPot.sketch.StringDictionary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Codificação por dicionário de usuários, senhas, banners e IPs. Em memória, os logs lidos do banco
+ * e as estruturas de estatísticas compartilham uma instância por valor distinto (os códigos mudariam
+ * a cada remoção do dicionário, então não servem de chave em contadores de longa duração). Em disco,
+ * com {@code honeypot.dictionary.encode-documents=true}, o banner é gravado como código inteiro em
+ * attack_logs; os demais campos continuam em texto porque são usados em consultas e agregações.
+ */
+@Slf4j
+@Service
+public class DictionaryService {
+
+    public enum Field {
+        USERNAME, PASSWORD, BANNER, IP
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${honeypot.dictionary.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${honeypot.dictionary.encode-documents:false}")
+    private boolean encodeDocuments;
+
+    private final Map<Field, StringDictionary> dictionaries = new EnumMap<>(Field.class);
+    private final LongAdder documentBytesSaved = new LongAdder();
+
+    @PostConstruct
+    public void initialize() {
+        for (Field field : Field.values()) {
+            StringDictionary dictionary = new StringDictionary(maxEntries);
+            dictionaries.put(field, dictionary);
+            String tag = field.name().toLowerCase();
+            Gauge.builder("honeypot.dictionary.entries", dictionary, StringDictionary::size)
+                .tag("field", tag)
+                .register(meterRegistry);
+            Gauge.builder("honeypot.dictionary.deduplicated.bytes", dictionary, StringDictionary::getDeduplicatedBytes)
+                .tag("field", tag)
+                .register(meterRegistry);
+            Gauge.builder("honeypot.dictionary.retained.bytes", dictionary, StringDictionary::getRetainedBytes)
+                .tag("field", tag)
+                .register(meterRegistry);
+        }
+        Gauge.builder("honeypot.dictionary.document.saved.bytes", documentBytesSaved, LongAdder::sum)
+            .register(meterRegistry);
+
+        // Códigos de banner precisam ser estáveis entre reinícios para decodificar documentos já gravados;
+        // carrega os mais recentes (o maior código define o próximo) e o restante sob demanda
+        try {
+            StringDictionary banners = dictionaries.get(Field.BANNER);
+            Query query = new Query(Criteria.where("field").is(Field.BANNER.name()))
+                .with(Sort.by(Sort.Direction.DESC, "code"))
+                .limit(maxEntries);
+            for (DictionaryEntry entry : mongoTemplate.find(query, DictionaryEntry.class)) {
+                banners.restore(entry.getCode(), entry.getValue());
+            }
+            log.info("Dicionário carregado: {} banners (codificação de documentos {})",
+                banners.size(), encodeDocuments ? "ativa" : "inativa");
+        } catch (Exception e) {
+            log.error("Erro ao carregar dicionário de banners: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Instância compartilhada do valor (ou o próprio valor se o dicionário do campo estiver cheio)
+     */
+    public String canonical(Field field, String value) {
+        return value != null ? dictionaries.get(field).canonical(value) : null;
+    }
+
+    public boolean isEncodeDocuments() {
+        return encodeDocuments;
+    }
+
+    /**
+     * Código estável do banner para gravação em documento; novos códigos são persistidos antes do uso
+     */
+    public int encodeBanner(String banner) {
+        StringDictionary banners = dictionaries.get(Field.BANNER);
+        int code = banners.lookup(banner);
+        if (code != StringDictionary.NO_CODE) {
+            return code;
+        }
+        // Banner removido da memória: reaproveita o código persistido em vez de criar outro
+        DictionaryEntry persisted = findBanner(Criteria.where("value").is(banner));
+        if (persisted != null) {
+            banners.restore(persisted.getCode(), persisted.getValue());
+            return persisted.getCode();
+        }
+        code = banners.encode(banner);
+        if (code == StringDictionary.NO_CODE) {
+            return code;
+        }
+        try {
+            mongoTemplate.save(new DictionaryEntry(Field.BANNER.name() + ":" + code, Field.BANNER.name(), code, banner));
+            return code;
+        } catch (Exception e) {
+            log.warn("Erro ao persistir código de banner, gravando texto: {}", e.getMessage());
+            return StringDictionary.NO_CODE;
+        }
+    }
+
+    public String decodeBanner(int code) {
+        StringDictionary banners = dictionaries.get(Field.BANNER);
+        String banner = banners.decode(code);
+        if (banner != null) {
+            return banner;
+        }
+        DictionaryEntry persisted = findBanner(Criteria.where("code").is(code));
+        if (persisted == null) {
+            return null;
+        }
+        banners.restore(persisted.getCode(), persisted.getValue());
+        return persisted.getValue();
+    }
+
+    /**
+     * Registra a economia de um campo gravado como código em vez de texto
+     */
+    public void recordDocumentSaving(String textField, String codeField, String value) {
+        // Elementos BSON: tipo (1) + nome com terminador + valor; string = tamanho (4) + UTF-8 + terminador, int32 = 4
+        int textBytes = 1 + textField.length() + 1 + 4 + value.getBytes(StandardCharsets.UTF_8).length + 1;
+        int codeBytes = 1 + codeField.length() + 1 + 4;
+        documentBytesSaved.add(textBytes - codeBytes);
+    }
+
+    /**
+     * Tamanho de cada dicionário, bytes das cópias descartadas e bytes economizados nos documentos
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        long totalDeduplicated = 0;
+        long totalRetained = 0;
+        for (Map.Entry<Field, StringDictionary> entry : dictionaries.entrySet()) {
+            StringDictionary dictionary = entry.getValue();
+            fields.put(entry.getKey().name(), Map.of(
+                "entries", dictionary.size(),
+                "maxEntries", dictionary.getMaxEntries(),
+                "evicted", dictionary.getEvicted(),
+                "deduplicated", dictionary.getDeduplicated(),
+                "deduplicatedBytes", dictionary.getDeduplicatedBytes(),
+                "retainedBytes", dictionary.getRetainedBytes()
+            ));
+            totalDeduplicated += dictionary.getDeduplicatedBytes();
+            totalRetained += dictionary.getRetainedBytes();
+        }
+        return Map.of(
+            "fields", fields,
+            "deduplicatedBytes", totalDeduplicated,
+            "retainedBytes", totalRetained,
+            "documentBytesSaved", documentBytesSaved.sum(),
+            "encodeDocuments", encodeDocuments,
+            "timestamp", LocalDateTime.now()
+        );
+    }
+
+    private DictionaryEntry findBanner(Criteria criteria) {
+        try {
+            return mongoTemplate.findOne(new Query(Criteria.where("field").is(Field.BANNER.name()).andOperator(criteria)),
+                DictionaryEntry.class);
+        } catch (Exception e) {
+            log.warn("Erro ao consultar código de banner persistido: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.event.AttackCapturedEvent;
+import com.eduardo.HoneyPot.event.AttackLogsClearedEvent;
+import com.eduardo.HoneyPot.model.AttackLog;
+import com.eduardo.HoneyPot.model.KeyCount;
+import com.eduardo.HoneyPot.repository.AttackLogRepository;
+import com.eduardo.HoneyPot.sketch.SpaceSaving;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Itens mais frequentes (usuários, senhas, pares de credenciais, comandos e IPs)
+ * mantidos em sketches Space-Saving atualizados a cada captura. A memória é limitada a
+ * {@code honeypot.heavy-hitters.capacity} contadores por dimensão, independente de
+ * quantas credenciais distintas um ataque de dicionário gerar.
+ */
+@Slf4j
+@Service
+public class HeavyHitterService {
+
+    public enum Dimension {
+        USERNAME, PASSWORD, CREDENTIAL, COMMAND, IP
+    }
+
+    @Autowired
+    private AttackLogRepository attackLogRepository;
+
+    @Autowired
+    private DictionaryService dictionaryService;
+
+    @Value("${honeypot.heavy-hitters.capacity:1000}")
+    private int capacity;
+
+    /**
+     * Sketches que respondem às consultas e, durante a reconstrução, os que recebem as capturas que
+     * chegam enquanto o histórico é lido. Trocados juntos em um único campo volátil: cada captura lê
+     * um estado só e nunca é gravada duas vezes no mesmo sketch.
+     */
+    private record State(Map<Dimension, SpaceSaving> sketches, Map<Dimension, SpaceSaving> rebuilding) {
+    }
+
+    private volatile State state;
+    private volatile boolean ready = false;
+
+    @PostConstruct
+    public void createSketches() {
+        state = new State(newSketches(), null);
+    }
+
+    @EventListener
+    public void onAttackCaptured(AttackCapturedEvent event) {
+        State current = state;
+        record(current.sketches(), event);
+        if (current.rebuilding() != null) {
+            record(current.rebuilding(), event);
+        }
+    }
+
+    @EventListener
+    public synchronized void onAttackLogsCleared(AttackLogsClearedEvent event) {
+        // Descarta também uma reconstrução em andamento, que leu dados já removidos
+        state = new State(newSketches(), null);
+    }
+
+    /**
+     * Reconstrói os sketches com agregações lidas via cursor (memória limitada à capacidade).
+     * Enquanto isso os sketches atuais continuam respondendo e as novas capturas são gravadas nos
+     * dois conjuntos; uma captura persistida durante a leitura pode ser contada duas vezes, o que
+     * fica dentro do erro já admitido pelo Space-Saving.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void initialize() {
+        Map<Dimension, SpaceSaving> rebuilt = newSketches();
+        synchronized (this) {
+            state = new State(state.sketches(), rebuilt);
+        }
+        try {
+            feed(rebuilt.get(Dimension.USERNAME), attackLogRepository.streamCountsByUsername());
+            feed(rebuilt.get(Dimension.PASSWORD), attackLogRepository.streamCountsByPassword());
+            feed(rebuilt.get(Dimension.CREDENTIAL), attackLogRepository.streamCountsByCredential());
+            feed(rebuilt.get(Dimension.COMMAND), attackLogRepository.streamCountsByCommand());
+            feed(rebuilt.get(Dimension.IP), attackLogRepository.streamCountsBySourceIp());
+            synchronized (this) {
+                if (state.rebuilding() == rebuilt) {
+                    state = new State(rebuilt, null);
+                    ready = true;
+                }
+            }
+            log.info("Sketches de itens frequentes reconstruídos (capacidade {} por dimensão)", capacity);
+        } catch (Exception e) {
+            log.error("Erro ao reconstruir sketches de itens frequentes: {}", e.getMessage(), e);
+        } finally {
+            synchronized (this) {
+                if (state.rebuilding() == rebuilt) {
+                    state = new State(state.sketches(), null);
+                }
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<SpaceSaving.HeavyHitter> top(Dimension dimension, int limit) {
+        return state.sketches().get(dimension).top(limit);
+    }
+
+    /**
+     * Limite de erro da dimensão: nenhum item fora do top tem frequência maior que maxError
+     */
+    public Map<String, Object> describe(Dimension dimension) {
+        SpaceSaving sketch = state.sketches().get(dimension);
+        return Map.of(
+            "total", sketch.getTotal(),
+            "maxError", sketch.maxError(),
+            "capacity", sketch.getCapacity(),
+            "tracked", sketch.size()
+        );
+    }
+
+    // Métodos auxiliares
+    private void record(Map<Dimension, SpaceSaving> target, AttackCapturedEvent event) {
+        AttackLog attackLog = event.getAttackLog();
+        switch (event.getType()) {
+            case SESSION_STARTED:
+                target.get(Dimension.IP).add(dictionaryService.canonical(DictionaryService.Field.IP, attackLog.getSourceIp()));
+                break;
+            case CREDENTIALS_CAPTURED:
+                target.get(Dimension.USERNAME).add(dictionaryService.canonical(DictionaryService.Field.USERNAME, attackLog.getUsername()));
+                target.get(Dimension.PASSWORD).add(dictionaryService.canonical(DictionaryService.Field.PASSWORD, attackLog.getPassword()));
+                if (attackLog.getUsername() != null && attackLog.getPassword() != null) {
+                    target.get(Dimension.CREDENTIAL).add(attackLog.getUsername() + ":" + attackLog.getPassword());
+                }
+                break;
+            case COMMAND_EXECUTED:
+                target.get(Dimension.COMMAND).add(event.getCommand());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private Map<Dimension, SpaceSaving> newSketches() {
+        Map<Dimension, SpaceSaving> created = new EnumMap<>(Dimension.class);
+        for (Dimension dimension : Dimension.values()) {
+            created.put(dimension, new SpaceSaving(capacity));
+        }
+        return created;
+    }
+
+    private void feed(SpaceSaving sketch, Stream<KeyCount> counts) {
+        try (counts) {
+            counts.forEach(keyCount -> sketch.add(keyCount.getKey(), keyCount.getCount()));
+        }
+    }
+}
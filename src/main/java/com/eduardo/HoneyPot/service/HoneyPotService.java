@@ -1,15 +1,31 @@
 package com.eduardo.HoneyPot.service;
 
+import com.eduardo.HoneyPot.detection.DetectionRule;
+import com.eduardo.HoneyPot.event.AttackCapturedEvent;
 import com.eduardo.HoneyPot.model.AttackLog;
 import com.eduardo.HoneyPot.repository.AttackLogRepository;
+import com.eduardo.HoneyPot.shell.FileSystemImage;
+import com.eduardo.HoneyPot.shell.FsNode;
+import com.eduardo.HoneyPot.shell.ShellSession;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.io.*;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -23,6 +39,21 @@ public class HoneyPotService {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private IpEnrichmentService ipEnrichmentService;
+    
+    @Autowired
+    private SessionMetricsService sessionMetricsService;
+    
+    @Autowired
+    private DetectionService detectionService;
+    
+    @Autowired
+    private ShellFileSystemService shellFileSystemService;
+    
     @Value("${honeypot.ssh.port}")
     private int sshPort;
     
@@ -35,6 +66,11 @@ public class HoneyPotService {
     @Value("${honeypot.telnet.banner}")
     private String telnetBanner;
     
+    // echo com redirecionamento: texto, operador (> ou >>) e arquivo
+    private static final Pattern ECHO_REDIRECT = Pattern.compile("^echo\\s*(.*?)\\s*(>>?)\\s*(\\S+)\\s*$", Pattern.CASE_INSENSITIVE);
+    private static final java.time.format.DateTimeFormatter LS_DATE_FORMAT =
+        java.time.format.DateTimeFormatter.ofPattern("MMM dd HH:mm", Locale.ENGLISH);
+    
     private ExecutorService executorService;
     private ServerSocket sshServer;
     private ServerSocket telnetServer;
@@ -146,17 +182,14 @@ public class HoneyPotService {
         String clientIp = clientSocket.getInetAddress().getHostAddress();
         AttackLog attackLog = new AttackLog(clientIp, sshPort, "SSH");
         attackLog.setBanner(sshBanner);
+        ipEnrichmentService.enrich(attackLog);
         
-        attackLog.setUsername("conexao_ssh_" + System.currentTimeMillis());
-        attackLog.setPassword("capturado");
+        // Log inicial sem credenciais: usuário e senha só são definidos (e publicados) quando capturados
         attackLog.setSuccessful(false);
         try {
-            attackLogRepository.save(attackLog);
+            saveLog(attackLog);
             log.info("SSH [{}]: Log inicial salvo com sucesso", clientIp);
-            
-            // Criar notificação de credenciais capturadas
-            notificationService.createAttackNotification("SUCCESS", "Credenciais SSH Capturadas", 
-                "Novas credenciais SSH foram capturadas e registradas", clientIp, "SSH", attackLog.getUsername());
+            publishCapture(attackLog, AttackCapturedEvent.Type.SESSION_STARTED);
         } catch (Exception e) {
             log.error("SSH [{}]: ERRO ao salvar log inicial: {}", clientIp, e.getMessage());
             
@@ -190,8 +223,13 @@ public class HoneyPotService {
                         attackLog.setPassword(line.trim());
                         log.info("SSH [{}]: Tentativa de senha: {}", clientIp, line.trim());
                         attackLog.setSuccessful(false);
-                        attackLogRepository.save(attackLog);
+                        saveLog(attackLog);
                         log.info("SSH [{}]: Log salvo no banco", clientIp);
+                        publishCapture(attackLog, AttackCapturedEvent.Type.CREDENTIALS_CAPTURED);
+                        
+                        // Criar notificação de credenciais capturadas
+                        notificationService.createAttackNotification("SUCCESS", "Credenciais SSH Capturadas", 
+                            "Novas credenciais SSH foram capturadas e registradas", clientIp, "SSH", attackLog.getUsername());
                         break;
                     }
                 }
@@ -205,7 +243,7 @@ public class HoneyPotService {
                     attackLog.setPassword("conexao_incompleta");
                 }
                 attackLog.setSuccessful(false);
-                attackLogRepository.save(attackLog);
+                saveLog(attackLog);
                 log.info("SSH [{}]: Log de conexão SSH salvo - username: {}", clientIp, attackLog.getUsername());
             }
             
@@ -219,13 +257,16 @@ public class HoneyPotService {
             attackLog.setUsername("erro_conexao");
             attackLog.setPassword("erro: " + e.getMessage());
             attackLog.setSuccessful(false);
-            attackLogRepository.save(attackLog);
+            saveLog(attackLog);
         } finally {
             try {
                 clientSocket.close();
             } catch (IOException e) {
                 log.error("Erro ao fechar conexão SSH: {}", e.getMessage());
             }
+            if (attackLog.getId() != null) {
+                publishCapture(attackLog, AttackCapturedEvent.Type.SESSION_ENDED);
+            }
         }
     }
     
@@ -233,6 +274,7 @@ public class HoneyPotService {
         String clientIp = clientSocket.getInetAddress().getHostAddress();
         AttackLog attackLog = new AttackLog(clientIp, telnetPort, "TELNET");
         attackLog.setBanner(telnetBanner);
+        ipEnrichmentService.enrich(attackLog);
         
         try (BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
              PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), true)) {
@@ -256,12 +298,15 @@ public class HoneyPotService {
                 } else if (attackLog.getPassword() == null) {
                     attackLog.setPassword(line.trim());
                     attackLog.setSuccessful(false);
-                    attackLogRepository.save(attackLog);
+                    saveLog(attackLog);
+                    publishCapture(attackLog, AttackCapturedEvent.Type.SESSION_STARTED);
+                    publishCapture(attackLog, AttackCapturedEvent.Type.CREDENTIALS_CAPTURED);
                     
-                    // Simular shell fake realista
+                    // Simular shell fake realista, com sistema de arquivos próprio da sessão
+                    ShellSession shell = shellFileSystemService.newSession();
                     out.println("Welcome to Ubuntu 20.04.3 LTS (GNU/Linux 5.4.0-74-generic x86_64)");
                     out.println("Last login: " + java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss yyyy")));
-                    out.println("root@ubuntu-server:~# ");
+                    out.println(prompt(shell));
                     
                     // Simular shell interativo
                     while ((line = in.readLine()) != null && isRunning) {
@@ -269,21 +314,25 @@ public class HoneyPotService {
                         
                         String command = line.trim();
                         if (command.isEmpty()) {
-                            out.println("root@ubuntu-server:~# ");
+                            out.println(prompt(shell));
                             continue;
                         }
                         
                         attackLog.addCommand(command);
-                        attackLogRepository.save(attackLog);
+                        saveLog(attackLog);
+                        publishCapture(attackLog, AttackCapturedEvent.Type.COMMAND_EXECUTED, command);
                         
-                        // ALERTA: Comando executado detectado
-                        if (isCriticalCommand(command)) {
-                            notificationService.createAttackNotification("WARNING", "Comando Crítico Detectado", 
-                                "Comando potencialmente perigoso executado: " + command, clientIp, "TELNET", attackLog.getUsername());
+                        // ALERTA: regras de detecção (comandos críticos, reconhecimento, downloads, arquivos sensíveis...)
+                        for (DetectionRule rule : detectionService.match(command)) {
+                            notificationService.createAttackNotification(rule.severity(), rule.title(),
+                                rule.message() + ": " + command, clientIp, "TELNET", attackLog.getUsername());
                         }
                         
                         // Processar comando
-                        String response = processFakeCommand(command, clientIp);
+                        long commandStart = System.nanoTime();
+                        String response = processFakeCommand(command, clientIp, shell);
+                        sessionMetricsService.recordCommand(command.split("\\s+")[0].toLowerCase(),
+                            System.nanoTime() - commandStart);
                         if (response != null) {
                             out.println(response);
                         }
@@ -294,7 +343,7 @@ public class HoneyPotService {
                             break;
                         }
                         
-                        out.println("root@ubuntu-server:~# ");
+                        out.println(prompt(shell));
                     }
                     break;
                 }
@@ -312,6 +361,9 @@ public class HoneyPotService {
             } catch (IOException e) {
                 log.error("Erro ao fechar conexão Telnet: {}", e.getMessage());
             }
+            if (attackLog.getId() != null) {
+                publishCapture(attackLog, AttackCapturedEvent.Type.SESSION_ENDED);
+            }
         }
     }
     
@@ -320,22 +372,36 @@ public class HoneyPotService {
     }
     
     /**
-     * Processa comandos fake de forma realista
+     * Grava o log medindo a latência da escrita
      */
-    private String processFakeCommand(String command, String clientIp) {
-        // ALERTA: Comandos de reconhecimento de rede
-        if (command.startsWith("netstat") || command.startsWith("ss") || command.startsWith("iptables")) {
-            notificationService.createAttackNotification("INFO", "Reconhecimento de Rede", 
-                "Comando de análise de rede executado: " + command, clientIp, "TELNET", "root");
-        }
-        
-        // ALERTA: Tentativa de download
-        if (command.startsWith("wget") || command.startsWith("curl")) {
-            notificationService.createAttackNotification("WARNING", "Tentativa de Download", 
-                "Tentativa de download detectada: " + command, clientIp, "TELNET", "root");
+    private AttackLog saveLog(AttackLog attackLog) {
+        return sessionMetricsService.timeRepositoryWrite(attackLog.getProtocol(), () -> attackLogRepository.save(attackLog));
+    }
+    
+    /**
+     * Publica uma etapa da sessão para os consumidores de ingestão (estatísticas, etc.)
+     */
+    private void publishCapture(AttackLog attackLog, AttackCapturedEvent.Type type) {
+        publishCapture(attackLog, type, null);
+    }
+    
+    private void publishCapture(AttackLog attackLog, AttackCapturedEvent.Type type, String command) {
+        try {
+            eventPublisher.publishEvent(new AttackCapturedEvent(attackLog, type, command));
+        } catch (Exception e) {
+            log.warn("Erro ao publicar evento de captura {} para {}: {}", type, attackLog.getSourceIp(), e.getMessage());
         }
-        
-
+    }
+    
+    private static String prompt(ShellSession shell) {
+        return "root@ubuntu-server:" + shell.getDisplayCwd() + "# ";
+    }
+    
+    /**
+     * Processa comandos fake de forma realista. Comandos de arquivos usam o sistema de arquivos
+     * virtual da sessão (imagem compartilhada + overlay copy-on-write).
+     */
+    private String processFakeCommand(String command, String clientIp, ShellSession shell) {
         String[] parts = command.split("\\s+");
         String cmd = parts[0].toLowerCase();
         String[] args = parts.length > 1 ? java.util.Arrays.copyOfRange(parts, 1, parts.length) : new String[0];
@@ -343,9 +409,11 @@ public class HoneyPotService {
         try {
             switch (cmd) {
                 case "ls":
-                    return processLsCommand(args);
+                    return processLsCommand(args, shell);
                 case "pwd":
-                    return "/root";
+                    return shell.getCwd();
+                case "cd":
+                    return processCdCommand(args, shell);
                 case "uname":
                     return processUnameCommand(args);
                 case "whoami":
@@ -361,20 +429,15 @@ public class HoneyPotService {
                 case "free":
                     return processFreeCommand();
                 case "cat":
-                    // ALERTA: Tentativa de acesso a arquivo
-                    if (args.length > 0 && isSensitiveFile(args[0])) {
-                        notificationService.createAttackNotification("WARNING", "Tentativa de Acesso a Arquivo Sensível", 
-                            "Tentativa de leitura de arquivo sensível: " + args[0], clientIp, "TELNET", "root");
-                    }
-                    return processCatCommand(args);
+                    return processCatCommand(args, shell);
                 case "head":
-                    return processHeadCommand(args);
+                    return processHeadCommand(args, shell);
                 case "tail":
-                    return processTailCommand(args);
+                    return processTailCommand(args, shell);
                 case "grep":
                     return processGrepCommand(args);
                 case "find":
-                    return processFindCommand(args);
+                    return processFindCommand(args, shell);
                 case "netstat":
                     return processNetstatCommand(args);
                 case "ss":
@@ -396,16 +459,18 @@ public class HoneyPotService {
                 case "chown":
                     return "";
                 case "mkdir":
+                    return processMkdirCommand(args, shell);
                 case "rmdir":
-                    return "";
+                    return processRmdirCommand(args, shell);
                 case "touch":
+                    return processTouchCommand(args, shell);
                 case "rm":
-                    return "";
+                    return processRmCommand(args, shell);
                 case "cp":
                 case "mv":
                     return "";
                 case "echo":
-                    return processEchoCommand(args);
+                    return processEchoCommand(command, args, shell);
                 case "date":
                     return java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss yyyy"));
                 case "uptime":
@@ -431,35 +496,73 @@ public class HoneyPotService {
     }
     
     // Métodos auxiliares para comandos fake
-    private String processLsCommand(String[] args) {
-        StringBuilder output = new StringBuilder();
-        
-        // Simular diretórios e arquivos
-        String[] files = {
-            "anaconda-ks.cfg", "install.log", "install.log.syslog",
-            "Desktop", "Documents", "Downloads", "Music", "Pictures", "Videos",
-            ".bash_history", ".bash_profile", ".bashrc", ".ssh", ".cache"
-        };
-        
-        if (args.length > 0 && args[0].equals("-la")) {
-            output.append("total 72\n");
-            output.append("dr-xr-x---. 2 root root 4096 Jan 15 10:30 .\n");
-            output.append("dr-xr-xr-x. 3 root root 4096 Jan 15 10:30 ..\n");
-            for (String file : files) {
-                String permissions = file.startsWith(".") ? "drwxr-xr-x" : "-rw-r--r--";
-                String owner = "root";
-                String group = "root";
-                String size = String.valueOf((int)(Math.random() * 1000) + 100);
-                String date = "Jan 15 10:30";
-                output.append(String.format("%s 1 %s %s %s %s %s\n", permissions, owner, group, size, date, file));
-            }
-        } else {
-            for (String file : files) {
-                output.append(file).append("  ");
+    private String processLsCommand(String[] args, ShellSession shell) {
+        boolean longFormat = false;
+        boolean all = false;
+        String target = null;
+        for (String arg : args) {
+            if (arg.startsWith("-")) {
+                longFormat |= arg.contains("l");
+                all |= arg.contains("a");
+            } else if (target == null) {
+                target = arg;
             }
         }
         
-        return output.toString();
+        String path = shell.resolve(target);
+        try {
+            FsNode node = shell.stat(path);
+            if (node == null) {
+                throw new NoSuchFileException(path);
+            }
+            if (!node.directory()) {
+                return longFormat ? lsLine(node, target) : target;
+            }
+            
+            List<String> names = new ArrayList<>();
+            if (all) {
+                names.add(".");
+                names.add("..");
+            }
+            for (String name : shell.list(path)) {
+                if (all || !name.startsWith(".")) {
+                    names.add(name);
+                }
+            }
+            if (!longFormat) {
+                return String.join("  ", names);
+            }
+            
+            List<String> lines = new ArrayList<>();
+            long blocks = 0;
+            for (String name : names) {
+                String childPath = name.equals(".") ? path
+                    : name.equals("..") ? FileSystemImage.parent(path)
+                    : FileSystemImage.child(path, name);
+                FsNode child = shell.stat(childPath);
+                blocks += (child.size() + 4095) / 4096 * 4;
+                lines.add(lsLine(child, name));
+            }
+            lines.add(0, "total " + blocks);
+            return String.join("\n", lines);
+        } catch (FileSystemException e) {
+            return "ls: cannot access '" + (target != null ? target : ".") + "': " + describe(e);
+        }
+    }
+    
+    private static String lsLine(FsNode node, String name) {
+        return String.format("%s 1 root root %5d %s %s", node.permissions(), node.size(),
+            node.modified().format(LS_DATE_FORMAT), name);
+    }
+    
+    private String processCdCommand(String[] args, ShellSession shell) {
+        String target = args.length > 0 ? args[0] : "~";
+        try {
+            shell.cd(target);
+            return "";
+        } catch (FileSystemException e) {
+            return "bash: cd: " + target + ": " + describe(e);
+        }
     }
     
     private String processUnameCommand(String[] args) {
@@ -523,29 +626,40 @@ public class HoneyPotService {
         return output.toString();
     }
     
-    private String processCatCommand(String[] args) {
-        if (args.length == 0) return "cat: missing file argument";
+    private String processCatCommand(String[] args, ShellSession shell) {
+        StringBuilder output = new StringBuilder();
+        boolean anyFile = false;
+        for (String filename : args) {
+            if (filename.startsWith("-")) {
+                continue;
+            }
+            anyFile = true;
+            if (output.length() > 0 && output.charAt(output.length() - 1) != '\n') {
+                output.append("\n");
+            }
+            try {
+                output.append(shell.read(shell.resolve(filename)));
+            } catch (FileSystemException e) {
+                output.append("cat: ").append(filename).append(": ").append(describe(e));
+            }
+        }
+        if (!anyFile) return "cat: missing file argument";
         
-        String filename = args[0];
-        if (filename.equals("/etc/passwd")) {
-            return "root:x:0:0:root:/root:/bin/bash\nbin:x:1:1:bin:/bin:/sbin/nologin\ndaemon:x:2:2:daemon:/sbin:/sbin/nologin";
-        } else if (filename.equals("/etc/hosts")) {
-            return "127.0.0.1 localhost\n127.0.1.1 ubuntu-server\n::1 localhost ip6-localhost ip6-loopback";
-        } else if (filename.equals("/proc/version")) {
-            return "Linux version 5.4.0-74-generic (buildd@lgw01-amd64-038) (gcc version 9.4.0 (Ubuntu 9.4.0-1ubuntu1~20.04.1)) #83-Ubuntu SMP Sat May 8 02:35:39 UTC 2021";
-        } else {
-            return "cat: " + filename + ": No such file or directory";
+        // O println da sessão já termina a linha
+        if (output.length() > 0 && output.charAt(output.length() - 1) == '\n') {
+            output.setLength(output.length() - 1);
         }
+        return output.toString();
     }
     
-    private String processHeadCommand(String[] args) {
+    private String processHeadCommand(String[] args, ShellSession shell) {
         if (args.length == 0) return "head: missing operand";
-        return processCatCommand(args); // Simples para o fake
+        return processCatCommand(args, shell); // Simples para o fake
     }
     
-    private String processTailCommand(String[] args) {
+    private String processTailCommand(String[] args, ShellSession shell) {
         if (args.length == 0) return "tail: missing operand";
-        return processCatCommand(args); // Simples para o fake
+        return processCatCommand(args, shell); // Simples para o fake
     }
     
     private String processGrepCommand(String[] args) {
@@ -553,9 +667,148 @@ public class HoneyPotService {
         return "grep: " + args[1] + ": No such file or directory";
     }
     
-    private String processFindCommand(String[] args) {
-        if (args.length == 0) return "find: missing path";
-        return ""; // Retorna vazio para simular busca sem resultados
+    // find [caminho] [-name padrão] [-type f|d]
+    private String processFindCommand(String[] args, ShellSession shell) {
+        String start = ".";
+        Pattern namePattern = null;
+        String type = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-name") && i + 1 < args.length) {
+                namePattern = globToPattern(args[++i]);
+            } else if (args[i].equals("-type") && i + 1 < args.length) {
+                type = args[++i];
+            } else if (!args[i].startsWith("-") && i == 0) {
+                start = args[i];
+            }
+        }
+        
+        String root = shell.resolve(start);
+        try {
+            Pattern name = namePattern;
+            String wantedType = type;
+            List<String> matches = shell.find(root, (path, node) ->
+                (wantedType == null || (wantedType.equals("d") ? node.directory() : wantedType.equals("f") && !node.directory()))
+                    && (name == null || name.matcher(FileSystemImage.name(path)).matches()));
+            StringBuilder output = new StringBuilder();
+            for (String path : matches) {
+                // Caminhos exibidos a partir do argumento como digitado, como no find real
+                String suffix = path.substring(root.length());
+                output.append(root.equals("/") ? path : start + suffix).append("\n");
+            }
+            if (output.length() > 0) {
+                output.setLength(output.length() - 1);
+            }
+            return output.toString();
+        } catch (FileSystemException e) {
+            return "find: '" + start + "': " + describe(e);
+        }
+    }
+    
+    private static Pattern globToPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : glob.replace("\"", "").replace("'", "").toCharArray()) {
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+    
+    private String processMkdirCommand(String[] args, ShellSession shell) {
+        boolean parents = false;
+        List<String> dirs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("-")) {
+                parents |= arg.contains("p");
+            } else {
+                dirs.add(arg);
+            }
+        }
+        if (dirs.isEmpty()) return "mkdir: missing operand";
+        
+        List<String> errors = new ArrayList<>();
+        for (String dir : dirs) {
+            try {
+                shell.mkdir(shell.resolve(dir), parents);
+            } catch (FileSystemException e) {
+                errors.add("mkdir: cannot create directory '" + dir + "': " + describe(e));
+            }
+        }
+        return String.join("\n", errors);
+    }
+    
+    private String processRmdirCommand(String[] args, ShellSession shell) {
+        if (args.length == 0) return "rmdir: missing operand";
+        List<String> errors = new ArrayList<>();
+        for (String dir : args) {
+            try {
+                shell.rmdir(shell.resolve(dir));
+            } catch (FileSystemException e) {
+                errors.add("rmdir: failed to remove '" + dir + "': " + describe(e));
+            }
+        }
+        return String.join("\n", errors);
+    }
+    
+    private String processTouchCommand(String[] args, ShellSession shell) {
+        if (args.length == 0) return "touch: missing file operand";
+        List<String> errors = new ArrayList<>();
+        for (String file : args) {
+            try {
+                shell.touch(shell.resolve(file));
+            } catch (FileSystemException e) {
+                errors.add("touch: cannot touch '" + file + "': " + describe(e));
+            }
+        }
+        return String.join("\n", errors);
+    }
+    
+    private String processRmCommand(String[] args, ShellSession shell) {
+        boolean recursive = false;
+        boolean force = false;
+        List<String> files = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("-")) {
+                recursive |= arg.contains("r") || arg.contains("R");
+                force |= arg.contains("f");
+            } else {
+                files.add(arg);
+            }
+        }
+        if (files.isEmpty()) return force ? "" : "rm: missing operand";
+        
+        List<String> errors = new ArrayList<>();
+        for (String file : files) {
+            String path = shell.resolve(file);
+            if (path.equals("/") && recursive) {
+                errors.add("rm: it is dangerous to operate recursively on '/'");
+                errors.add("rm: use --no-preserve-root to override this failsafe");
+                continue;
+            }
+            try {
+                shell.remove(path, recursive);
+            } catch (NoSuchFileException e) {
+                if (!force) {
+                    errors.add("rm: cannot remove '" + file + "': " + describe(e));
+                }
+            } catch (FileSystemException e) {
+                errors.add("rm: cannot remove '" + file + "': " + describe(e));
+            }
+        }
+        return String.join("\n", errors);
+    }
+    
+    // Mensagem no formato do coreutils para as exceções do sistema de arquivos virtual
+    private static String describe(FileSystemException e) {
+        if (e instanceof NoSuchFileException) return "No such file or directory";
+        if (e instanceof NotDirectoryException) return "Not a directory";
+        if (e instanceof FileAlreadyExistsException) return "File exists";
+        if (e instanceof DirectoryNotEmptyException) return "Directory not empty";
+        return e.getReason();
     }
     
     private String processNetstatCommand(String[] args) {
@@ -612,11 +865,29 @@ public class HoneyPotService {
         return cmd + ": " + args[0] + ": Connection refused";
     }
     
-    private String processEchoCommand(String[] args) {
+    private String processEchoCommand(String command, String[] args, ShellSession shell) {
+        Matcher redirect = ECHO_REDIRECT.matcher(command);
+        if (redirect.matches()) {
+            String text = unquote(redirect.group(1));
+            String target = redirect.group(3);
+            try {
+                shell.write(shell.resolve(target), text + "\n", redirect.group(2).equals(">>"));
+                return "";
+            } catch (FileSystemException e) {
+                return "bash: " + target + ": " + describe(e);
+            }
+        }
         if (args.length == 0) return "";
         return String.join(" ", args);
     }
     
+    private static String unquote(String text) {
+        if (text.length() >= 2 && (text.startsWith("\"") && text.endsWith("\"") || text.startsWith("'") && text.endsWith("'"))) {
+            return text.substring(1, text.length() - 1);
+        }
+        return text;
+    }
+    
     private String processUptimeCommand() {
         return " 10:30:45 up 2 days, 15:23,  1 user,  load average: 0.52, 0.58, 0.59";
     }
@@ -648,38 +919,4 @@ public class HoneyPotService {
         output.append("    7  history\n");
         return output.toString();
     }
-    
-    /**
-     * Verifica se um comando é considerado crítico
-     */
-    private boolean isCriticalCommand(String command) {
-        String[] criticalCommands = {
-            "rm", "rmdir", "chmod", "chown", "iptables", "systemctl", "service",
-            "wget", "curl", "nc", "ncat", "telnet", "ssh", "scp", "sftp"
-        };
-        
-        for (String critical : criticalCommands) {
-            if (command.startsWith(critical)) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
-    /**
-     * Verifica se um arquivo é sensível
-     */
-    private boolean isSensitiveFile(String filename) {
-        String[] sensitiveFiles = {
-            "/etc/passwd", "/etc/shadow", "/etc/hosts", "/proc/version",
-            "/etc/network/interfaces", "/etc/resolv.conf", "/etc/fstab"
-        };
-        
-        for (String sensitive : sensitiveFiles) {
-            if (filename.equals(sensitive)) {
-                return true;
-            }
-        }
-        return false;
-    }
 }
@@ -0,0 +1,99 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.enrichment.IpInfo;
+import com.eduardo.HoneyPot.enrichment.IpRangeIndex;
+import com.eduardo.HoneyPot.model.AttackLog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Enriquecimento offline de IPs (país, ASN e organização) a partir de uma base local de intervalos.
+ * O arquivo texto ({@code honeypot.geoip.source-file}, formato ip2asn-combined.tsv do iptoasn.com)
+ * é convertido uma vez no índice binário {@code honeypot.geoip.index-file}, que é mapeado em memória
+ * e consultado por busca binária a cada conexão, sem chamadas externas.
+ */
+@Slf4j
+@Service
+public class IpEnrichmentService {
+
+    public static final String UNKNOWN = "UNKNOWN";
+
+    @Value("${honeypot.geoip.source-file:data/ip2asn-combined.tsv}")
+    private String sourceFile;
+
+    @Value("${honeypot.geoip.index-file:data/ip-ranges.idx}")
+    private String indexFile;
+
+    private volatile IpRangeIndex index;
+
+    /**
+     * Reconstrói o índice se a base texto for mais nova que ele e mapeia o resultado
+     */
+    @PostConstruct
+    public void initialize() {
+        Path source = Paths.get(sourceFile);
+        Path target = Paths.get(indexFile);
+        try {
+            if (Files.exists(source) && (!Files.exists(target)
+                    || Files.getLastModifiedTime(source).compareTo(Files.getLastModifiedTime(target)) > 0)) {
+                Path parent = target.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                long start = System.currentTimeMillis();
+                int ranges = IpRangeIndex.build(source, target);
+                log.info("Índice de IPs construído a partir de {}: {} intervalos em {} ms",
+                    source, ranges, System.currentTimeMillis() - start);
+            }
+            if (Files.exists(target)) {
+                index = IpRangeIndex.open(target);
+                log.info("Índice de IPs mapeado em memória: {} intervalos ({})", index.size(), target);
+            } else {
+                log.info("Base de IPs não encontrada em {}; enriquecimento de IPs desativado", source);
+            }
+        } catch (IOException e) {
+            log.error("Erro ao carregar índice de IPs: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        IpRangeIndex current = index;
+        index = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return index != null;
+    }
+
+    /**
+     * País, ASN e organização do IP, ou null se desconhecido (IPs privados, base ausente)
+     */
+    public IpInfo lookup(String ip) {
+        IpRangeIndex current = index;
+        return current != null ? current.lookup(ip) : null;
+    }
+
+    /**
+     * Preenche país, ASN e organização no log capturado
+     */
+    public void enrich(AttackLog attackLog) {
+        IpInfo info = lookup(attackLog.getSourceIp());
+        if (info != null) {
+            attackLog.setCountry(info.country());
+            attackLog.setAsn(info.asn());
+            attackLog.setOrganization(info.organization());
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.event.AttackCapturedEvent;
+import com.eduardo.HoneyPot.event.AttackLogsClearedEvent;
+import com.eduardo.HoneyPot.event.NotificationCreatedEvent;
+import com.eduardo.HoneyPot.model.AttackLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Canal Server-Sent Events do dashboard. Os listeners de captura e notificação apenas enfileiram
+ * eventos (sem I/O na thread da conexão); um único publicador agendado drena a fila, serializa cada
+ * evento uma vez e o envia a todos os clientes, junto com o delta de estatísticas do intervalo.
+ * O custo no MongoDB não cresce com o número de navegadores abertos. As escritas nas conexões
+ * rodam em um pool próprio com prazo ({@code honeypot.push.send-timeout-ms}): um cliente lento é
+ * desconectado em vez de segurar a thread do agendador compartilhada com as demais tarefas.
+ * <p>
+ * Eventos: {@code capture}, {@code update} (credenciais capturadas ou sessão encerrada; mesmo formato de
+ * {@code capture}), {@code command}, {@code notification}, {@code stats}, {@code cleared} e {@code resync}
+ * (fila estourou; o cliente deve recarregar os dados).
+ */
+@Slf4j
+@Service
+public class LivePushService {
+
+    private static final int MAX_COMMANDS_IN_CAPTURE = 50;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LiveStatisticsService liveStatisticsService;
+
+    @Value("${honeypot.push.max-clients:100}")
+    private int maxClients;
+
+    @Value("${honeypot.push.queue-size:10000}")
+    private int queueSize;
+
+    @Value("${honeypot.push.send-threads:4}")
+    private int sendThreads;
+
+    @Value("${honeypot.push.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    private final List<SseEmitter> clients = new CopyOnWriteArrayList<>();
+    private BlockingQueue<PushEvent> queue;
+    private final AtomicBoolean overflowed = new AtomicBoolean(false);
+    private ExecutorService sendExecutor;
+
+    // Delta de capturas por protocolo desde o último envio
+    private final Map<String, Long> protocolDelta = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void initialize() {
+        queue = new ArrayBlockingQueue<>(queueSize);
+        AtomicInteger threadCount = new AtomicInteger();
+        sendExecutor = Executors.newFixedThreadPool(Math.max(1, sendThreads), task -> {
+            Thread thread = new Thread(task, "live-push-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdownNow();
+    }
+
+    /**
+     * Registra um novo cliente SSE
+     */
+    public synchronized SseEmitter subscribe() {
+        // Verificação e inclusão sob o mesmo lock; remoções só liberam vagas e não precisam dele
+        if (clients.size() >= maxClients) {
+            throw new IllegalStateException("Limite de " + maxClients + " clientes em tempo real atingido");
+        }
+        SseEmitter emitter = new SseEmitter(0L);
+        emitter.onCompletion(() -> clients.remove(emitter));
+        emitter.onTimeout(() -> clients.remove(emitter));
+        emitter.onError(error -> clients.remove(emitter));
+        clients.add(emitter);
+        log.debug("Cliente de tempo real conectado ({} ativos)", clients.size());
+        return emitter;
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    @EventListener
+    public void onAttackCaptured(AttackCapturedEvent event) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        AttackLog attackLog = event.getAttackLog();
+        switch (event.getType()) {
+            case SESSION_STARTED:
+                protocolDelta.merge(attackLog.getProtocol() != null ? attackLog.getProtocol() : "UNKNOWN", 1L, Long::sum);
+                enqueue("capture", captureSummary(attackLog));
+                break;
+            case CREDENTIALS_CAPTURED:
+            case SESSION_ENDED:
+                // No SSH a sessão é publicada antes da autenticação: a linha é atualizada depois
+                enqueue("update", captureSummary(attackLog));
+                break;
+            case COMMAND_EXECUTED:
+                enqueue("command", Map.of(
+                    "id", String.valueOf(attackLog.getId()),
+                    "command", String.valueOf(event.getCommand()),
+                    "timestamp", LocalDateTime.now(),
+                    "commandCount", attackLog.getCommandCount()
+                ));
+                break;
+            default:
+                break;
+        }
+    }
+
+    @EventListener
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        if (!clients.isEmpty()) {
+            enqueue("notification", event.getNotification());
+        }
+    }
+
+    @EventListener
+    public void onAttackLogsCleared(AttackLogsClearedEvent event) {
+        protocolDelta.clear();
+        if (!clients.isEmpty()) {
+            enqueue("cleared", Map.of("deletedCount", event.getDeletedCount()));
+        }
+    }
+
+    /**
+     * Publicador compartilhado: drena a fila e envia o delta de estatísticas a todos os clientes
+     */
+    @Scheduled(fixedDelayString = "${honeypot.push.interval-ms:1000}")
+    public void publish() {
+        if (clients.isEmpty()) {
+            return;
+        }
+        List<PushEvent> events = new ArrayList<>();
+        queue.drainTo(events);
+        if (overflowed.getAndSet(false)) {
+            events.clear();
+            events.add(new PushEvent("resync", Map.of("reason", "queue-overflow")));
+        }
+
+        Map<String, Long> delta = drainProtocolDelta();
+        if (!delta.isEmpty()) {
+            events.add(new PushEvent("stats", statsPayload(delta)));
+        }
+
+        List<Set<ResponseBodyEmitter.DataWithMediaType>> messages = new ArrayList<>();
+        for (PushEvent event : events) {
+            Set<ResponseBodyEmitter.DataWithMediaType> message = serialize(event);
+            if (message != null) {
+                messages.add(message);
+            }
+        }
+        send(messages);
+    }
+
+    /**
+     * Comentário SSE periódico para manter conexões vivas através de proxies
+     */
+    @Scheduled(fixedDelayString = "${honeypot.push.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (!clients.isEmpty()) {
+            send(List.of(SseEmitter.event().comment("heartbeat").build()));
+        }
+    }
+
+    // Métodos auxiliares
+    private void enqueue(String name, Object payload) {
+        if (!queue.offer(new PushEvent(name, payload))) {
+            overflowed.set(true);
+        }
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> serialize(PushEvent event) {
+        try {
+            // Serializado uma única vez para todos os clientes
+            String json = objectMapper.writeValueAsString(event.payload());
+            return SseEmitter.event().name(event.name()).data(json, MediaType.APPLICATION_JSON).build();
+        } catch (JsonProcessingException e) {
+            log.warn("Erro ao serializar evento {}: {}", event.name(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Envia as mensagens, em ordem, a cada cliente no pool de envio e espera no máximo o prazo
+     * configurado; quem não terminar a tempo é desconectado
+     */
+    private void send(List<Set<ResponseBodyEmitter.DataWithMediaType>> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        Map<SseEmitter, Future<?>> pending = new HashMap<>();
+        for (SseEmitter emitter : clients) {
+            pending.put(emitter, sendExecutor.submit(() -> {
+                for (Set<ResponseBodyEmitter.DataWithMediaType> message : messages) {
+                    emitter.send(message);
+                }
+                return null;
+            }));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        for (Map.Entry<SseEmitter, Future<?>> entry : pending.entrySet()) {
+            try {
+                entry.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+                disconnect(entry.getKey(), new IOException("Envio excedeu " + sendTimeoutMs + " ms"));
+                log.debug("Cliente de tempo real desconectado por lentidão");
+            } catch (ExecutionException e) {
+                disconnect(entry.getKey(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void disconnect(SseEmitter emitter, Throwable cause) {
+        clients.remove(emitter);
+        try {
+            emitter.completeWithError(cause);
+        } catch (Exception e) {
+            log.debug("Erro ao encerrar cliente de tempo real: {}", e.getMessage());
+        }
+    }
+
+    private Map<String, Long> drainProtocolDelta() {
+        Map<String, Long> delta = new HashMap<>();
+        for (String protocol : protocolDelta.keySet()) {
+            Long count = protocolDelta.remove(protocol);
+            if (count != null && count > 0) {
+                delta.put(protocol, count);
+            }
+        }
+        return delta;
+    }
+
+    private Map<String, Object> statsPayload(Map<String, Long> delta) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("delta", delta);
+        payload.put("newAttacks", delta.values().stream().mapToLong(Long::longValue).sum());
+        if (liveStatisticsService.isReady()) {
+            Map<String, Long> protocols = liveStatisticsService.getProtocolCounts();
+            payload.put("totalLogs", liveStatisticsService.getTotal());
+            payload.put("sshLogs", protocols.getOrDefault("SSH", 0L));
+            payload.put("telnetLogs", protocols.getOrDefault("TELNET", 0L));
+            payload.put("protocols", protocols);
+            payload.put("uniqueIpsCount", liveStatisticsService.getUniqueIpsCount());
+        }
+        payload.put("timestamp", LocalDateTime.now());
+        return payload;
+    }
+
+    private static Map<String, Object> captureSummary(AttackLog attackLog) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("id", attackLog.getId());
+        summary.put("timestamp", attackLog.getTimestamp());
+        summary.put("sourceIp", attackLog.getSourceIp());
+        summary.put("protocol", attackLog.getProtocol());
+        summary.put("username", attackLog.getUsername());
+        summary.put("password", attackLog.getPassword());
+        summary.put("country", attackLog.getCountry());
+        summary.put("commands", attackLog.getCommands() != null
+            ? List.copyOf(attackLog.getCommands().subList(0, Math.min(attackLog.getCommands().size(), MAX_COMMANDS_IN_CAPTURE)))
+            : List.of());
+        return summary;
+    }
+
+    private record PushEvent(String name, Object payload) {
+    }
+}
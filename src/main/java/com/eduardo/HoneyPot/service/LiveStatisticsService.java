@@ -0,0 +1,269 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.event.AttackCapturedEvent;
+import com.eduardo.HoneyPot.event.AttackLogsClearedEvent;
+import com.eduardo.HoneyPot.model.AttackLog;
+import com.eduardo.HoneyPot.model.KeyCount;
+import com.eduardo.HoneyPot.repository.AttackLogRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Motor de estatísticas em memória (totais por protocolo e IP), atualizado a cada captura do HoneyPotService.
+ * Os contadores são LongAdder (internamente particionados por célula), então threads de
+ * conexão concorrentes não disputam o mesmo contador. Um snapshot é gravado em disco
+ * periodicamente e, na inicialização, o estado é restaurado do snapshot ou reconstruído
+ * a partir do MongoDB.
+ */
+@Slf4j
+@Service
+public class LiveStatisticsService {
+
+    @Autowired
+    private AttackLogRepository attackLogRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DictionaryService dictionaryService;
+
+    @Value("${honeypot.stats.snapshot-file:data/live-stats.json}")
+    private String snapshotFile;
+
+    private volatile Counters counters = new Counters();
+    private volatile boolean ready = false;
+
+    /**
+     * Atualiza os contadores conforme as etapas da sessão
+     */
+    @EventListener
+    public void onAttackCaptured(AttackCapturedEvent event) {
+        if (event.getType() != AttackCapturedEvent.Type.SESSION_STARTED) {
+            return;
+        }
+        AttackLog attackLog = event.getAttackLog();
+        Counters current = counters;
+        current.total.increment();
+        increment(current.byProtocol, attackLog.getProtocol());
+        // Chave canônica: o mapa de IPs compartilha a instância do dicionário em vez de reter a string da conexão
+        increment(current.byIp, dictionaryService.canonical(DictionaryService.Field.IP, attackLog.getSourceIp()));
+    }
+
+    @EventListener
+    public void onAttackLogsCleared(AttackLogsClearedEvent event) {
+        counters = new Counters();
+        log.info("Estatísticas em memória zeradas após limpeza de {} logs", event.getDeletedCount());
+    }
+
+    /**
+     * Restaura o snapshot em disco ou reconstrói a partir do banco antes dos listeners subirem
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void initialize() {
+        try {
+            long databaseCount = attackLogRepository.count();
+            Snapshot snapshot = readSnapshot();
+
+            if (snapshot != null && snapshot.getTotal() == databaseCount) {
+                counters = Counters.fromSnapshot(snapshot);
+                log.info("Estatísticas restauradas do snapshot {} ({} logs)", snapshotFile, databaseCount);
+            } else {
+                rebuildFromDatabase();
+            }
+            ready = true;
+        } catch (Exception e) {
+            log.error("Erro ao inicializar estatísticas em memória: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reconstrói todos os contadores com agregações no MongoDB.
+     * Capturas que chegarem durante a reconstrução podem ser perdidas até o próximo rebuild.
+     */
+    public void rebuildFromDatabase() {
+        Counters rebuilt = new Counters();
+        for (KeyCount keyCount : attackLogRepository.countGroupedByProtocol()) {
+            add(rebuilt.byProtocol, keyCount.getKey(), keyCount.getCount());
+            rebuilt.total.add(keyCount.getCount());
+        }
+        for (KeyCount keyCount : attackLogRepository.countGroupedBySourceIp()) {
+            add(rebuilt.byIp, keyCount.getKey(), keyCount.getCount());
+        }
+        counters = rebuilt;
+        ready = true;
+        log.info("Estatísticas em memória reconstruídas a partir do banco: {} logs, {} IPs",
+            rebuilt.total.sum(), rebuilt.byIp.size());
+    }
+
+    /**
+     * Grava o snapshot periodicamente (escrita atômica via arquivo temporário)
+     */
+    @Scheduled(fixedDelayString = "${honeypot.stats.snapshot-interval-ms:60000}",
+               initialDelayString = "${honeypot.stats.snapshot-interval-ms:60000}")
+    public void writeSnapshot() {
+        if (!ready) {
+            return;
+        }
+        try {
+            Path target = Paths.get(snapshotFile);
+            Path parent = target.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = Files.createTempFile(parent, "live-stats", ".tmp");
+            objectMapper.writeValue(temp.toFile(), counters.toSnapshot());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Snapshot de estatísticas gravado em {}", target);
+        } catch (IOException e) {
+            log.warn("Erro ao gravar snapshot de estatísticas: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writeSnapshot();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long getTotal() {
+        return counters.total.sum();
+    }
+
+    public long getProtocolCount(String protocol) {
+        LongAdder adder = counters.byProtocol.get(protocol);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    public Map<String, Long> getProtocolCounts() {
+        return toMap(counters.byProtocol);
+    }
+
+    public long getUniqueIpsCount() {
+        return counters.byIp.size();
+    }
+
+    /**
+     * Percorre a contagem de cada IP sem copiar o mapa
+     */
+    public void forEachIp(BiConsumer<String, Long> consumer) {
+        counters.byIp.forEach((ip, adder) -> consumer.accept(ip, adder.sum()));
+    }
+
+    /**
+     * Top N IPs (heap limitado a N, sem ordenar o mapa inteiro)
+     */
+    public List<Map.Entry<String, Long>> getTopIps(int limit) {
+        return topEntries(counters.byIp, limit);
+    }
+
+    // Métodos auxiliares
+    private static void increment(Map<String, LongAdder> map, String key) {
+        if (key != null) {
+            map.computeIfAbsent(key, k -> new LongAdder()).increment();
+        }
+    }
+
+    private static void add(Map<String, LongAdder> map, String key, long value) {
+        if (key != null) {
+            map.computeIfAbsent(key, k -> new LongAdder()).add(value);
+        }
+    }
+
+    private static Map<String, Long> toMap(Map<String, LongAdder> source) {
+        Map<String, Long> result = new HashMap<>();
+        source.forEach((key, adder) -> result.put(key, adder.sum()));
+        return result;
+    }
+
+    private static List<Map.Entry<String, Long>> topEntries(Map<String, LongAdder> source, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Map.Entry<String, Long>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+        source.forEach((key, adder) -> {
+            heap.offer(Map.entry(key, adder.sum()));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        });
+        List<Map.Entry<String, Long>> result = new ArrayList<>(heap);
+        result.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return result;
+    }
+
+    private Snapshot readSnapshot() {
+        File file = new File(snapshotFile);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(file, Snapshot.class);
+        } catch (IOException e) {
+            log.warn("Snapshot de estatísticas inválido em {}: {}", snapshotFile, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Conjunto de contadores trocado atomicamente em rebuild/limpeza
+     */
+    private static class Counters {
+        final LongAdder total = new LongAdder();
+        final Map<String, LongAdder> byProtocol = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> byIp = new ConcurrentHashMap<>();
+
+        Snapshot toSnapshot() {
+            Snapshot snapshot = new Snapshot();
+            snapshot.setTakenAt(LocalDateTime.now());
+            snapshot.setTotal(total.sum());
+            snapshot.setByProtocol(toMap(byProtocol));
+            snapshot.setByIp(toMap(byIp));
+            return snapshot;
+        }
+
+        static Counters fromSnapshot(Snapshot snapshot) {
+            Counters restored = new Counters();
+            restored.total.add(snapshot.getTotal());
+            snapshot.getByProtocol().forEach((key, value) -> add(restored.byProtocol, key, value));
+            snapshot.getByIp().forEach((key, value) -> add(restored.byIp, key, value));
+            return restored;
+        }
+    }
+
+    /**
+     * Formato do snapshot persistido em disco
+     */
+    @Data
+    @NoArgsConstructor
+    public static class Snapshot {
+        private LocalDateTime takenAt;
+        private long total;
+        private Map<String, Long> byProtocol = new HashMap<>();
+        private Map<String, Long> byIp = new HashMap<>();
+    }
+}
@@ -1,9 +1,11 @@
 package com.eduardo.HoneyPot.service;
 
+import com.eduardo.HoneyPot.event.AttackLogsClearedEvent;
 import com.eduardo.HoneyPot.model.AttackLog;
 import com.eduardo.HoneyPot.repository.AttackLogRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
@@ -17,6 +19,7 @@ import java.util.Map;
 public class LogService {
     
     private final AttackLogRepository attackLogRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * Busca todos os logs com paginação
@@ -113,6 +116,7 @@ public class LogService {
         try {
             long count = attackLogRepository.count();
             attackLogRepository.deleteAll();
+            eventPublisher.publishEvent(new AttackLogsClearedEvent(count));
             log.info("Todos os {} logs foram removidos", count);
             
             return Map.of(
@@ -1,15 +1,45 @@
 package com.eduardo.HoneyPot.service;
 
+import com.eduardo.HoneyPot.event.NotificationCreatedEvent;
 import com.eduardo.HoneyPot.model.Notification;
 import com.eduardo.HoneyPot.repository.NotificationRepository;
+import com.mongodb.client.result.UpdateResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.ArrayList;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -20,7 +50,17 @@ import org.springframework.data.domain.Sort;
 @RequiredArgsConstructor
 public class NotificationService {
     
+    private static final List<String> SORT_FIELDS_IN_ORDER = List.of("timestamp", "type", "category", "priority", "read");
+    private static final Set<String> SORT_FIELDS = Set.copyOf(SORT_FIELDS_IN_ORDER);
+    
     private final NotificationRepository notificationRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${honeypot.notifications.stats-cache.enabled:false}")
+    private boolean statsCacheEnabled;
+    
+    private volatile StatsCounters statsCounters;
     
     /**
      * Cria uma nova notificação
@@ -29,6 +69,8 @@ public class NotificationService {
         try {
             Notification notification = new Notification(type, category, title, message);
             Notification saved = notificationRepository.save(notification);
+            countCreated(saved);
+            eventPublisher.publishEvent(new NotificationCreatedEvent(saved));
             log.info("Notificação criada: {} - {}", type, title);
             return saved;
         } catch (Exception e) {
@@ -45,6 +87,8 @@ public class NotificationService {
             Notification notification = new Notification(type, "ATTACK", title, message, sourceIp, protocol);
             notification.setUsername(username);
             Notification saved = notificationRepository.save(notification);
+            countCreated(saved);
+            eventPublisher.publishEvent(new NotificationCreatedEvent(saved));
             log.info("Notificação de ataque criada: {} - {} de {}", type, title, sourceIp);
             return saved;
         } catch (Exception e) {
@@ -68,98 +112,77 @@ public class NotificationService {
     }
     
     /**
-     * Busca todas as notificações com paginação e ordenação
+     * Garante os índices compostos usados pelas consultas de notificações. Para a listagem, cada
+     * combinação de filtro (nenhum, tipo, categoria, tipo e categoria) recebe um índice por campo
+     * ordenável, seguido do _id como desempate, para que filtro, ordenação e página sejam resolvidos
+     * pelo índice sem ordenação em memória (a direção não importa: o índice é percorrido nos dois
+     * sentidos). As consultas de não lidas usam {read, timestamp} e {read, priority, timestamp}.
      */
-    public Map<String, Object> getAllNotifications(int page, int size, String sortField, String sortDirection) {
+    @EventListener(ApplicationStartedEvent.class)
+    public void ensureIndexes() {
         try {
-            // Configurar ordenação
-            Sort.Direction direction = "desc".equalsIgnoreCase(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC;
-            String field = (sortField != null && !sortField.isEmpty()) ? sortField : "timestamp";
-            Sort sort = Sort.by(direction, field);
-            
-            // Criar Pageable
-            Pageable pageable = PageRequest.of(page, size, sort);
-            
-            // Buscar com paginação
-            Page<Notification> notificationPage = notificationRepository.findAll(pageable);
-            
-            return Map.of(
-                "notifications", notificationPage.getContent(),
-                "totalPages", notificationPage.getTotalPages(),
-                "totalElements", notificationPage.getTotalElements(),
-                "currentPage", notificationPage.getNumber(),
-                "size", notificationPage.getSize(),
-                "sortField", field,
-                "sortDirection", sortDirection,
-                "timestamp", LocalDateTime.now()
-            );
-            
+            IndexOperations indexOps = mongoTemplate.indexOps(Notification.class);
+            for (Index index : listingIndexes()) {
+                indexOps.createIndex(index);
+            }
+            indexOps.createIndex(new Index().on("read", Sort.Direction.ASC).on("timestamp", Sort.Direction.DESC));
+            indexOps.createIndex(new Index().on("read", Sort.Direction.ASC).on("priority", Sort.Direction.DESC)
+                .on("timestamp", Sort.Direction.DESC));
         } catch (Exception e) {
-            log.error("Erro ao buscar notificações: {}", e.getMessage(), e);
-            throw new RuntimeException("Erro ao buscar notificações", e);
+            log.error("Erro ao criar índices de notificações: {}", e.getMessage(), e);
+        }
+    }
+    
+    // Prefixo de igualdade do filtro, depois o campo ordenado (omitido quando já está no filtro) e o _id
+    static List<Index> listingIndexes() {
+        Map<String, Index> indexes = new LinkedHashMap<>();
+        for (List<String> filter : List.of(List.<String>of(), List.of("type"), List.of("category"), List.of("type", "category"))) {
+            for (String field : SORT_FIELDS_IN_ORDER) {
+                List<String> keys = new ArrayList<>(filter);
+                if (!keys.contains(field)) {
+                    keys.add(field);
+                }
+                Index index = new Index();
+                for (String key : keys) {
+                    index.on(key, filter.contains(key) ? Sort.Direction.ASC : Sort.Direction.DESC);
+                }
+                indexes.putIfAbsent(String.join(",", keys), index.on("_id", Sort.Direction.DESC));
+            }
         }
+        return List.copyOf(indexes.values());
+    }
+    
+    /**
+     * Busca todas as notificações com paginação e ordenação
+     */
+    public Map<String, Object> getAllNotifications(int page, int size, String sortField, String sortDirection) {
+        return getFilteredNotifications(page, size, null, null, sortField, sortDirection);
     }
     
     /**
-     * Busca notificações com filtros, ordenação e paginação
+     * Busca notificações com filtros, ordenação e paginação, tudo em uma única consulta ao MongoDB
      */
     public Map<String, Object> getFilteredNotifications(int page, int size, String type, String category, String sortField, String sortDirection) {
+        validatePage(page, size);
         try {
-            List<Notification> filteredNotifications = new ArrayList<>();
+            String field = sortField(sortField);
+            Sort.Direction direction = sortDirection(sortDirection);
+            Pageable pageable = PageRequest.of(page, size, Sort.by(direction, field, "id"));
             
-            // Aplicar filtros
-            if (type != null && !type.isEmpty() && category != null && !category.isEmpty()) {
-                // Filtro por tipo E categoria
-                filteredNotifications = notificationRepository.findByTypeAndCategoryOrderByTimestampDesc(type, category);
-            } else if (type != null && !type.isEmpty()) {
-                // Filtro apenas por tipo
-                filteredNotifications = notificationRepository.findByTypeOrderByTimestampDesc(type);
-            } else if (category != null && !category.isEmpty()) {
-                // Filtro apenas por categoria
-                filteredNotifications = notificationRepository.findByCategoryOrderByTimestampDesc(category);
-            } else {
-                // Sem filtros - usar método principal
-                return getAllNotifications(page, size, sortField, sortDirection);
-            }
+            Query filter = filterQuery(type, category);
+            List<Notification> content = mongoTemplate.find(Query.of(filter).with(pageable), Notification.class);
+            // A contagem é dispensada quando a própria página já revela o total
+            Page<Notification> notificationPage = PageableExecutionUtils.getPage(content, pageable,
+                () -> mongoTemplate.count(filter, Notification.class));
             
-            if (filteredNotifications.isEmpty()) {
-                return Map.of(
-                    "notifications", List.of(),
-                    "totalPages", 0,
-                    "totalElements", 0L,
-                    "currentPage", page,
-                    "size", size,
-                    "type", type != null ? type : "",
-                    "category", category != null ? category : "",
-                    "sortField", sortField != null ? sortField : "timestamp",
-                    "sortDirection", sortDirection != null ? sortDirection : "desc",
-                    "timestamp", LocalDateTime.now()
-                );
+            Map<String, Object> response = pageResponse(content, size, type, category, field, direction);
+            response.put("totalPages", notificationPage.getTotalPages());
+            response.put("totalElements", notificationPage.getTotalElements());
+            response.put("currentPage", notificationPage.getNumber());
+            if (notificationPage.hasNext()) {
+                response.put("nextCursor", encodeCursor(content.get(content.size() - 1), type, category, field, direction));
             }
-            
-            // Aplicar ordenação
-            filteredNotifications = sortNotifications(filteredNotifications, sortField, sortDirection);
-            
-            // Implementar paginação manual
-            int start = page * size;
-            int end = Math.min(start + size, filteredNotifications.size());
-            List<Notification> pageContent = start < filteredNotifications.size() ? 
-                filteredNotifications.subList(start, end) : List.of();
-            
-            int totalPages = (int) Math.ceil((double) filteredNotifications.size() / size);
-            
-            return Map.of(
-                "notifications", pageContent,
-                "totalPages", totalPages,
-                "totalElements", (long) filteredNotifications.size(),
-                "currentPage", page,
-                "size", size,
-                "type", type != null ? type : "",
-                "category", category != null ? category : "",
-                "sortField", sortField != null ? sortField : "timestamp",
-                "sortDirection", sortDirection != null ? sortDirection : "desc",
-                "timestamp", LocalDateTime.now()
-            );
+            return response;
             
         } catch (Exception e) {
             log.error("Erro ao buscar notificações filtradas: {}", e.getMessage(), e);
@@ -168,90 +191,145 @@ public class NotificationService {
     }
     
     /**
-     * Aplica ordenação nas notificações
+     * Paginação por cursor (keyset): continua a partir da última notificação da página anterior
+     * usando o índice, sem o custo de skip em páginas profundas e sem contagem total
      */
-    private List<Notification> sortNotifications(List<Notification> notifications, String sortField, String sortDirection) {
-        // Validação de entrada
-        if (notifications == null || notifications.isEmpty()) {
-            return new ArrayList<>();
-        }
-        
-        // Valores padrão
-        if (sortField == null || sortField.isEmpty()) {
-            sortField = "timestamp";
-        }
-        if (sortDirection == null || sortDirection.isEmpty()) {
-            sortDirection = "desc";
+    public Map<String, Object> getNotificationsAfter(String cursor, int size, String type, String category, String sortField, String sortDirection) {
+        String field = sortField(sortField);
+        Sort.Direction direction = sortDirection(sortDirection);
+        validatePage(0, size);
+        Query query = filterQuery(type, category);
+        if (cursor != null && !cursor.isEmpty()) {
+            query.addCriteria(afterCursor(cursor, type, category, field, direction));
         }
         
-        // Criar uma nova lista para não modificar a original
-        List<Notification> sortedList = new ArrayList<>(notifications);
-        
         try {
-            // Aplicar ordenação baseada no campo
-            switch (sortField.toLowerCase()) {
-                case "timestamp":
-                    sortedList.sort((n1, n2) -> {
-                        if (n1.getTimestamp() == null && n2.getTimestamp() == null) return 0;
-                        if (n1.getTimestamp() == null) return 1;
-                        if (n2.getTimestamp() == null) return -1;
-                        return n1.getTimestamp().compareTo(n2.getTimestamp());
-                    });
-                    break;
-                    
-                case "type":
-                    sortedList.sort((n1, n2) -> {
-                        String t1 = n1.getType() != null ? n1.getType() : "";
-                        String t2 = n2.getType() != null ? n2.getType() : "";
-                        return t1.compareTo(t2);
-                    });
-                    break;
-                    
-                case "category":
-                    sortedList.sort((n1, n2) -> {
-                        String c1 = n1.getCategory() != null ? n1.getCategory() : "";
-                        String c2 = n2.getCategory() != null ? n2.getCategory() : "";
-                        return c1.compareTo(c2);
-                    });
-                    break;
-                    
-                case "priority":
-                    sortedList.sort((n1, n2) -> {
-                        int p1 = n1.getPriority();
-                        int p2 = n2.getPriority();
-                        return Integer.compare(p1, p2);
-                    });
-                    break;
-                    
-                case "read":
-                    sortedList.sort((n1, n2) -> {
-                        boolean r1 = n1.isRead();
-                        boolean r2 = n2.isRead();
-                        return Boolean.compare(r1, r2);
-                    });
-                    break;
-                    
-                default:
-                    // Fallback para timestamp
-                    sortedList.sort((n1, n2) -> {
-                        if (n1.getTimestamp() == null && n2.getTimestamp() == null) return 0;
-                        if (n1.getTimestamp() == null) return 1;
-                        if (n2.getTimestamp() == null) return -1;
-                        return n1.getTimestamp().compareTo(n2.getTimestamp());
-                    });
-                    break;
-            }
+            query.with(Sort.by(direction, field, "id")).limit(size + 1);
+            List<Notification> results = mongoTemplate.find(query, Notification.class);
+            boolean hasMore = results.size() > size;
+            List<Notification> content = hasMore ? results.subList(0, size) : results;
             
-            // Aplicar direção da ordenação
-            if ("desc".equalsIgnoreCase(sortDirection)) {
-                java.util.Collections.reverse(sortedList);
+            Map<String, Object> response = pageResponse(content, size, type, category, field, direction);
+            response.put("hasMore", hasMore);
+            if (hasMore) {
+                response.put("nextCursor", encodeCursor(content.get(content.size() - 1), type, category, field, direction));
             }
-            
-            return sortedList;
+            return response;
             
         } catch (Exception e) {
-            log.error("Erro ao ordenar notificações: {}", e.getMessage(), e);
-            return new ArrayList<>(notifications); // Retornar lista original em caso de erro
+            log.error("Erro ao buscar notificações por cursor: {}", e.getMessage(), e);
+            throw new RuntimeException("Erro ao buscar notificações por cursor", e);
+        }
+    }
+    
+    // Métodos auxiliares da listagem
+    private static Query filterQuery(String type, String category) {
+        Query query = new Query();
+        if (type != null && !type.isEmpty()) {
+            query.addCriteria(Criteria.where("type").is(type));
+        }
+        if (category != null && !category.isEmpty()) {
+            query.addCriteria(Criteria.where("category").is(category));
+        }
+        return query;
+    }
+    
+    // Fora do try dos métodos de listagem: parâmetros inválidos chegam ao controller como 400
+    private static void validatePage(int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Página deve ser maior ou igual a 0");
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Tamanho da página deve ser maior que 0");
+        }
+    }
+    
+    private static String sortField(String sortField) {
+        return sortField != null && SORT_FIELDS.contains(sortField.toLowerCase()) ? sortField.toLowerCase() : "timestamp";
+    }
+    
+    private static Sort.Direction sortDirection(String sortDirection) {
+        return "asc".equalsIgnoreCase(sortDirection) ? Sort.Direction.ASC : Sort.Direction.DESC;
+    }
+    
+    private static Map<String, Object> pageResponse(List<Notification> content, int size, String type, String category,
+                                                    String field, Sort.Direction direction) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("notifications", content);
+        response.put("size", size);
+        response.put("type", type != null ? type : "");
+        response.put("category", category != null ? category : "");
+        response.put("sortField", field);
+        response.put("sortDirection", direction.name().toLowerCase());
+        response.put("timestamp", LocalDateTime.now());
+        return response;
+    }
+    
+    /**
+     * Cursor opaco com o campo/direção da ordenação, o filtro de tipo/categoria, o _id e o valor
+     * ordenado da última notificação ("-" quando o valor é nulo)
+     */
+    private static String encodeCursor(Notification last, String type, String category, String field, Sort.Direction direction) {
+        Object value = sortValue(last, field);
+        String raw = String.join("|", field, direction.name(), cursorPart(type), cursorPart(category), last.getId(),
+            value != null ? "=" + value : "-");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static Criteria afterCursor(String cursor, String type, String category, String field, Sort.Direction direction) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 6);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        if (parts.length != 6 || !parts[0].equals(field) || !parts[1].equals(direction.name())) {
+            throw new IllegalArgumentException("Cursor inválido ou gerado para outra ordenação");
+        }
+        if (!parts[2].equals(cursorPart(type)) || !parts[3].equals(cursorPart(category))) {
+            throw new IllegalArgumentException("Cursor gerado para outro filtro de tipo/categoria");
+        }
+        String id = parts[4];
+        Object value = parts[5].startsWith("=") ? parseSortValue(field, parts[5].substring(1)) : null;
+        
+        // (campo, _id) estritamente depois do último item, na direção da ordenação; nulos vêm antes
+        // de qualquer valor no MongoDB, então nada fica abaixo de null e tudo que não é nulo fica acima
+        boolean desc = direction == Sort.Direction.DESC;
+        Criteria sameValue = new Criteria().andOperator(
+            Criteria.where(field).is(value),
+            desc ? Criteria.where("id").lt(id) : Criteria.where("id").gt(id));
+        if (value == null) {
+            return desc ? sameValue : new Criteria().orOperator(Criteria.where(field).ne(null), sameValue);
+        }
+        Criteria beyondValue = desc ? Criteria.where(field).lt(value) : Criteria.where(field).gt(value);
+        return new Criteria().orOperator(beyondValue, sameValue);
+    }
+    
+    // Filtro vazio e ausente são equivalentes em filterQuery; o separador "|" é escapado
+    private static String cursorPart(String filter) {
+        return filter != null ? URLEncoder.encode(filter, StandardCharsets.UTF_8) : "";
+    }
+    
+    private static Object sortValue(Notification notification, String field) {
+        return switch (field) {
+            case "type" -> notification.getType();
+            case "category" -> notification.getCategory();
+            case "priority" -> notification.getPriority();
+            case "read" -> notification.isRead();
+            default -> notification.getTimestamp();
+        };
+    }
+    
+    private static Object parseSortValue(String field, String value) {
+        try {
+            return switch (field) {
+                case "type", "category" -> value;
+                case "priority" -> Integer.parseInt(value);
+                case "read" -> Boolean.parseBoolean(value);
+                default -> LocalDateTime.parse(value);
+            };
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido");
         }
     }
     
@@ -304,16 +382,20 @@ public class NotificationService {
     }
     
     /**
-     * Marca uma notificação como lida
+     * Marca uma notificação como lida com um único updateOne no servidor
+     *
+     * @return 1 se a notificação foi alterada, 0 se já estava lida
      */
-    public void markAsRead(String id) {
+    public long markAsRead(String id) {
         try {
-            Notification notification = notificationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Notificação não encontrada: " + id));
-            
-            notification.setRead(true);
-            notificationRepository.save(notification);
+            UpdateResult result = mongoTemplate.updateFirst(
+                new Query(Criteria.where("id").is(id)), Update.update("read", true), Notification.class);
+            if (result.getMatchedCount() == 0) {
+                throw new RuntimeException("Notificação não encontrada: " + id);
+            }
+            countRead(result.getModifiedCount());
             log.info("Notificação marcada como lida: {}", id);
+            return result.getModifiedCount();
         } catch (Exception e) {
             log.error("Erro ao marcar notificação como lida {}: {}", id, e.getMessage(), e);
             throw new RuntimeException("Erro ao marcar notificação como lida", e);
@@ -323,12 +405,28 @@ public class NotificationService {
     /**
      * Marca todas as notificações como lidas
      */
-    public void markAllAsRead() {
+    public long markAllAsRead() {
+        return markAllAsRead(null, null, null);
+    }
+    
+    /**
+     * Marca como lidas as notificações não lidas com um único updateMany, opcionalmente restrito
+     * por categoria, tipo e/ou anteriores a um instante
+     *
+     * @return quantidade de notificações alteradas
+     */
+    public long markAllAsRead(String category, String type, LocalDateTime before) {
         try {
-            List<Notification> unreadNotifications = notificationRepository.findUnreadNotifications();
-            unreadNotifications.forEach(notification -> notification.setRead(true));
-            notificationRepository.saveAll(unreadNotifications);
-            log.info("Todas as notificações foram marcadas como lidas");
+            Query query = filterQuery(type, category);
+            query.addCriteria(Criteria.where("read").is(false));
+            if (before != null) {
+                query.addCriteria(Criteria.where("timestamp").lt(before));
+            }
+            long modified = mongoTemplate.updateMulti(query, Update.update("read", true), Notification.class)
+                .getModifiedCount();
+            countRead(modified);
+            log.info("{} notificações marcadas como lidas", modified);
+            return modified;
         } catch (Exception e) {
             log.error("Erro ao marcar todas as notificações como lidas: {}", e.getMessage(), e);
             throw new RuntimeException("Erro ao marcar todas as notificações como lidas", e);
@@ -336,30 +434,174 @@ public class NotificationService {
     }
     
     /**
-     * Busca estatísticas das notificações
+     * Busca estatísticas das notificações. Por padrão todas as contagens saem de uma única agregação
+     * $facet; com {@code honeypot.notifications.stats-cache.enabled=true} vêm de contadores em memória
+     * mantidos a cada criação/leitura e ressincronizados periodicamente com o banco.
      */
     public Map<String, Object> getNotificationStats() {
         try {
-            long totalNotifications = notificationRepository.count();
-            long unreadNotifications = notificationRepository.countByRead(false);
-            long highPriorityNotifications = notificationRepository.countByPriorityGreaterThanEqual(3);
-            long criticalNotifications = notificationRepository.countByPriorityGreaterThanEqual(4);
-            long recentNotifications = notificationRepository.countRecentNotifications(LocalDateTime.now().minusHours(24));
+            StatsCounters counters = statsCounters;
+            if (statsCacheEnabled && counters != null) {
+                return counters.toResponse(LocalDateTime.now().minusHours(24));
+            }
             
-            return Map.of(
-                "totalNotifications", totalNotifications,
-                "unreadNotifications", unreadNotifications,
-                "highPriorityNotifications", highPriorityNotifications,
-                "criticalNotifications", criticalNotifications,
-                "recentNotifications", recentNotifications,
-                "timestamp", LocalDateTime.now()
-            );
+            Document facets = aggregateStats(false);
+            return statsResponse(facetCount(facets, "total"), facetCount(facets, "unread"),
+                facetCount(facets, "highPriority"), facetCount(facets, "critical"), facetCount(facets, "recent"),
+                facetGroups(facets, "byType"), facetGroups(facets, "byCategory"), "aggregation");
         } catch (Exception e) {
             log.error("Erro ao buscar estatísticas das notificações: {}", e.getMessage(), e);
             throw new RuntimeException("Erro ao buscar estatísticas das notificações", e);
         }
     }
     
+    /**
+     * Recarrega os contadores em memória a partir do banco (modo cache). Corrige desvios causados por
+     * escritas fora deste serviço e pela expiração da janela de 24h.
+     */
+    @Scheduled(fixedDelayString = "${honeypot.notifications.stats-cache.resync-ms:300000}",
+               initialDelayString = "${honeypot.notifications.stats-cache.resync-ms:300000}")
+    public void resyncStatsCache() {
+        if (!statsCacheEnabled) {
+            return;
+        }
+        try {
+            statsCounters = StatsCounters.from(aggregateStats(true));
+            log.debug("Contadores de notificações ressincronizados");
+        } catch (Exception e) {
+            log.warn("Erro ao ressincronizar contadores de notificações: {}", e.getMessage());
+        }
+    }
+    
+    @EventListener(ApplicationStartedEvent.class)
+    public void initializeStatsCache() {
+        resyncStatsCache();
+    }
+    
+    // Agregação única com todas as contagens; por minuto apenas para alimentar o cache
+    private Document aggregateStats(boolean recentByMinute) {
+        LocalDateTime since = LocalDateTime.now().minusHours(24);
+        FacetOperation facet = Aggregation.facet(Aggregation.count().as("count")).as("total")
+            .and(Aggregation.match(Criteria.where("read").is(false)), Aggregation.count().as("count")).as("unread")
+            .and(Aggregation.match(Criteria.where("priority").gte(3)), Aggregation.count().as("count")).as("highPriority")
+            .and(Aggregation.match(Criteria.where("priority").gte(4)), Aggregation.count().as("count")).as("critical")
+            .and(Aggregation.match(Criteria.where("timestamp").gte(since)), Aggregation.count().as("count")).as("recent")
+            .and(Aggregation.group("type").count().as("count")).as("byType")
+            .and(Aggregation.group("category").count().as("count")).as("byCategory");
+        if (recentByMinute) {
+            facet = facet.and(
+                Aggregation.match(Criteria.where("timestamp").gte(since)),
+                Aggregation.project().and(DateOperators.dateOf("timestamp").toString("%Y-%m-%dT%H:%M")).as("minute"),
+                Aggregation.group("minute").count().as("count")).as("recentByMinute");
+        }
+        
+        Document result = mongoTemplate.aggregate(Aggregation.newAggregation(Notification.class, facet), Document.class)
+            .getUniqueMappedResult();
+        return result != null ? result : new Document();
+    }
+    
+    private static long facetCount(Document facets, String name) {
+        List<Document> values = facets.getList(name, Document.class, List.of());
+        return values.isEmpty() ? 0 : ((Number) values.get(0).get("count")).longValue();
+    }
+    
+    private static Map<String, Long> facetGroups(Document facets, String name) {
+        Map<String, Long> groups = new TreeMap<>();
+        for (Document group : facets.getList(name, Document.class, List.of())) {
+            groups.put(String.valueOf(group.get("_id")), ((Number) group.get("count")).longValue());
+        }
+        return groups;
+    }
+    
+    private static Map<String, Object> statsResponse(long total, long unread, long highPriority, long critical, long recent,
+                                                     Map<String, Long> byType, Map<String, Long> byCategory, String source) {
+        return Map.of(
+            "totalNotifications", total,
+            "unreadNotifications", unread,
+            "highPriorityNotifications", highPriority,
+            "criticalNotifications", critical,
+            "recentNotifications", recent,
+            "byType", byType,
+            "byCategory", byCategory,
+            "source", source,
+            "timestamp", LocalDateTime.now()
+        );
+    }
+    
+    private void countCreated(Notification notification) {
+        StatsCounters counters = statsCounters;
+        if (statsCacheEnabled && counters != null) {
+            counters.add(notification);
+        }
+    }
+    
+    private void countRead(long modified) {
+        StatsCounters counters = statsCounters;
+        if (statsCacheEnabled && counters != null && modified > 0) {
+            counters.unread.add(-modified);
+        }
+    }
+    
+    /**
+     * Contadores das estatísticas de notificações mantidos em memória. A janela de 24h usa baldes por
+     * minuto, descartados conforme envelhecem.
+     */
+    private static final class StatsCounters {
+        
+        private final LongAdder total = new LongAdder();
+        private final LongAdder unread = new LongAdder();
+        private final LongAdder highPriority = new LongAdder();
+        private final LongAdder critical = new LongAdder();
+        private final Map<String, LongAdder> byType = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> byCategory = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<LocalDateTime, LongAdder> recentByMinute = new ConcurrentSkipListMap<>();
+        
+        static StatsCounters from(Document facets) {
+            StatsCounters counters = new StatsCounters();
+            counters.total.add(facetCount(facets, "total"));
+            counters.unread.add(facetCount(facets, "unread"));
+            counters.highPriority.add(facetCount(facets, "highPriority"));
+            counters.critical.add(facetCount(facets, "critical"));
+            facetGroups(facets, "byType").forEach((type, count) -> counters.byType.computeIfAbsent(type, k -> new LongAdder()).add(count));
+            facetGroups(facets, "byCategory").forEach((category, count) -> counters.byCategory.computeIfAbsent(category, k -> new LongAdder()).add(count));
+            // $dateToString devolve o minuto em UTC; os timestamps da aplicação estão no fuso local
+            facetGroups(facets, "recentByMinute").forEach((minute, count) -> counters.recentByMinute.computeIfAbsent(
+                LocalDateTime.parse(minute).atZone(ZoneOffset.UTC).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime(),
+                k -> new LongAdder()).add(count));
+            return counters;
+        }
+        
+        void add(Notification notification) {
+            total.increment();
+            if (!notification.isRead()) {
+                unread.increment();
+            }
+            if (notification.getPriority() >= 3) {
+                highPriority.increment();
+            }
+            if (notification.getPriority() >= 4) {
+                critical.increment();
+            }
+            byType.computeIfAbsent(String.valueOf(notification.getType()), k -> new LongAdder()).increment();
+            byCategory.computeIfAbsent(String.valueOf(notification.getCategory()), k -> new LongAdder()).increment();
+            LocalDateTime timestamp = notification.getTimestamp() != null ? notification.getTimestamp() : LocalDateTime.now();
+            recentByMinute.computeIfAbsent(timestamp.truncatedTo(ChronoUnit.MINUTES), k -> new LongAdder()).increment();
+        }
+        
+        Map<String, Object> toResponse(LocalDateTime since) {
+            recentByMinute.headMap(since.truncatedTo(ChronoUnit.MINUTES)).clear();
+            long recent = recentByMinute.values().stream().mapToLong(LongAdder::sum).sum();
+            return statsResponse(total.sum(), Math.max(0, unread.sum()), highPriority.sum(), critical.sum(), recent,
+                sums(byType), sums(byCategory), "cache");
+        }
+        
+        private static Map<String, Long> sums(Map<String, LongAdder> counters) {
+            Map<String, Long> sums = new TreeMap<>();
+            counters.forEach((key, counter) -> sums.put(key, counter.sum()));
+            return sums;
+        }
+    }
+    
     /**
      * Remove notificações antigas (mais de 30 dias)
      */
@@ -372,6 +614,7 @@ public class NotificationService {
             if (!oldNotifications.isEmpty()) {
                 notificationRepository.deleteAll(oldNotifications);
                 log.info("{} notificações antigas foram removidas", oldNotifications.size());
+                resyncStatsCache();
             }
         } catch (Exception e) {
             log.error("Erro ao limpar notificações antigas: {}", e.getMessage(), e);
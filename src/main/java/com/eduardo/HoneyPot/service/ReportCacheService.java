@@ -0,0 +1,349 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.event.AttackCapturedEvent;
+import com.eduardo.HoneyPot.event.AttackLogsClearedEvent;
+import com.eduardo.HoneyPot.event.NotificationCreatedEvent;
+import com.eduardo.HoneyPot.model.AttackLog;
+import com.eduardo.HoneyPot.model.Notification;
+import com.eduardo.HoneyPot.report.CountingOutputStream;
+import com.eduardo.HoneyPot.report.ReportCache;
+import com.eduardo.HoneyPot.report.ReportPeriod;
+import com.eduardo.HoneyPot.report.ReportProgress;
+import com.eduardo.HoneyPot.report.ReportType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Relatórios servidos a partir do {@link ReportCache}. A chave combina tipo, parâmetros e a versão
+ * dos dados de origem. A versão é reavaliada no máximo a cada
+ * {@code honeypot.reports.cache.version-interval-ms}: muda se, desde a última avaliação, a contagem
+ * ou o último timestamp da coleção mudaram (consultas baratas, por índice) ou se houve capturas e
+ * notificações (que também cobrem atualizações de sessões já gravadas). Assim um honeypot sob ataque
+ * contínuo ainda reaproveita relatórios dentro do intervalo, ao custo de até um intervalo de atraso.
+ * Limpar os logs força uma nova versão na hora. Relatórios com mais de uma origem (o consolidado lê
+ * ataques e notificações) combinam as versões de todas. O relatório por período de dias encerrados
+ * não depende de novas capturas, apenas de limpezas.
+ * <p>
+ * Versões antigas não são apagadas: deixam de ser pedidas e saem pelo LRU. Pedidos idênticos
+ * simultâneos sem versão em cache esperam uma única geração.
+ */
+@Slf4j
+@Service
+public class ReportCacheService {
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${honeypot.reports.cache.directory:}")
+    private String directoryPath;
+
+    @Value("${honeypot.reports.cache.max-bytes:268435456}")
+    private long maxBytes;
+
+    @Value("${honeypot.reports.cache.max-entries:50}")
+    private int maxEntries;
+
+    @Value("${honeypot.reports.cache.version-interval-ms:60000}")
+    private long versionIntervalMs;
+
+    // Capturas/notificações desde a inicialização, por origem (os listeners só incrementam)
+    private final Map<ReportType.DataSource, AtomicLong> changes = new EnumMap<>(ReportType.DataSource.class);
+    private final Map<ReportType.DataSource, DataVersion> versions = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong clears = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private ReportCache cache;
+
+    @PostConstruct
+    public void initialize() throws IOException {
+        for (ReportType.DataSource source : ReportType.DataSource.values()) {
+            changes.put(source, new AtomicLong());
+        }
+
+        Path directory = directoryPath.isBlank()
+            ? Files.createTempDirectory("honeypot-reports")
+            : Files.createDirectories(Path.of(directoryPath));
+        cache = new ReportCache(directory, maxBytes, maxEntries);
+        int orphans = cache.removeOrphans();
+        log.info("Cache de relatórios em {} (limite {} bytes, {} entradas, {} arquivo(s) órfão(s) removido(s))",
+            directory, maxBytes, maxEntries, orphans);
+    }
+
+    @EventListener
+    public void onAttackCaptured(AttackCapturedEvent event) {
+        changes.get(ReportType.DataSource.ATTACKS).incrementAndGet();
+    }
+
+    @EventListener
+    public void onAttackLogsCleared(AttackLogsClearedEvent event) {
+        clears.incrementAndGet();
+        changes.get(ReportType.DataSource.ATTACKS).incrementAndGet();
+        // Dados apagados não podem esperar o intervalo: a próxima consulta reavalia a versão
+        versions.computeIfPresent(ReportType.DataSource.ATTACKS, (source, version) -> version.expired());
+    }
+
+    @EventListener
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        changes.get(ReportType.DataSource.NOTIFICATIONS).incrementAndGet();
+    }
+
+    /**
+     * Arquivo do relatório, gerado apenas se não houver versão em cache para os mesmos dados. O
+     * arquivo fica reservado a quem chamou até o {@link ReportCache.Lease#close()}.
+     */
+    public ReportCache.Lease render(ReportType type, ReportPeriod period, ReportProgress progress,
+                                    LongConsumer onBytesWritten) throws IOException {
+        boolean[] produced = {false};
+        ReportCache.Lease lease = obtain(type, period, temp -> {
+            produced[0] = true;
+            try (OutputStream out = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)), onBytesWritten)) {
+                reportService.writeReport(type, period, out, progress);
+            }
+        });
+        if (!produced[0]) {
+            onBytesWritten.accept(lease.size());
+        }
+        return lease;
+    }
+
+    /**
+     * Escreve o relatório no stream: cópia do arquivo em cache ou geração gravando ao mesmo tempo
+     * no stream e no cache (o cliente recebe os bytes sem esperar o arquivo terminar). Se o cliente
+     * desconectar no meio, a geração continua só para o arquivo, que outros pedidos da mesma chave
+     * aguardam; a falha do cliente é lançada apenas para ele, depois do arquivo pronto.
+     */
+    public void write(ReportType type, ReportPeriod period, OutputStream out) throws IOException {
+        TeeOutputStream[] tee = {null};
+        try (ReportCache.Lease lease = obtain(type, period, temp -> {
+            try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                tee[0] = new TeeOutputStream(out, file);
+                reportService.writeReport(type, period, tee[0], ReportProgress.NONE);
+            }
+        })) {
+            if (tee[0] == null) {
+                Files.copy(lease.file(), out);
+            } else {
+                tee[0].rethrowPrimaryFailure();
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = cache.getStats();
+        stats.put("coalesced", coalesced.get());
+        stats.put("inFlight", inFlight.size());
+        versions.forEach((source, version) -> stats.put("version" + source, version.number()));
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cache.clear();
+    }
+
+    /**
+     * Entrada em cache para os dados atuais ou, na falta dela, gerada uma única vez: quem chega
+     * enquanto outra thread gera a mesma chave espera e lê o resultado dela. Se a geração alheia
+     * falhar, quem esperava tenta de novo (e gera por conta própria) em vez de herdar o erro.
+     */
+    private ReportCache.Lease obtain(ReportType type, ReportPeriod period, ReportWriter writer) throws IOException {
+        String key = cacheKey(type, period);
+        while (true) {
+            ReportCache.Lease cached = cache.get(key);
+            if (cached != null) {
+                log.debug("Relatório {} servido do cache", type);
+                return cached;
+            }
+
+            CompletableFuture<Void> created = new CompletableFuture<>();
+            CompletableFuture<Void> running = inFlight.putIfAbsent(key, created);
+            if (running != null) {
+                coalesced.incrementAndGet();
+                log.debug("Relatório {} já em geração, aguardando", type);
+                await(type, running);
+                continue;
+            }
+
+            Path temp = cache.createTempFile();
+            try {
+                writer.write(temp);
+                ReportCache.Lease lease = cache.put(key, temp);
+                created.complete(null);
+                return lease;
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                created.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, created);
+            }
+        }
+    }
+
+    private String cacheKey(ReportType type, ReportPeriod period) {
+        if (type == ReportType.PERIOD_EXCEL) {
+            // Mesmo intervalo de dias que o relatório lerá; só o que inclui hoje ainda muda com capturas
+            ReportPeriod days = period.toWholeDays(LocalDate.now());
+            String version = days.includes(LocalDateTime.now()) ? dataVersions(type) : "clears:" + clears.get();
+            return ReportCache.key(type.name(), new TreeMap<>(days.toParams()).toString(), version);
+        }
+        return ReportCache.key(type.name(), new TreeMap<>(period.toParams()).toString(), dataVersions(type));
+    }
+
+    // Versões de todas as origens do relatório (o consolidado também lê notificações)
+    private String dataVersions(ReportType type) {
+        StringJoiner versions = new StringJoiner(",");
+        for (ReportType.DataSource source : type.getDataSources()) {
+            versions.add(source + "=" + dataVersion(source));
+        }
+        return versions.toString();
+    }
+
+    /**
+     * Versão atual da origem, reavaliada no máximo uma vez por intervalo
+     */
+    private long dataVersion(ReportType.DataSource source) {
+        long now = System.currentTimeMillis();
+        DataVersion current = versions.get(source);
+        if (current != null && now - current.checkedAt() < versionIntervalMs) {
+            return current.number();
+        }
+        synchronized (versions) {
+            current = versions.get(source);
+            if (current != null && now - current.checkedAt() < versionIntervalMs) {
+                return current.number();
+            }
+            long changeCount = changes.get(source).get();
+            String watermark = dataWatermark(source);
+            long number = current == null ? 0
+                : current.number() + (current.changes() != changeCount || !current.watermark().equals(watermark) ? 1 : 0);
+            versions.put(source, new DataVersion(number, changeCount, watermark, now));
+            return number;
+        }
+    }
+
+    // Contagem estimada (metadados da coleção) e timestamp mais recente (índice)
+    private String dataWatermark(ReportType.DataSource source) {
+        Class<?> entity = source == ReportType.DataSource.ATTACKS ? AttackLog.class : Notification.class;
+        Query latest = new Query().with(Sort.by(Sort.Direction.DESC, "timestamp")).limit(1);
+        latest.fields().include("timestamp");
+        Object document = mongoTemplate.findOne(latest, entity);
+        Object timestamp = document instanceof AttackLog attack ? attack.getTimestamp()
+            : document instanceof Notification notification ? notification.getTimestamp() : null;
+        return mongoTemplate.estimatedCount(entity) + "@" + timestamp;
+    }
+
+    private static void await(ReportType type, CompletableFuture<Void> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido aguardando geração do relatório");
+        } catch (ExecutionException e) {
+            log.debug("Geração compartilhada do relatório {} falhou ({}); tentando novamente", type, e.getCause().getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ReportWriter {
+        void write(Path temp) throws IOException;
+    }
+
+    // Versão da origem e o que foi observado na última avaliação
+    private record DataVersion(long number, long changes, String watermark, long checkedAt) {
+
+        DataVersion expired() {
+            return new DataVersion(number, changes, watermark, 0L);
+        }
+    }
+
+    // Duplica as escritas: o stream do cliente é fechado por quem o abriu. Depois da primeira falha
+    // do cliente ele é ignorado e só a cópia recebe os bytes; falhas da cópia continuam fatais.
+    private static final class TeeOutputStream extends OutputStream {
+
+        private final OutputStream primary;
+        private final OutputStream copy;
+        private IOException primaryFailure;
+
+        TeeOutputStream(OutputStream primary, OutputStream copy) {
+            this.primary = primary;
+            this.copy = copy;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (primaryFailure == null) {
+                try {
+                    primary.write(b);
+                } catch (IOException e) {
+                    primaryFailure = e;
+                }
+            }
+            copy.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (primaryFailure == null) {
+                try {
+                    primary.write(b, off, len);
+                } catch (IOException e) {
+                    primaryFailure = e;
+                }
+            }
+            copy.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (primaryFailure == null) {
+                try {
+                    primary.flush();
+                } catch (IOException e) {
+                    primaryFailure = e;
+                }
+            }
+            copy.flush();
+        }
+
+        void rethrowPrimaryFailure() throws IOException {
+            if (primaryFailure != null) {
+                throw primaryFailure;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
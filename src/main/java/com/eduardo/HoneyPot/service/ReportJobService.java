@@ -0,0 +1,146 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.report.ReportCache;
+import com.eduardo.HoneyPot.report.ReportJob;
+import com.eduardo.HoneyPot.report.ReportPeriod;
+import com.eduardo.HoneyPot.report.ReportType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Geração de relatórios fora das threads HTTP. Um pool limitado
+ * ({@code honeypot.reports.jobs.workers}, fila {@code honeypot.reports.jobs.queue-capacity}) gera
+ * cada relatório no cache em disco ({@link ReportCacheService}); o cliente acompanha o job e baixa o
+ * arquivo quando concluído. Pedidos idênticos enquanto um job está na fila ou em execução recebem o
+ * mesmo job, e jobs finalizados expiram após {@code honeypot.reports.jobs.ttl-minutes}. O job
+ * concluído mantém seu arquivo reservado no cache até expirar, mesmo que a entrada saia do LRU.
+ */
+@Slf4j
+@Service
+public class ReportJobService {
+
+    @Autowired
+    private ReportCacheService reportCacheService;
+
+    @Value("${honeypot.reports.jobs.workers:2}")
+    private int workers;
+
+    @Value("${honeypot.reports.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${honeypot.reports.jobs.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    // Jobs na fila ou em execução, pela chave de deduplicação
+    private final Map<String, ReportJob> activeJobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void initialize() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "report-job-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        log.info("Jobs de relatório: {} worker(s), fila de {}", workers, queueCapacity);
+    }
+
+    /**
+     * Enfileira a geração do relatório ou devolve o job idêntico ainda em andamento
+     *
+     * @throws IllegalStateException se a fila de relatórios estiver cheia
+     */
+    public synchronized ReportJob submit(ReportType type, ReportPeriod period) {
+        String dedupKey = type.name() + period.toParams();
+        ReportJob active = activeJobs.get(dedupKey);
+        if (active != null) {
+            log.debug("Relatório {} já em andamento no job {}", type, active.getId());
+            return active;
+        }
+
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), type, period, dedupKey);
+        jobs.put(job.getId(), job);
+        activeJobs.put(dedupKey, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            activeJobs.remove(dedupKey, job);
+            throw new IllegalStateException("Fila de relatórios cheia, tente novamente mais tarde");
+        }
+        log.info("Job de relatório {} criado: {}", job.getId(), type);
+        return job;
+    }
+
+    public ReportJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    public List<ReportJob> getJobs() {
+        return jobs.values().stream()
+            .sorted(Comparator.comparing(ReportJob::getCreatedAt).reversed())
+            .toList();
+    }
+
+    /**
+     * Remove jobs finalizados há mais tempo que o TTL
+     */
+    @Scheduled(fixedDelayString = "${honeypot.reports.jobs.cleanup-interval-ms:60000}")
+    public void expireJobs() {
+        LocalDateTime limit = LocalDateTime.now().minusMinutes(ttlMinutes);
+        jobs.values().removeIf(job -> {
+            if (job.getStatus().isFinished() && job.getFinishedAt().isBefore(limit)) {
+                job.release();
+                log.debug("Job de relatório {} expirado", job.getId());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        jobs.values().forEach(ReportJob::release);
+        jobs.clear();
+    }
+
+    private void run(ReportJob job) {
+        ReportType type = job.getType();
+        job.markRunning();
+        try {
+            ReportCache.Lease lease = reportCacheService.render(type, job.getPeriod(), job, job::addBytesWritten);
+            String filename = type.getFilePrefix() + "_"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + "." + type.getExtension();
+            job.markCompleted(lease, filename);
+            log.info("Job de relatório {} concluído: {} registros lidos, {} bytes", job.getId(),
+                job.getRowsProcessed(), job.getBytesWritten());
+        } catch (Exception e) {
+            job.markFailed(e.getMessage());
+            log.error("Erro ao gerar relatório {} no job {}: {}", type, job.getId(), e.getMessage());
+        } finally {
+            activeJobs.remove(job.getDedupKey(), job);
+        }
+    }
+}
@@ -1,10 +1,20 @@
 package com.eduardo.HoneyPot.service;
 
+import com.eduardo.HoneyPot.detection.DetectionRule;
 import com.eduardo.HoneyPot.model.AttackLog;
 import com.eduardo.HoneyPot.model.CommandExecution;
 import com.eduardo.HoneyPot.model.Notification;
-import com.eduardo.HoneyPot.repository.AttackLogRepository;
-import com.eduardo.HoneyPot.repository.NotificationRepository;
+import com.eduardo.HoneyPot.report.AttackAggregator;
+import com.eduardo.HoneyPot.report.ColumnWidths;
+import com.eduardo.HoneyPot.report.CommandAggregator;
+import com.eduardo.HoneyPot.report.IpAggregator;
+import com.eduardo.HoneyPot.report.ProtocolAggregator;
+import com.eduardo.HoneyPot.report.ReportEngine;
+import com.eduardo.HoneyPot.report.ReportPeriod;
+import com.eduardo.HoneyPot.report.ReportProgress;
+import com.eduardo.HoneyPot.report.ReportSection;
+import com.eduardo.HoneyPot.report.ReportType;
+import com.eduardo.HoneyPot.report.SectionRenderer;
 import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.kernel.font.PdfFontFactory;
@@ -23,486 +33,704 @@ import com.itextpdf.layout.properties.VerticalAlignment;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
 import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class ReportService {
     
+    private static final String[] ATTACK_HEADERS = {"Data/Hora", "IP Atacante", "Porta", "Protocolo", "Usuário", "Senha", "Banner", "Comandos", "Sucesso"};
+    private static final String[] DETAIL_HEADERS = {"Data/Hora", "IP Atacante", "Porta", "Protocolo", "Usuário", "Senha", "Comandos", "Sucesso"};
+    private static final int EXCEL_CURSOR_BATCH_SIZE = 1000;
+    
     @Autowired
-    private AttackLogRepository attackLogRepository;
+    private MongoTemplate mongoTemplate;
     
     @Autowired
-    private NotificationRepository notificationRepository;
+    private DailyReportService dailyReportService;
     
     @Autowired
     private StatisticsService statisticsService;
     
+    @Autowired
+    private DetectionService detectionService;
+    
+    @Value("${honeypot.reports.excel.row-window:100}")
+    private int excelRowWindow;
+    
+    @Value("${honeypot.reports.pdf.flush-rows:200}")
+    private int pdfFlushRows;
+    
+    @Value("${honeypot.reports.pdf.max-rows:10000}")
+    private int pdfMaxRows;
+    
+    @Value("${honeypot.reports.render.parallelism:0}")
+    private int renderParallelism;
+    
+    @Value("${honeypot.reports.render.keep-alive-seconds:30}")
+    private long renderKeepAliveSeconds;
+    
+    // Montagem paralela das abas independentes, compartilhada entre relatórios; sem relatórios não há threads
+    private SectionRenderer sectionRenderer;
+    
+    @PostConstruct
+    public void initialize() {
+        sectionRenderer = new SectionRenderer(renderParallelism, renderKeepAliveSeconds);
+        log.info("Montagem de abas de relatório com até {} thread(s)", sectionRenderer.getParallelism());
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        sectionRenderer.close();
+    }
+    
     /**
-     * Gera relatório PDF dos ataques
+     * Escreve o relatório PDF dos ataques em modo streaming. O resumo vem de uma agregação por
+     * protocolo; a tabela é lida por cursor (mais recentes primeiro) e descarregada a cada
+     * {@code honeypot.reports.pdf.flush-rows} linhas, com as páginas completas gravadas direto no
+     * stream. O consumo de memória depende do tamanho do bloco, não do número de ataques.
      */
-    public byte[] generateAttackReportPDF() {
+    private void writeAttackReportPDF(ReportPeriod period, OutputStream out, ReportProgress progress) throws IOException {
+        PdfDocument pdf = new PdfDocument(new PdfWriter(out));
+        Document document = new Document(pdf, PageSize.A4);
         try {
-            List<AttackLog> attacks = attackLogRepository.findAll();
-            
-            // Implementação do PDF será feita com iText7
-            // Por enquanto retornamos um PDF básico
-            return generateBasicPDFReport(attacks);
+            // Margens reduzidas para melhor aproveitamento do espaço
+            document.setMargins(25, 25, 25, 25);
+    
+            // Fonte
+            PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+            PdfFont fontBold = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD);
+    
+            // Título principal
+            Paragraph title = new Paragraph("RELATÓRIO DE ATAQUES HONEYPOT")
+                    .setFont(fontBold)
+                    .setFontSize(20)
+                    .setTextAlignment(TextAlignment.CENTER)
+                    .setMarginBottom(15);
+            document.add(title);
+    
+            // Subtítulo
+            Paragraph subtitle = new Paragraph("Sistema de Monitoramento de Segurança")
+                    .setFont(font)
+                    .setFontSize(14)
+                    .setTextAlignment(TextAlignment.CENTER)
+                    .setMarginBottom(20);
+            document.add(subtitle);
+    
+            // Linha divisória
+            LineSeparator separator = new LineSeparator(new SolidLine());
+            separator.setMarginBottom(20);
+            document.add(separator);
+    
+            // Resumo calculado no banco: contagem e período por protocolo
+            progress.stage("Resumo por protocolo");
+            List<org.bson.Document> protocolSummary = summarizeProtocols(period);
+            long total = protocolSummary.stream().mapToLong(group -> ((Number) group.get("count")).longValue()).sum();
+            LocalDateTime firstAttack = protocolSummary.stream().map(group -> toLocalDateTime(group.get("first")))
+                .filter(java.util.Objects::nonNull).min(LocalDateTime::compareTo).orElse(null);
+            LocalDateTime lastAttack = protocolSummary.stream().map(group -> toLocalDateTime(group.get("last")))
+                .filter(java.util.Objects::nonNull).max(LocalDateTime::compareTo).orElse(null);
+    
+            // Metadados em tabela
+            Table metadataTable = new Table(new float[]{2, 3});
+            metadataTable.setWidth(UnitValue.createPercentValue(100));
+            metadataTable.setMarginBottom(25);
+    
+            // Adicionar metadados
+            addMetadataRow(metadataTable, "Data de Geração:", 
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")), font, fontBold);
+            if (period.isBounded()) {
+                addMetadataRow(metadataTable, "Filtro de Período:", period.describe(), font, fontBold);
+            }
+            addMetadataRow(metadataTable, "Total de Ataques:", String.valueOf(total), font, fontBold);
             
-        } catch (Exception e) {
-            log.error("Erro ao gerar relatório PDF: {}", e.getMessage());
-            return new byte[0];
+            if (total > 0) {
+                String periodLabel = firstAttack != null && lastAttack != null ? 
+                    formatDateTime(firstAttack) + " até " + formatDateTime(lastAttack) : "N/A";
+                addMetadataRow(metadataTable, "Período Analisado:", periodLabel, font, fontBold);
+            }
+    
+            document.add(metadataTable);
+    
+            // Resumo estatístico simplificado
+            if (total > 0) {
+                Paragraph summaryTitle = new Paragraph("RESUMO ESTATÍSTICO")
+                        .setFont(fontBold)
+                        .setFontSize(16)
+                        .setMarginBottom(10);
+                document.add(summaryTitle);
+    
+                // Estatísticas por protocolo em formato compacto
+                for (org.bson.Document group : protocolSummary) {
+                    long count = ((Number) group.get("count")).longValue();
+                    String protocolInfo = String.format("%s: %d ataques (%.1f%%)", 
+                        group.get("_id"), count, (count * 100.0) / total);
+                    document.add(new Paragraph(protocolInfo)
+                        .setFont(font)
+                        .setFontSize(11)
+                        .setMarginBottom(5));
+                }
+                
+                document.add(new Paragraph("").setMarginBottom(15));
+            }
+    
+            // Tabela de ataques em blocos
+            if (total > 0) {
+                Paragraph attacksTitle = new Paragraph("ATAQUES RECENTES")
+                        .setFont(fontBold)
+                        .setFontSize(16)
+                        .setMarginBottom(10);
+                document.add(attacksTitle);
+    
+                progress.stage("Tabela de ataques");
+                long rows = writeAttacksTable(document, period, font, fontBold, progress);
+    
+                // Nota sobre limitação
+                if (total > rows) {
+                    Paragraph note = new Paragraph("Nota: Este relatório mostra os " + rows + " ataques mais recentes. " +
+                        "Para dados completos (incluindo senhas e comandos), utilize o relatório em Excel.")
+                            .setFont(font)
+                            .setFontSize(9)
+                            .setItalic()
+                            .setTextAlignment(TextAlignment.CENTER)
+                            .setMarginTop(10);
+                    document.add(note);
+                }
+            }
+    
+            // Rodapé
+            Paragraph footer = new Paragraph("Relatório gerado automaticamente pelo Sistema HoneyPot de Segurança")
+                    .setFont(font)
+                    .setFontSize(10)
+                    .setTextAlignment(TextAlignment.CENTER)
+                    .setMarginTop(30);
+            document.add(footer);
+            log.info("Relatório PDF de ataques escrito: {} ataques", total);
+        } finally {
+            document.close();
         }
     }
     
     /**
-     * Gera relatório Excel dos ataques
+     * Tabela "large" do iText: as linhas já adicionadas são renderizadas e liberadas a cada bloco,
+     * e o cabeçalho se repete em cada página
      */
-    public byte[] generateAttackReportExcel() {
-        try (Workbook workbook = new XSSFWorkbook()) {
+    private long writeAttacksTable(Document document, ReportPeriod period, PdfFont font, PdfFont fontBold,
+                                   ReportProgress progress) {
+        Table attacksTable = new Table(new float[]{2.5f, 2.0f, 1.5f, 2.0f}, true);
+        attacksTable.setWidth(UnitValue.createPercentValue(100));
+    
+        addHeaderCell(attacksTable, "Data/Hora", fontBold);
+        addHeaderCell(attacksTable, "IP Atacante", fontBold);
+        addHeaderCell(attacksTable, "Protocolo", fontBold);
+        addHeaderCell(attacksTable, "Usuário", fontBold);
+        document.add(attacksTable);
+    
+        Query query = period.query()
+            .with(Sort.by(Sort.Direction.DESC, "timestamp"))
+            .cursorBatchSize(pdfFlushRows);
+        query.fields().include("timestamp", "sourceIp", "protocol", "username");
+        if (pdfMaxRows > 0) {
+            query.limit(pdfMaxRows);
+        }
+    
+        long rows = 0;
+        try (Stream<AttackLog> attacks = mongoTemplate.stream(query, AttackLog.class)) {
+            Iterator<AttackLog> iterator = attacks.iterator();
+            while (iterator.hasNext()) {
+                AttackLog attack = iterator.next();
+                addDataCell(attacksTable, formatDateTime(attack.getTimestamp()), font);
+                addDataCell(attacksTable, attack.getSourceIp(), font);
+                addDataCell(attacksTable, attack.getProtocol(), font);
+                addDataCell(attacksTable, attack.getUsername(), font);
+                if (++rows % pdfFlushRows == 0) {
+                    attacksTable.flush();
+                    progress.rowsProcessed(pdfFlushRows);
+                }
+            }
+        }
+        attacksTable.complete();
+        progress.rowsProcessed(rows % pdfFlushRows);
+        return rows;
+    }
+    
+    // Contagem, primeiro e último ataque por protocolo (mais atacado primeiro)
+    private List<org.bson.Document> summarizeProtocols(ReportPeriod period) {
+        TypedAggregation<AttackLog> aggregation = Aggregation.newAggregation(AttackLog.class,
+            Aggregation.match(period.criteria()),
+            Aggregation.group("protocol").count().as("count").min("timestamp").as("first").max("timestamp").as("last"),
+            Aggregation.sort(Sort.Direction.DESC, "count"));
+        return mongoTemplate.aggregate(aggregation, org.bson.Document.class).getMappedResults();
+    }
+    
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof java.util.Date date) {
+            return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+        }
+        return value instanceof LocalDateTime dateTime ? dateTime : null;
+    }
+    
+    /**
+     * Escreve o relatório Excel dos ataques em modo streaming: os logs são lidos por cursor e apenas
+     * {@code honeypot.reports.excel.row-window} linhas ficam em memória (as demais vão para um arquivo
+     * temporário compactado), então o consumo de heap não depende do número de sessões
+     */
+    private void writeAttackReportExcel(ReportPeriod period, OutputStream out, ReportProgress progress) throws IOException {
+        SXSSFWorkbook workbook = newStreamingWorkbook();
+        try {
             Sheet sheet = workbook.createSheet("Relatório de Ataques");
+            ColumnWidths widths = new ColumnWidths(ATTACK_HEADERS.length);
             
             // Cabeçalho
             Row headerRow = sheet.createRow(0);
-            String[] headers = {"Data/Hora", "IP Atacante", "Porta", "Protocolo", "Usuário", "Senha", "Banner", "Comandos", "Sucesso"};
-            
             CellStyle headerStyle = createHeaderStyle(workbook);
-            for (int i = 0; i < headers.length; i++) {
+            for (int i = 0; i < ATTACK_HEADERS.length; i++) {
                 Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
+                cell.setCellValue(ATTACK_HEADERS[i]);
                 cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
+                widths.track(i, ATTACK_HEADERS[i]);
             }
             
             // Dados dos ataques
-            List<AttackLog> attacks = attackLogRepository.findAll();
+            progress.stage("Lendo ataques");
             int rowNum = 1;
-            
-            for (AttackLog attack : attacks) {
-                Row row = sheet.createRow(rowNum++);
-                
-                row.createCell(0).setCellValue(formatDateTime(attack.getTimestamp()));
-                row.createCell(1).setCellValue(attack.getSourceIp());
-                row.createCell(2).setCellValue(attack.getPort());
-                row.createCell(3).setCellValue(attack.getProtocol());
-                row.createCell(4).setCellValue(attack.getUsername() != null ? attack.getUsername() : "");
-                row.createCell(5).setCellValue(attack.getPassword() != null ? attack.getPassword() : "");
-                row.createCell(6).setCellValue(attack.getBanner() != null ? attack.getBanner() : "");
-                row.createCell(7).setCellValue(formatCommands(attack.getCommands()));
-                row.createCell(8).setCellValue(attack.isSuccessful() ? "Sim" : "Não");
-            }
-            
-            // Auto-dimensionar colunas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
+            Query query = period.query().cursorBatchSize(EXCEL_CURSOR_BATCH_SIZE);
+            try (Stream<AttackLog> attacks = mongoTemplate.stream(query, AttackLog.class)) {
+                Iterator<AttackLog> iterator = attacks.iterator();
+                while (iterator.hasNext()) {
+                    AttackLog attack = iterator.next();
+                    Row row = sheet.createRow(rowNum++);
+                    
+                    setCell(row, 0, formatDateTime(attack.getTimestamp()), widths);
+                    setCell(row, 1, attack.getSourceIp(), widths);
+                    row.createCell(2).setCellValue(attack.getPort());
+                    widths.track(2, attack.getPort());
+                    setCell(row, 3, attack.getProtocol(), widths);
+                    setCell(row, 4, attack.getUsername(), widths);
+                    setCell(row, 5, attack.getPassword(), widths);
+                    setCell(row, 6, attack.getBanner(), widths);
+                    setCell(row, 7, formatCommands(attack.getCommands()), widths);
+                    setCell(row, 8, attack.isSuccessful() ? "Sim" : "Não", widths);
+                    progress.rowsProcessed(1);
+                }
             }
             
-            // Converter para byte array
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
-            
-        } catch (IOException e) {
-            log.error("Erro ao gerar relatório Excel: {}", e.getMessage());
-            return new byte[0];
+            widths.apply(sheet);
+            progress.stage("Gravando arquivo");
+            workbook.write(out);
+            log.info("Relatório Excel de ataques escrito: {} linhas", rowNum - 1);
+        } finally {
+            closeQuietly(workbook);
         }
     }
     
     /**
-     * Gera relatório de estatísticas em Excel
+     * Escreve o relatório indicado, restrito ao período, no stream (downloads, jobs assíncronos e
+     * cache), informando a etapa e os registros lidos ao progresso. Todas as planilhas são gravadas
+     * direto no stream, sem cópia intermediária em memória.
      */
-    public byte[] generateStatisticsReportExcel() {
-        try (Workbook workbook = new XSSFWorkbook()) {
-            
-            // Aba 1: Resumo Geral
+    public void writeReport(ReportType type, ReportPeriod period, OutputStream out, ReportProgress progress) throws IOException {
+        switch (type) {
+            case ATTACKS_PDF -> writeAttackReportPDF(period, out, progress);
+            case ATTACKS_EXCEL -> writeAttackReportExcel(period, out, progress);
+            case STATISTICS_EXCEL -> writeStatisticsReportExcel(period, out, progress);
+            case NOTIFICATIONS_EXCEL -> writeNotificationsReportExcel(period, out, progress);
+            case CONSOLIDATED_EXCEL -> writeConsolidatedReportExcel(period, out, progress);
+            case PERIOD_EXCEL -> writePeriodReportExcel(period, out, progress);
+        }
+    }
+    
+    /**
+     * Relatório de estatísticas: uma única leitura de attack_logs alimenta todas as abas
+     */
+    private void writeStatisticsReportExcel(ReportPeriod period, OutputStream out, ReportProgress progress) throws IOException {
+        SXSSFWorkbook workbook = newStreamingWorkbook();
+        try {
+            // Abas criadas na ordem final; a timeline é escrita durante a leitura dos logs
             Sheet summarySheet = workbook.createSheet("Resumo Geral");
-            createSummarySheet(summarySheet);
-            
-            // Aba 2: Ataques por Protocolo
             Sheet protocolSheet = workbook.createSheet("Ataques por Protocolo");
-            createProtocolAnalysisSheet(protocolSheet);
-            
-            // Aba 3: Top IPs Atacantes
             Sheet topIpsSheet = workbook.createSheet("Top IPs Atacantes");
-            createTopIpsSheet(topIpsSheet);
-            
-            // Aba 4: Comandos Mais Executados
             Sheet commandsSheet = workbook.createSheet("Comandos Executados");
-            createCommandsAnalysisSheet(commandsSheet);
-            
-            // Aba 5: Timeline de Ataques
             Sheet timelineSheet = workbook.createSheet("Timeline de Ataques");
-            createTimelineSheet(timelineSheet);
             
-            // Converter para byte array
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
-            
-        } catch (IOException e) {
-            log.error("Erro ao gerar relatório de estatísticas: {}", e.getMessage());
-            return new byte[0];
+            ProtocolAggregator protocols = new ProtocolAggregator();
+            IpAggregator ips = new IpAggregator();
+            CommandAggregator commands = new CommandAggregator();
+            AttackAggregator timeline = timelineWriter(timelineSheet);
+            
+            long scanned = scanAttacks(period, List.of(protocols, ips, commands, timeline), progress);
+            
+            // Abas 1 a 4 montadas em paralelo a partir dos agregadores já completos
+            progress.stage("Montando abas");
+            renderSections(List.of(summarySheet, protocolSheet, topIpsSheet, commandsSheet), List.of(
+                () -> summarySection(protocols, period),
+                () -> protocolAnalysisSection(protocols),
+                () -> topIpsSection(ips),
+                () -> commandsAnalysisSection(commands)));
+            
+            progress.stage("Gravando arquivo");
+            workbook.write(out);
+            log.info("Relatório de estatísticas gerado a partir de {} logs", scanned);
+        } finally {
+            closeQuietly(workbook);
         }
     }
     
     /**
-     * Gera relatório de notificações em Excel
+     * Relatório de notificações, lido por cursor e escrito em streaming como o de ataques
      */
-    public byte[] generateNotificationsReportExcel() {
-        try (Workbook workbook = new XSSFWorkbook()) {
+    private void writeNotificationsReportExcel(ReportPeriod period, OutputStream out, ReportProgress progress) throws IOException {
+        SXSSFWorkbook workbook = newStreamingWorkbook();
+        try {
             Sheet sheet = workbook.createSheet("Relatório de Notificações");
+            String[] headers = {"Data/Hora", "Tipo", "Título", "Mensagem", "IP Atacante", "Protocolo", "Usuário"};
+            ColumnWidths widths = new ColumnWidths(headers.length);
             
             // Cabeçalho
             Row headerRow = sheet.createRow(0);
-            String[] headers = {"Data/Hora", "Tipo", "Título", "Mensagem", "IP Atacante", "Protocolo", "Usuário"};
-            
             CellStyle headerStyle = createHeaderStyle(workbook);
             for (int i = 0; i < headers.length; i++) {
                 Cell cell = headerRow.createCell(i);
                 cell.setCellValue(headers[i]);
                 cell.setCellStyle(headerStyle);
-                sheet.autoSizeColumn(i);
+                widths.track(i, headers[i]);
             }
             
             // Dados das notificações
-            List<Notification> notifications = notificationRepository.findAll();
+            progress.stage("Lendo notificações");
             int rowNum = 1;
-            
-            for (Notification notification : notifications) {
-                Row row = sheet.createRow(rowNum++);
-                
-                row.createCell(0).setCellValue(formatDateTime(notification.getTimestamp()));
-                row.createCell(1).setCellValue(notification.getType());
-                row.createCell(2).setCellValue(notification.getTitle());
-                row.createCell(3).setCellValue(notification.getMessage());
-                row.createCell(4).setCellValue(notification.getSourceIp() != null ? notification.getSourceIp() : "");
-                row.createCell(5).setCellValue(notification.getProtocol() != null ? notification.getProtocol() : "");
-                row.createCell(6).setCellValue(notification.getUsername() != null ? notification.getUsername() : "");
-            }
-            
-            // Auto-dimensionar colunas
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
+            Query query = period.query().cursorBatchSize(EXCEL_CURSOR_BATCH_SIZE);
+            try (Stream<Notification> notifications = mongoTemplate.stream(query, Notification.class)) {
+                Iterator<Notification> iterator = notifications.iterator();
+                while (iterator.hasNext()) {
+                    Notification notification = iterator.next();
+                    Row row = sheet.createRow(rowNum++);
+                    
+                    setCell(row, 0, formatDateTime(notification.getTimestamp()), widths);
+                    setCell(row, 1, notification.getType(), widths);
+                    setCell(row, 2, notification.getTitle(), widths);
+                    setCell(row, 3, notification.getMessage(), widths);
+                    setCell(row, 4, notification.getSourceIp(), widths);
+                    setCell(row, 5, notification.getProtocol(), widths);
+                    setCell(row, 6, notification.getUsername(), widths);
+                    progress.rowsProcessed(1);
+                }
             }
             
-            // Converter para byte array
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
-            
-        } catch (IOException e) {
-            log.error("Erro ao gerar relatório de notificações: {}", e.getMessage());
-            return new byte[0];
+            widths.apply(sheet);
+            progress.stage("Gravando arquivo");
+            workbook.write(out);
+            log.info("Relatório de notificações escrito: {} linhas", rowNum - 1);
+        } finally {
+            closeQuietly(workbook);
         }
     }
     
     /**
-     * Gera relatório consolidado (todas as informações)
+     * Relatório de dias completos (diário, semanal, mensal) montado a partir dos parciais diários,
+     * sem reler attack_logs para os dias já consolidados. As abas têm tamanho limitado pelos
+     * parciais, então a planilha comum basta.
      */
-    public byte[] generateConsolidatedReportExcel() {
+    private void writePeriodReportExcel(ReportPeriod period, OutputStream out, ReportProgress progress) throws IOException {
+        // Dias efetivamente lidos (fim limitado a hoje), usados também no rótulo do período
+        ReportPeriod days = period.toWholeDays(LocalDate.now());
+        progress.stage("Consolidando parciais diários");
+        DailyReportService.PeriodAggregates aggregates = dailyReportService.aggregate(
+            days.from().toLocalDate(), days.to().minusDays(1).toLocalDate());
+        
         try (Workbook workbook = new XSSFWorkbook()) {
-            
-            // Aba 1: Dashboard Executivo
+            List<Sheet> sheets = List.of(
+                workbook.createSheet("Resumo do Período"),
+                workbook.createSheet("Ataques por Protocolo"),
+                workbook.createSheet("Top IPs Atacantes"),
+                workbook.createSheet("Comandos Executados"),
+                workbook.createSheet("Ataques por Dia"));
+            progress.stage("Montando abas");
+            renderSections(sheets, List.of(
+                () -> summaryRows(aggregates.protocols(), days)
+                    .row("IPs Únicos", aggregates.ips().getUniqueIps())
+                    .row("Dias de Parciais Consolidados", aggregates.partialDays())
+                    .row("Dias Lidos dos Logs", aggregates.scannedDays())
+                    .row("Dias com Parcial Truncado (IPs e comandos menos frequentes omitidos)", aggregates.truncatedDays())
+                    .build(),
+                () -> protocolAnalysisSection(aggregates.protocols()),
+                () -> topIpsSection(aggregates.ips()),
+                () -> commandsAnalysisSection(aggregates.commands()),
+                () -> attacksPerDaySection(aggregates.attacksPerDay())));
+            
+            progress.stage("Gravando arquivo");
+            workbook.write(out);
+            log.info("Relatório do período {} gerado: {} dia(s) de parciais, {} lido(s) dos logs",
+                days.describe(), aggregates.partialDays(), aggregates.scannedDays());
+        }
+    }
+    
+    /**
+     * Relatório consolidado (todas as informações) a partir de uma única leitura de attack_logs
+     */
+    private void writeConsolidatedReportExcel(ReportPeriod period, OutputStream out, ReportProgress progress) throws IOException {
+        SXSSFWorkbook workbook = newStreamingWorkbook();
+        try {
             Sheet dashboardSheet = workbook.createSheet("Dashboard Executivo");
-            createDashboardSheet(dashboardSheet);
-            
-            // Aba 2: Detalhamento de Ataques
             Sheet attacksSheet = workbook.createSheet("Detalhamento de Ataques");
-            createDetailedAttacksSheet(attacksSheet);
-            
-            // Aba 3: Análise de Comportamento
             Sheet behaviorSheet = workbook.createSheet("Análise de Comportamento");
-            createBehaviorAnalysisSheet(behaviorSheet);
-            
-            // Aba 4: Notificações e Alertas
             Sheet alertsSheet = workbook.createSheet("Notificações e Alertas");
-            createAlertsSheet(alertsSheet);
-            
-            // Aba 5: Recomendações de Segurança
             Sheet recommendationsSheet = workbook.createSheet("Recomendações");
-            createRecommendationsSheet(recommendationsSheet);
-            
-            // Converter para byte array
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            return outputStream.toByteArray();
             
+            ProtocolAggregator protocols = new ProtocolAggregator();
+            IpAggregator ips = new IpAggregator();
+            CommandAggregator commands = new CommandAggregator();
+            ColumnWidths detailWidths = new ColumnWidths(DETAIL_HEADERS.length);
+            AttackAggregator details = detailedAttacksWriter(attacksSheet, detailWidths);
+            
+            long scanned = scanAttacks(period, List.of(protocols, ips, commands, details), progress);
+            detailWidths.apply(attacksSheet);
+            
+            // Abas 1, 3, 4 e 5 montadas em paralelo; a 2 (Detalhamento) já foi preenchida na leitura
+            progress.stage("Montando abas");
+            renderSections(List.of(dashboardSheet, behaviorSheet, alertsSheet, recommendationsSheet), List.of(
+                () -> dashboardSection(protocols, ips, period),
+                () -> behaviorAnalysisSection(ips, commands),
+                () -> alertsSection(commands, period),
+                this::recommendationsSection));
+            
+            progress.stage("Gravando arquivo");
+            workbook.write(out);
+            log.info("Relatório consolidado gerado a partir de {} logs", scanned);
+        } finally {
+            closeQuietly(workbook);
+        }
+    }
+    
+    /**
+     * Lê attack_logs por cursor em ordem cronológica (índice de timestamp) e entrega cada log a todos
+     * os agregadores
+     */
+    private long scanAttacks(ReportPeriod period, List<AttackAggregator> aggregators, ReportProgress progress) {
+        progress.stage("Lendo ataques");
+        List<AttackAggregator> targets = new ArrayList<>(aggregators);
+        targets.add(attack -> progress.rowsProcessed(1));
+        Query query = period.query()
+            .with(Sort.by(Sort.Direction.ASC, "timestamp"))
+            .cursorBatchSize(EXCEL_CURSOR_BATCH_SIZE);
+        try (Stream<AttackLog> attacks = mongoTemplate.stream(query, AttackLog.class)) {
+            return ReportEngine.scan(attacks, targets);
+        }
+    }
+    
+    // Planilha em streaming: só a janela de linhas fica em memória, o resto vai para temporários compactados
+    private SXSSFWorkbook newStreamingWorkbook() {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(excelRowWindow);
+        workbook.setCompressTempFiles(true);
+        return workbook;
+    }
+    
+    private void closeQuietly(SXSSFWorkbook workbook) {
+        workbook.dispose();
+        try {
+            workbook.close();
         } catch (IOException e) {
-            log.error("Erro ao gerar relatório consolidado: {}", e.getMessage());
-            return new byte[0];
+            log.debug("Erro ao fechar planilha: {}", e.getMessage());
         }
     }
     
-    // Métodos auxiliares para criação das abas
-    private void createSummarySheet(Sheet sheet) {
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("Métrica");
-        headerRow.createCell(1).setCellValue("Valor");
-        
-        List<AttackLog> attacks = attackLogRepository.findAll();
-        long totalAttacks = attacks.size();
-        long sshAttacks = attacks.stream().filter(a -> "SSH".equals(a.getProtocol())).count();
-        long telnetAttacks = attacks.stream().filter(a -> "TELNET".equals(a.getProtocol())).count();
-        
-        int rowNum = 1;
-        sheet.createRow(rowNum++).createCell(0).setCellValue("Total de Ataques");
-        sheet.getRow(rowNum-1).createCell(1).setCellValue(totalAttacks);
-        
-        sheet.createRow(rowNum++).createCell(0).setCellValue("Ataques SSH");
-        sheet.getRow(rowNum-1).createCell(1).setCellValue(sshAttacks);
-        
-        sheet.createRow(rowNum++).createCell(0).setCellValue("Ataques Telnet");
-        sheet.getRow(rowNum-1).createCell(1).setCellValue(telnetAttacks);
-        
-        sheet.createRow(rowNum++).createCell(0).setCellValue("Data de Geração");
-        sheet.getRow(rowNum-1).createCell(1).setCellValue(LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")));
+    // Métodos auxiliares para montagem das abas (seções independentes, sem acesso ao workbook)
+    private ReportSection summarySection(ProtocolAggregator protocols, ReportPeriod period) {
+        return summaryRows(protocols, period).build();
     }
     
-    private void createProtocolAnalysisSheet(Sheet sheet) {
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("Protocolo");
-        headerRow.createCell(1).setCellValue("Total de Ataques");
-        headerRow.createCell(2).setCellValue("Porcentagem");
-        
-        List<AttackLog> attacks = attackLogRepository.findAll();
-        long total = attacks.size();
-        
-        Map<String, Long> protocolCounts = attacks.stream()
-            .collect(Collectors.groupingBy(AttackLog::getProtocol, Collectors.counting()));
-        
-        int rowNum = 1;
-        for (Map.Entry<String, Long> entry : protocolCounts.entrySet()) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(entry.getKey());
-            row.createCell(1).setCellValue(entry.getValue());
-            row.createCell(2).setCellValue(String.format("%.2f%%", (entry.getValue() * 100.0) / total));
+    private ReportSection.Builder summaryRows(ProtocolAggregator protocols, ReportPeriod period) {
+        return ReportSection.builder()
+            .row("Métrica", "Valor")
+            .row("Total de Ataques", protocols.getTotal())
+            .row("Ataques SSH", protocols.getCount("SSH"))
+            .row("Ataques Telnet", protocols.getCount("TELNET"))
+            .row("Período", period.describe())
+            .row("Data de Geração", LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")));
+    }
+    
+    private ReportSection protocolAnalysisSection(ProtocolAggregator protocols) {
+        ReportSection.Builder section = ReportSection.builder()
+            .row("Protocolo", "Total de Ataques", "Porcentagem");
+        long total = protocols.getTotal();
+        for (Map.Entry<String, Long> entry : protocols.getCounts().entrySet()) {
+            section.row(entry.getKey(), entry.getValue(), String.format("%.2f%%", (entry.getValue() * 100.0) / total));
         }
+        return section.build();
     }
     
-    private void createTopIpsSheet(Sheet sheet) {
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("IP Atacante");
-        headerRow.createCell(1).setCellValue("Total de Tentativas");
-        headerRow.createCell(2).setCellValue("Última Tentativa");
-        
-        List<AttackLog> attacks = attackLogRepository.findAll();
-        Map<String, Long> ipCounts = attacks.stream()
-            .collect(Collectors.groupingBy(AttackLog::getSourceIp, Collectors.counting()));
-        
-        int rowNum = 1;
-        for (Map.Entry<String, Long> entry : ipCounts.entrySet()) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(entry.getKey());
-            row.createCell(1).setCellValue(entry.getValue());
-            
-            // Encontrar última tentativa deste IP
-            LocalDateTime lastAttempt = attacks.stream()
-                .filter(a -> entry.getKey().equals(a.getSourceIp()))
-                .map(AttackLog::getTimestamp)
-                .max(LocalDateTime::compareTo)
-                .orElse(null);
-            
-            row.createCell(2).setCellValue(lastAttempt != null ? formatDateTime(lastAttempt) : "");
+    private ReportSection topIpsSection(IpAggregator ips) {
+        ReportSection.Builder section = ReportSection.builder()
+            .row("IP Atacante", "Total de Tentativas", "Última Tentativa");
+        for (Map.Entry<String, IpAggregator.IpStats> entry : ips.getStats().entrySet()) {
+            section.row(entry.getKey(), entry.getValue().getAttempts(), formatDateTime(entry.getValue().getLastAttempt()));
         }
+        return section.build();
     }
     
-    private void createCommandsAnalysisSheet(Sheet sheet) {
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("Comando");
-        headerRow.createCell(1).setCellValue("Total de Execuções");
-        headerRow.createCell(2).setCellValue("IPs Únicos");
-        
-        List<AttackLog> attacks = attackLogRepository.findAll();
-        Map<String, Long> commandCounts = new java.util.HashMap<>();
-        Map<String, java.util.Set<String>> commandIps = new java.util.HashMap<>();
-        
-                    for (AttackLog attack : attacks) {
-                if (attack.getCommands() != null) {
-                    for (CommandExecution command : attack.getCommands()) {
-                        commandCounts.merge(command.getCommand(), 1L, Long::sum);
-                        commandIps.computeIfAbsent(command.getCommand(), k -> new java.util.HashSet<>()).add(attack.getSourceIp());
-                    }
-                }
-            }
-        
-        int rowNum = 1;
-        for (Map.Entry<String, Long> entry : commandCounts.entrySet()) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(entry.getKey());
-            row.createCell(1).setCellValue(entry.getValue());
-            row.createCell(2).setCellValue(commandIps.get(entry.getKey()).size());
+    private ReportSection attacksPerDaySection(Map<LocalDate, Long> attacksPerDay) {
+        ReportSection.Builder section = ReportSection.builder()
+            .row("Dia", "Total de Ataques");
+        for (Map.Entry<LocalDate, Long> entry : attacksPerDay.entrySet()) {
+            section.row(entry.getKey().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")), entry.getValue());
         }
+        return section.build();
     }
     
-    private void createTimelineSheet(Sheet sheet) {
+    private ReportSection commandsAnalysisSection(CommandAggregator commands) {
+        ReportSection.Builder section = ReportSection.builder()
+            .row("Comando", "Total de Execuções", "IPs Únicos");
+        for (Map.Entry<String, CommandAggregator.CommandStats> entry : commands.getStats().entrySet()) {
+            section.row(entry.getKey(), entry.getValue().getExecutions(), entry.getValue().getUniqueIps());
+        }
+        return section.build();
+    }
+    
+    // Timeline escrita durante a leitura: os logs já chegam ordenados por timestamp
+    private AttackAggregator timelineWriter(Sheet sheet) {
         Row headerRow = sheet.createRow(0);
         headerRow.createCell(0).setCellValue("Data/Hora");
         headerRow.createCell(1).setCellValue("IP Atacante");
         headerRow.createCell(2).setCellValue("Protocolo");
         headerRow.createCell(3).setCellValue("Ação");
         
-        List<AttackLog> attacks = attackLogRepository.findAll();
-        attacks.sort((a1, a2) -> a1.getTimestamp().compareTo(a2.getTimestamp()));
-        
-        int rowNum = 1;
-        for (AttackLog attack : attacks) {
-            Row row = sheet.createRow(rowNum++);
+        int[] rowNum = {1};
+        return attack -> {
+            Row row = sheet.createRow(rowNum[0]++);
             row.createCell(0).setCellValue(formatDateTime(attack.getTimestamp()));
             row.createCell(1).setCellValue(attack.getSourceIp());
             row.createCell(2).setCellValue(attack.getProtocol());
             row.createCell(3).setCellValue("Tentativa de Conexão");
-        }
+        };
     }
     
-    private void createDashboardSheet(Sheet sheet) {
-        // Dashboard executivo com gráficos e métricas principais
-        Row titleRow = sheet.createRow(0);
-        titleRow.createCell(0).setCellValue("DASHBOARD EXECUTIVO - HONEYPOT");
-        
-        Row subtitleRow = sheet.createRow(1);
-        subtitleRow.createCell(0).setCellValue("Relatório de Segurança e Monitoramento");
-        
-        // Métricas principais
-        List<AttackLog> attacks = attackLogRepository.findAll();
-        long totalAttacks = attacks.size();
-        long uniqueIps = attacks.stream().map(AttackLog::getSourceIp).distinct().count();
-        
-        Row metric1Row = sheet.createRow(3);
-        metric1Row.createCell(0).setCellValue("Total de Ataques Detectados:");
-        metric1Row.createCell(1).setCellValue(totalAttacks);
-        
-        Row metric2Row = sheet.createRow(4);
-        metric2Row.createCell(0).setCellValue("IPs Únicos Atacantes:");
-        metric2Row.createCell(1).setCellValue(uniqueIps);
-        
-        Row metric3Row = sheet.createRow(5);
-        metric3Row.createCell(0).setCellValue("Período de Monitoramento:");
-        metric3Row.createCell(1).setCellValue("Ativo");
-        
-        Row metric4Row = sheet.createRow(6);
-        metric4Row.createCell(0).setCellValue("Data de Geração:");
-        metric4Row.createCell(1).setCellValue(LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")));
+    private ReportSection dashboardSection(ProtocolAggregator protocols, IpAggregator ips, ReportPeriod period) {
+        // Dashboard executivo com as métricas principais
+        return ReportSection.builder()
+            .row("DASHBOARD EXECUTIVO - HONEYPOT")
+            .row("Relatório de Segurança e Monitoramento")
+            .blank()
+            .row("Total de Ataques Detectados:", protocols.getTotal())
+            .row("IPs Únicos Atacantes:", ips.getUniqueIps())
+            .row("Período de Monitoramento:", period.isBounded() ? period.describe() : "Ativo")
+            .row("Data de Geração:", LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")))
+            .build();
     }
     
-    private void createDetailedAttacksSheet(Sheet sheet) {
+    // Detalhamento escrito durante a leitura; a largura das colunas é estimada pelo maior texto de cada uma
+    private AttackAggregator detailedAttacksWriter(Sheet sheet, ColumnWidths widths) {
         Row headerRow = sheet.createRow(0);
-        String[] headers = {"Data/Hora", "IP Atacante", "Porta", "Protocolo", "Usuário", "Senha", "Comandos", "Sucesso"};
-        
-        for (int i = 0; i < headers.length; i++) {
-            headerRow.createCell(i).setCellValue(headers[i]);
+        for (int i = 0; i < DETAIL_HEADERS.length; i++) {
+            headerRow.createCell(i).setCellValue(DETAIL_HEADERS[i]);
+            widths.track(i, DETAIL_HEADERS[i]);
         }
         
-        List<AttackLog> attacks = attackLogRepository.findAll();
-        int rowNum = 1;
-        
-        for (AttackLog attack : attacks) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(formatDateTime(attack.getTimestamp()));
-            row.createCell(1).setCellValue(attack.getSourceIp());
+        int[] rowNum = {1};
+        return attack -> {
+            Row row = sheet.createRow(rowNum[0]++);
+            setCell(row, 0, formatDateTime(attack.getTimestamp()), widths);
+            setCell(row, 1, attack.getSourceIp(), widths);
             row.createCell(2).setCellValue(attack.getPort());
-            row.createCell(3).setCellValue(attack.getProtocol());
-            row.createCell(4).setCellValue(attack.getUsername() != null ? attack.getUsername() : "");
-            row.createCell(5).setCellValue(attack.getPassword() != null ? attack.getPassword() : "");
-            row.createCell(6).setCellValue(formatCommands(attack.getCommands()));
-            row.createCell(7).setCellValue(attack.isSuccessful() ? "Sim" : "Não");
-        }
+            widths.track(2, attack.getPort());
+            setCell(row, 3, attack.getProtocol(), widths);
+            setCell(row, 4, attack.getUsername(), widths);
+            setCell(row, 5, attack.getPassword(), widths);
+            setCell(row, 6, formatCommands(attack.getCommands()), widths);
+            setCell(row, 7, attack.isSuccessful() ? "Sim" : "Não", widths);
+        };
     }
     
-    private void createBehaviorAnalysisSheet(Sheet sheet) {
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("Padrão de Comportamento");
-        headerRow.createCell(1).setCellValue("Descrição");
-        headerRow.createCell(2).setCellValue("Frequência");
-        
-        List<AttackLog> attacks = attackLogRepository.findAll();
-        
-        // Análise de padrões
-        int rowNum = 1;
-        
-        // Padrão 1: Múltiplas tentativas do mesmo IP
-        Map<String, Long> ipAttempts = attacks.stream()
-            .collect(Collectors.groupingBy(AttackLog::getSourceIp, Collectors.counting()));
-        
-        long multipleAttempts = ipAttempts.values().stream().filter(count -> count > 1).count();
-        Row pattern1Row = sheet.createRow(rowNum++);
-        pattern1Row.createCell(0).setCellValue("Múltiplas Tentativas");
-        pattern1Row.createCell(1).setCellValue("IPs com mais de uma tentativa de conexão");
-        pattern1Row.createCell(2).setCellValue(multipleAttempts);
-        
-        // Padrão 2: Comandos de reconhecimento
-        long reconnaissanceCommands = attacks.stream()
-            .filter(a -> a.getCommands() != null)
-            .flatMap(a -> a.getCommands().stream())
-            .filter(cmd -> cmd.getCommand().startsWith("netstat") || cmd.getCommand().startsWith("ss") || cmd.getCommand().startsWith("ps"))
-            .count();
+    private ReportSection behaviorAnalysisSection(IpAggregator ips, CommandAggregator commands) {
+        // Padrão 2: comandos de reconhecimento
+        long reconnaissanceCommands = commands.countExecutions(
+            cmd -> cmd.startsWith("netstat") || cmd.startsWith("ss") || cmd.startsWith("ps"));
         
-        Row pattern2Row = sheet.createRow(rowNum++);
-        pattern2Row.createCell(0).setCellValue("Comandos de Reconhecimento");
-        pattern2Row.createCell(1).setCellValue("Comandos para análise do sistema");
-        pattern2Row.createCell(2).setCellValue(reconnaissanceCommands);
+        return ReportSection.builder()
+            .row("Padrão de Comportamento", "Descrição", "Frequência")
+            .row("Múltiplas Tentativas", "IPs com mais de uma tentativa de conexão", ips.getRepeatedIps())
+            .row("Comandos de Reconhecimento", "Comandos para análise do sistema", reconnaissanceCommands)
+            .build();
     }
     
-    private void createAlertsSheet(Sheet sheet) {
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("Tipo de Alerta");
-        headerRow.createCell(1).setCellValue("Descrição");
-        headerRow.createCell(2).setCellValue("Recomendação");
-        
-        int rowNum = 1;
-        
-        Row alert1Row = sheet.createRow(rowNum++);
-        alert1Row.createCell(0).setCellValue("Comandos Críticos");
-        alert1Row.createCell(1).setCellValue("Execução de comandos perigosos");
-        alert1Row.createCell(2).setCellValue("Monitorar e bloquear IPs suspeitos");
-        
-        Row alert2Row = sheet.createRow(rowNum++);
-        alert2Row.createCell(0).setCellValue("Tentativas de Download");
-        alert2Row.createCell(1).setCellValue("Tentativas de baixar arquivos");
-        alert2Row.createCell(2).setCellValue("Implementar filtros de rede");
+    // Ocorrências de cada regra de detecção no período (as mesmas regras que geram os alertas ao vivo),
+    // a partir dos comandos lidos, e das notificações gravadas por tipo
+    private ReportSection alertsSection(CommandAggregator commands, ReportPeriod period) {
+        Map<String, Long> executionsByRule = new HashMap<>();
+        for (Map.Entry<String, CommandAggregator.CommandStats> entry : commands.getStats().entrySet()) {
+            if (entry.getKey() == null) {
+                continue;
+            }
+            for (DetectionRule rule : detectionService.match(entry.getKey())) {
+                executionsByRule.merge(rule.id(), entry.getValue().getExecutions(), Long::sum);
+            }
+        }
         
-        Row alert3Row = sheet.createRow(rowNum++);
-        alert3Row.createCell(0).setCellValue("Acesso a Arquivos Sensíveis");
-        alert3Row.createCell(1).setCellValue("Tentativas de leitura de arquivos do sistema");
-        alert3Row.createCell(2).setCellValue("Auditar permissões de arquivos");
+        ReportSection.Builder section = ReportSection.builder()
+            .row("Tipo de Alerta", "Descrição", "Severidade", "Ocorrências no Período");
+        for (DetectionRule rule : detectionService.getRules()) {
+            section.row(rule.title(), rule.message(), rule.severity(), executionsByRule.getOrDefault(rule.id(), 0L));
+        }
+        section
+            .blank()
+            .row("Notificações no Período", period.describe())
+            .row("Tipo", "Total");
+        
+        TypedAggregation<Notification> byType = Aggregation.newAggregation(Notification.class,
+            Aggregation.match(period.criteria()),
+            Aggregation.group("type").count().as("count"),
+            Aggregation.sort(Sort.Direction.DESC, "count"));
+        for (org.bson.Document group : mongoTemplate.aggregate(byType, org.bson.Document.class).getMappedResults()) {
+            section.row(group.get("_id") != null ? group.get("_id") : "Sem tipo", ((Number) group.get("count")).longValue());
+        }
+        return section.build();
     }
     
-    private void createRecommendationsSheet(Sheet sheet) {
-        Row headerRow = sheet.createRow(0);
-        headerRow.createCell(0).setCellValue("Recomendação");
-        headerRow.createCell(1).setCellValue("Prioridade");
-        headerRow.createCell(2).setCellValue("Descrição");
-        
-        int rowNum = 1;
-        
-        Row rec1Row = sheet.createRow(rowNum++);
-        rec1Row.createCell(0).setCellValue("Implementar Rate Limiting");
-        rec1Row.createCell(1).setCellValue("ALTA");
-        rec1Row.createCell(2).setCellValue("Limitar tentativas de conexão por IP");
-        
-        Row rec2Row = sheet.createRow(rowNum++);
-        rec2Row.createCell(0).setCellValue("Configurar Firewall");
-        rec2Row.createCell(1).setCellValue("ALTA");
-        rec2Row.createCell(2).setCellValue("Bloquear IPs maliciosos automaticamente");
-        
-        Row rec3Row = sheet.createRow(rowNum++);
-        rec3Row.createCell(0).setCellValue("Monitoramento 24/7");
-        rec3Row.createCell(1).setCellValue("MÉDIA");
-        rec3Row.createCell(2).setCellValue("Implementar alertas em tempo real");
-        
-        Row rec4Row = sheet.createRow(rowNum++);
-        rec4Row.createCell(0).setCellValue("Backup de Logs");
-        rec4Row.createCell(1).setCellValue("MÉDIA");
-        rec4Row.createCell(2).setCellValue("Backup automático dos logs de ataque");
+    private ReportSection recommendationsSection() {
+        return ReportSection.builder()
+            .row("Recomendação", "Prioridade", "Descrição")
+            .row("Implementar Rate Limiting", "ALTA", "Limitar tentativas de conexão por IP")
+            .row("Configurar Firewall", "ALTA", "Bloquear IPs maliciosos automaticamente")
+            .row("Monitoramento 24/7", "MÉDIA", "Implementar alertas em tempo real")
+            .row("Backup de Logs", "MÉDIA", "Backup automático dos logs de ataque")
+            .build();
+    }
+    
+    /**
+     * Monta as seções em paralelo e grava cada uma na aba correspondente, na ordem informada, na
+     * thread do relatório (o workbook não é thread-safe)
+     */
+    private void renderSections(List<Sheet> sheets, List<Supplier<ReportSection>> sections) {
+        List<ReportSection> rendered = sectionRenderer.render(sections);
+        for (int i = 0; i < sheets.size(); i++) {
+            rendered.get(i).writeTo(sheets.get(i));
+        }
     }
     
     // Métodos auxiliares
@@ -516,6 +744,13 @@ public class ReportService {
         return style;
     }
     
+    // Célula de texto limitada ao máximo do Excel (32.767 caracteres), contada na largura da coluna
+    private static void setCell(Row row, int column, String value, ColumnWidths widths) {
+        String text = ReportSection.excelText(value);
+        row.createCell(column).setCellValue(text);
+        widths.track(column, text);
+    }
+    
     private String formatDateTime(LocalDateTime dateTime) {
         if (dateTime == null) return "";
         return dateTime.format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"));
@@ -528,194 +763,6 @@ public class ReportService {
             .collect(Collectors.joining("; "));
     }
     
-        private byte[] generateBasicPDFReport(List<AttackLog> attacks) {
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            PdfWriter writer = new PdfWriter(outputStream);
-            PdfDocument pdf = new PdfDocument(writer);
-            Document document = new Document(pdf, PageSize.A4);
-    
-            // Margens reduzidas para melhor aproveitamento do espaço
-            document.setMargins(25, 25, 25, 25);
-    
-            // Fonte
-            PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
-            PdfFont fontBold = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD);
-    
-            // Título principal
-            Paragraph title = new Paragraph("RELATÓRIO DE ATAQUES HONEYPOT")
-                    .setFont(fontBold)
-                    .setFontSize(20)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(15);
-            document.add(title);
-    
-            // Subtítulo
-            Paragraph subtitle = new Paragraph("Sistema de Monitoramento de Segurança")
-                    .setFont(font)
-                    .setFontSize(14)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(20);
-            document.add(subtitle);
-    
-            // Linha divisória
-            LineSeparator separator = new LineSeparator(new SolidLine());
-            separator.setMarginBottom(20);
-            document.add(separator);
-    
-            // Metadados em tabela
-            Table metadataTable = new Table(new float[]{2, 3});
-            metadataTable.setWidth(UnitValue.createPercentValue(100));
-            metadataTable.setMarginBottom(25);
-    
-            // Adicionar metadados
-            addMetadataRow(metadataTable, "Data de Geração:", 
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")), font, fontBold);
-            addMetadataRow(metadataTable, "Total de Ataques:", String.valueOf(attacks.size()), font, fontBold);
-            
-            if (!attacks.isEmpty()) {
-                LocalDateTime firstAttack = attacks.stream().map(AttackLog::getTimestamp).min(LocalDateTime::compareTo).orElse(null);
-                LocalDateTime lastAttack = attacks.stream().map(AttackLog::getTimestamp).max(LocalDateTime::compareTo).orElse(null);
-                String period = firstAttack != null && lastAttack != null ? 
-                    formatDateTime(firstAttack) + " até " + formatDateTime(lastAttack) : "N/A";
-                addMetadataRow(metadataTable, "Período Analisado:", period, font, fontBold);
-            }
-    
-            document.add(metadataTable);
-    
-            // Resumo estatístico simplificado
-            if (!attacks.isEmpty()) {
-                Paragraph summaryTitle = new Paragraph("RESUMO ESTATÍSTICO")
-                        .setFont(fontBold)
-                        .setFontSize(16)
-                        .setMarginBottom(10);
-                document.add(summaryTitle);
-    
-                // Estatísticas por protocolo em formato compacto
-                Map<String, Long> protocolCounts = attacks.stream()
-                    .collect(Collectors.groupingBy(AttackLog::getProtocol, Collectors.counting()));
-    
-                long total = attacks.size();
-                for (Map.Entry<String, Long> entry : protocolCounts.entrySet()) {
-                    String protocolInfo = String.format("%s: %d ataques (%.1f%%)", 
-                        entry.getKey(), entry.getValue(), (entry.getValue() * 100.0) / total);
-                    document.add(new Paragraph(protocolInfo)
-                        .setFont(font)
-                        .setFontSize(11)
-                        .setMarginBottom(5));
-                }
-                
-                document.add(new Paragraph("").setMarginBottom(15));
-            }
-    
-            // Tabela de ataques simplificada
-            if (!attacks.isEmpty()) {
-                Paragraph attacksTitle = new Paragraph("ATAQUES RECENTES")
-                        .setFont(fontBold)
-                        .setFontSize(16)
-                        .setMarginBottom(10);
-                document.add(attacksTitle);
-    
-                // Tabela compacta com apenas as informações essenciais
-                Table attacksTable = new Table(new float[]{2.5f, 2.0f, 1.5f, 2.0f});
-                attacksTable.setWidth(UnitValue.createPercentValue(100));
-    
-                // Cabeçalho simplificado
-                addHeaderCell(attacksTable, "Data/Hora", fontBold);
-                addHeaderCell(attacksTable, "IP Atacante", fontBold);
-                addHeaderCell(attacksTable, "Protocolo", fontBold);
-                addHeaderCell(attacksTable, "Usuário", fontBold);
-    
-                // Dados dos ataques (limitado e simplificado)
-                int maxRows = Math.min(attacks.size(), 25); // Máximo 25 linhas para PDF
-                for (int i = 0; i < maxRows; i++) {
-                    AttackLog attack = attacks.get(i);
-                    addDataCell(attacksTable, formatDateTime(attack.getTimestamp()), font);
-                    addDataCell(attacksTable, attack.getSourceIp(), font);
-                    addDataCell(attacksTable, attack.getProtocol(), font);
-                    addDataCell(attacksTable, attack.getUsername(), font);
-                }
-    
-                document.add(attacksTable);
-    
-                // Nota sobre limitação
-                if (attacks.size() > maxRows) {
-                    Paragraph note = new Paragraph("Nota: Este relatório mostra os " + maxRows + " ataques mais recentes. " +
-                        "Para dados completos (incluindo senhas e comandos), utilize o relatório em Excel.")
-                            .setFont(font)
-                            .setFontSize(9)
-                            .setItalic()
-                            .setTextAlignment(TextAlignment.CENTER)
-                            .setMarginTop(10);
-                    document.add(note);
-                }
-            }
-    
-            // Rodapé
-            Paragraph footer = new Paragraph("Relatório gerado automaticamente pelo Sistema HoneyPot de Segurança")
-                    .setFont(font)
-                    .setFontSize(10)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginTop(30);
-            document.add(footer);
-    
-            // Fechar documento
-            document.close();
-            return outputStream.toByteArray();
-            
-        } catch (Exception e) {
-            log.error("Erro ao gerar PDF: {}", e.getMessage());
-            return generateErrorPDF("Erro ao gerar relatório: " + e.getMessage());
-        }
-    }
-    
-    /**
-     * Gera PDF de erro quando há falha na geração
-     */
-    private byte[] generateErrorPDF(String errorMessage) {
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            PdfWriter writer = new PdfWriter(outputStream);
-            PdfDocument pdf = new PdfDocument(writer);
-            Document document = new Document(pdf, PageSize.A4);
-    
-            document.setMargins(50, 50, 50, 50);
-    
-            PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
-            PdfFont fontBold = PdfFontFactory.createFont(StandardFonts.HELVETICA_BOLD);
-    
-            Paragraph title = new Paragraph("ERRO NA GERAÇÃO DO RELATÓRIO")
-                    .setFont(fontBold)
-                    .setFontSize(20)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(30);
-            document.add(title);
-    
-            Paragraph error = new Paragraph("Ocorreu um erro durante a geração do relatório:")
-                    .setFont(font)
-                    .setFontSize(14)
-                    .setMarginBottom(20);
-            document.add(error);
-    
-            Paragraph message = new Paragraph(errorMessage)
-                    .setFont(font)
-                    .setFontSize(12)
-                    .setMarginBottom(30);
-            document.add(message);
-    
-            Paragraph timestamp = new Paragraph("Data/Hora: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")))
-                    .setFont(font)
-                    .setFontSize(10)
-                    .setTextAlignment(TextAlignment.CENTER);
-            document.add(timestamp);
-    
-            document.close();
-            return outputStream.toByteArray();
-            
-        } catch (Exception e) {
-            log.error("Erro ao gerar PDF de erro: {}", e.getMessage());
-            return "Erro na geração do relatório".getBytes();
-        }
-    }
-    
     /**
      * Adiciona uma linha de metadados na tabela
      */
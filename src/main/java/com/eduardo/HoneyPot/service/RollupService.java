@@ -0,0 +1,324 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.event.AttackCapturedEvent;
+import com.eduardo.HoneyPot.event.AttackLogsClearedEvent;
+import com.eduardo.HoneyPot.model.AttackLog;
+import com.eduardo.HoneyPot.model.AttackRollup;
+import com.eduardo.HoneyPot.model.RollupResolution;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Rollups de ataques por minuto, hora e dia, mantidos na coleção attack_rollups.
+ * As capturas são acumuladas em memória e gravadas em lote (upsert com $inc) a cada
+ * intervalo de flush, então o caminho da conexão não faz nenhuma escrita extra no banco.
+ */
+@Slf4j
+@Service
+public class RollupService {
+
+    /** Limite de buckets por consulta, para evitar respostas gigantes (ex: 1 ano por minuto) */
+    public static final int MAX_BUCKETS = 5000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${honeypot.rollups.track-ips:false}")
+    private boolean trackIps;
+
+    @Value("${honeypot.rollups.minute-retention-days:7}")
+    private int minuteRetentionDays;
+
+    // Buffer de incrementos ainda não gravados; o lock de escrita é usado apenas na troca do buffer
+    private final ReadWriteLock bufferLock = new ReentrantReadWriteLock();
+    private Map<String, PendingBucket> pending = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onAttackCaptured(AttackCapturedEvent event) {
+        if (event.getType() != AttackCapturedEvent.Type.SESSION_STARTED) {
+            return;
+        }
+        AttackLog attackLog = event.getAttackLog();
+        LocalDateTime timestamp = attackLog.getTimestamp() != null ? attackLog.getTimestamp() : LocalDateTime.now();
+
+        bufferLock.readLock().lock();
+        try {
+            for (RollupResolution resolution : RollupResolution.values()) {
+                LocalDateTime bucketStart = resolution.truncate(timestamp);
+                pending.computeIfAbsent(resolution.bucketId(bucketStart), id -> new PendingBucket(resolution, bucketStart))
+                    .record(attackLog.getProtocol(), trackIps ? attackLog.getSourceIp() : null, 1);
+            }
+        } finally {
+            bufferLock.readLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onAttackLogsCleared(AttackLogsClearedEvent event) {
+        swapPending();
+        mongoTemplate.remove(new Query(), AttackRollup.class);
+        log.info("Rollups removidos após limpeza dos logs");
+    }
+
+    /**
+     * Garante os índices e preenche os rollups a partir de attack_logs quando a coleção está vazia
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void initialize() {
+        try {
+            mongoTemplate.indexOps(AttackRollup.class)
+                .createIndex(new Index().on("resolution", Sort.Direction.ASC).on("bucketStart", Sort.Direction.ASC));
+            mongoTemplate.indexOps(AttackRollup.class)
+                .createIndex(new Index().on("expireAt", Sort.Direction.ASC).expire(0));
+
+            boolean hasCounters = mongoTemplate.exists(new Query(Criteria.where("total").exists(true)), AttackRollup.class);
+            if (!hasCounters && mongoTemplate.estimatedCount(AttackLog.class) > 0) {
+                backfillFromAttackLogs();
+            }
+        } catch (Exception e) {
+            log.error("Erro ao inicializar rollups: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Grava os incrementos acumulados com upserts em lote
+     */
+    @Scheduled(fixedDelayString = "${honeypot.rollups.flush-interval-ms:5000}")
+    public void flush() {
+        Map<String, PendingBucket> toFlush = swapPending();
+        if (toFlush.isEmpty()) {
+            return;
+        }
+        try {
+            writeBuckets(toFlush.values());
+            log.debug("{} buckets de rollup gravados", toFlush.size());
+        } catch (Exception e) {
+            // Devolve os incrementos ao buffer para a próxima tentativa
+            log.warn("Erro ao gravar rollups, nova tentativa no próximo ciclo: {}", e.getMessage());
+            bufferLock.readLock().lock();
+            try {
+                toFlush.forEach((id, bucket) -> pending.merge(id, bucket, PendingBucket::mergeFrom));
+            } finally {
+                bufferLock.readLock().unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Série temporal de ataques no intervalo [start, end) na resolução pedida,
+     * lida apenas de attack_rollups (mais o buffer ainda não gravado).
+     */
+    public TimelineSeries getTimeline(LocalDateTime start, LocalDateTime end, RollupResolution resolution,
+                                      String protocol, String ip) {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("O início do período deve ser anterior ao fim");
+        }
+        if (ip != null && !trackIps) {
+            throw new IllegalArgumentException("Rollups por IP desabilitados (honeypot.rollups.track-ips)");
+        }
+
+        LocalDateTime firstBucket = resolution.truncate(start);
+        long bucketCount = (java.time.Duration.between(firstBucket, end).toMillis() + resolution.getDuration().toMillis() - 1)
+            / resolution.getDuration().toMillis();
+        if (bucketCount > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Intervalo muito grande para a resolução " + resolution
+                + ": " + bucketCount + " buckets (máximo " + MAX_BUCKETS + ")");
+        }
+
+        // Buckets vazios para o intervalo inteiro
+        Map<LocalDateTime, Long> counts = new LinkedHashMap<>();
+        for (LocalDateTime bucket = firstBucket; bucket.isBefore(end); bucket = resolution.next(bucket)) {
+            counts.put(bucket, 0L);
+        }
+
+        Query query = new Query(Criteria.where("resolution").is(resolution.name())
+            .and("bucketStart").gte(firstBucket).lt(end));
+        for (AttackRollup rollup : mongoTemplate.find(query, AttackRollup.class)) {
+            counts.computeIfPresent(rollup.getBucketStart(), (bucket, count) -> count + countOf(rollup, protocol, ip));
+        }
+
+        bufferLock.readLock().lock();
+        try {
+            for (PendingBucket bucket : pending.values()) {
+                if (bucket.resolution == resolution) {
+                    counts.computeIfPresent(bucket.bucketStart, (b, count) -> count + bucket.countOf(protocol, ip));
+                }
+            }
+        } finally {
+            bufferLock.readLock().unlock();
+        }
+
+        return new TimelineSeries(resolution, firstBucket, end, counts);
+    }
+
+    public boolean isTrackingIps() {
+        return trackIps;
+    }
+
+    // Métodos auxiliares
+    private Map<String, PendingBucket> swapPending() {
+        bufferLock.writeLock().lock();
+        try {
+            Map<String, PendingBucket> current = pending;
+            pending = new ConcurrentHashMap<>();
+            return current;
+        } finally {
+            bufferLock.writeLock().unlock();
+        }
+    }
+
+    private void writeBuckets(Collection<PendingBucket> buckets) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AttackRollup.class);
+        for (PendingBucket bucket : buckets) {
+            Update update = new Update()
+                .setOnInsert("resolution", bucket.resolution.name())
+                .setOnInsert("bucketStart", bucket.bucketStart)
+                .inc("total", bucket.total.sum());
+            bucket.protocols.forEach((protocol, count) -> update.inc("protocols." + encodeKey(protocol), count.sum()));
+            bucket.ips.forEach((ip, count) -> update.inc("ips." + encodeKey(ip), count.sum()));
+            if (bucket.resolution == RollupResolution.MINUTE) {
+                update.setOnInsert("expireAt", bucket.bucketStart.plusDays(minuteRetentionDays));
+            }
+            operations.upsert(new Query(Criteria.where("_id").is(bucket.resolution.bucketId(bucket.bucketStart))), update);
+        }
+        operations.execute();
+    }
+
+    /**
+     * Reconstrói os rollups com $dateTrunc sobre attack_logs (executado uma única vez)
+     */
+    private void backfillFromAttackLogs() {
+        String timezone = ZoneId.systemDefault().getId();
+        LocalDateTime minuteCutoff = LocalDateTime.now().minusDays(minuteRetentionDays);
+
+        for (RollupResolution resolution : RollupResolution.values()) {
+            Document groupId = new Document("bucket", new Document("$dateTrunc",
+                    new Document("date", "$timestamp").append("unit", resolution.getMongoUnit()).append("timezone", timezone)))
+                .append("protocol", "$protocol");
+            if (trackIps) {
+                groupId.append("ip", "$sourceIp");
+            }
+
+            List<Document> pipeline = new ArrayList<>();
+            if (resolution == RollupResolution.MINUTE) {
+                pipeline.add(new Document("$match", new Document("timestamp", new Document("$gte", toDate(minuteCutoff)))));
+            }
+            pipeline.add(new Document("$group", new Document("_id", groupId).append("count", new Document("$sum", 1))));
+
+            Map<String, PendingBucket> buckets = new HashMap<>();
+            for (Document row : mongoTemplate.getCollection(mongoTemplate.getCollectionName(AttackLog.class))
+                    .aggregate(pipeline).allowDiskUse(true)) {
+                Document id = row.get("_id", Document.class);
+                LocalDateTime bucketStart = LocalDateTime.ofInstant(id.getDate("bucket").toInstant(), ZoneId.systemDefault());
+                long count = ((Number) row.get("count")).longValue();
+                buckets.computeIfAbsent(resolution.bucketId(bucketStart), key -> new PendingBucket(resolution, bucketStart))
+                    .record(id.getString("protocol"), id.getString("ip"), count);
+            }
+            if (!buckets.isEmpty()) {
+                writeBuckets(buckets.values());
+            }
+            log.info("Backfill de rollups {}: {} buckets", resolution, buckets.size());
+        }
+    }
+
+    private long countOf(AttackRollup rollup, String protocol, String ip) {
+        if (ip != null) {
+            return rollup.getIps().getOrDefault(encodeKey(ip), 0L);
+        }
+        if (protocol != null) {
+            return rollup.getProtocols().getOrDefault(encodeKey(protocol), 0L);
+        }
+        return rollup.getTotal();
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static String encodeKey(String key) {
+        return key.replace('.', '_');
+    }
+
+    /**
+     * Incrementos acumulados para um bucket ainda não gravado
+     */
+    private static class PendingBucket {
+        final RollupResolution resolution;
+        final LocalDateTime bucketStart;
+        final LongAdder total = new LongAdder();
+        final Map<String, LongAdder> protocols = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> ips = new ConcurrentHashMap<>();
+
+        PendingBucket(RollupResolution resolution, LocalDateTime bucketStart) {
+            this.resolution = resolution;
+            this.bucketStart = bucketStart;
+        }
+
+        void record(String protocol, String ip, long count) {
+            total.add(count);
+            if (protocol != null) {
+                protocols.computeIfAbsent(protocol, k -> new LongAdder()).add(count);
+            }
+            if (ip != null) {
+                ips.computeIfAbsent(ip, k -> new LongAdder()).add(count);
+            }
+        }
+
+        long countOf(String protocol, String ip) {
+            if (ip != null) {
+                LongAdder adder = ips.get(ip);
+                return adder != null ? adder.sum() : 0;
+            }
+            if (protocol != null) {
+                LongAdder adder = protocols.get(protocol);
+                return adder != null ? adder.sum() : 0;
+            }
+            return total.sum();
+        }
+
+        PendingBucket mergeFrom(PendingBucket other) {
+            total.add(other.total.sum());
+            other.protocols.forEach((key, value) -> protocols.computeIfAbsent(key, k -> new LongAdder()).add(value.sum()));
+            other.ips.forEach((key, value) -> ips.computeIfAbsent(key, k -> new LongAdder()).add(value.sum()));
+            return this;
+        }
+    }
+
+    /**
+     * Série temporal resultante de uma consulta aos rollups
+     */
+    public record TimelineSeries(RollupResolution resolution, LocalDateTime start, LocalDateTime end,
+                                 Map<LocalDateTime, Long> counts) {
+
+        public long total() {
+            return counts.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.event.AttackCapturedEvent;
+import com.eduardo.HoneyPot.model.AttackLog;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Histogramas de sessão e de persistência publicados no Micrometer. Os percentis são calculados
+ * no cliente por histogramas HDR (janela deslizante, gravação sem lock) e aparecem no actuator como
+ * {@code <nome>.percentile} com a tag {@code phi}, ex.:
+ * {@code /actuator/metrics/honeypot.session.duration.percentile?tag=phi:0.99}.
+ */
+@Service
+public class SessionMetricsService {
+
+    private static final double[] PERCENTILES = {0.5, 0.75, 0.9, 0.95, 0.99, 0.999};
+    private static final String OTHER_COMMAND = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxCommandTags;
+    private final Map<String, Timer> sessionDuration = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timeToCredentials = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> commandsPerSession = new ConcurrentHashMap<>();
+    private final Map<String, Timer> commandResponse = new ConcurrentHashMap<>();
+    private final Map<String, Timer> repositoryWrite = new ConcurrentHashMap<>();
+
+    public SessionMetricsService(MeterRegistry meterRegistry,
+                                 @Value("${honeypot.metrics.max-command-tags:50}") int maxCommandTags) {
+        this.meterRegistry = meterRegistry;
+        this.maxCommandTags = maxCommandTags;
+    }
+
+    @EventListener
+    public void onAttackCaptured(AttackCapturedEvent event) {
+        AttackLog attackLog = event.getAttackLog();
+        String protocol = attackLog.getProtocol() != null ? attackLog.getProtocol() : "UNKNOWN";
+
+        switch (event.getType()) {
+            case CREDENTIALS_CAPTURED:
+                recordSince(timeToCredentials.computeIfAbsent(protocol, p -> timer(
+                    "honeypot.session.time-to-credentials", "Tempo entre a conexão e a captura das credenciais",
+                    p, Duration.ofMillis(1), Duration.ofMinutes(10))), attackLog.getTimestamp());
+                break;
+            case SESSION_ENDED:
+                recordSince(sessionDuration.computeIfAbsent(protocol, p -> timer(
+                    "honeypot.session.duration", "Duração das sessões de ataque",
+                    p, Duration.ofMillis(1), Duration.ofHours(1))), attackLog.getTimestamp());
+                commandsPerSession.computeIfAbsent(protocol, p -> DistributionSummary
+                        .builder("honeypot.session.commands")
+                        .description("Comandos executados por sessão")
+                        .baseUnit("commands")
+                        .tag("protocol", p)
+                        .publishPercentiles(PERCENTILES)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(1.0)
+                        .maximumExpectedValue(10_000.0)
+                        .register(meterRegistry))
+                    .record(attackLog.getCommandCount());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Tempo de resposta do shell fake. Os primeiros {@code honeypot.metrics.max-command-tags} comandos
+     * distintos ganham tag própria; os demais vão para "other", evitando que atacantes criem séries sem limite.
+     */
+    public void recordCommand(String command, long nanos) {
+        String tag = commandResponse.containsKey(command) || commandResponse.size() < maxCommandTags
+            ? command : OTHER_COMMAND;
+        commandResponse.computeIfAbsent(tag, c -> Timer.builder("honeypot.command.response")
+                .description("Tempo de resposta dos comandos do shell fake")
+                .tag("command", c)
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(Duration.ofSeconds(1))
+                .register(meterRegistry))
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Executa e mede uma escrita no repositório de logs
+     */
+    public <T> T timeRepositoryWrite(String protocol, Supplier<T> write) {
+        return repositoryWrite.computeIfAbsent(protocol, p -> timer(
+            "honeypot.repository.write", "Latência das gravações de logs de ataque no MongoDB",
+            p, Duration.ofMillis(1), Duration.ofSeconds(30))).record(write);
+    }
+
+    // Métodos auxiliares
+    private Timer timer(String name, String description, String protocol, Duration min, Duration max) {
+        return Timer.builder(name)
+            .description(description)
+            .tag("protocol", protocol)
+            .publishPercentiles(PERCENTILES)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(min)
+            .maximumExpectedValue(max)
+            .register(meterRegistry);
+    }
+
+    private static void recordSince(Timer timer, LocalDateTime start) {
+        if (start != null) {
+            Duration elapsed = Duration.between(start, LocalDateTime.now());
+            if (!elapsed.isNegative()) {
+                timer.record(elapsed);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.shell.FileSystemImage;
+import com.eduardo.HoneyPot.shell.ShellSession;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Sistema de arquivos virtual do shell fake. A imagem base vem de {@code honeypot.shell.filesystem-file}
+ * (JSON) ou, se o arquivo não existir, do {@code filesystem.json} embutido, e é carregada uma vez e
+ * compartilhada por todas as sessões; cada sessão recebe um overlay copy-on-write próprio, limitado por
+ * {@code honeypot.shell.max-overlay-entries} e {@code honeypot.shell.max-file-size}. O {@code find} de cada
+ * sessão é limitado por {@code honeypot.shell.max-find-nodes} e {@code honeypot.shell.max-find-results}.
+ */
+@Slf4j
+@Service
+public class ShellFileSystemService {
+
+    private static final String DEFAULT_SNAPSHOT = "filesystem.json";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${honeypot.shell.filesystem-file:config/filesystem.json}")
+    private String snapshotFile;
+
+    @Value("${honeypot.shell.home:/root}")
+    private String home;
+
+    @Value("${honeypot.shell.max-overlay-entries:256}")
+    private int maxOverlayEntries;
+
+    @Value("${honeypot.shell.max-file-size:65536}")
+    private int maxFileSize;
+
+    @Value("${honeypot.shell.max-find-nodes:10000}")
+    private int maxFindNodes;
+
+    @Value("${honeypot.shell.max-find-results:1000}")
+    private int maxFindResults;
+
+    private FileSystemImage image;
+
+    @PostConstruct
+    public void initialize() {
+        Path path = Paths.get(snapshotFile);
+        String source = Files.exists(path) ? path.toString() : "classpath:" + DEFAULT_SNAPSHOT;
+        try (InputStream in = Files.exists(path) ? Files.newInputStream(path) : new ClassPathResource(DEFAULT_SNAPSHOT).getInputStream()) {
+            List<FileSystemImage.SnapshotEntry> entries = objectMapper.readValue(in,
+                new TypeReference<List<FileSystemImage.SnapshotEntry>>() { });
+            image = FileSystemImage.of(entries, LocalDateTime.now().minusDays(30).withSecond(0).withNano(0));
+            log.info("Sistema de arquivos do shell carregado de {}: {} entradas", source, image.size());
+        } catch (IOException | IllegalArgumentException e) {
+            // Sem snapshot válido o shell continua funcionando com apenas o diretório home
+            image = FileSystemImage.of(List.of(new FileSystemImage.SnapshotEntry(home, "DIRECTORY", null, null, null)),
+                LocalDateTime.now());
+            log.error("Snapshot do sistema de arquivos inválido em {}; usando árvore mínima: {}", source, e.getMessage());
+        }
+    }
+
+    /**
+     * Nova sessão sobre a imagem compartilhada (overlay vazio, diretório corrente no home)
+     */
+    public ShellSession newSession() {
+        return new ShellSession(image, home, maxOverlayEntries, maxFileSize, maxFindNodes, maxFindResults);
+    }
+
+    public FileSystemImage getImage() {
+        return image;
+    }
+}
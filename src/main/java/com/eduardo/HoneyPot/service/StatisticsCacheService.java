@@ -0,0 +1,214 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.event.AttackCapturedEvent;
+import com.eduardo.HoneyPot.event.AttackLogsClearedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache das respostas de estatísticas, na frente do StatisticsService.
+ * Cada endpoint tem seu TTL ({@code honeypot.stats-cache.ttl-ms.<endpoint>}) e é invalidado pelas
+ * capturas que alteram seus dados. Requisições idênticas concorrentes aguardam um único cálculo
+ * (single-flight) e o total de entradas é limitado por LRU. Acertos e falhas são publicados no
+ * Micrometer como {@code honeypot.stats.cache.requests}.
+ */
+@Slf4j
+@Service
+public class StatisticsCacheService {
+
+    /**
+     * Endpoints cacheados, com o TTL padrão e as capturas que os invalidam
+     */
+    public enum CachedEndpoint {
+        GENERAL(5_000, EnumSet.of(AttackCapturedEvent.Type.SESSION_STARTED)),
+        PROTOCOLS(5_000, EnumSet.of(AttackCapturedEvent.Type.SESSION_STARTED)),
+        TOP_IPS(10_000, EnumSet.of(AttackCapturedEvent.Type.SESSION_STARTED)),
+        TOP_CREDENTIALS(10_000, EnumSet.of(AttackCapturedEvent.Type.CREDENTIALS_CAPTURED)),
+        HEAVY_HITTERS(10_000, EnumSet.of(AttackCapturedEvent.Type.SESSION_STARTED,
+            AttackCapturedEvent.Type.CREDENTIALS_CAPTURED, AttackCapturedEvent.Type.COMMAND_EXECUTED)),
+        TIMELINE(30_000, EnumSet.of(AttackCapturedEvent.Type.SESSION_STARTED)),
+        UNIQUE_IPS(30_000, EnumSet.of(AttackCapturedEvent.Type.SESSION_STARTED)),
+        GEO(30_000, EnumSet.of(AttackCapturedEvent.Type.SESSION_STARTED));
+
+        private final long defaultTtlMillis;
+        private final Set<AttackCapturedEvent.Type> invalidatedBy;
+
+        CachedEndpoint(long defaultTtlMillis, Set<AttackCapturedEvent.Type> invalidatedBy) {
+            this.defaultTtlMillis = defaultTtlMillis;
+            this.invalidatedBy = invalidatedBy;
+        }
+
+        public String propertyName() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<CachedEndpoint, Long> ttlMillis = new EnumMap<>(CachedEndpoint.class);
+    private final Map<CachedEndpoint, AtomicLong> versions = new EnumMap<>(CachedEndpoint.class);
+    // Incrementada a cada invalidação total (protegida por entries): cálculos iniciados antes dela não são gravados
+    private long generation;
+    private final Map<String, CompletableFuture<Map<String, Object>>> inFlight = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, Entry> entries;
+
+    @Value("${honeypot.stats-cache.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Idade mínima antes que uma captura invalide a entrada. Durante ataques de força bruta as
+     * capturas são contínuas; sem esse piso o cache nunca seria aproveitado.
+     */
+    @Value("${honeypot.stats-cache.min-age-ms:1000}")
+    private long minAgeMillis;
+
+    public StatisticsCacheService(MeterRegistry meterRegistry, Environment environment,
+                                  @Value("${honeypot.stats-cache.max-entries:500}") int maxEntries) {
+        this.meterRegistry = meterRegistry;
+        for (CachedEndpoint endpoint : CachedEndpoint.values()) {
+            ttlMillis.put(endpoint, environment.getProperty(
+                "honeypot.stats-cache.ttl-ms." + endpoint.propertyName(), Long.class, endpoint.defaultTtlMillis));
+            versions.put(endpoint, new AtomicLong());
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxEntries) {
+                    meterRegistry.counter("honeypot.stats.cache.evictions").increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        Gauge.builder("honeypot.stats.cache.size", this, StatisticsCacheService::size)
+            .description("Entradas no cache de estatísticas")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Retorna a resposta cacheada ou calcula com o loader, coalescendo chamadas idênticas concorrentes
+     */
+    public Map<String, Object> get(CachedEndpoint endpoint, String parameters, Supplier<Map<String, Object>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String key = endpoint.name() + "|" + parameters;
+        long now = System.currentTimeMillis();
+
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null && isFresh(endpoint, cached, now)) {
+            record(endpoint, "hit");
+            return cached.value();
+        }
+
+        CompletableFuture<Map<String, Object>> created = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> running = inFlight.putIfAbsent(key, created);
+        if (running != null) {
+            record(endpoint, "coalesced");
+            return await(running);
+        }
+
+        record(endpoint, "miss");
+        try {
+            // Versão lida antes do cálculo: capturas durante o cálculo já tornam a entrada obsoleta
+            long version = versions.get(endpoint).get();
+            long startedGeneration;
+            synchronized (entries) {
+                startedGeneration = generation;
+            }
+            Map<String, Object> value = loader.get();
+            synchronized (entries) {
+                if (generation == startedGeneration) {
+                    entries.put(key, new Entry(value, System.currentTimeMillis(), version));
+                }
+            }
+            created.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    @EventListener
+    public void onAttackCaptured(AttackCapturedEvent event) {
+        for (CachedEndpoint endpoint : CachedEndpoint.values()) {
+            if (endpoint.invalidatedBy.contains(event.getType())) {
+                versions.get(endpoint).incrementAndGet();
+            }
+        }
+    }
+
+    @EventListener
+    public void onAttackLogsCleared(AttackLogsClearedEvent event) {
+        invalidateAll();
+    }
+
+    /**
+     * Descarta todas as entradas. Cálculos em andamento ainda respondem a quem já os aguarda, mas não
+     * gravam o resultado, e novas requisições não se juntam a eles.
+     */
+    public void invalidateAll() {
+        versions.values().forEach(AtomicLong::incrementAndGet);
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+            inFlight.clear();
+        }
+        log.info("Cache de estatísticas invalidado");
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // Métodos auxiliares
+    private boolean isFresh(CachedEndpoint endpoint, Entry entry, long now) {
+        long age = now - entry.createdAt();
+        if (age >= ttlMillis.get(endpoint)) {
+            return false;
+        }
+        return entry.version() == versions.get(endpoint).get() || age < minAgeMillis;
+    }
+
+    private void record(CachedEndpoint endpoint, String result) {
+        meterRegistry.counter("honeypot.stats.cache.requests",
+            "endpoint", endpoint.propertyName(), "result", result).increment();
+    }
+
+    private static Map<String, Object> await(CompletableFuture<Map<String, Object>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private record Entry(Map<String, Object> value, long createdAt, long version) {
+    }
+}
@@ -1,14 +1,20 @@
 package com.eduardo.HoneyPot.service;
 
-import com.eduardo.HoneyPot.model.AttackLog;
+import com.eduardo.HoneyPot.enrichment.IpInfo;
+import com.eduardo.HoneyPot.model.IpAttackSummary;
+import com.eduardo.HoneyPot.model.KeyCount;
+import com.eduardo.HoneyPot.model.ProtocolCount;
+import com.eduardo.HoneyPot.model.RollupResolution;
 import com.eduardo.HoneyPot.repository.AttackLogRepository;
+import com.eduardo.HoneyPot.sketch.SpaceSaving;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -16,20 +22,37 @@ import java.util.stream.Collectors;
 public class StatisticsService {
     
     private final AttackLogRepository attackLogRepository;
+    private final LiveStatisticsService liveStatisticsService;
+    private final RollupService rollupService;
+    private final CardinalityService cardinalityService;
+    private final HeavyHitterService heavyHitterService;
+    private final StatisticsCacheService statisticsCache;
+    private final IpEnrichmentService ipEnrichmentService;
+    
+    /**
+     * Agrupamentos disponíveis na distribuição geográfica
+     */
+    public enum GeoGrouping {
+        COUNTRY, ASN
+    }
     
     /**
      * Busca estatísticas gerais da honeypot
      */
     public Map<String, Object> getGeneralStats() {
+        return statisticsCache.get(StatisticsCacheService.CachedEndpoint.GENERAL, "", this::computeGeneralStats);
+    }
+    
+    private Map<String, Object> computeGeneralStats() {
         try {
-            long totalLogs = attackLogRepository.count();
-            long sshLogs = attackLogRepository.countByProtocol("SSH");
-            long telnetLogs = attackLogRepository.countByProtocol("TELNET");
+            Map<String, Long> protocolCounts = protocolCounts();
+            long totalLogs = protocolCounts.values().stream().mapToLong(Long::longValue).sum();
             
             return Map.of(
                 "totalLogs", totalLogs,
-                "sshLogs", sshLogs,
-                "telnetLogs", telnetLogs,
+                "sshLogs", protocolCounts.getOrDefault("SSH", 0L),
+                "telnetLogs", protocolCounts.getOrDefault("TELNET", 0L),
+                "protocols", protocolCounts,
                 "timestamp", LocalDateTime.now()
             );
         } catch (Exception e) {
@@ -38,14 +61,50 @@ public class StatisticsService {
         }
     }
     
+    /**
+     * Contagem de logs de todos os protocolos presentes: lida dos contadores em memória
+     * ou, antes deles estarem prontos, de um único $group no MongoDB
+     */
+    private Map<String, Long> protocolCounts() {
+        if (liveStatisticsService.isReady()) {
+            return liveStatisticsService.getProtocolCounts();
+        }
+        Map<String, Long> counts = new TreeMap<>();
+        for (KeyCount keyCount : attackLogRepository.countGroupedByProtocol()) {
+            counts.merge(keyCount.getKey() != null ? keyCount.getKey() : "UNKNOWN", keyCount.getCount(), Long::sum);
+        }
+        return counts;
+    }
+    
     /**
      * Busca os top IPs atacantes
      */
     public Map<String, Object> getTopAttackingIps(int limit) {
+        return getTopAttackingIps(limit, null);
+    }
+    
+    /**
+     * Busca os top IPs atacantes, opcionalmente restritos às últimas N horas.
+     * A agregação ($group/$sort/$limit) roda no MongoDB e devolve contagem e último ataque em uma passada.
+     */
+    public Map<String, Object> getTopAttackingIps(int limit, Integer hours) {
+        return statisticsCache.get(StatisticsCacheService.CachedEndpoint.TOP_IPS, limit + ":" + hours,
+            () -> computeTopAttackingIps(limit, hours));
+    }
+    
+    private Map<String, Object> computeTopAttackingIps(int limit, Integer hours) {
         try {
-            List<AttackLog> allLogs = attackLogRepository.findAllSourceIps();
+            // $limit exige valor positivo: limite zero ou negativo devolve lista vazia, como antes da agregação
+            List<IpAttackSummary> summaries;
+            if (limit <= 0) {
+                summaries = List.of();
+            } else if (hours != null && hours > 0) {
+                summaries = attackLogRepository.aggregateTopSourceIpsSince(LocalDateTime.now().minusHours(hours), limit);
+            } else {
+                summaries = attackLogRepository.aggregateTopSourceIps(limit);
+            }
             
-            if (allLogs.isEmpty()) {
+            if (summaries.isEmpty() && limit > 0) {
                 return Map.of(
                     "message", "Nenhum ataque registrado ainda",
                     "topIps", List.of(),
@@ -54,27 +113,21 @@ public class StatisticsService {
                 );
             }
             
-            // Agrupar por IP e contar ocorrências
-            Map<String, Long> ipCounts = allLogs.stream()
-                .collect(Collectors.groupingBy(
-                    AttackLog::getSourceIp,
-                    Collectors.counting()
-                ));
-            
             // Criar lista de informações dos IPs
             List<Map<String, Object>> topIps = new ArrayList<>();
-            ipCounts.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(limit)
-                .forEach(entry -> {
-                    LocalDateTime lastAttack = findLastAttackByIp(allLogs, entry.getKey());
-                    
-                    Map<String, Object> ipInfo = new HashMap<>();
-                    ipInfo.put("ip", entry.getKey());
-                    ipInfo.put("count", entry.getValue());
-                    ipInfo.put("lastAttack", lastAttack);
-                    topIps.add(ipInfo);
-                });
+            for (IpAttackSummary summary : summaries) {
+                Map<String, Object> ipInfo = new HashMap<>();
+                ipInfo.put("ip", summary.getIp());
+                ipInfo.put("count", summary.getCount());
+                ipInfo.put("lastAttack", summary.getLastAttack());
+                IpInfo enrichment = ipEnrichmentService.lookup(summary.getIp());
+                if (enrichment != null) {
+                    ipInfo.put("country", enrichment.country());
+                    ipInfo.put("asn", enrichment.asn());
+                    ipInfo.put("organization", enrichment.organization());
+                }
+                topIps.add(ipInfo);
+            }
             
             return Map.of(
                 "message", "Top " + limit + " IPs mais ativos",
@@ -91,13 +144,33 @@ public class StatisticsService {
     }
     
     /**
-     * Busca as top credenciais tentadas
+     * Busca as top credenciais tentadas. Servidas pelo sketch Space-Saving quando disponível
+     * (cada item traz o erro máximo da contagem); caso contrário, agregadas no MongoDB.
      */
     public Map<String, Object> getTopCredentials(int limit) {
+        return statisticsCache.get(StatisticsCacheService.CachedEndpoint.TOP_CREDENTIALS, String.valueOf(limit),
+            () -> computeTopCredentials(limit));
+    }
+    
+    private Map<String, Object> computeTopCredentials(int limit) {
         try {
-            List<AttackLog> allLogs = attackLogRepository.findAll();
+            List<Map<String, Object>> topCredentials = new ArrayList<>();
+            boolean approximate = heavyHitterService.isReady();
+            
+            if (approximate) {
+                for (SpaceSaving.HeavyHitter hitter : heavyHitterService.top(HeavyHitterService.Dimension.CREDENTIAL, limit)) {
+                    Map<String, Object> credInfo = credentialInfo(hitter.item(), hitter.count());
+                    credInfo.put("error", hitter.error());
+                    credInfo.put("guaranteed", hitter.guaranteed());
+                    topCredentials.add(credInfo);
+                }
+            } else {
+                for (KeyCount keyCount : attackLogRepository.aggregateTopCredentials(limit)) {
+                    topCredentials.add(credentialInfo(keyCount.getKey(), keyCount.getCount()));
+                }
+            }
             
-            if (allLogs.isEmpty()) {
+            if (topCredentials.isEmpty()) {
                 return Map.of(
                     "message", "Nenhuma credencial registrada ainda",
                     "topCredentials", List.of(),
@@ -106,79 +179,129 @@ public class StatisticsService {
                 );
             }
             
-            // Agrupar por combinação username/password
-            Map<String, Long> credentialCounts = allLogs.stream()
-                .filter(log -> log.getUsername() != null && log.getPassword() != null)
-                .collect(Collectors.groupingBy(
-                    log -> log.getUsername() + ":" + log.getPassword(),
-                    Collectors.counting()
-                ));
+            Map<String, Object> result = new HashMap<>();
+            result.put("message", "Top " + limit + " credenciais mais tentadas");
+            result.put("topCredentials", topCredentials);
+            result.put("limit", limit);
+            result.put("total", topCredentials.size());
+            result.put("approximate", approximate);
+            if (approximate) {
+                result.put("errorBound", heavyHitterService.describe(HeavyHitterService.Dimension.CREDENTIAL));
+            }
+            result.put("timestamp", LocalDateTime.now());
+            return result;
             
-            // Criar lista de informações das credenciais
-            List<Map<String, Object>> topCredentials = new ArrayList<>();
-            credentialCounts.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(limit)
-                .forEach(entry -> {
-                    String[] parts = entry.getKey().split(":", 2);
-                    String username = parts[0];
-                    String password = parts.length > 1 ? parts[1] : "";
-                    
-                    Map<String, Object> credInfo = new HashMap<>();
-                    credInfo.put("username", username);
-                    credInfo.put("password", password);
-                    credInfo.put("count", entry.getValue());
-                    topCredentials.add(credInfo);
-                });
+        } catch (Exception e) {
+            log.error("Erro ao buscar top credenciais: {}", e.getMessage(), e);
+            throw new RuntimeException("Erro ao buscar top credenciais", e);
+        }
+    }
+    
+    /**
+     * Busca os itens mais frequentes de uma dimensão (usuários, senhas, credenciais, comandos ou IPs)
+     */
+    public Map<String, Object> getHeavyHitters(HeavyHitterService.Dimension dimension, int limit) {
+        return statisticsCache.get(StatisticsCacheService.CachedEndpoint.HEAVY_HITTERS, dimension + ":" + limit,
+            () -> computeHeavyHitters(dimension, limit));
+    }
+    
+    private Map<String, Object> computeHeavyHitters(HeavyHitterService.Dimension dimension, int limit) {
+        try {
+            List<Map<String, Object>> items = new ArrayList<>();
+            for (SpaceSaving.HeavyHitter hitter : heavyHitterService.top(dimension, limit)) {
+                Map<String, Object> item = new HashMap<>();
+                item.put("value", hitter.item());
+                item.put("count", hitter.count());
+                item.put("error", hitter.error());
+                item.put("lowerBound", hitter.lowerBound());
+                item.put("guaranteed", hitter.guaranteed());
+                items.add(item);
+            }
             
             return Map.of(
-                "message", "Top " + limit + " credenciais mais tentadas",
-                "topCredentials", topCredentials,
+                "dimension", dimension.name(),
+                "items", items,
                 "limit", limit,
-                "total", topCredentials.size(),
+                "ready", heavyHitterService.isReady(),
+                "errorBound", heavyHitterService.describe(dimension),
                 "timestamp", LocalDateTime.now()
             );
-            
         } catch (Exception e) {
-            log.error("Erro ao buscar top credenciais: {}", e.getMessage(), e);
-            throw new RuntimeException("Erro ao buscar top credenciais", e);
+            log.error("Erro ao buscar itens frequentes de {}: {}", dimension, e.getMessage(), e);
+            throw new RuntimeException("Erro ao buscar itens frequentes", e);
         }
     }
     
-    /**
-     * Método auxiliar para encontrar o último ataque de um IP específico
-     */
-    private LocalDateTime findLastAttackByIp(List<AttackLog> logs, String ip) {
-        return logs.stream()
-            .filter(log -> log.getSourceIp().equals(ip))
-            .map(AttackLog::getTimestamp)
-            .max(LocalDateTime::compareTo)
-            .orElse(null);
+    private Map<String, Object> credentialInfo(String key, long count) {
+        String[] parts = key.split(":", 2);
+        Map<String, Object> credInfo = new HashMap<>();
+        credInfo.put("username", parts[0]);
+        credInfo.put("password", parts.length > 1 ? parts[1] : "");
+        credInfo.put("count", count);
+        return credInfo;
     }
     
     /**
      * Busca estatísticas por protocolo
      */
     public Map<String, Object> getStatsByProtocol() {
+        return getStatsByProtocol(false, false);
+    }
+    
+    /**
+     * Busca contagem e percentual de todos os protocolos presentes, com divisão opcional
+     * por porta e por sucesso. Uma única agregação por chamada; novos protocolos aparecem automaticamente.
+     */
+    public Map<String, Object> getStatsByProtocol(boolean byPort, boolean bySuccessful) {
+        return statisticsCache.get(StatisticsCacheService.CachedEndpoint.PROTOCOLS, byPort + ":" + bySuccessful,
+            () -> computeStatsByProtocol(byPort, bySuccessful));
+    }
+    
+    private Map<String, Object> computeStatsByProtocol(boolean byPort, boolean bySuccessful) {
         try {
-            long sshCount = attackLogRepository.countByProtocol("SSH");
-            long telnetCount = attackLogRepository.countByProtocol("TELNET");
-            long totalCount = attackLogRepository.count();
+            Map<String, Long> totals = new TreeMap<>();
+            Map<String, Map<Integer, Long>> ports = new HashMap<>();
+            Map<String, Map<String, Long>> outcomes = new HashMap<>();
+            
+            if (byPort || bySuccessful) {
+                for (ProtocolCount row : attackLogRepository.countGroupedByProtocolPortAndSuccess()) {
+                    String protocol = row.getProtocol() != null ? row.getProtocol() : "UNKNOWN";
+                    totals.merge(protocol, row.getCount(), Long::sum);
+                    ports.computeIfAbsent(protocol, k -> new TreeMap<>()).merge(row.getPort(), row.getCount(), Long::sum);
+                    outcomes.computeIfAbsent(protocol, k -> new TreeMap<>())
+                        .merge(row.isSuccessful() ? "successful" : "failed", row.getCount(), Long::sum);
+                }
+            } else {
+                totals.putAll(protocolCounts());
+            }
+            
+            long totalCount = totals.values().stream().mapToLong(Long::longValue).sum();
             
-            double sshPercentage = totalCount > 0 ? (double) sshCount / totalCount * 100 : 0;
-            double telnetPercentage = totalCount > 0 ? (double) telnetCount / totalCount * 100 : 0;
+            Map<String, Object> protocols = new LinkedHashMap<>();
+            totals.forEach((protocol, count) -> {
+                Map<String, Object> info = new LinkedHashMap<>();
+                info.put("count", count);
+                info.put("percentage", percentage(count, totalCount));
+                if (byPort) {
+                    Map<String, Object> portInfo = new LinkedHashMap<>();
+                    ports.get(protocol).forEach((port, portCount) -> portInfo.put(String.valueOf(port), Map.of(
+                        "count", portCount,
+                        "percentage", percentage(portCount, count)
+                    )));
+                    info.put("ports", portInfo);
+                }
+                if (bySuccessful) {
+                    Map<String, Long> outcome = outcomes.get(protocol);
+                    long successful = outcome.getOrDefault("successful", 0L);
+                    info.put("successful", successful);
+                    info.put("failed", outcome.getOrDefault("failed", 0L));
+                    info.put("successRate", percentage(successful, count));
+                }
+                protocols.put(protocol, info);
+            });
             
             return Map.of(
-                "protocols", Map.of(
-                    "SSH", Map.of(
-                        "count", sshCount,
-                        "percentage", Math.round(sshPercentage * 100.0) / 100.0
-                    ),
-                    "TELNET", Map.of(
-                        "count", telnetCount,
-                        "percentage", Math.round(telnetPercentage * 100.0) / 100.0
-                    )
-                ),
+                "protocols", protocols,
                 "total", totalCount,
                 "timestamp", LocalDateTime.now()
             );
@@ -189,77 +312,214 @@ public class StatisticsService {
         }
     }
     
+    private static double percentage(long part, long total) {
+        return total > 0 ? Math.round((double) part / total * 100 * 100.0) / 100.0 : 0;
+    }
+    
     /**
-     * Busca estatísticas de ataques por hora nas últimas 24 horas
+     * Distribuição dos ataques por país ou ASN. Cada IP é resolvido no índice local de intervalos,
+     * então logs anteriores ao enriquecimento também entram na contagem.
      */
-    public Map<String, Object> getTimelineStats() {
+    public Map<String, Object> getGeoBreakdown(GeoGrouping grouping, int limit) {
+        return statisticsCache.get(StatisticsCacheService.CachedEndpoint.GEO, grouping + ":" + limit,
+            () -> computeGeoBreakdown(grouping, limit));
+    }
+    
+    private Map<String, Object> computeGeoBreakdown(GeoGrouping grouping, int limit) {
         try {
-            LocalDateTime endTime = LocalDateTime.now();
-            LocalDateTime startTime = endTime.minusHours(24);
-            
-            // Buscar todos os logs das últimas 24 horas
-            List<AttackLog> recentLogs = attackLogRepository.findByTimestampBetweenOrderByTimestampAsc(startTime, endTime);
+            Map<String, GeoGroup> groups = new HashMap<>();
+            long[] totals = new long[2]; // ataques, IPs
+            BiConsumer<String, Long> accumulate = (ip, count) -> {
+                IpInfo info = ipEnrichmentService.lookup(ip);
+                String key = info == null ? IpEnrichmentService.UNKNOWN
+                    : grouping == GeoGrouping.COUNTRY ? info.country() : "AS" + info.asn();
+                GeoGroup group = groups.computeIfAbsent(key, k -> new GeoGroup(k, info, grouping));
+                group.attacks += count;
+                group.uniqueIps++;
+                totals[0] += count;
+                totals[1]++;
+            };
             
-            // Criar array de 24 horas
-            List<String> hours = new ArrayList<>();
-            List<Integer> counts = new ArrayList<>();
-            
-            for (int i = 23; i >= 0; i--) {
-                LocalDateTime hourTime = endTime.minusHours(i);
-                String hourLabel = String.format("%02d:00", hourTime.getHour());
-                hours.add(hourLabel);
-                
-                // Contar ataques nesta hora específica
-                LocalDateTime hourStart = hourTime.withMinute(0).withSecond(0).withNano(0);
-                LocalDateTime hourEnd = hourStart.plusHours(1);
-                
-                long attacksInHour = recentLogs.stream()
-                    .filter(log -> {
-                        LocalDateTime logTime = log.getTimestamp();
-                        return !logTime.isBefore(hourStart) && logTime.isBefore(hourEnd);
-                    })
-                    .count();
-                
-                counts.add((int) attacksInHour);
+            if (liveStatisticsService.isReady()) {
+                liveStatisticsService.forEachIp(accumulate);
+            } else {
+                try (Stream<KeyCount> counts = attackLogRepository.streamCountsBySourceIp()) {
+                    counts.forEach(keyCount -> accumulate.accept(keyCount.getKey(), keyCount.getCount()));
+                }
             }
             
+            List<Map<String, Object>> items = groups.values().stream()
+                .sorted(Comparator.comparingLong((GeoGroup group) -> group.attacks).reversed())
+                .limit(limit)
+                .map(group -> group.toMap(totals[0]))
+                .toList();
+            
             return Map.of(
-                "hours", hours,
-                "counts", counts,
-                "totalAttacks", recentLogs.size(),
-                "period", "Últimas 24 horas",
-                "startTime", startTime,
-                "endTime", endTime,
+                "grouping", grouping.name(),
+                "items", items,
+                "limit", limit,
+                "totalAttacks", totals[0],
+                "totalIps", totals[1],
+                "enrichmentEnabled", ipEnrichmentService.isEnabled(),
                 "timestamp", LocalDateTime.now()
             );
+        } catch (Exception e) {
+            log.error("Erro ao buscar distribuição geográfica: {}", e.getMessage(), e);
+            throw new RuntimeException("Erro ao buscar distribuição geográfica", e);
+        }
+    }
+    
+    private static class GeoGroup {
+        final String key;
+        final IpInfo info;
+        final GeoGrouping grouping;
+        long attacks;
+        long uniqueIps;
+        
+        GeoGroup(String key, IpInfo info, GeoGrouping grouping) {
+            this.key = key;
+            this.info = info;
+            this.grouping = grouping;
+        }
+        
+        Map<String, Object> toMap(long totalAttacks) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put(grouping == GeoGrouping.COUNTRY ? "country" : "asn", key);
+            if (grouping == GeoGrouping.ASN && info != null) {
+                result.put("organization", info.organization());
+                result.put("country", info.country());
+            }
+            result.put("count", attacks);
+            result.put("percentage", percentage(attacks, totalAttacks));
+            result.put("uniqueIps", uniqueIps);
+            return result;
+        }
+    }
+    
+    /**
+     * Busca estatísticas de ataques por hora nas últimas 24 horas
+     */
+    public Map<String, Object> getTimelineStats() {
+        return getTimelineStats(null, null, RollupResolution.HOUR, null, null);
+    }
+    
+    /**
+     * Busca a série temporal de ataques em um período e resolução arbitrários,
+     * lida dos rollups pré-agregados (sem consultar attack_logs). Sem {@code endTime} a janela
+     * termina agora e, sem {@code startTime}, cobre os 24 buckets anteriores.
+     */
+    public Map<String, Object> getTimelineStats(LocalDateTime startTime, LocalDateTime endTime,
+                                                RollupResolution resolution, String protocol, String ip) {
+        // Limites omitidos entram na chave como pedidos ("now"), não como o instante resolvido,
+        // que mudaria a cada chamada; o TTL da timeline limita a defasagem
+        String key = (startTime != null ? startTime : "default") + ":" + (endTime != null ? endTime : "now")
+            + ":" + resolution + ":" + protocol + ":" + ip;
+        return statisticsCache.get(StatisticsCacheService.CachedEndpoint.TIMELINE, key, () -> {
+            LocalDateTime end = endTime != null ? endTime : LocalDateTime.now();
+            LocalDateTime start = startTime != null ? startTime
+                : resolution.truncate(end).minus(resolution.getDuration().multipliedBy(23));
+            return computeTimelineStats(start, end, resolution, protocol, ip);
+        });
+    }
+    
+    private Map<String, Object> computeTimelineStats(LocalDateTime startTime, LocalDateTime endTime,
+                                                     RollupResolution resolution, String protocol, String ip) {
+        try {
+            RollupService.TimelineSeries series = rollupService.getTimeline(startTime, endTime, resolution,
+                protocol != null ? protocol.toUpperCase() : null, ip);
+            
+            List<String> labels = new ArrayList<>();
+            List<LocalDateTime> buckets = new ArrayList<>();
+            List<Long> counts = new ArrayList<>();
+            series.counts().forEach((bucket, count) -> {
+                labels.add(resolution.label(bucket));
+                buckets.add(bucket);
+                counts.add(count);
+            });
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("hours", labels);
+            result.put("buckets", buckets);
+            result.put("counts", counts);
+            result.put("totalAttacks", series.total());
+            result.put("resolution", resolution.name());
+            result.put("period", formatPeriod(startTime, endTime));
+            result.put("startTime", startTime);
+            result.put("endTime", endTime);
+            result.put("timestamp", LocalDateTime.now());
+            if (protocol != null) {
+                result.put("protocol", protocol.toUpperCase());
+            }
+            if (ip != null) {
+                result.put("ip", ip);
+            }
+            return result;
             
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Erro ao buscar estatísticas de timeline: {}", e.getMessage(), e);
             throw new RuntimeException("Erro ao buscar estatísticas de timeline", e);
         }
     }
     
+    private String formatPeriod(LocalDateTime startTime, LocalDateTime endTime) {
+        java.time.Duration duration = java.time.Duration.between(startTime, endTime);
+        if (duration.toHours() <= 24 && !endTime.isBefore(LocalDateTime.now().minusMinutes(1))) {
+            return "Últimas 24 horas";
+        }
+        java.time.format.DateTimeFormatter formatter = java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+        return startTime.format(formatter) + " até " + endTime.format(formatter);
+    }
+    
     /**
-     * Busca a contagem real de IPs únicos
+     * Busca a contagem de IPs únicos: exata pelos contadores em memória e estimada
+     * (HyperLogLog) para as janelas de última hora, dia, mês e todo o histórico
      */
     public Map<String, Object> getUniqueIpsCount() {
+        return statisticsCache.get(StatisticsCacheService.CachedEndpoint.UNIQUE_IPS, "", this::computeUniqueIpsCount);
+    }
+    
+    private Map<String, Object> computeUniqueIpsCount() {
         try {
-            List<AttackLog> allLogs = attackLogRepository.findAllSourceIps();
+            Map<String, Long> estimates = cardinalityService.estimateAllWindows();
+            boolean live = liveStatisticsService.isReady();
             
-            long uniqueIpsCount = allLogs.stream()
-                .map(AttackLog::getSourceIp)
-                .distinct()
-                .count();
+            Map<String, Object> result = new HashMap<>();
+            result.put("uniqueIpsCount", live ? liveStatisticsService.getUniqueIpsCount() : estimates.get("allTime"));
+            result.put("approximate", !live);
+            result.put("totalLogs", live ? liveStatisticsService.getTotal() : attackLogRepository.count());
+            result.put("estimates", estimates);
+            result.put("relativeError", cardinalityService.getRelativeStandardError());
+            result.put("timestamp", LocalDateTime.now());
+            return result;
             
+        } catch (Exception e) {
+            log.error("Erro ao buscar contagem de IPs únicos: {}", e.getMessage(), e);
+            throw new RuntimeException("Erro ao buscar contagem de IPs únicos", e);
+        }
+    }
+    
+    /**
+     * Estimativa de IPs únicos em uma janela específica (HOUR, DAY, MONTH, ALL)
+     */
+    public Map<String, Object> getUniqueIpsCount(CardinalityService.Window window) {
+        return statisticsCache.get(StatisticsCacheService.CachedEndpoint.UNIQUE_IPS, window.name(),
+            () -> computeUniqueIpsCount(window));
+    }
+    
+    private Map<String, Object> computeUniqueIpsCount(CardinalityService.Window window) {
+        try {
             return Map.of(
-                "uniqueIpsCount", uniqueIpsCount,
-                "totalLogs", allLogs.size(),
+                "uniqueIpsCount", cardinalityService.estimateUniqueIps(window),
+                "approximate", true,
+                "window", window.name(),
+                "relativeError", cardinalityService.getRelativeStandardError(),
                 "timestamp", LocalDateTime.now()
             );
-            
         } catch (Exception e) {
-            log.error("Erro ao buscar contagem de IPs únicos: {}", e.getMessage(), e);
-            throw new RuntimeException("Erro ao buscar contagem de IPs únicos", e);
+            log.error("Erro ao estimar IPs únicos na janela {}: {}", window, e.getMessage(), e);
+            throw new RuntimeException("Erro ao estimar IPs únicos", e);
         }
     }
 }
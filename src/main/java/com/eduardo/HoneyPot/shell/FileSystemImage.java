@@ -0,0 +1,146 @@
+package com.eduardo.HoneyPot.shell;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Imagem base do sistema de arquivos do shell fake, carregada de um snapshot e compartilhada por todas
+ * as sessões. Imutável: cada sessão grava apenas as próprias alterações em um {@link ShellSession}
+ * (copy-on-write), então o custo da árvore é pago uma vez, não por conexão.
+ * <p>
+ * Caminhos são absolutos e normalizados ({@code /etc/passwd}); os filhos de cada diretório ficam em
+ * ordem alfabética, como no {@code ls}.
+ */
+public final class FileSystemImage {
+
+    /**
+     * Entrada do snapshot em JSON. {@code type} é FILE (padrão) ou DIRECTORY; diretórios intermediários
+     * são criados automaticamente.
+     */
+    public record SnapshotEntry(String path, String type, String content, String mode, LocalDateTime modified) {
+    }
+
+    private final Map<String, FsNode> nodes;
+    private final Map<String, List<String>> children;
+
+    private FileSystemImage(Map<String, FsNode> nodes, Map<String, List<String>> children) {
+        this.nodes = nodes;
+        this.children = children;
+    }
+
+    /**
+     * Monta a imagem; {@code modified} é a data usada nas entradas sem data própria. Lança
+     * IllegalArgumentException para caminhos relativos ou arquivos usados como diretório.
+     */
+    public static FileSystemImage of(List<SnapshotEntry> entries, LocalDateTime modified) {
+        Map<String, FsNode> nodes = new HashMap<>();
+        Map<String, TreeSet<String>> names = new HashMap<>();
+        nodes.put("/", FsNode.directory(null, modified));
+
+        for (SnapshotEntry entry : entries) {
+            if (entry.path() == null || !entry.path().startsWith("/")) {
+                throw new IllegalArgumentException("Caminho do snapshot deve ser absoluto: " + entry.path());
+            }
+            String path = resolve("/", "/", entry.path());
+            if (path.equals("/")) {
+                continue;
+            }
+            LocalDateTime entryModified = entry.modified() != null ? entry.modified() : modified;
+
+            // Diretórios intermediários
+            Deque<String> missing = new ArrayDeque<>();
+            for (String parent = parent(path); !nodes.containsKey(parent); parent = parent(parent)) {
+                missing.push(parent);
+            }
+            for (String dir : missing) {
+                nodes.put(dir, FsNode.directory(null, entryModified));
+                names.computeIfAbsent(parent(dir), k -> new TreeSet<>()).add(name(dir));
+            }
+            if (!nodes.get(parent(path)).directory()) {
+                throw new IllegalArgumentException("Caminho do snapshot dentro de um arquivo: " + entry.path());
+            }
+
+            boolean directory = "DIRECTORY".equalsIgnoreCase(entry.type());
+            FsNode existing = nodes.get(path);
+            if (existing != null && existing.directory() != directory) {
+                throw new IllegalArgumentException("Caminho do snapshot duplicado com outro tipo: " + entry.path());
+            }
+            nodes.put(path, directory
+                ? FsNode.directory(entry.mode(), entryModified)
+                : FsNode.file(entry.content(), entry.mode(), entryModified));
+            names.computeIfAbsent(parent(path), k -> new TreeSet<>()).add(name(path));
+        }
+
+        Map<String, List<String>> children = new HashMap<>();
+        names.forEach((dir, dirNames) -> children.put(dir, List.copyOf(dirNames)));
+        return new FileSystemImage(Collections.unmodifiableMap(nodes), Collections.unmodifiableMap(children));
+    }
+
+    public FsNode get(String path) {
+        return nodes.get(path);
+    }
+
+    /**
+     * Nomes dos filhos do diretório (vazio se não houver)
+     */
+    public List<String> children(String path) {
+        return children.getOrDefault(path, List.of());
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Resolve {@code path} relativo a {@code cwd}, expandindo {@code ~} para {@code home} e removendo
+     * {@code .} e {@code ..} (acima da raiz continua na raiz)
+     */
+    public static String resolve(String cwd, String home, String path) {
+        if (path == null || path.isEmpty()) {
+            return cwd;
+        }
+        String absolute;
+        if (path.equals("~") || path.startsWith("~/")) {
+            absolute = home + path.substring(1);
+        } else if (path.startsWith("/")) {
+            absolute = path;
+        } else {
+            absolute = cwd + "/" + path;
+        }
+
+        List<String> parts = new ArrayList<>();
+        for (String part : absolute.split("/")) {
+            if (part.isEmpty() || part.equals(".")) {
+                continue;
+            }
+            if (part.equals("..")) {
+                if (!parts.isEmpty()) {
+                    parts.remove(parts.size() - 1);
+                }
+            } else {
+                parts.add(part);
+            }
+        }
+        return "/" + String.join("/", parts);
+    }
+
+    public static String parent(String path) {
+        int slash = path.lastIndexOf('/');
+        return slash <= 0 ? "/" : path.substring(0, slash);
+    }
+
+    public static String name(String path) {
+        return path.equals("/") ? "/" : path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    public static String child(String dir, String name) {
+        return dir.equals("/") ? "/" + name : dir + "/" + name;
+    }
+}
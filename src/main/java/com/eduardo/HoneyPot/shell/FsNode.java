@@ -0,0 +1,36 @@
+package com.eduardo.HoneyPot.shell;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Arquivo ou diretório do sistema de arquivos virtual. Imutável: alterar um arquivo significa gravar
+ * um novo nó no overlay da sessão, compartilhando o conteúdo (String) quando ele não muda.
+ */
+public record FsNode(boolean directory, String content, String mode, LocalDateTime modified) {
+
+    private static final long DIRECTORY_SIZE = 4096;
+
+    public static FsNode directory(String mode, LocalDateTime modified) {
+        return new FsNode(true, "", mode != null ? mode : "rwxr-xr-x", modified);
+    }
+
+    public static FsNode file(String content, String mode, LocalDateTime modified) {
+        return new FsNode(false, content != null ? content : "", mode != null ? mode : "rw-r--r--", modified);
+    }
+
+    public FsNode withModified(LocalDateTime modified) {
+        return new FsNode(directory, content, mode, modified);
+    }
+
+    public long size() {
+        return directory ? DIRECTORY_SIZE : content.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Permissões no formato do {@code ls -l} (ex.: {@code drwxr-xr-x})
+     */
+    public String permissions() {
+        return (directory ? "d" : "-") + mode;
+    }
+}
@@ -0,0 +1,333 @@
+package com.eduardo.HoneyPot.shell;
+
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiPredicate;
+
+/**
+ * Estado de uma sessão do shell fake: diretório corrente e um overlay copy-on-write sobre a
+ * {@link FileSystemImage} compartilhada. O overlay guarda só os caminhos alterados pela sessão, então
+ * o custo por conexão é proporcional ao que o atacante criou, não ao tamanho da árvore:
+ * <ul>
+ *   <li>arquivos gravados ou tocados viram um novo nó no overlay (o conteúdo da base é compartilhado)</li>
+ *   <li>caminhos da base removidos recebem uma marca de remoção (whiteout)</li>
+ *   <li>diretórios criados na sessão são opacos: o que existe abaixo deles vem só do overlay</li>
+ * </ul>
+ * O overlay é limitado em entradas e em tamanho (caracteres) por arquivo; ao exceder, as operações falham com
+ * "No space left on device". O {@code find} também é limitado em nós visitados e em caminhos devolvidos, e
+ * para em silêncio ao atingir qualquer um dos limites. Não é thread-safe (uma sessão pertence a uma conexão).
+ */
+public class ShellSession {
+
+    // Identidade comparada com ==; nunca exposto
+    private static final FsNode WHITEOUT = FsNode.file("", "", null);
+
+    private final FileSystemImage image;
+    private final String home;
+    private final int maxOverlayEntries;
+    private final int maxFileSize;
+    private final int maxFindNodes;
+    private final int maxFindResults;
+    private final Map<String, FsNode> overlay = new HashMap<>();
+    // Nomes adicionados pelo overlay em cada diretório (remoções ficam só em overlay)
+    private final Map<String, Set<String>> overlayChildren = new HashMap<>();
+    private String cwd;
+
+    public ShellSession(FileSystemImage image, String home, int maxOverlayEntries, int maxFileSize,
+                        int maxFindNodes, int maxFindResults) {
+        this.image = image;
+        this.home = home;
+        this.maxOverlayEntries = maxOverlayEntries;
+        this.maxFileSize = maxFileSize;
+        this.maxFindNodes = maxFindNodes;
+        this.maxFindResults = maxFindResults;
+        FsNode homeNode = image.get(home);
+        this.cwd = homeNode != null && homeNode.directory() ? home : "/";
+    }
+
+    public String getCwd() {
+        return cwd;
+    }
+
+    /**
+     * Diretório corrente como no prompt do bash ({@code ~}, {@code ~/dir} ou caminho absoluto)
+     */
+    public String getDisplayCwd() {
+        if (cwd.equals(home)) {
+            return "~";
+        }
+        return cwd.startsWith(home + "/") ? "~" + cwd.substring(home.length()) : cwd;
+    }
+
+    public int getOverlaySize() {
+        return overlay.size();
+    }
+
+    /**
+     * Caminho absoluto normalizado relativo ao diretório corrente
+     */
+    public String resolve(String path) {
+        return FileSystemImage.resolve(cwd, home, path);
+    }
+
+    /**
+     * Nó visível na sessão ou {@code null} se não existir (caminho já resolvido)
+     */
+    public FsNode stat(String path) {
+        int from = 1;
+        while (from < path.length()) {
+            int slash = path.indexOf('/', from);
+            if (slash < 0) {
+                FsNode own = overlay.get(path);
+                if (own == WHITEOUT) {
+                    return null;
+                }
+                return own != null ? own : image.get(path);
+            }
+            FsNode ancestor = overlay.get(path.substring(0, slash));
+            if (ancestor == WHITEOUT) {
+                return null;
+            }
+            if (ancestor != null) {
+                // Abaixo de um diretório criado na sessão só existe o overlay
+                FsNode own = overlay.get(path);
+                return own == WHITEOUT ? null : own;
+            }
+            from = slash + 1;
+        }
+        return image.get(path);
+    }
+
+    public void cd(String path) throws FileSystemException {
+        String target = resolve(path == null ? "~" : path);
+        requireDirectory(target);
+        cwd = target;
+    }
+
+    /**
+     * Nomes visíveis no diretório, em ordem alfabética
+     */
+    public List<String> list(String path) throws FileSystemException {
+        requireDirectory(path);
+        TreeSet<String> names = new TreeSet<>();
+        if (baseVisible(path)) {
+            names.addAll(image.children(path));
+        }
+        names.addAll(overlayChildren.getOrDefault(path, Set.of()));
+        names.removeIf(name -> stat(FileSystemImage.child(path, name)) == null);
+        return new ArrayList<>(names);
+    }
+
+    public String read(String path) throws FileSystemException {
+        FsNode node = stat(path);
+        if (node == null) {
+            throw new NoSuchFileException(path);
+        }
+        if (node.directory()) {
+            throw new FileSystemException(path, null, "Is a directory");
+        }
+        return node.content();
+    }
+
+    /**
+     * Grava (ou acrescenta ao) arquivo, criando-o se necessário ({@code echo ... > arquivo})
+     */
+    public void write(String path, String content, boolean append) throws FileSystemException {
+        requireParentDirectory(path);
+        FsNode existing = stat(path);
+        if (existing != null && existing.directory()) {
+            throw new FileSystemException(path, null, "Is a directory");
+        }
+        String newContent = append && existing != null ? existing.content() + content : content;
+        if (newContent.length() > maxFileSize) {
+            throw noSpace(path);
+        }
+        put(path, FsNode.file(newContent, existing != null ? existing.mode() : null, LocalDateTime.now()));
+    }
+
+    /**
+     * Cria o arquivo vazio ou atualiza a data de modificação. Diretórios não são copiados para o
+     * overlay (isso os tornaria opacos e esconderia o conteúdo da base).
+     */
+    public void touch(String path) throws FileSystemException {
+        requireParentDirectory(path);
+        FsNode existing = stat(path);
+        if (existing != null && existing.directory()) {
+            return;
+        }
+        put(path, existing != null ? existing.withModified(LocalDateTime.now()) : FsNode.file("", null, LocalDateTime.now()));
+    }
+
+    public void mkdir(String path, boolean parents) throws FileSystemException {
+        FsNode existing = stat(path);
+        if (existing != null) {
+            if (parents && existing.directory()) {
+                return;
+            }
+            throw new FileAlreadyExistsException(path);
+        }
+        String parent = FileSystemImage.parent(path);
+        if (parents && stat(parent) == null) {
+            mkdir(parent, true);
+        }
+        requireParentDirectory(path);
+        put(path, FsNode.directory(null, LocalDateTime.now()));
+    }
+
+    /**
+     * Remove o arquivo ou, com {@code recursive}, o diretório e tudo abaixo dele
+     */
+    public void remove(String path, boolean recursive) throws FileSystemException {
+        FsNode node = stat(path);
+        if (node == null) {
+            throw new NoSuchFileException(path);
+        }
+        if (path.equals("/")) {
+            throw new FileSystemException(path, null, "Operation not permitted");
+        }
+        if (node.directory() && !recursive) {
+            throw new FileSystemException(path, null, "Is a directory");
+        }
+        delete(path);
+    }
+
+    public void rmdir(String path) throws FileSystemException {
+        FsNode node = stat(path);
+        if (node == null) {
+            throw new NoSuchFileException(path);
+        }
+        if (!node.directory()) {
+            throw new NotDirectoryException(path);
+        }
+        if (path.equals("/") || !list(path).isEmpty()) {
+            throw new DirectoryNotEmptyException(path);
+        }
+        delete(path);
+    }
+
+    /**
+     * Caminhos a partir de {@code path} (inclusive) em pré-ordem, como o {@code find}
+     */
+    public List<String> find(String path) throws FileSystemException {
+        return find(path, (candidate, node) -> true);
+    }
+
+    /**
+     * Caminhos a partir de {@code path} (inclusive) em pré-ordem aceitos pelo filtro. A busca para ao
+     * visitar {@code maxFindNodes} nós ou ao reunir {@code maxFindResults} caminhos, o que vier primeiro.
+     */
+    public List<String> find(String path, BiPredicate<String, FsNode> filter) throws FileSystemException {
+        if (stat(path) == null) {
+            throw new NoSuchFileException(path);
+        }
+        List<String> found = new ArrayList<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.push(path);
+        int visited = 0;
+        while (!pending.isEmpty() && visited < maxFindNodes && found.size() < maxFindResults) {
+            String current = pending.pop();
+            FsNode node = stat(current);
+            visited++;
+            if (filter.test(current, node)) {
+                found.add(current);
+            }
+            if (node.directory()) {
+                List<String> names = list(current);
+                for (int i = names.size() - 1; i >= 0; i--) {
+                    pending.push(FileSystemImage.child(current, names.get(i)));
+                }
+            }
+        }
+        return found;
+    }
+
+    // Verdadeiro se o diretório vem da base (nenhum ancestral, nem ele, foi criado ou removido na sessão)
+    private boolean baseVisible(String path) {
+        int from = 1;
+        while (from < path.length()) {
+            int slash = path.indexOf('/', from);
+            String prefix = slash < 0 ? path : path.substring(0, slash);
+            FsNode node = overlay.get(prefix);
+            if (node == WHITEOUT || (node != null && node.directory())) {
+                return false;
+            }
+            if (slash < 0) {
+                break;
+            }
+            from = slash + 1;
+        }
+        return true;
+    }
+
+    private void delete(String path) {
+        String prefix = path + "/";
+        Iterator<String> iterator = overlay.keySet().iterator();
+        while (iterator.hasNext()) {
+            String key = iterator.next();
+            if (key.startsWith(prefix)) {
+                iterator.remove();
+                overlayChildren.remove(key);
+            }
+        }
+        overlayChildren.remove(path);
+
+        String parent = FileSystemImage.parent(path);
+        if (baseVisible(parent) && image.get(path) != null) {
+            overlay.put(path, WHITEOUT);
+        } else {
+            overlay.remove(path);
+            Set<String> names = overlayChildren.get(parent);
+            if (names != null) {
+                names.remove(FileSystemImage.name(path));
+            }
+        }
+    }
+
+    private void put(String path, FsNode node) throws FileSystemException {
+        if (!overlay.containsKey(path) && overlay.size() >= maxOverlayEntries) {
+            throw noSpace(path);
+        }
+        overlay.put(path, node);
+        overlayChildren.computeIfAbsent(FileSystemImage.parent(path), k -> new TreeSet<>()).add(FileSystemImage.name(path));
+    }
+
+    private void requireDirectory(String path) throws FileSystemException {
+        FsNode node = stat(path);
+        if (node == null) {
+            throw new NoSuchFileException(path);
+        }
+        if (!node.directory()) {
+            throw new NotDirectoryException(path);
+        }
+    }
+
+    private void requireParentDirectory(String path) throws FileSystemException {
+        if (path.equals("/")) {
+            throw new FileSystemException(path, null, "Is a directory");
+        }
+        FsNode parent = stat(FileSystemImage.parent(path));
+        if (parent == null) {
+            throw new NoSuchFileException(path);
+        }
+        if (!parent.directory()) {
+            throw new NotDirectoryException(path);
+        }
+    }
+
+    private static FileSystemException noSpace(String path) {
+        return new FileSystemException(path, null, "No space left on device");
+    }
+}
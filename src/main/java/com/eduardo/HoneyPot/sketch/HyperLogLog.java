@@ -0,0 +1,144 @@
+package com.eduardo.HoneyPot.sketch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Sketch HyperLogLog para estimar a cardinalidade (quantidade de valores distintos)
+ * usando memória fixa de 2^precision bytes.
+ *
+ * O erro padrão relativo é 1.04 / sqrt(2^precision): com a precisão padrão 12
+ * (4096 registradores, 4 KB) o erro fica em ~1,6%. Sketches com a mesma precisão
+ * podem ser unidos (merge) sem perda, o que permite combinar buckets de tempo.
+ *
+ * Não é thread-safe; sincronize externamente.
+ */
+public class HyperLogLog {
+    
+    public static final int DEFAULT_PRECISION = 12;
+    
+    private final int precision;
+    private final byte[] registers;
+    
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+    
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Precisão deve estar entre 4 e 18: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+    
+    /**
+     * Reconstrói um sketch a partir dos registradores serializados
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        int precision = Integer.numberOfTrailingZeros(bytes.length);
+        if (bytes.length != 1 << precision) {
+            throw new IllegalArgumentException("Tamanho de sketch inválido: " + bytes.length);
+        }
+        HyperLogLog sketch = new HyperLogLog(precision);
+        System.arraycopy(bytes, 0, sketch.registers, 0, bytes.length);
+        return sketch;
+    }
+    
+    public void add(String value) {
+        if (value != null) {
+            addHash(hash64(value));
+        }
+    }
+    
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Posição do primeiro bit 1 nos bits restantes (1-based)
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+    
+    /**
+     * Une outro sketch a este (máximo por registrador)
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Não é possível unir sketches com precisões diferentes");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+    
+    /**
+     * Estimativa da cardinalidade, com correção por linear counting para conjuntos pequenos
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+    
+    public double relativeStandardError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+    
+    public int getPrecision() {
+        return precision;
+    }
+    
+    public byte[] toBytes() {
+        return Arrays.copyOf(registers, registers.length);
+    }
+    
+    public HyperLogLog copy() {
+        return fromBytes(registers);
+    }
+    
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+    
+    /**
+     * Hash de 64 bits (FNV-1a seguido do finalizador do MurmurHash3 para espalhar os bits)
+     */
+    public static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
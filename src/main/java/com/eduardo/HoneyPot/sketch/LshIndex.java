@@ -0,0 +1,79 @@
+package com.eduardo.HoneyPot.sketch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Locality-Sensitive Hashing sobre assinaturas MinHash: a assinatura é dividida em {@code bands}
+ * faixas de {@code rows} linhas e cada faixa vira a chave de um bucket. Conjuntos com Jaccard s
+ * colidem em ao menos uma faixa com probabilidade 1 - (1 - s^rows)^bands, então a busca por
+ * candidatos olha apenas os buckets da assinatura, sem comparar com todos os itens indexados.
+ * Não é thread-safe.
+ */
+public class LshIndex {
+
+    private final int bands;
+    private final int rows;
+    private final Map<Long, List<String>> buckets = new HashMap<>();
+
+    public LshIndex(int bands, int rows) {
+        if (bands <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Bandas e linhas devem ser positivas");
+        }
+        this.bands = bands;
+        this.rows = rows;
+    }
+
+    public void add(String id, long[] signature) {
+        checkLength(signature);
+        for (int band = 0; band < bands; band++) {
+            buckets.computeIfAbsent(bandKey(band, signature), key -> new ArrayList<>(1)).add(id);
+        }
+    }
+
+    /**
+     * Ids que compartilham ao menos um bucket com a assinatura
+     */
+    public Set<String> candidates(long[] signature) {
+        checkLength(signature);
+        Set<String> candidates = new LinkedHashSet<>();
+        for (int band = 0; band < bands; band++) {
+            List<String> bucket = buckets.get(bandKey(band, signature));
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+        return candidates;
+    }
+
+    public void clear() {
+        buckets.clear();
+    }
+
+    /**
+     * Similaridade a partir da qual a chance de virar candidato passa de 50% (aprox. (1/bands)^(1/rows))
+     */
+    public double threshold() {
+        return Math.pow(1.0 / bands, 1.0 / rows);
+    }
+
+    private long bandKey(int band, long[] signature) {
+        long key = MinHash.mix(band + 1L);
+        int offset = band * rows;
+        for (int row = 0; row < rows; row++) {
+            key = MinHash.mix(key ^ signature[offset + row]);
+        }
+        return key;
+    }
+
+    private void checkLength(long[] signature) {
+        if (signature.length != bands * rows) {
+            throw new IllegalArgumentException("Assinatura com " + signature.length
+                + " hashes; esperado " + bands * rows);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.eduardo.HoneyPot.sketch;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Assinaturas MinHash: para cada uma das {@code numHashes} funções de hash guarda o menor hash
+ * entre os shingles do conjunto. A fração de posições iguais entre duas assinaturas estima a
+ * similaridade de Jaccard dos conjuntos (erro padrão ~ 1/sqrt(numHashes)).
+ * As sementes são fixas, então assinaturas persistidas continuam comparáveis entre reinícios.
+ */
+public class MinHash {
+
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final long[] seeds;
+
+    public MinHash(int numHashes) {
+        if (numHashes <= 0) {
+            throw new IllegalArgumentException("Número de hashes deve ser positivo: " + numHashes);
+        }
+        SplittableRandom random = new SplittableRandom(SEED);
+        this.seeds = new long[numHashes];
+        for (int i = 0; i < numHashes; i++) {
+            seeds[i] = random.nextLong();
+        }
+    }
+
+    public long[] signature(Collection<String> shingles) {
+        long[] signature = new long[seeds.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (String shingle : shingles) {
+            long base = HyperLogLog.hash64(shingle);
+            for (int i = 0; i < seeds.length; i++) {
+                long hash = mix(base ^ seeds[i]);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    public int getNumHashes() {
+        return seeds.length;
+    }
+
+    /**
+     * Similaridade de Jaccard estimada entre duas assinaturas do mesmo tamanho
+     */
+    public static double similarity(long[] a, long[] b) {
+        if (a.length != b.length || a.length == 0) {
+            return 0;
+        }
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    /**
+     * Shingles de uma sequência: cada token isolado mais os k-gramas consecutivos, com marcadores
+     * de início e fim para que a ordem dos comandos também conte
+     */
+    public static Set<String> shingles(List<String> tokens, int k) {
+        Set<String> shingles = new LinkedHashSet<>(tokens);
+        if (k > 1) {
+            String[] padded = new String[tokens.size() + 2];
+            padded[0] = "^";
+            for (int i = 0; i < tokens.size(); i++) {
+                padded[i + 1] = tokens.get(i);
+            }
+            padded[padded.length - 1] = "$";
+            for (int i = 0; i + k <= padded.length; i++) {
+                shingles.add(String.join("\n", Arrays.asList(padded).subList(i, i + k)));
+            }
+        }
+        return shingles;
+    }
+
+    // Finalizador do MurmurHash3: deriva hashes independentes a partir do hash base e da semente
+    static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,125 @@
+package com.eduardo.HoneyPot.sketch;
+
+import java.util.*;
+
+/**
+ * Algoritmo Space-Saving (Metwally et al.) para os itens mais frequentes de um fluxo
+ * usando no máximo {@code capacity} contadores.
+ *
+ * Cada contador guarda uma contagem que superestima a frequência real em no máximo
+ * {@code error}; qualquer item fora do sketch tem frequência ≤ {@link #maxError()},
+ * que por sua vez é ≤ total / capacity. Itens com frequência acima desse limite
+ * estão sempre presentes.
+ */
+public class SpaceSaving {
+    
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final TreeSet<Counter> ordered = new TreeSet<>(
+        Comparator.comparingLong((Counter c) -> c.count).thenComparingLong(c -> c.sequence));
+    private long total;
+    private long sequence;
+    
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacidade deve ser positiva: " + capacity);
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+    
+    public synchronized void add(String item) {
+        add(item, 1);
+    }
+    
+    public synchronized void add(String item, long weight) {
+        if (item == null || weight <= 0) {
+            return;
+        }
+        total += weight;
+        
+        Counter counter = counters.get(item);
+        if (counter != null) {
+            ordered.remove(counter);
+            counter.count += weight;
+            counter.sequence = sequence++;
+            ordered.add(counter);
+            return;
+        }
+        
+        if (counters.size() < capacity) {
+            counter = new Counter(item, weight, 0, sequence++);
+        } else {
+            // Substitui o item de menor contagem, herdando sua contagem como erro
+            Counter evicted = ordered.pollFirst();
+            counters.remove(evicted.item);
+            counter = new Counter(item, evicted.count + weight, evicted.count, sequence++);
+        }
+        counters.put(item, counter);
+        ordered.add(counter);
+    }
+    
+    /**
+     * Os N itens com maior contagem estimada, em ordem decrescente
+     */
+    public synchronized List<HeavyHitter> top(int limit) {
+        List<Counter> candidates = new ArrayList<>(Math.min(limit + 1, counters.size()));
+        Iterator<Counter> iterator = ordered.descendingIterator();
+        while (iterator.hasNext() && candidates.size() <= limit) {
+            candidates.add(iterator.next());
+        }
+        // Um item é garantido no top-N se seu limite inferior supera a contagem do próximo candidato
+        long threshold = candidates.size() > limit ? candidates.get(limit).count : maxError();
+        
+        List<HeavyHitter> result = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, candidates.size()); i++) {
+            Counter counter = candidates.get(i);
+            result.add(new HeavyHitter(counter.item, counter.count, counter.error,
+                counter.count - counter.error >= threshold));
+        }
+        return result;
+    }
+    
+    /**
+     * Frequência máxima de qualquer item que não está sendo monitorado
+     */
+    public synchronized long maxError() {
+        return counters.size() < capacity || ordered.isEmpty() ? 0 : ordered.first().count;
+    }
+    
+    public synchronized long getTotal() {
+        return total;
+    }
+    
+    public synchronized int size() {
+        return counters.size();
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    private static final class Counter {
+        final String item;
+        long count;
+        final long error;
+        long sequence;
+        
+        Counter(String item, long count, long error, long sequence) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+            this.sequence = sequence;
+        }
+    }
+    
+    /**
+     * Item frequente: contagem estimada (limite superior) e erro máximo dessa contagem
+     */
+    public record HeavyHitter(String item, long count, long error, boolean guaranteed) {
+        
+        public long lowerBound() {
+            return count - error;
+        }
+    }
+}
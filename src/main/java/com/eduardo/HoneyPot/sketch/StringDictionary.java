@@ -0,0 +1,209 @@
+package com.eduardo.HoneyPot.sketch;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dicionário de strings: cada valor distinto recebe um código inteiro e é guardado uma única vez.
+ * Valores repetidos (root, admin, 123456, banners, IPs) passam a compartilhar a mesma instância em
+ * memória, e o código pode substituir o texto em documentos gravados. Limitado a {@code maxEntries}:
+ * acima disso, o valor menos usado recentemente sai (algoritmo CLOCK). Códigos nunca são reutilizados,
+ * então um valor removido que volte a aparecer recebe um código novo.
+ */
+public class StringDictionary {
+
+    public static final int NO_CODE = -1;
+
+    // Layout de Strings compactas com oops comprimidos: objeto String de 24 bytes mais o byte[]
+    // (cabeçalho de 16 bytes e conteúdo alinhado a 8)
+    private static final int STRING_OBJECT_BYTES = 24;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    // Entrada mais os nós dos dois mapas, a chave Integer e a referência na fila do CLOCK
+    private static final int ENTRY_OVERHEAD_BYTES = 24 + 2 * 32 + 16 + 4;
+
+    private static final class Entry {
+        final int code;
+        final String value;
+        volatile boolean referenced;
+
+        Entry(int code, String value) {
+            this.code = code;
+            this.value = value;
+        }
+    }
+
+    private final int maxEntries;
+    private final Map<String, Entry> byValue = new ConcurrentHashMap<>();
+    private final Map<Integer, Entry> byCode = new ConcurrentHashMap<>();
+    private final ArrayDeque<Entry> clock = new ArrayDeque<>(); // protegido por this
+    private int nextCode = 0;
+
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder deduplicatedBytes = new LongAdder();
+    private final LongAdder retainedBytes = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public StringDictionary(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Código do valor, atribuindo um novo se ainda não existir (ou -1 se o dicionário estiver desativado)
+     */
+    public int encode(String value) {
+        Entry entry = entry(value);
+        return entry != null ? entry.code : NO_CODE;
+    }
+
+    /**
+     * Código já atribuído ao valor, sem criar um novo
+     */
+    public int lookup(String value) {
+        Entry entry = value != null ? byValue.get(value) : null;
+        if (entry == null) {
+            return NO_CODE;
+        }
+        entry.referenced = true;
+        return entry.code;
+    }
+
+    /**
+     * Valor do código, ou null se ele nunca foi atribuído ou já saiu do dicionário
+     */
+    public String decode(int code) {
+        Entry entry = byCode.get(code);
+        if (entry == null) {
+            return null;
+        }
+        entry.referenced = true;
+        return entry.value;
+    }
+
+    /**
+     * Instância canônica do valor: a mesma para todas as ocorrências, permitindo que a cópia recebida seja coletada
+     */
+    public String canonical(String value) {
+        Entry entry = entry(value);
+        if (entry == null) {
+            return value;
+        }
+        if (entry.value != value) {
+            deduplicated.increment();
+            deduplicatedBytes.add(stringBytes(value));
+        }
+        return entry.value;
+    }
+
+    /**
+     * Restaura um código persistido (usado para dicionários que precisam de códigos estáveis)
+     */
+    public synchronized void restore(int code, String value) {
+        if (code < 0 || value == null || maxEntries <= 0 || byValue.containsKey(value) || byCode.containsKey(code)) {
+            return;
+        }
+        insert(code, value);
+        nextCode = Math.max(nextCode, code + 1);
+    }
+
+    public int size() {
+        return byValue.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getDeduplicated() {
+        return deduplicated.sum();
+    }
+
+    /**
+     * Bytes das cópias descartadas em favor da instância canônica
+     */
+    public long getDeduplicatedBytes() {
+        return deduplicatedBytes.sum();
+    }
+
+    /**
+     * Memória ocupada pelo próprio dicionário (valores e estruturas de índice)
+     */
+    public long getRetainedBytes() {
+        return retainedBytes.sum();
+    }
+
+    public long getEvicted() {
+        return evicted.sum();
+    }
+
+    /**
+     * Tamanho em heap de uma String, incluindo o byte[] do conteúdo (LATIN1 ou UTF16)
+     */
+    public static long stringBytes(String value) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        long array = ARRAY_HEADER_BYTES + (long) value.length() * bytesPerChar;
+        return STRING_OBJECT_BYTES + ((array + 7) & ~7L);
+    }
+
+    private Entry entry(String value) {
+        if (value == null) {
+            return null;
+        }
+        Entry entry = byValue.get(value);
+        if (entry != null) {
+            entry.referenced = true;
+            return entry;
+        }
+        synchronized (this) {
+            entry = byValue.get(value);
+            if (entry != null) {
+                return entry;
+            }
+            if (maxEntries <= 0) {
+                return null;
+            }
+            return insert(nextCode++, value);
+        }
+    }
+
+    // Chamado com o lock: abre espaço pelo CLOCK antes de publicar a nova entrada
+    private Entry insert(int code, String value) {
+        while (byValue.size() >= maxEntries) {
+            evictOne();
+        }
+        Entry entry = new Entry(code, value);
+        byCode.put(code, entry);
+        byValue.put(value, entry);
+        clock.addLast(entry);
+        retainedBytes.add(stringBytes(value) + ENTRY_OVERHEAD_BYTES);
+        return entry;
+    }
+
+    // Entradas usadas desde a última passada ganham uma segunda chance; a primeira sem uso sai
+    private void evictOne() {
+        while (true) {
+            Entry candidate = clock.pollFirst();
+            if (candidate == null) {
+                return;
+            }
+            if (candidate.referenced) {
+                candidate.referenced = false;
+                clock.addLast(candidate);
+                continue;
+            }
+            byValue.remove(candidate.value);
+            byCode.remove(candidate.code);
+            retainedBytes.add(-(stringBytes(candidate.value) + ENTRY_OVERHEAD_BYTES));
+            evicted.increment();
+            return;
+        }
+    }
+}
@@ -6,9 +6,15 @@ class SecurityDashboard {
         this.pageSize = 20;
         this.currentNotificationsPage = 0;
         this.notificationsPageSize = 20;
-        this.refreshInterval = 30000; // 30 segundos
+        this.refreshInterval = 30000; // 30 segundos (apenas sem suporte a EventSource)
         this.charts = {};
         this.isLoading = false;
+        this.eventSource = null;
+        this.streamInterrupted = false;
+        this.unreadNotifications = [];
+        this.unreadCount = 0;
+        this.maxUnreadNotifications = 50; // Lista exibida; o contador segue o total
+        this.refreshRankings = this.debounce(() => this.loadRankings(), 5000);
         
         this.init();
     }
@@ -73,6 +79,12 @@ class SecurityDashboard {
     }
 
     startAutoRefresh() {
+        if (typeof EventSource !== 'undefined') {
+            this.connectEventStream();
+            return;
+        }
+        
+        // Fallback para navegadores sem Server-Sent Events
         setInterval(() => {
             if (!this.isLoading) {
                 this.refreshAll();
@@ -80,6 +92,124 @@ class SecurityDashboard {
         }, this.refreshInterval);
     }
 
+    // ========================================
+    // TEMPO REAL (SERVER-SENT EVENTS)
+    // ========================================
+    
+    connectEventStream() {
+        this.eventSource = new EventSource(`${this.apiUrl}/stream`);
+        
+        this.eventSource.onopen = () => {
+            // Eventos podem ter sido perdidos durante a queda: recarrega tudo uma vez
+            if (this.streamInterrupted) {
+                this.streamInterrupted = false;
+                this.refreshAll();
+            }
+        };
+        this.eventSource.onerror = () => {
+            // O EventSource reconecta sozinho
+            this.streamInterrupted = true;
+        };
+        
+        this.eventSource.addEventListener('stats', event => this.onStatsEvent(JSON.parse(event.data)));
+        this.eventSource.addEventListener('capture', event => this.onCaptureEvent(JSON.parse(event.data)));
+        this.eventSource.addEventListener('command', event => this.onCommandEvent(JSON.parse(event.data)));
+        this.eventSource.addEventListener('update', event => this.onUpdateEvent(JSON.parse(event.data)));
+        this.eventSource.addEventListener('notification', event => this.onNotificationEvent(JSON.parse(event.data)));
+        this.eventSource.addEventListener('cleared', () => this.refreshAll());
+        this.eventSource.addEventListener('resync', () => this.refreshAll());
+    }
+
+    onStatsEvent(stats) {
+        if (stats.totalLogs !== undefined) {
+            document.getElementById('total-attacks').textContent = stats.totalLogs;
+            document.getElementById('ssh-attacks').textContent = stats.sshLogs || 0;
+            document.getElementById('telnet-attacks').textContent = stats.telnetLogs || 0;
+            document.getElementById('unique-ips').textContent = stats.uniqueIpsCount || 0;
+            
+            if (this.charts.protocol) {
+                this.charts.protocol.data.datasets[0].data = [stats.sshLogs || 0, stats.telnetLogs || 0];
+                this.charts.protocol.update('none');
+            }
+            this.animateNumbers();
+        } else {
+            // Estatísticas em memória ainda não prontas no servidor
+            this.loadStats();
+            this.updateProtocolChart();
+        }
+        
+        this.refreshRankings();
+        this.updateLastUpdate();
+    }
+
+    onCaptureEvent(log) {
+        if (this.currentPage !== 0 || !this.matchesLogFilters(log)) return;
+        
+        this.currentLogs = [log, ...(this.currentLogs || [])].slice(0, this.pageSize);
+        
+        const tbody = document.getElementById('logs-tbody');
+        if (!tbody.querySelector('tr.log-entry')) {
+            tbody.innerHTML = '';
+        }
+        tbody.insertAdjacentHTML('afterbegin', this.renderLogRow(log));
+        
+        const rows = tbody.querySelectorAll('tr.log-entry');
+        for (let i = this.pageSize; i < rows.length; i++) {
+            rows[i].remove();
+        }
+    }
+
+    onCommandEvent(event) {
+        const log = this.currentLogs?.find(l => l.id === event.id);
+        if (!log) return;
+        
+        log.commands = [...(log.commands || []), { command: event.command, timestamp: event.timestamp }];
+        
+        const row = document.querySelector(`tr.log-entry[data-id="${event.id}"]`);
+        if (row) {
+            row.outerHTML = this.renderLogRow(log);
+        }
+    }
+
+    onUpdateEvent(update) {
+        const log = this.currentLogs?.find(l => l.id === update.id);
+        if (!log) return;
+        
+        // Os comandos chegam pelos eventos 'command'; a atualização traz credenciais e enriquecimento
+        log.username = update.username;
+        log.password = update.password;
+        log.country = update.country;
+        
+        const row = document.querySelector(`tr.log-entry[data-id="${update.id}"]`);
+        if (row) {
+            row.outerHTML = this.renderLogRow(log);
+        }
+    }
+
+    onNotificationEvent(notification) {
+        if (notification.read) return;
+        
+        this.unreadNotifications = [notification, ...this.unreadNotifications].slice(0, this.maxUnreadNotifications);
+        this.renderNotifications(this.unreadNotifications);
+        this.updateUnreadCount(++this.unreadCount);
+    }
+
+    async loadRankings() {
+        await Promise.all([
+            this.loadTopIps(),
+            this.loadTopCredentials(),
+            this.updateTimelineChart()
+        ]);
+    }
+
+    matchesLogFilters(log) {
+        const protocolFilter = document.getElementById('protocol-filter')?.value || '';
+        const ipFilter = document.getElementById('ip-filter')?.value || '';
+        
+        return (!protocolFilter || log.protocol === protocolFilter)
+            && (!ipFilter || (log.sourceIp || '').includes(ipFilter));
+    }
+
     async refreshAll() {
         if (this.isLoading) return;
         
@@ -293,8 +423,29 @@ class SecurityDashboard {
                     filteredLogs = filteredLogs.filter(log => log.sourceIp.includes(ipFilter));
                 }
                 
-                tbody.innerHTML = filteredLogs.map(log => `
-                    <tr class="log-entry" data-protocol="${log.protocol.toLowerCase()}">
+                tbody.innerHTML = filteredLogs.map(log => this.renderLogRow(log)).join('');
+            } else {
+                tbody.innerHTML = `
+                    <tr>
+                        <td colspan="7" class="loading">
+                            ${protocolFilter || ipFilter ? 'Nenhum registro encontrado com os filtros aplicados' : 'Nenhum registro encontrado'}
+                        </td>
+                    </tr>
+                `;
+            }
+            
+            this.updatePagination(data);
+        } catch (error) {
+            console.error('Erro ao carregar logs:', error);
+            document.getElementById('logs-tbody').innerHTML = `
+                <tr><td colspan="7" class="loading error">Erro ao carregar registros</td></tr>
+            `;
+        }
+    }
+
+    renderLogRow(log) {
+        return `
+                    <tr class="log-entry" data-id="${log.id}" data-protocol="${log.protocol.toLowerCase()}">
                         <td class="timestamp">${this.formatDateTime(log.timestamp)}</td>
                         <td class="ip-address"><code>${log.sourceIp}</code></td>
                         <td class="protocol">
@@ -313,24 +464,7 @@ class SecurityDashboard {
                             </button>
                         </td>
                     </tr>
-                `).join('');
-            } else {
-                tbody.innerHTML = `
-                    <tr>
-                        <td colspan="7" class="loading">
-                            ${protocolFilter || ipFilter ? 'Nenhum registro encontrado com os filtros aplicados' : 'Nenhum registro encontrado'}
-                        </td>
-                    </tr>
                 `;
-            }
-            
-            this.updatePagination(data);
-        } catch (error) {
-            console.error('Erro ao carregar logs:', error);
-            document.getElementById('logs-tbody').innerHTML = `
-                <tr><td colspan="7" class="loading error">Erro ao carregar registros</td></tr>
-            `;
-        }
     }
 
     updatePagination(data) {
@@ -750,9 +884,11 @@ class SecurityDashboard {
     
     async loadNotifications() {
         try {
-            const unreadNotifications = await this.apiCall('/notifications/unread');
-            this.renderNotifications(unreadNotifications);
-            this.updateUnreadCount(unreadNotifications.length);
+            const unreadNotifications = await this.apiCall('/notifications/unread') || [];
+            this.unreadNotifications = unreadNotifications.slice(0, this.maxUnreadNotifications);
+            this.unreadCount = unreadNotifications.length;
+            this.renderNotifications(this.unreadNotifications);
+            this.updateUnreadCount(this.unreadCount);
         } catch (error) {
             console.error('Erro ao carregar notificações:', error);
         }
@@ -1139,27 +1275,8 @@ class SecurityDashboard {
             this.setReportGeneratingState(type, true);
             this.updateReportsStatus(`Gerando relatório ${type} em ${format.toUpperCase()}...`);
             
-            const endpoint = `/api/reports/${type}/${format}`;
-            const response = await fetch(endpoint);
-            
-            if (!response.ok) {
-                throw new Error(`Erro HTTP: ${response.status}`);
-            }
-            
-            // Determinar nome do arquivo
-            const timestamp = new Date().toISOString().replace(/[:.]/g, '-').slice(0, 19);
-            const filename = `relatorio_${type}_${timestamp}.${format === 'pdf' ? 'pdf' : 'xlsx'}`;
-            
-            // Download do arquivo
-            const blob = await response.blob();
-            const url = window.URL.createObjectURL(blob);
-            const a = document.createElement('a');
-            a.href = url;
-            a.download = filename;
-            document.body.appendChild(a);
-            a.click();
-            document.body.removeChild(a);
-            window.URL.revokeObjectURL(url);
+            const job = await this.runReportJob(type, format);
+            this.downloadReportJob(job);
             
             // Sucesso
             this.setReportSuccessState(type);
@@ -1186,6 +1303,44 @@ class SecurityDashboard {
         }
     }
     
+    /**
+     * Cria o job de relatório no servidor e acompanha até a conclusão
+     */
+    async runReportJob(type, format) {
+        const params = new URLSearchParams({ type, format });
+        const response = await fetch(`/api/reports/jobs?${params}`, { method: 'POST' });
+        if (!response.ok) {
+            throw new Error(`Erro HTTP: ${response.status}`);
+        }
+        
+        let job = await response.json();
+        while (job.status === 'QUEUED' || job.status === 'RUNNING') {
+            await new Promise(resolve => setTimeout(resolve, 1000));
+            const statusResponse = await fetch(job.statusUrl);
+            if (!statusResponse.ok) {
+                throw new Error(`Erro HTTP: ${statusResponse.status}`);
+            }
+            job = await statusResponse.json();
+        }
+        
+        if (job.status !== 'COMPLETED') {
+            throw new Error(job.error || 'Falha na geração do relatório');
+        }
+        return job;
+    }
+    
+    /**
+     * Baixa o arquivo de um job concluído (nome definido pelo servidor)
+     */
+    downloadReportJob(job) {
+        const a = document.createElement('a');
+        a.href = job.downloadUrl;
+        a.download = job.filename;
+        document.body.appendChild(a);
+        a.click();
+        document.body.removeChild(a);
+    }
+    
     /**
      * Gera todos os relatórios disponíveis
      */
@@ -1206,34 +1361,17 @@ class SecurityDashboard {
             let completed = 0;
             const total = reportTypes.length;
             
-            for (const report of reportTypes) {
+            // Os jobs rodam em paralelo no servidor (pool limitado); cada arquivo é baixado ao concluir
+            await Promise.all(reportTypes.map(async report => {
                 try {
-                    this.updateReportsStatus(`Gerando relatório ${report.type} em ${report.format.toUpperCase()}... (${completed + 1}/${total})`);
-                    
-                    const endpoint = `/api/reports/${report.type}/${report.format}`;
-                    const response = await fetch(endpoint);
-                    
-                    if (response.ok) {
-                        // Download do arquivo
-                        const timestamp = new Date().toISOString().replace(/[:.]/g, '-').slice(0, 19);
-                        const filename = `relatorio_${report.type}_${timestamp}.${report.format === 'pdf' ? 'pdf' : 'xlsx'}`;
-                        
-                        const blob = await response.blob();
-                        const url = window.URL.createObjectURL(blob);
-                        const a = document.createElement('a');
-                        a.href = url;
-                        a.download = filename;
-                        document.body.appendChild(a);
-                        a.click();
-                        document.body.removeChild(a);
-                        window.URL.revokeObjectURL(url);
-                        
-                        completed++;
-                    }
+                    const job = await this.runReportJob(report.type, report.format);
+                    this.downloadReportJob(job);
+                    completed++;
+                    this.updateReportsStatus(`Relatórios concluídos: ${completed}/${total}`);
                 } catch (error) {
                     console.error(`Erro ao gerar relatório ${report.type}:`, error);
                 }
-            }
+            }));
             
             // Sucesso
             this.setAllReportsSuccessState();
@@ -0,0 +1,185 @@
+package com.eduardo.HoneyPot.alerting;
+
+import com.eduardo.HoneyPot.model.Notification;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertDispatcherTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private HttpServer receiver;
+	private AlertDispatcher dispatcher;
+
+	@AfterEach
+	void tearDown() {
+		if (dispatcher != null) {
+			dispatcher.close();
+		}
+		if (receiver != null) {
+			receiver.stop(0);
+		}
+	}
+
+	@Test
+	void batchesAlertsToLocalWebhook() throws Exception {
+		List<JsonNode> batches = new CopyOnWriteArrayList<>();
+		URI url = startReceiver(exchange -> {
+			batches.add(objectMapper.readTree(exchange.getRequestBody()));
+			return 200;
+		});
+
+		dispatcher = new AlertDispatcher(List.of(new WebhookDestination("webhook-1", url, Duration.ofSeconds(2), objectMapper)),
+			settings(100, 10, Duration.ofMillis(200), 3, AlertDispatcher.DropPolicy.DROP_OLDEST), meterRegistry);
+		dispatcher.start();
+		for (int i = 0; i < 5; i++) {
+			dispatcher.dispatch(notification("Alerta " + i));
+		}
+
+		assertTrue(waitFor(() -> meterRegistry.get("honeypot.alerts.sent").counter().count() == 5.0));
+		assertEquals(1, batches.size());
+		assertEquals(5, batches.get(0).get("count").asInt());
+		assertEquals("Alerta 0", batches.get(0).get("alerts").get(0).get("title").asText());
+		assertEquals(5, meterRegistry.get("honeypot.alerts.delivery").tag("destination", "webhook-1").timer().count());
+	}
+
+	@Test
+	void retriesWithBackoffThenDropsWhenReceiverKeepsFailing() throws Exception {
+		AtomicInteger attempts = new AtomicInteger();
+		URI url = startReceiver(exchange -> {
+			attempts.incrementAndGet();
+			return 503;
+		});
+
+		dispatcher = new AlertDispatcher(List.of(new WebhookDestination("webhook-1", url, Duration.ofSeconds(2), objectMapper)),
+			settings(100, 10, Duration.ofMillis(50), 3, AlertDispatcher.DropPolicy.DROP_OLDEST), meterRegistry);
+		dispatcher.start();
+		dispatcher.dispatch(notification("Alerta"));
+
+		assertTrue(waitFor(() -> dropped("retries-exhausted") == 1.0));
+		assertEquals(3, attempts.get());
+		assertEquals(2.0, meterRegistry.get("honeypot.alerts.retries").counter().count());
+		assertEquals(0.0, meterRegistry.get("honeypot.alerts.sent").counter().count());
+	}
+
+	@Test
+	void fullQueueAppliesDropPolicyWithoutBlocking() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AlertDestination stuck = new AlertDestination() {
+			@Override
+			public String getName() {
+				return "stuck";
+			}
+
+			@Override
+			public void send(List<Notification> batch) throws IOException {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					throw new IOException(e);
+				}
+			}
+		};
+
+		dispatcher = new AlertDispatcher(List.of(stuck),
+			settings(2, 1, Duration.ZERO, 1, AlertDispatcher.DropPolicy.DROP_NEWEST), meterRegistry);
+		dispatcher.start();
+		dispatcher.dispatch(notification("em envio"));
+		assertTrue(waitFor(() -> dispatcher.getQueueSize("stuck") == 0));
+
+		long start = System.nanoTime();
+		for (int i = 0; i < 10; i++) {
+			dispatcher.dispatch(notification("Alerta " + i));
+		}
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+		assertEquals(2, dispatcher.getQueueSize("stuck"));
+		assertEquals(8.0, dropped("queue-full"));
+		release.countDown();
+	}
+
+	@Test
+	void formatsRfc5424SyslogOverUdp() throws Exception {
+		try (DatagramSocket syslogReceiver = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+			syslogReceiver.setSoTimeout(5000);
+			SyslogDestination syslog = new SyslogDestination("syslog",
+				new InetSocketAddress(InetAddress.getLoopbackAddress(), syslogReceiver.getLocalPort()), SyslogDestination.Transport.UDP);
+			dispatcher = new AlertDispatcher(List.of(syslog),
+				settings(10, 10, Duration.ZERO, 1, AlertDispatcher.DropPolicy.DROP_OLDEST), meterRegistry);
+			dispatcher.start();
+
+			Notification notification = new Notification("ALERT", "ATTACK", "Shell Reverso", "bash -i", "10.0.0.1", "TELNET");
+			dispatcher.dispatch(notification);
+
+			DatagramPacket packet = new DatagramPacket(new byte[2048], 2048);
+			syslogReceiver.receive(packet);
+			String message = new String(packet.getData(), 0, packet.getLength(), StandardCharsets.UTF_8);
+			assertTrue(message.startsWith("<129>1 "), message);
+			assertTrue(message.contains(" honeypot - ATTACK [honeypot@32473 type=\"ALERT\""), message);
+			assertTrue(message.contains("sourceIp=\"10.0.0.1\""), message);
+			assertTrue(message.endsWith("] Shell Reverso: bash -i"), message);
+		}
+	}
+
+	private URI startReceiver(StatusHandler handler) throws IOException {
+		receiver = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		receiver.createContext("/alerts", exchange -> {
+			int status = handler.handle(exchange);
+			exchange.sendResponseHeaders(status, -1);
+			exchange.close();
+		});
+		receiver.start();
+		return URI.create("http://127.0.0.1:" + receiver.getAddress().getPort() + "/alerts");
+	}
+
+	private static AlertDispatcher.Settings settings(int capacity, int batchSize, Duration linger, int maxAttempts,
+	                                                 AlertDispatcher.DropPolicy dropPolicy) {
+		return new AlertDispatcher.Settings(capacity, batchSize, linger, maxAttempts,
+			Duration.ofMillis(10), Duration.ofMillis(50), dropPolicy);
+	}
+
+	private double dropped(String reason) {
+		return meterRegistry.get("honeypot.alerts.dropped").tag("reason", reason).counter().count();
+	}
+
+	private static Notification notification(String title) {
+		return new Notification("WARNING", "ATTACK", title, "mensagem", "192.0.2.1", "TELNET");
+	}
+
+	private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (System.nanoTime() < deadline) {
+			if (condition.getAsBoolean()) {
+				return true;
+			}
+			Thread.sleep(10);
+		}
+		return condition.getAsBoolean();
+	}
+
+	@FunctionalInterface
+	private interface StatusHandler {
+		int handle(HttpExchange exchange) throws IOException;
+	}
+}
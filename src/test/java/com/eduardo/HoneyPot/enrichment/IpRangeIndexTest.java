@@ -0,0 +1,45 @@
+package com.eduardo.HoneyPot.enrichment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IpRangeIndexTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void looksUpIpv4AndIpv6Ranges() throws Exception {
+		Path source = tempDir.resolve("ip2asn.tsv");
+		Files.writeString(source, String.join("\n",
+			"8.8.8.0\t8.8.8.255\t15169\tUS\tGOOGLE",
+			"1.0.0.0\t1.0.0.255\t13335\tUS\tCLOUDFLARENET",
+			"10.0.0.0\t10.255.255.255\t0\tNone\tNot routed",
+			"2001:4860::\t2001:4860:ffff:ffff:ffff:ffff:ffff:ffff\t15169\tUS\tGOOGLE",
+			"177.0.0.0\t177.1.255.255\t\"18881\"\tBR\t\"TELEFONICA BRASIL S.A\""));
+		Path indexFile = tempDir.resolve("ip-ranges.idx");
+
+		assertEquals(4, IpRangeIndex.build(source, indexFile));
+
+		try (IpRangeIndex index = IpRangeIndex.open(indexFile)) {
+			IpInfo google = index.lookup("8.8.8.8");
+			assertEquals(new IpInfo("US", 15169, "GOOGLE"), google);
+			assertEquals(13335, index.lookup("1.0.0.1").asn());
+			assertEquals("BR", index.lookup("177.1.2.3").country());
+			assertEquals("TELEFONICA BRASIL S.A", index.lookup("177.1.2.3").organization());
+			assertEquals(15169, index.lookup("2001:4860:4860::8888").asn());
+			assertEquals(15169, index.lookup("::ffff:8.8.8.8").asn());
+
+			assertNull(index.lookup("8.8.9.1"));
+			assertNull(index.lookup("10.0.0.1"));
+			assertNull(index.lookup("127.0.0.1"));
+			assertNull(index.lookup("not-an-ip"));
+			assertNull(index.lookup("256.1.1.1"));
+		}
+	}
+}
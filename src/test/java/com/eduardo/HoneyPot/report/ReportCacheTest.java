@@ -0,0 +1,116 @@
+package com.eduardo.HoneyPot.report;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportCacheTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void servesIdenticalKeyFromDisk() throws IOException {
+		ReportCache cache = new ReportCache(directory, 1024, 10);
+		String key = ReportCache.key("STATISTICS_EXCEL", "{}", "3");
+
+		assertNull(cache.get(key));
+		Path stored;
+		try (ReportCache.Lease lease = cache.put(key, report(cache, 100))) {
+			stored = lease.file();
+		}
+
+		try (ReportCache.Lease lease = cache.get(key)) {
+			assertEquals(stored, lease.file());
+			assertEquals(100, Files.size(lease.file()));
+		}
+		assertEquals(1L, cache.getStats().get("hits"));
+		assertEquals(1L, cache.getStats().get("misses"));
+		assertNotEquals(key, ReportCache.key("STATISTICS_EXCEL", "{}", "4"));
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedWhenOverLimits() throws IOException {
+		ReportCache cache = new ReportCache(directory, 250, 10);
+		Path a = store(cache, "a", 100);
+		Path b = store(cache, "b", 100);
+		cache.get("a").close();             // "b" passa a ser o menos usado
+		store(cache, "c", 100);
+
+		assertNull(cache.get("b"));
+		assertFalse(Files.exists(b));
+		assertEquals(a, cache.get("a").file());
+		assertNotNull(cache.get("c"));
+		assertEquals(200L, cache.getStats().get("bytes"));
+		assertEquals(1L, cache.getStats().get("evictions"));
+	}
+
+	@Test
+	void entryLimitAlsoEvicts() throws IOException {
+		ReportCache cache = new ReportCache(directory, 10_000, 2);
+		store(cache, "a", 10);
+		store(cache, "b", 10);
+		store(cache, "c", 10);
+
+		assertNull(cache.get("a"));
+		assertEquals(2, cache.getStats().get("entries"));
+	}
+
+	@Test
+	void evictedFileSurvivesUntilLastReaderReleases() throws IOException {
+		ReportCache cache = new ReportCache(directory, 10_000, 1);
+		store(cache, "a", 10);
+		ReportCache.Lease reader = cache.get("a");
+		store(cache, "b", 10);
+
+		assertNull(cache.get("a"));
+		assertTrue(Files.exists(reader.file()));
+		reader.close();
+		assertFalse(Files.exists(reader.file()));
+	}
+
+	@Test
+	void replacingAKeyKeepsThePreviousFileForItsReaders() throws IOException {
+		ReportCache cache = new ReportCache(directory, 10_000, 10);
+		ReportCache.Lease first = cache.put("a", report(cache, 10));
+		try (ReportCache.Lease second = cache.put("a", report(cache, 20))) {
+			assertNotEquals(first.file(), second.file());
+			assertEquals(10, Files.size(first.file()));
+		}
+		first.close();
+		assertFalse(Files.exists(first.file()));
+		assertEquals(20L, cache.getStats().get("bytes"));
+	}
+
+	@Test
+	void removesOnlyItsOwnOrphans() throws IOException {
+		ReportCache cache = new ReportCache(directory, 10_000, 10);
+		Path orphan = report(cache, 10);
+		Path foreign = Files.writeString(directory.resolve("notes.txt"), "keep");
+		Path subdirectory = Files.createDirectory(directory.resolve(ReportCache.FILE_PREFIX + "dir.tmp"));
+		Path live = store(cache, "a", 10);
+
+		assertEquals(1, cache.removeOrphans());
+		assertFalse(Files.exists(orphan));
+		assertTrue(Files.exists(foreign));
+		assertTrue(Files.exists(subdirectory));
+		assertTrue(Files.exists(live));
+	}
+
+	private static Path store(ReportCache cache, String key, int size) throws IOException {
+		try (ReportCache.Lease lease = cache.put(key, report(cache, size))) {
+			return lease.file();
+		}
+	}
+
+	private static Path report(ReportCache cache, int size) throws IOException {
+		Path file = cache.createTempFile();
+		Files.write(file, new byte[size]);
+		return file;
+	}
+}
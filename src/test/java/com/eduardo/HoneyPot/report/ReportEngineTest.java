@@ -0,0 +1,115 @@
+package com.eduardo.HoneyPot.report;
+
+import com.eduardo.HoneyPot.model.AttackLog;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportEngineTest {
+
+	private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+	@Test
+	void singlePassFeedsEveryAggregator() {
+		List<AttackLog> attacks = List.of(
+			attack("10.0.0.1", "TELNET", 0, "uname -a", "ps aux"),
+			attack("10.0.0.2", "SSH", 1),
+			attack("10.0.0.1", "TELNET", 5, "uname -a", "netstat -an"),
+			attack("10.0.0.3", "TELNET", 2, "uname -a"));
+
+		AtomicInteger reads = new AtomicInteger();
+		ProtocolAggregator protocols = new ProtocolAggregator();
+		IpAggregator ips = new IpAggregator();
+		CommandAggregator commands = new CommandAggregator();
+
+		long scanned = ReportEngine.scan(attacks.stream().peek(a -> reads.incrementAndGet()),
+			List.of(protocols, ips, commands));
+
+		assertEquals(4, scanned);
+		assertEquals(4, reads.get());
+
+		assertEquals(4, protocols.getTotal());
+		assertEquals(3, protocols.getCount("TELNET"));
+		assertEquals(1, protocols.getCount("SSH"));
+		assertEquals(0, protocols.getCount("FTP"));
+
+		assertEquals(3, ips.getUniqueIps());
+		assertEquals(1, ips.getRepeatedIps());
+		assertEquals(2, ips.getStats().get("10.0.0.1").getAttempts());
+		assertEquals(BASE.plusMinutes(5), ips.getStats().get("10.0.0.1").getLastAttempt());
+
+		CommandAggregator.CommandStats uname = commands.getStats().get("uname -a");
+		assertEquals(3, uname.getExecutions());
+		assertEquals(2, uname.getUniqueIps());
+		assertEquals(2, commands.countExecutions(cmd -> cmd.startsWith("ps") || cmd.startsWith("netstat")));
+	}
+
+	@Test
+	void rowWritersReceiveLogsInCursorOrder() {
+		List<String> seen = new ArrayList<>();
+		ReportEngine.scan(Stream.of(attack("a", "SSH", 0), attack("b", "SSH", 1)),
+			List.of(attack -> seen.add(attack.getSourceIp())));
+
+		assertEquals(List.of("a", "b"), seen);
+	}
+
+	@Test
+	void emptyCollectionProducesEmptyResults() {
+		ProtocolAggregator protocols = new ProtocolAggregator();
+		IpAggregator ips = new IpAggregator();
+
+		assertEquals(0, ReportEngine.scan(Stream.empty(), List.of(protocols, ips)));
+		assertEquals(0, protocols.getTotal());
+		assertTrue(protocols.getCounts().isEmpty());
+		assertEquals(0, ips.getUniqueIps());
+	}
+
+	@Test
+	void mergingPartialsMatchesASingleScan() {
+		AttackLog first = attack("10.0.0.1", "TELNET", 0, "uname -a");
+		AttackLog second = attack("10.0.0.1", "SSH", 60 * 24, "uname -a");
+		AttackLog third = attack("10.0.0.2", "TELNET", 60 * 24 + 5, "uname -a");
+
+		ProtocolAggregator protocols = new ProtocolAggregator();
+		IpAggregator ips = new IpAggregator();
+		CommandAggregator commands = new CommandAggregator();
+		ReportEngine.scan(Stream.of(first, second, third), List.of(protocols, ips, commands));
+
+		// Dois "dias" agregados separadamente e somados depois
+		ProtocolAggregator mergedProtocols = new ProtocolAggregator();
+		IpAggregator mergedIps = new IpAggregator();
+		CommandAggregator mergedCommands = new CommandAggregator();
+		for (List<AttackLog> day : List.of(List.of(first), List.of(second, third))) {
+			ProtocolAggregator dayProtocols = new ProtocolAggregator();
+			IpAggregator dayIps = new IpAggregator();
+			CommandAggregator dayCommands = new CommandAggregator();
+			ReportEngine.scan(day.stream(), List.of(dayProtocols, dayIps, dayCommands));
+			dayProtocols.getCounts().forEach(mergedProtocols::add);
+			dayIps.getStats().forEach((ip, stats) -> mergedIps.merge(ip, stats.getAttempts(), stats.getLastAttempt()));
+			dayCommands.getStats().forEach((command, stats) ->
+				mergedCommands.merge(command, stats.getExecutions(), stats.getIps()));
+		}
+
+		assertEquals(protocols.getTotal(), mergedProtocols.getTotal());
+		assertEquals(protocols.getCounts(), mergedProtocols.getCounts());
+		assertEquals(ips.getRepeatedIps(), mergedIps.getRepeatedIps());
+		assertEquals(BASE.plusMinutes(60 * 24), mergedIps.getStats().get("10.0.0.1").getLastAttempt());
+		assertEquals(3, mergedCommands.getStats().get("uname -a").getExecutions());
+		assertEquals(2, mergedCommands.getStats().get("uname -a").getUniqueIps());
+	}
+
+	private static AttackLog attack(String ip, String protocol, int minutes, String... commands) {
+		AttackLog attack = new AttackLog(ip, 23, protocol);
+		attack.setTimestamp(BASE.plusMinutes(minutes));
+		for (String command : commands) {
+			attack.addCommand(command);
+		}
+		return attack;
+	}
+}
@@ -0,0 +1,59 @@
+package com.eduardo.HoneyPot.report;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportPeriodTest {
+
+	private static final LocalDate WEDNESDAY = LocalDate.of(2025, 3, 12);
+
+	@Test
+	void previousRangesAreClosedCalendarPeriods() {
+		ReportPeriod day = ReportPeriod.previous("day", WEDNESDAY);
+		assertEquals(LocalDateTime.of(2025, 3, 11, 0, 0), day.from());
+		assertEquals(LocalDateTime.of(2025, 3, 12, 0, 0), day.to());
+
+		ReportPeriod week = ReportPeriod.previous("WEEK", WEDNESDAY);
+		assertEquals(LocalDateTime.of(2025, 3, 3, 0, 0), week.from());
+		assertEquals(LocalDateTime.of(2025, 3, 10, 0, 0), week.to());
+
+		ReportPeriod month = ReportPeriod.previous("MONTH", WEDNESDAY);
+		assertEquals(LocalDateTime.of(2025, 2, 1, 0, 0), month.from());
+		assertEquals(LocalDateTime.of(2025, 3, 1, 0, 0), month.to());
+
+		assertThrows(IllegalArgumentException.class, () -> ReportPeriod.previous("YEAR", WEDNESDAY));
+	}
+
+	@Test
+	void rejectsEmptyOrInvertedRanges() {
+		LocalDateTime now = LocalDateTime.of(2025, 3, 12, 10, 0);
+		assertThrows(IllegalArgumentException.class, () -> new ReportPeriod(now, now));
+		assertThrows(IllegalArgumentException.class, () -> new ReportPeriod(now, now.minusHours(1)));
+		assertTrue(new ReportPeriod(now, null).isBounded());
+		assertFalse(ReportPeriod.ALL.isBounded());
+	}
+
+	@Test
+	void paramsIdentifyThePeriod() {
+		assertTrue(ReportPeriod.ALL.toParams().isEmpty());
+		assertEquals(Map.of("from", "2025-03-11T00:00", "to", "2025-03-12T00:00"),
+			ReportPeriod.ofDays(WEDNESDAY.minusDays(1), WEDNESDAY.minusDays(1)).toParams());
+	}
+
+	@Test
+	void wholeDaysDefaultToYesterdayAndStopAtToday() {
+		assertEquals(ReportPeriod.ofDays(WEDNESDAY.minusDays(1), WEDNESDAY.minusDays(1)),
+			ReportPeriod.ALL.toWholeDays(WEDNESDAY));
+
+		ReportPeriod runningWeek = ReportPeriod.ofDays(WEDNESDAY.minusDays(2), WEDNESDAY.plusDays(4));
+		ReportPeriod clamped = runningWeek.toWholeDays(WEDNESDAY);
+		assertEquals(ReportPeriod.ofDays(WEDNESDAY.minusDays(2), WEDNESDAY), clamped);
+		assertTrue(clamped.includes(WEDNESDAY.atTime(12, 0)));
+		assertFalse(ReportPeriod.previous("WEEK", WEDNESDAY).toWholeDays(WEDNESDAY).includes(WEDNESDAY.atTime(12, 0)));
+	}
+}
@@ -0,0 +1,35 @@
+package com.eduardo.HoneyPot.report;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportSectionTest {
+
+	@Test
+	void blankRowsKeepTheirPosition() {
+		ReportSection section = ReportSection.builder().row("Título").blank().row("Total", 3L).build();
+
+		assertEquals(3, section.getRows().size());
+		assertTrue(section.getRows().get(1).isEmpty());
+		assertEquals(List.of("Total", 3L), section.getRows().get(2));
+	}
+
+	@Test
+	void nullCellsAreKeptAsEmpty() {
+		ReportSection section = ReportSection.builder().row("Usuário", null, 2L).build();
+
+		assertEquals(Arrays.asList("Usuário", null, 2L), section.getRows().get(0));
+	}
+
+	@Test
+	void textIsLimitedToExcelCellLength() {
+		String longText = "a".repeat(ReportSection.EXCEL_MAX_CELL_LENGTH + 10);
+
+		assertEquals(ReportSection.EXCEL_MAX_CELL_LENGTH, ReportSection.excelText(longText).length());
+		assertEquals("", ReportSection.excelText(null));
+	}
+}
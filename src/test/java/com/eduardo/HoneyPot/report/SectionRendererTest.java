@@ -0,0 +1,80 @@
+package com.eduardo.HoneyPot.report;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SectionRendererTest {
+
+	@Test
+	void returnsSectionsInRequestedOrder() {
+		List<Supplier<ReportSection>> sections = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			int index = i;
+			sections.add(() -> ReportSection.builder().row("Seção", index).build());
+		}
+
+		try (SectionRenderer renderer = new SectionRenderer(3, 30)) {
+			List<ReportSection> rendered = renderer.render(sections);
+			assertEquals(7, rendered.size());
+			for (int i = 0; i < 7; i++) {
+				assertEquals(List.of("Seção", i), rendered.get(i).getRows().get(0));
+			}
+		}
+	}
+
+	@Test
+	void independentSectionsRunConcurrently() {
+		// Cada seção só termina quando as duas estiverem em execução ao mesmo tempo
+		CountDownLatch running = new CountDownLatch(2);
+		Supplier<ReportSection> section = () -> {
+			running.countDown();
+			try {
+				assertTrue(running.await(5, TimeUnit.SECONDS));
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+			return ReportSection.builder().row(Thread.currentThread().getName()).build();
+		};
+
+		try (SectionRenderer renderer = new SectionRenderer(2, 30)) {
+			List<ReportSection> rendered = renderer.render(List.of(section, section));
+			assertNotEquals(rendered.get(0).getRows(), rendered.get(1).getRows());
+		}
+	}
+
+	@Test
+	void failureInOneSectionPropagates() {
+		try (SectionRenderer renderer = new SectionRenderer(2, 30)) {
+			IllegalStateException error = assertThrows(IllegalStateException.class, () -> renderer.render(List.of(
+				() -> ReportSection.builder().row("ok").build(),
+				() -> {
+					throw new IllegalStateException("falha na seção");
+				})));
+			// O fork-join pode reembrulhar a exceção da thread de trabalho, preservando tipo e mensagem
+			assertTrue(error.getMessage().contains("falha na seção"));
+			assertTrue(renderer.render(List.of()).isEmpty());
+		}
+	}
+
+	@Test
+	void idleThreadsAreReleased() throws InterruptedException {
+		try (SectionRenderer renderer = new SectionRenderer(2, 1)) {
+			renderer.render(List.of(
+				() -> ReportSection.builder().row("a").build(),
+				() -> ReportSection.builder().row("b").build()));
+
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (renderer.getPoolSize() > 0 && System.nanoTime() < deadline) {
+				Thread.sleep(100);
+			}
+			assertEquals(0, renderer.getPoolSize());
+		}
+	}
+}
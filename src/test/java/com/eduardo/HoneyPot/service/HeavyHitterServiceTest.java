@@ -0,0 +1,68 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.event.AttackCapturedEvent;
+import com.eduardo.HoneyPot.model.AttackLog;
+import com.eduardo.HoneyPot.model.KeyCount;
+import com.eduardo.HoneyPot.repository.AttackLogRepository;
+import com.eduardo.HoneyPot.sketch.SpaceSaving;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class HeavyHitterServiceTest {
+
+	private final AttackLogRepository repository = mock(AttackLogRepository.class);
+	private final DictionaryService dictionaryService = mock(DictionaryService.class);
+	private final HeavyHitterService service = new HeavyHitterService();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "attackLogRepository", repository);
+		ReflectionTestUtils.setField(service, "dictionaryService", dictionaryService);
+		ReflectionTestUtils.setField(service, "capacity", 10);
+		when(dictionaryService.canonical(any(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+		when(repository.streamCountsByUsername()).thenAnswer(invocation -> Stream.empty());
+		when(repository.streamCountsByPassword()).thenAnswer(invocation -> Stream.empty());
+		when(repository.streamCountsByCredential()).thenAnswer(invocation -> Stream.empty());
+		when(repository.streamCountsByCommand()).thenAnswer(invocation -> Stream.empty());
+		service.createSketches();
+	}
+
+	@Test
+	void captureDuringRebuildIsCountedOnceInTheNewSketches() {
+		// A captura chega enquanto o histórico de IPs ainda está sendo lido
+		when(repository.streamCountsBySourceIp()).thenAnswer(invocation -> Stream.of(new KeyCount("10.0.0.1", 5))
+			.peek(keyCount -> service.onAttackCaptured(started("10.0.0.2"))));
+
+		service.initialize();
+		service.onAttackCaptured(started("10.0.0.2"));
+
+		List<SpaceSaving.HeavyHitter> top = service.top(HeavyHitterService.Dimension.IP, 10);
+		assertTrue(service.isReady());
+		assertEquals("10.0.0.1", top.get(0).item());
+		assertEquals(5, top.get(0).count());
+		assertEquals(2, top.get(1).count());
+	}
+
+	@Test
+	void clearDuringRebuildDiscardsIt() {
+		when(repository.streamCountsBySourceIp()).thenAnswer(invocation -> Stream.of(new KeyCount("10.0.0.1", 5))
+			.peek(keyCount -> service.onAttackLogsCleared(null)));
+
+		service.initialize();
+
+		assertFalse(service.isReady());
+		assertTrue(service.top(HeavyHitterService.Dimension.IP, 10).isEmpty());
+	}
+
+	private static AttackCapturedEvent started(String ip) {
+		return new AttackCapturedEvent(new AttackLog(ip, 22, "SSH"), AttackCapturedEvent.Type.SESSION_STARTED);
+	}
+}
@@ -0,0 +1,135 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.event.AttackCapturedEvent;
+import com.eduardo.HoneyPot.model.AttackLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class LivePushServiceTest {
+
+	private final LivePushService service = new LivePushService();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper().registerModule(new JavaTimeModule()));
+		ReflectionTestUtils.setField(service, "liveStatisticsService", mock(LiveStatisticsService.class));
+		ReflectionTestUtils.setField(service, "maxClients", 3);
+		ReflectionTestUtils.setField(service, "queueSize", 100);
+		ReflectionTestUtils.setField(service, "sendThreads", 2);
+		ReflectionTestUtils.setField(service, "sendTimeoutMs", 2000L);
+		service.initialize();
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void concurrentSubscribesNeverExceedTheLimit() throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger accepted = new AtomicInteger();
+		List<CompletableFuture<Void>> attempts = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			attempts.add(CompletableFuture.runAsync(() -> {
+				try {
+					start.await();
+					service.subscribe();
+					accepted.incrementAndGet();
+				} catch (IllegalStateException | InterruptedException e) {
+					// limite atingido
+				}
+			}));
+		}
+		start.countDown();
+		CompletableFuture.allOf(attempts.toArray(CompletableFuture[]::new)).join();
+
+		assertEquals(3, accepted.get());
+		assertEquals(3, service.getClientCount());
+	}
+
+	@Test
+	void credentialsAndSessionEndAreSentAsRowUpdates() {
+		RecordingEmitter client = connect(new RecordingEmitter());
+		AttackLog attackLog = new AttackLog("10.0.0.1", 22, "SSH");
+		attackLog.setId("abc");
+
+		service.onAttackCaptured(new AttackCapturedEvent(attackLog, AttackCapturedEvent.Type.SESSION_STARTED));
+		attackLog.setUsername("root");
+		attackLog.setPassword("123456");
+		service.onAttackCaptured(new AttackCapturedEvent(attackLog, AttackCapturedEvent.Type.CREDENTIALS_CAPTURED));
+		service.onAttackCaptured(new AttackCapturedEvent(attackLog, AttackCapturedEvent.Type.SESSION_ENDED));
+		service.publish();
+
+		assertEquals(List.of("capture", "update", "update", "stats"), client.eventNames());
+		assertTrue(client.messages.get(1).contains("\"username\":\"root\""));
+	}
+
+	@Test
+	void eventsWithoutClientsAreNotQueued() {
+		service.onAttackCaptured(new AttackCapturedEvent(new AttackLog("10.0.0.1", 22, "SSH"),
+			AttackCapturedEvent.Type.SESSION_STARTED));
+		RecordingEmitter client = connect(new RecordingEmitter());
+		service.publish();
+
+		assertTrue(client.messages.isEmpty());
+	}
+
+	@Test
+	void failingClientIsDroppedWithoutAffectingTheOthers() {
+		RecordingEmitter healthy = connect(new RecordingEmitter());
+		connect(new RecordingEmitter() {
+			@Override
+			public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+				throw new IOException("conexão fechada");
+			}
+		});
+
+		service.onAttackCaptured(new AttackCapturedEvent(new AttackLog("10.0.0.1", 23, "TELNET"),
+			AttackCapturedEvent.Type.SESSION_STARTED));
+		service.publish();
+
+		assertEquals(List.of("capture", "stats"), healthy.eventNames());
+		assertEquals(1, service.getClientCount());
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T extends SseEmitter> T connect(T emitter) {
+		((List<SseEmitter>) ReflectionTestUtils.getField(service, "clients")).add(emitter);
+		return emitter;
+	}
+
+	private static class RecordingEmitter extends SseEmitter {
+
+		final List<String> messages = new ArrayList<>();
+
+		@Override
+		public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+			StringBuilder message = new StringBuilder();
+			items.forEach(item -> message.append(item.getData()));
+			messages.add(message.toString());
+		}
+
+		List<String> eventNames() {
+			return messages.stream()
+				.map(message -> message.substring("event:".length(), message.indexOf('\n')))
+				.toList();
+		}
+	}
+}
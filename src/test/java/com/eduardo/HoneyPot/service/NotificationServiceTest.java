@@ -0,0 +1,113 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.model.Notification;
+import com.eduardo.HoneyPot.repository.NotificationRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class NotificationServiceTest {
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final NotificationService service = new NotificationService(mock(NotificationRepository.class), mongoTemplate,
+		mock(ApplicationEventPublisher.class));
+
+	@Test
+	void everyFilterAndSortShapeHasAnIndex() {
+		List<String> keys = NotificationService.listingIndexes().stream()
+			.map(Index::getIndexKeys)
+			.map(Document::keySet)
+			.map(fields -> String.join(",", fields))
+			.toList();
+
+		assertTrue(keys.contains("timestamp,_id"));
+		assertTrue(keys.contains("priority,_id"));
+		assertTrue(keys.contains("read,_id"));
+		assertTrue(keys.contains("type,priority,_id"));
+		assertTrue(keys.contains("category,read,_id"));
+		assertTrue(keys.contains("type,category,timestamp,_id"));
+		// Ordenar pelo próprio campo filtrado só depende do _id depois do filtro
+		assertTrue(keys.contains("type,category,_id"));
+		assertEquals(keys.size(), keys.stream().distinct().count());
+	}
+
+	@Test
+	void cursorContinuesAfterTheLastNotificationOfThePage() {
+		LocalDateTime last = LocalDateTime.of(2026, 1, 10, 12, 30);
+		when(mongoTemplate.find(any(Query.class), eq(Notification.class))).thenReturn(List.of(
+			notification("n3", last.plusMinutes(2), 2),
+			notification("n2", last, 3),
+			notification("n1", last.minusMinutes(5), 1)));
+
+		Map<String, Object> firstPage = service.getNotificationsAfter(null, 2, "ALERT", null, "timestamp", "desc");
+		assertEquals(true, firstPage.get("hasMore"));
+		assertEquals(2, ((List<?>) firstPage.get("notifications")).size());
+
+		service.getNotificationsAfter((String) firstPage.get("nextCursor"), 2, "ALERT", null, "timestamp", "desc");
+
+		Document filter = lastQuery().getQueryObject();
+		assertEquals("ALERT", filter.get("type"));
+		// (timestamp, _id) estritamente depois de (last, n2) na ordem decrescente
+		List<?> branches = (List<?>) filter.get("$or");
+		assertEquals(new Document("timestamp", new Document("$lt", last)), branches.get(0));
+		assertEquals(new Document("$and", List.of(new Document("timestamp", last), new Document("id", new Document("$lt", "n2")))),
+			branches.get(1));
+	}
+
+	@Test
+	void cursorKeepsTheSortValueType() {
+		when(mongoTemplate.find(any(Query.class), eq(Notification.class))).thenReturn(List.of(
+			notification("n2", LocalDateTime.now(), 4),
+			notification("n1", LocalDateTime.now(), 3)));
+
+		String cursor = (String) service.getNotificationsAfter(null, 1, null, null, "priority", "asc").get("nextCursor");
+		service.getNotificationsAfter(cursor, 1, null, null, "priority", "asc");
+
+		List<?> branches = (List<?>) lastQuery().getQueryObject().get("$or");
+		assertEquals(new Document("priority", new Document("$gt", 4)), branches.get(0));
+	}
+
+	@Test
+	void cursorIsRejectedForAnotherSortOrFilter() {
+		when(mongoTemplate.find(any(Query.class), eq(Notification.class))).thenReturn(List.of(
+			notification("n2", LocalDateTime.now(), 2),
+			notification("n1", LocalDateTime.now(), 2)));
+		String cursor = (String) service.getNotificationsAfter(null, 1, "ALERT", null, "timestamp", "desc").get("nextCursor");
+
+		assertThrows(IllegalArgumentException.class,
+			() -> service.getNotificationsAfter(cursor, 1, "ALERT", null, "timestamp", "asc"));
+		assertThrows(IllegalArgumentException.class,
+			() -> service.getNotificationsAfter(cursor, 1, "ALERT", null, "priority", "desc"));
+		assertThrows(IllegalArgumentException.class,
+			() -> service.getNotificationsAfter(cursor, 1, "INFO", null, "timestamp", "desc"));
+		assertThrows(IllegalArgumentException.class,
+			() -> service.getNotificationsAfter("não é base64!", 1, "ALERT", null, "timestamp", "desc"));
+	}
+
+	private Query lastQuery() {
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate, atLeastOnce()).find(query.capture(), eq(Notification.class));
+		return query.getValue();
+	}
+
+	private static Notification notification(String id, LocalDateTime timestamp, int priority) {
+		Notification notification = new Notification("ALERT", "SECURITY", "Título", "Mensagem");
+		notification.setId(id);
+		notification.setTimestamp(timestamp);
+		notification.setPriority(priority);
+		return notification;
+	}
+}
@@ -0,0 +1,154 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.event.NotificationCreatedEvent;
+import com.eduardo.HoneyPot.report.ReportPeriod;
+import com.eduardo.HoneyPot.report.ReportProgress;
+import com.eduardo.HoneyPot.report.ReportType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ReportCacheServiceTest {
+
+	private static final byte[] CONTENT = "relatorio".repeat(1000).getBytes(StandardCharsets.UTF_8);
+
+	@TempDir
+	Path directory;
+
+	private final ReportService reportService = mock(ReportService.class);
+	private final ReportCacheService service = new ReportCacheService();
+	private final AtomicInteger generations = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() throws IOException {
+		ReflectionTestUtils.setField(service, "reportService", reportService);
+		ReflectionTestUtils.setField(service, "mongoTemplate", mock(MongoTemplate.class));
+		ReflectionTestUtils.setField(service, "directoryPath", directory.toString());
+		ReflectionTestUtils.setField(service, "maxBytes", 1L << 20);
+		ReflectionTestUtils.setField(service, "maxEntries", 10);
+		ReflectionTestUtils.setField(service, "versionIntervalMs", 0L);
+		service.initialize();
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void clientDisconnectStillCachesTheReport() throws IOException {
+		generateWith(null);
+
+		assertThrows(IOException.class, () -> service.write(ReportType.STATISTICS_EXCEL, ReportPeriod.ALL, new DisconnectingStream()));
+
+		ByteArrayOutputStream second = new ByteArrayOutputStream();
+		service.write(ReportType.STATISTICS_EXCEL, ReportPeriod.ALL, second);
+		assertArrayEquals(CONTENT, second.toByteArray());
+		assertEquals(1, generations.get());
+	}
+
+	@Test
+	void waiterGetsTheReportWhenTheGeneratingClientDisconnects() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		generateWith(() -> {
+			started.countDown();
+			release.await(5, TimeUnit.SECONDS);
+		});
+
+		CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+			try {
+				service.write(ReportType.STATISTICS_EXCEL, ReportPeriod.ALL, new DisconnectingStream());
+			} catch (IOException e) {
+				// cliente desconectado
+			}
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		ByteArrayOutputStream waiter = new ByteArrayOutputStream();
+		CompletableFuture<Void> second = CompletableFuture.runAsync(() -> {
+			try {
+				service.write(ReportType.STATISTICS_EXCEL, ReportPeriod.ALL, waiter);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		Thread.sleep(100);
+		release.countDown();
+
+		first.get(5, TimeUnit.SECONDS);
+		second.get(5, TimeUnit.SECONDS);
+		assertArrayEquals(CONTENT, waiter.toByteArray());
+		assertEquals(1, generations.get());
+	}
+
+	@Test
+	void consolidatedReportFollowsNotificationChanges() throws IOException {
+		generateWith(null);
+
+		service.write(ReportType.CONSOLIDATED_EXCEL, ReportPeriod.ALL, new ByteArrayOutputStream());
+		service.write(ReportType.CONSOLIDATED_EXCEL, ReportPeriod.ALL, new ByteArrayOutputStream());
+		assertEquals(1, generations.get());
+
+		service.onNotificationCreated(new NotificationCreatedEvent(null));
+		service.write(ReportType.CONSOLIDATED_EXCEL, ReportPeriod.ALL, new ByteArrayOutputStream());
+		assertEquals(2, generations.get());
+	}
+
+	private void generateWith(Pause pause) throws IOException {
+		doAnswer(invocation -> {
+			generations.incrementAndGet();
+			if (pause != null) {
+				pause.await();
+			}
+			OutputStream out = invocation.getArgument(2);
+			out.write(CONTENT, 0, CONTENT.length / 2);
+			out.flush();
+			out.write(CONTENT, CONTENT.length / 2, CONTENT.length - CONTENT.length / 2);
+			return null;
+		}).when(reportService).writeReport(any(), eq(ReportPeriod.ALL), any(), any(ReportProgress.class));
+	}
+
+	@FunctionalInterface
+	private interface Pause {
+		void await() throws InterruptedException;
+	}
+
+	// Cliente que fecha a conexão depois dos primeiros bytes
+	private static class DisconnectingStream extends OutputStream {
+
+		private int written;
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] {(byte) b}, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (written > 0) {
+				throw new IOException("Broken pipe");
+			}
+			written += len;
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.event.AttackCapturedEvent;
+import com.eduardo.HoneyPot.model.AttackLog;
+import com.eduardo.HoneyPot.model.AttackRollup;
+import com.eduardo.HoneyPot.model.RollupResolution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RollupServiceTest {
+
+	private static final LocalDateTime HOUR = LocalDateTime.of(2026, 3, 1, 10, 0);
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final BulkOperations bulk = mock(BulkOperations.class);
+	private final RollupService service = new RollupService();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+		ReflectionTestUtils.setField(service, "trackIps", true);
+		ReflectionTestUtils.setField(service, "minuteRetentionDays", 7);
+		when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(AttackRollup.class))).thenReturn(bulk);
+		when(mongoTemplate.find(any(Query.class), eq(AttackRollup.class))).thenReturn(List.of());
+	}
+
+	@Test
+	void pendingCapturesAreAddedToStoredBuckets() {
+		AttackRollup stored = new AttackRollup();
+		stored.setBucketStart(HOUR);
+		stored.setTotal(10);
+		stored.setProtocols(Map.of("SSH", 7L, "TELNET", 3L));
+		stored.setIps(Map.of("10_0_0_1", 4L));
+		when(mongoTemplate.find(any(Query.class), eq(AttackRollup.class))).thenReturn(List.of(stored));
+
+		capture("10.0.0.1", "SSH", HOUR.plusMinutes(5));
+		capture("10.0.0.2", "TELNET", HOUR.plusMinutes(50));
+
+		assertEquals(List.of(12L, 0L), counts(null, null));
+		assertEquals(List.of(8L, 0L), counts("SSH", null));
+		assertEquals(List.of(5L, 0L), counts(null, "10.0.0.1"));
+	}
+
+	@Test
+	void flushedCapturesLeaveTheBuffer() {
+		capture("10.0.0.1", "SSH", HOUR.plusMinutes(5));
+
+		service.flush();
+
+		verify(bulk).execute();
+		assertEquals(List.of(0L, 0L), counts(null, null));
+	}
+
+	@Test
+	void failedFlushIsMergedWithNewCaptures() {
+		when(bulk.execute()).thenThrow(new IllegalStateException("MongoDB indisponível"));
+		capture("10.0.0.1", "SSH", HOUR.plusMinutes(5));
+		capture("10.0.0.1", "SSH", HOUR.plusMinutes(70));
+
+		service.flush();
+		capture("10.0.0.1", "TELNET", HOUR.plusMinutes(10));
+
+		assertEquals(List.of(2L, 1L), counts(null, null));
+		assertEquals(List.of(1L, 1L), counts("SSH", null));
+		assertEquals(List.of(2L, 1L), counts(null, "10.0.0.1"));
+	}
+
+	@Test
+	void onlySessionStartsAreCounted() {
+		AttackLog attackLog = new AttackLog("10.0.0.1", 22, "SSH");
+		attackLog.setTimestamp(HOUR.plusMinutes(1));
+		service.onAttackCaptured(new AttackCapturedEvent(attackLog, AttackCapturedEvent.Type.SESSION_STARTED));
+		service.onAttackCaptured(new AttackCapturedEvent(attackLog, AttackCapturedEvent.Type.SESSION_ENDED));
+
+		assertEquals(List.of(1L, 0L), counts(null, null));
+	}
+
+	private void capture(String ip, String protocol, LocalDateTime timestamp) {
+		AttackLog attackLog = new AttackLog(ip, 22, protocol);
+		attackLog.setTimestamp(timestamp);
+		service.onAttackCaptured(new AttackCapturedEvent(attackLog, AttackCapturedEvent.Type.SESSION_STARTED));
+	}
+
+	// Duas horas a partir de HOUR
+	private List<Long> counts(String protocol, String ip) {
+		return List.copyOf(service.getTimeline(HOUR, HOUR.plusHours(2), RollupResolution.HOUR, protocol, ip).counts().values());
+	}
+}
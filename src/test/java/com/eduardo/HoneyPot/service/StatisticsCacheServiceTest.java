@@ -0,0 +1,104 @@
+package com.eduardo.HoneyPot.service;
+
+import com.eduardo.HoneyPot.event.AttackCapturedEvent;
+import com.eduardo.HoneyPot.model.AttackLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatisticsCacheServiceTest {
+
+	private static final StatisticsCacheService.CachedEndpoint ENDPOINT = StatisticsCacheService.CachedEndpoint.GENERAL;
+
+	private StatisticsCacheService cache;
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		cache = new StatisticsCacheService(new SimpleMeterRegistry(), new MockEnvironment(), 10);
+		ReflectionTestUtils.setField(cache, "enabled", true);
+		ReflectionTestUtils.setField(cache, "minAgeMillis", 0L);
+	}
+
+	@Test
+	void servesRepeatedRequestsFromCache() {
+		assertEquals(1, cache.get(ENDPOINT, "", this::load).get("load"));
+		assertEquals(1, cache.get(ENDPOINT, "", this::load).get("load"));
+		assertEquals(2, cache.get(ENDPOINT, "outro", this::load).get("load"));
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	void captureInvalidatesOnlyAffectedEndpoints() {
+		cache.get(ENDPOINT, "", this::load);
+		cache.get(StatisticsCacheService.CachedEndpoint.TOP_CREDENTIALS, "", this::load);
+
+		cache.onAttackCaptured(new AttackCapturedEvent(new AttackLog("10.0.0.1", 22, "SSH"),
+			AttackCapturedEvent.Type.SESSION_STARTED));
+
+		assertEquals(3, cache.get(ENDPOINT, "", this::load).get("load"));
+		assertEquals(2, cache.get(StatisticsCacheService.CachedEndpoint.TOP_CREDENTIALS, "", this::load).get("load"));
+	}
+
+	@Test
+	void concurrentMissesShareOneComputation() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Map<String, Object>> first = CompletableFuture.supplyAsync(
+			() -> cache.get(ENDPOINT, "", () -> blockingLoad(started, release)));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		CompletableFuture<Map<String, Object>> second = CompletableFuture.supplyAsync(
+			() -> cache.get(ENDPOINT, "", this::load));
+		waitForWaiter();
+		release.countDown();
+
+		assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void computationRunningDuringInvalidationIsNotStored() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Map<String, Object>> running = CompletableFuture.supplyAsync(
+			() -> cache.get(ENDPOINT, "", () -> blockingLoad(started, release)));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		cache.invalidateAll();
+		release.countDown();
+
+		assertEquals(1, running.get(5, TimeUnit.SECONDS).get("load"));
+		assertEquals(0, cache.size());
+		assertEquals(2, cache.get(ENDPOINT, "", this::load).get("load"));
+	}
+
+	private Map<String, Object> load() {
+		return Map.of("load", loads.incrementAndGet());
+	}
+
+	private Map<String, Object> blockingLoad(CountDownLatch started, CountDownLatch release) {
+		started.countDown();
+		try {
+			release.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return load();
+	}
+
+	// A segunda chamada não tem como sinalizar que já está aguardando: dá tempo para ela chegar ao join
+	private static void waitForWaiter() throws InterruptedException {
+		Thread.sleep(100);
+	}
+}
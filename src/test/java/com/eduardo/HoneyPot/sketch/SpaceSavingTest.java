@@ -0,0 +1,44 @@
+package com.eduardo.HoneyPot.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingTest {
+
+	@Test
+	void exactWhileUnderCapacity() {
+		SpaceSaving sketch = new SpaceSaving(10);
+		for (int i = 0; i < 5; i++) sketch.add("root");
+		for (int i = 0; i < 3; i++) sketch.add("admin");
+		sketch.add("test");
+
+		List<SpaceSaving.HeavyHitter> top = sketch.top(2);
+		assertEquals("root", top.get(0).item());
+		assertEquals(5, top.get(0).count());
+		assertEquals(0, top.get(0).error());
+		assertEquals("admin", top.get(1).item());
+		assertTrue(top.get(1).guaranteed());
+		assertEquals(0, sketch.maxError());
+	}
+
+	@Test
+	void heavyHittersSurviveDictionaryNoise() {
+		SpaceSaving sketch = new SpaceSaving(50);
+		for (int i = 0; i < 10_000; i++) {
+			sketch.add("password-" + i);   // ruído com itens únicos
+			if (i % 10 == 0) sketch.add("123456");
+			if (i % 20 == 0) sketch.add("admin");
+		}
+
+		List<SpaceSaving.HeavyHitter> top = sketch.top(2);
+		assertEquals("123456", top.get(0).item());
+		assertEquals("admin", top.get(1).item());
+		// A contagem real está sempre entre o limite inferior e a contagem estimada
+		assertTrue(top.get(0).lowerBound() <= 1000 && 1000 <= top.get(0).count());
+		assertTrue(sketch.maxError() <= sketch.getTotal() / sketch.getCapacity());
+		assertEquals(50, sketch.size());
+	}
+}
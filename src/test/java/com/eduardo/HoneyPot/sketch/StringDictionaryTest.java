@@ -0,0 +1,55 @@
+package com.eduardo.HoneyPot.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringDictionaryTest {
+
+	@Test
+	void repeatedValuesShareCodeAndInstance() {
+		StringDictionary dictionary = new StringDictionary(10);
+		String first = new String("root");
+		String second = new String("root");
+
+		int code = dictionary.encode(first);
+		assertEquals(code, dictionary.encode(second));
+		assertEquals("root", dictionary.decode(code));
+		assertSame(first, dictionary.canonical(second));
+		assertEquals(1, dictionary.getDeduplicated());
+		assertEquals(StringDictionary.stringBytes(second), dictionary.getDeduplicatedBytes());
+		assertTrue(dictionary.getRetainedBytes() > StringDictionary.stringBytes(first));
+	}
+
+	@Test
+	void evictsEntriesNotUsedSinceLastPass() {
+		StringDictionary dictionary = new StringDictionary(2);
+		int root = dictionary.encode("root");
+		dictionary.encode("admin");
+		dictionary.lookup("root");
+
+		int code = dictionary.encode("123456");
+		assertEquals(2, dictionary.size());
+		assertEquals(1, dictionary.getEvicted());
+		assertEquals(root, dictionary.lookup("root"));
+		assertEquals(StringDictionary.NO_CODE, dictionary.lookup("admin"));
+		assertEquals("123456", dictionary.decode(code));
+		assertNotEquals(1, dictionary.encode("admin"));
+	}
+
+	@Test
+	void reportsLayoutSizeOfStrings() {
+		assertEquals(24 + 24, StringDictionary.stringBytes("root"));
+		assertEquals(24 + 24, StringDictionary.stringBytes("senha\u00e7"));
+		assertEquals(24 + 32, StringDictionary.stringBytes("\u4e2d\u6587\u5bc6\u7801\u6d4b\u8bd5\u0031"));
+	}
+
+	@Test
+	void restoredCodesAreStable() {
+		StringDictionary dictionary = new StringDictionary(100);
+		dictionary.restore(70, "SSH-2.0-OpenSSH_8.2p1");
+
+		assertEquals(70, dictionary.lookup("SSH-2.0-OpenSSH_8.2p1"));
+		assertEquals(71, dictionary.encode("Ubuntu 20.04 LTS"));
+	}
+}